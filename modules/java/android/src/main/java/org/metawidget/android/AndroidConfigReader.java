@@ -12,10 +12,12 @@
 package org.metawidget.android;
 
 import java.io.InputStream;
+import java.util.Map;
 
 import org.metawidget.config.iface.ResourceResolver;
 import org.metawidget.config.impl.BaseConfigReader;
 import org.metawidget.iface.MetawidgetException;
+import org.metawidget.util.CollectionUtils;
 
 import android.content.Context;
 import android.content.res.Resources;
@@ -36,40 +38,58 @@ public class AndroidConfigReader
 	// Private members
 	//
 
-	private Context	mContext;
+	private Context										mContext;
+
+	/**
+	 * Cache of looked up classes, indexed by ClassLoader and then by name. Classes that could not be
+	 * found are cached as <code>null</code>, so that repeated misses (eg. when probing for inner
+	 * classes) do not repeatedly hit the ClassLoader.
+	 */
+
+	private final Map<ClassLoader, Map<String, Class<?>>>	mClassCache	= CollectionUtils.newWeakHashMap();
 
 	//
 	// Constructor
 	//
 
-	public AndroidConfigReader( final Context context ) {
+	public AndroidConfigReader( Context context ) {
 
-		super( new ResourceResolver() {
+		this( context, new ContextResourceResolver( context ) );
+	}
 
-			/**
-			 * Overridden to try <code>Context.getResources</code> first.
-			 * <p>
-			 * Resource strings should be of the form <code>@com.foo:raw/metawidget_metadata</code>.
-			 */
+	/**
+	 * @param resourceResolver
+	 *            ResourceResolver to use to open resources. This is useful for unit tests, which
+	 *            cannot easily construct a <code>Context</code>
+	 */
 
-			public InputStream openResource( String resource ) {
+	public AndroidConfigReader( Context context, ResourceResolver resourceResolver ) {
 
-				if ( !resource.startsWith( "@" ) ) {
-					throw MetawidgetException.newException( "Resource name does not start with '@': " + resource );
-				}
+		super( resourceResolver );
 
-				Resources resources = context.getResources();
-				int id = resources.getIdentifier( resource, null, null );
+		mContext = context;
+	}
 
-				if ( id == 0 ) {
-					throw MetawidgetException.newException( "Resource.getIdentifier returns 0 for " + resource );
-				}
+	//
+	// Public methods
+	//
 
-				return resources.openRawResource( id );
-			}
-		} );
+	/**
+	 * Read configuration from a raw resource.
+	 * <p>
+	 * Unlike calling <code>configure( InputStream, Object )</code> with
+	 * <code>Resources.openRawResource</code>, this version only opens and parses the resource the
+	 * first time. Subsequent calls (typically from subsequent <code>AndroidMetawidget</code>
+	 * instances, which all share the same default <code>AndroidConfigReader</code>) replay the
+	 * cached parse and reuse the same, immutable Inspectors, WidgetBuilders and Layouts.
+	 *
+	 * @param resourceId
+	 *            the id of the raw resource (eg. <code>R.raw.metawidget</code>)
+	 */
 
-		mContext = context;
+	public Object configure( int resourceId, Object toConfigure, String... names ) {
+
+		return configure( String.valueOf( resourceId ), toConfigure, names );
 	}
 
 	//
@@ -99,4 +119,85 @@ public class AndroidConfigReader
 
 		return super.createNative( name, namespace, recordedText );
 	}
+
+	/**
+	 * Overridden to cache lookups, as <code>Class.forName</code> is expensive on a device.
+	 */
+
+	@Override
+	protected Class<?> lookupClass( String className, ClassLoader classLoader ) {
+
+		synchronized ( mClassCache ) {
+
+			Map<String, Class<?>> classesForLoader = mClassCache.get( classLoader );
+
+			if ( classesForLoader == null ) {
+				classesForLoader = CollectionUtils.newHashMap();
+				mClassCache.put( classLoader, classesForLoader );
+			}
+
+			if ( classesForLoader.containsKey( className ) ) {
+				return classesForLoader.get( className );
+			}
+
+			Class<?> clazz = super.lookupClass( className, classLoader );
+			classesForLoader.put( className, clazz );
+
+			return clazz;
+		}
+	}
+
+	//
+	// Inner class
+	//
+
+	/**
+	 * Resolves resources using <code>Context.getResources</code>.
+	 * <p>
+	 * Resource strings should either be of the form <code>@com.foo:raw/metawidget_metadata</code>,
+	 * or be a resource id.
+	 */
+
+	private static class ContextResourceResolver
+		implements ResourceResolver {
+
+		//
+		// Private members
+		//
+
+		private Context	mContext;
+
+		//
+		// Constructor
+		//
+
+		public ContextResourceResolver( Context context ) {
+
+			mContext = context;
+		}
+
+		//
+		// Public methods
+		//
+
+		public InputStream openResource( String resource ) {
+
+			if ( resource.length() > 0 && Character.isDigit( resource.charAt( 0 ) ) ) {
+				return mContext.getResources().openRawResource( Integer.parseInt( resource ) );
+			}
+
+			if ( !resource.startsWith( "@" ) ) {
+				throw MetawidgetException.newException( "Resource name does not start with '@': " + resource );
+			}
+
+			Resources resources = mContext.getResources();
+			int id = resources.getIdentifier( resource, null, null );
+
+			if ( id == 0 ) {
+				throw MetawidgetException.newException( "Resource.getIdentifier returns 0 for " + resource );
+			}
+
+			return resources.openRawResource( id );
+		}
+	}
 }
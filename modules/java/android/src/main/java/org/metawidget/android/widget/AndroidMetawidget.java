@@ -723,7 +723,7 @@ public class AndroidMetawidget
 				mPipeline.setInspector( DEFAULT_INSPECTOR );
 			}
 
-			if ( mPipeline.getInspectionResultProcessors() == null ) {
+			if ( mPipeline.getReadOnlyInspectionResultProcessors() == null ) {
 				if ( DEFAULT_INSPECTIONRESULTPROCESSORS == null ) {
 					DEFAULT_INSPECTIONRESULTPROCESSORS = new InspectionResultProcessor[] { new ComesAfterInspectionResultProcessor<AndroidMetawidget>() };
 				}
@@ -740,7 +740,7 @@ public class AndroidMetawidget
 				setWidgetBuilder( DEFAULT_WIDGETBUILDER );
 			}
 
-			if ( mPipeline.getWidgetProcessors() == null ) {
+			if ( mPipeline.getReadOnlyWidgetProcessors() == null ) {
 				if ( DEFAULT_WIDGETPROCESSORS == null ) {
 					DEFAULT_WIDGETPROCESSORS = new WidgetProcessor[] { new SimpleBindingProcessor(), new ReflectionBindingProcessor(), new DisabledAttributeProcessor() };
 				}
@@ -995,8 +995,19 @@ public class AndroidMetawidget
 		protected void configure() {
 
 			try {
-				if ( getConfig() != null ) {
-					getConfigReader().configure( getContext().getResources().openRawResource( (Integer) getConfig() ), AndroidMetawidget.this );
+				Integer config = (Integer) getConfig();
+
+				if ( config != null ) {
+					ConfigReader configReader = getConfigReader();
+
+					// Configure by resource id where possible, so that the parsed XML (and its
+					// immutable objects) are cached across AndroidMetawidget instances
+
+					if ( configReader instanceof AndroidConfigReader ) {
+						( (AndroidConfigReader) configReader ).configure( config, AndroidMetawidget.this );
+					} else {
+						configReader.configure( getContext().getResources().openRawResource( config ), AndroidMetawidget.this );
+					}
 				}
 
 				AndroidMetawidget.this.configureDefaults();
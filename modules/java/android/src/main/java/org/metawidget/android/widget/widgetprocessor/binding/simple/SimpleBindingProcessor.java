@@ -26,8 +26,8 @@ import org.metawidget.android.widget.AndroidMetawidget;
 import org.metawidget.android.widget.widgetprocessor.binding.BindingConverter;
 import org.metawidget.util.ClassUtils;
 import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.PropertyPath;
 import org.metawidget.util.WidgetBuilderUtils;
-import org.metawidget.util.simple.PathUtils;
 import org.metawidget.util.simple.StringUtils;
 import org.metawidget.widgetprocessor.iface.AdvancedWidgetProcessor;
 import org.metawidget.widgetprocessor.iface.WidgetProcessorException;
@@ -146,11 +146,8 @@ public class SimpleBindingProcessor
 			path += StringUtils.SEPARATOR_FORWARD_SLASH_CHAR + attributes.get( NAME );
 		}
 
-		String[] names = PathUtils.parsePath( path ).getNamesAsArray();
-
-		for ( String name : names ) {
-			value = ClassUtils.getProperty( value, name );
-		}
+		PropertyPath propertyPath = PropertyPath.fromPath( path );
+		value = propertyPath.getValue( value );
 
 		// ...convert it (if necessary)...
 
@@ -179,7 +176,7 @@ public class SimpleBindingProcessor
 				state.bindings = new HashSet<Object[]>();
 			}
 
-			state.bindings.add( new Object[] { view, names, converter, propertyType } );
+			state.bindings.add( new Object[] { view, propertyPath, converter, propertyType } );
 		} catch ( Exception e ) {
 			throw WidgetProcessorException.newException( e );
 		}
@@ -204,7 +201,7 @@ public class SimpleBindingProcessor
 
 			for ( Object[] binding : state.bindings ) {
 				View view = (View) binding[0];
-				String[] names = (String[]) binding[1];
+				PropertyPath propertyPath = (PropertyPath) binding[1];
 				@SuppressWarnings( "unchecked" )
 				Converter<Object> converter = (Converter<Object>) binding[2];
 				Class<?> propertyType = (Class<?>) binding[3];
@@ -221,18 +218,9 @@ public class SimpleBindingProcessor
 
 				// ...and set it
 
-				Object parent = toSave;
-				int length = names.length;
-
-				for ( int loop = 0; loop < length - 1; loop++ ) {
-					parent = ClassUtils.getProperty( parent, names[loop] );
-
-					if ( parent == null ) {
-						return;
-					}
+				if ( !propertyPath.setValue( toSave, value ) ) {
+					return;
 				}
-
-				ClassUtils.setProperty( parent, names[length - 1], value );
 			}
 		}
 
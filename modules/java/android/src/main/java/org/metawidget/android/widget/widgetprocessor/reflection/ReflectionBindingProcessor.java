@@ -20,10 +20,9 @@ import java.util.Set;
 
 import org.metawidget.android.widget.AndroidMetawidget;
 import org.metawidget.android.widget.Stub;
-import org.metawidget.util.ClassUtils;
 import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.PropertyPath;
 import org.metawidget.util.WidgetBuilderUtils;
-import org.metawidget.util.simple.PathUtils;
 import org.metawidget.widgetprocessor.iface.AdvancedWidgetProcessor;
 import org.metawidget.widgetprocessor.iface.WidgetProcessorException;
 
@@ -140,11 +139,11 @@ public class ReflectionBindingProcessor
 		// Private members
 		//
 
-		private Object		mBindTo;
+		private Object			mBindTo;
 
-		private String[]	mNames;
+		private PropertyPath	mPropertyPath;
 
-		private Method		mAction;
+		private Method			mAction;
 
 		//
 		// Constructor
@@ -158,19 +157,14 @@ public class ReflectionBindingProcessor
 				return;
 			}
 
-			mNames = PathUtils.parsePath( path ).getNamesAsArray();
+			mPropertyPath = PropertyPath.fromPath( path );
 
 			// Traverse to the last Object
 
-			Object traverse = mBindTo;
+			Object traverse = mPropertyPath.getValue( mBindTo );
 
-			for ( String subName : mNames ) {
-
-				if ( traverse == null ) {
-					return;
-				}
-
-				traverse = ClassUtils.getProperty( traverse, subName );
+			if ( traverse == null ) {
+				return;
 			}
 
 			try {
@@ -186,15 +180,10 @@ public class ReflectionBindingProcessor
 
 		public void onClick( View viewClicked ) {
 
-			Object traverse = mBindTo;
+			Object traverse = mPropertyPath.getValue( mBindTo );
 
-			for ( String name : mNames ) {
-
-				if ( traverse == null ) {
-					return;
-				}
-
-				traverse = ClassUtils.getProperty( traverse, name );
+			if ( traverse == null ) {
+				return;
 			}
 
 			try {
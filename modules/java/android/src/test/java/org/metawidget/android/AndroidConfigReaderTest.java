@@ -11,9 +11,15 @@
 
 package org.metawidget.android;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
 import junit.framework.TestCase;
 
+import org.metawidget.config.iface.ResourceResolver;
 import org.metawidget.iface.MetawidgetException;
+import org.metawidget.inspector.composite.CompositeInspector;
+import org.metawidget.inspector.iface.Inspector;
 
 /**
  * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
@@ -39,4 +45,52 @@ public class AndroidConfigReaderTest
 			assertEquals( "Resource name does not start with '@': foo", e.getMessage() );
 		}
 	}
+
+	public void testConfigureByResourceId() {
+
+		String xml = "<?xml version=\"1.0\"?>";
+		xml += "<metawidget>";
+		xml += "	<compositeInspector xmlns=\"java:org.metawidget.inspector.composite\" config=\"CompositeInspectorConfig\">";
+		xml += "		<inspectors>";
+		xml += "			<array>";
+		xml += "				<propertyTypeInspector xmlns=\"java:org.metawidget.inspector.propertytype\"/>";
+		xml += "			</array>";
+		xml += "		</inspectors>";
+		xml += "	</compositeInspector>";
+		xml += "</metawidget>";
+
+		final byte[] bytes = xml.getBytes();
+		final int[] opened = new int[1];
+
+		AndroidConfigReader androidConfigReader = new AndroidConfigReader( null, new ResourceResolver() {
+
+			public InputStream openResource( String resource ) {
+
+				assertEquals( "123", resource );
+				opened[0]++;
+				return new ByteArrayInputStream( bytes );
+			}
+		} );
+
+		Inspector inspector1 = (Inspector) androidConfigReader.configure( 123, Inspector.class );
+		assertTrue( inspector1 instanceof CompositeInspector );
+		assertEquals( 1, opened[0] );
+
+		// Subsequent configures should neither reopen the resource nor construct new immutables
+
+		Inspector inspector2 = (Inspector) androidConfigReader.configure( 123, Inspector.class );
+		assertTrue( inspector1 == inspector2 );
+		assertEquals( 1, opened[0] );
+	}
+
+	public void testLookupClass() {
+
+		AndroidConfigReader androidConfigReader = new AndroidConfigReader( null );
+		ClassLoader classLoader = getClass().getClassLoader();
+
+		assertEquals( CompositeInspector.class, androidConfigReader.lookupClass( CompositeInspector.class.getName(), classLoader ) );
+		assertEquals( CompositeInspector.class, androidConfigReader.lookupClass( CompositeInspector.class.getName(), classLoader ) );
+		assertEquals( null, androidConfigReader.lookupClass( "org.metawidget.inspector.composite.NoSuchClass", classLoader ) );
+		assertEquals( null, androidConfigReader.lookupClass( "org.metawidget.inspector.composite.NoSuchClass", classLoader ) );
+	}
 }
@@ -13,22 +13,35 @@ package org.metawidget.inspector.beanvalidation;
 
 import static org.metawidget.inspector.InspectionResultConstants.*;
 
+import java.lang.annotation.Annotation;
+import java.util.Collections;
 import java.util.Map;
 
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
 import javax.validation.constraints.Digits;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
+import javax.validation.metadata.BeanDescriptor;
+import javax.validation.metadata.ConstraintDescriptor;
+import javax.validation.metadata.PropertyDescriptor;
 
 import org.metawidget.inspector.impl.BaseObjectInspector;
 import org.metawidget.inspector.impl.BaseObjectInspectorConfig;
 import org.metawidget.inspector.impl.propertystyle.Property;
+import org.metawidget.util.ClassUtils;
 import org.metawidget.util.CollectionUtils;
+import org.w3c.dom.Element;
 
 /**
  * Inspects annotations defined by Bean Validation (JSR 303).
+ * <p>
+ * By default, looks up each supported constraint annotation on each property. If configured with
+ * a <code>ValidatorFactory</code> (see <code>BeanValidationInspectorConfig</code>), instead reads
+ * the constraints of each class once, through the Bean Validation metadata API, and caches them.
  *
  * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
  */
@@ -36,35 +49,189 @@ import org.metawidget.util.CollectionUtils;
 public class BeanValidationInspector
 	extends BaseObjectInspector {
 
+	//
+	// Private members
+	//
+
+	private final Validator										mValidator;
+
+	/**
+	 * Cache of constraint attributes, indexed by class and then by property name. Only used if
+	 * <code>mValidator</code> is set.
+	 */
+
+	private final Map<Class<?>, Map<String, Map<String, String>>>	mConstraintsCache	= CollectionUtils.newWeakHashMap();
+
+	/**
+	 * Constraints of the class currently being inspected by <code>inspectTraits</code>, for use by
+	 * <code>inspectProperty</code>. Only used if <code>mValidator</code> is set.
+	 */
+
+	private final ThreadLocal<Map<String, Map<String, String>>>	mCurrentConstraints	= new ThreadLocal<Map<String, Map<String, String>>>();
+
 	//
 	// Constructor
 	//
 
 	public BeanValidationInspector() {
 
-		this( new BaseObjectInspectorConfig() );
+		this( new BeanValidationInspectorConfig() );
 	}
 
 	public BeanValidationInspector( BaseObjectInspectorConfig config ) {
 
 		super( config );
+
+		mValidator = null;
+	}
+
+	public BeanValidationInspector( BeanValidationInspectorConfig config ) {
+
+		super( config );
+
+		ValidatorFactory validatorFactory = config.getValidatorFactory();
+
+		if ( validatorFactory == null ) {
+			mValidator = null;
+		} else {
+			mValidator = validatorFactory.getValidator();
+		}
 	}
 
 	//
 	// Protected methods
 	//
 
+	/**
+	 * Overridden to read the constraints of the class through the Bean Validation metadata API, if
+	 * configured. <code>inspectProperty</code> then serves them from the cache.
+	 */
+
+	@Override
+	protected void inspectTraits( Object toInspect, String type, Element toAddTo )
+		throws Exception {
+
+		Class<?> clazz = null;
+
+		if ( mValidator != null ) {
+			clazz = ClassUtils.niceForName( type );
+		}
+
+		if ( clazz == null ) {
+			super.inspectTraits( toInspect, type, toAddTo );
+			return;
+		}
+
+		mCurrentConstraints.set( getConstraints( clazz ) );
+
+		try {
+			super.inspectTraits( toInspect, type, toAddTo );
+		} finally {
+			mCurrentConstraints.remove();
+		}
+	}
+
 	@Override
 	protected Map<String, String> inspectProperty( Property property )
 		throws Exception {
 
 		Map<String, String> attributes = CollectionUtils.newHashMap();
 
-		// Digits
+		// Bean Validation metadata API
 
-		Digits digits = property.getAnnotation( Digits.class );
+		Map<String, Map<String, String>> constraints = mCurrentConstraints.get();
 
-		if ( digits != null ) {
+		if ( constraints != null ) {
+
+			Map<String, String> propertyAttributes = constraints.get( property.getName() );
+
+			if ( propertyAttributes != null ) {
+				attributes.putAll( propertyAttributes );
+			}
+
+			return attributes;
+		}
+
+		// Annotations (including the property in the parent, whose class we do not know)
+
+		putConstraintAttributes( property.getAnnotation( Digits.class ), attributes );
+		putConstraintAttributes( property.getAnnotation( NotNull.class ), attributes );
+		putConstraintAttributes( property.getAnnotation( Min.class ), attributes );
+		putConstraintAttributes( property.getAnnotation( Max.class ), attributes );
+		putConstraintAttributes( property.getAnnotation( Size.class ), attributes );
+		putConstraintAttributes( property.getAnnotation( Pattern.class ), attributes );
+
+		return attributes;
+	}
+
+	//
+	// Private methods
+	//
+
+	/**
+	 * Gets the attributes of every constrained property of the given class, reading them through
+	 * the Bean Validation metadata API the first time and caching them thereafter.
+	 *
+	 * @return an unmodifiable Map of property name to (unmodifiable) attributes. Never null
+	 */
+
+	private Map<String, Map<String, String>> getConstraints( Class<?> clazz ) {
+
+		synchronized ( mConstraintsCache ) {
+
+			Map<String, Map<String, String>> constraints = mConstraintsCache.get( clazz );
+
+			if ( constraints != null ) {
+				return constraints;
+			}
+
+			constraints = CollectionUtils.newHashMap();
+			BeanDescriptor beanDescriptor = mValidator.getConstraintsForClass( clazz );
+
+			for ( PropertyDescriptor propertyDescriptor : beanDescriptor.getConstrainedProperties() ) {
+
+				Map<String, String> attributes = CollectionUtils.newHashMap();
+
+				for ( ConstraintDescriptor<?> constraintDescriptor : propertyDescriptor.getConstraintDescriptors() ) {
+					putConstraintAttributes( constraintDescriptor, attributes );
+				}
+
+				if ( !attributes.isEmpty() ) {
+					constraints.put( propertyDescriptor.getPropertyName(), Collections.unmodifiableMap( attributes ) );
+				}
+			}
+
+			constraints = Collections.unmodifiableMap( constraints );
+			mConstraintsCache.put( clazz, constraints );
+
+			return constraints;
+		}
+	}
+
+	/**
+	 * Puts attributes for the given constraint, and any constraints it is composed of.
+	 */
+
+	private void putConstraintAttributes( ConstraintDescriptor<?> constraintDescriptor, Map<String, String> attributes ) {
+
+		putConstraintAttributes( constraintDescriptor.getAnnotation(), attributes );
+
+		for ( ConstraintDescriptor<?> composingConstraint : constraintDescriptor.getComposingConstraints() ) {
+			putConstraintAttributes( composingConstraint, attributes );
+		}
+	}
+
+	/**
+	 * @param annotation
+	 *            the constraint annotation. May be null
+	 */
+
+	private void putConstraintAttributes( Annotation annotation, Map<String, String> attributes ) {
+
+		// Digits
+
+		if ( annotation instanceof Digits ) {
+			Digits digits = (Digits) annotation;
 			int integerDigits = digits.integer();
 
 			if ( integerDigits > 0 ) {
@@ -76,35 +243,36 @@ public class BeanValidationInspector
 			if ( fractionalDigits > 0 ) {
 				attributes.put( MAXIMUM_FRACTIONAL_DIGITS, String.valueOf( fractionalDigits ) );
 			}
+
+			return;
 		}
 
 		// NotNull
 
-		if ( property.isAnnotationPresent( NotNull.class ) ) {
+		if ( annotation instanceof NotNull ) {
 			attributes.put( REQUIRED, TRUE );
+			return;
 		}
 
 		// Min
 
-		Min min = property.getAnnotation( Min.class );
-
-		if ( min != null ) {
-			attributes.put( MINIMUM_VALUE, String.valueOf( min.value() ) );
+		if ( annotation instanceof Min ) {
+			attributes.put( MINIMUM_VALUE, String.valueOf( ( (Min) annotation ).value() ) );
+			return;
 		}
 
 		// Max
 
-		Max max = property.getAnnotation( Max.class );
-
-		if ( max != null ) {
-			attributes.put( MAXIMUM_VALUE, String.valueOf( max.value() ) );
+		if ( annotation instanceof Max ) {
+			attributes.put( MAXIMUM_VALUE, String.valueOf( ( (Max) annotation ).value() ) );
+			return;
 		}
 
 		// Size
 
-		Size size = property.getAnnotation( Size.class );
+		if ( annotation instanceof Size ) {
+			Size size = (Size) annotation;
 
-		if ( size != null ) {
 			if ( size.min() > 0 ) {
 				attributes.put( MINIMUM_LENGTH, String.valueOf( size.min() ) );
 			}
@@ -112,16 +280,14 @@ public class BeanValidationInspector
 			if ( size.max() > 0 ) {
 				attributes.put( MAXIMUM_LENGTH, String.valueOf( size.max() ) );
 			}
+
+			return;
 		}
 
 		// Pattern
 
-		Pattern pattern = property.getAnnotation( Pattern.class );
-
-		if ( pattern != null ) {
-			attributes.put( VALIDATION_PATTERN, String.valueOf( pattern.regexp() ) );
+		if ( annotation instanceof Pattern ) {
+			attributes.put( VALIDATION_PATTERN, String.valueOf( ( (Pattern) annotation ).regexp() ) );
 		}
-
-		return attributes;
 	}
 }
@@ -0,0 +1,106 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+
+package org.metawidget.inspector.beanvalidation;
+
+import javax.validation.ValidatorFactory;
+
+import org.metawidget.inspector.impl.BaseObjectInspectorConfig;
+import org.metawidget.inspector.impl.propertystyle.PropertyStyle;
+import org.metawidget.util.simple.ObjectUtils;
+
+/**
+ * Configures a BeanValidationInspector prior to use. Once instantiated, Inspectors are immutable.
+ *
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public class BeanValidationInspectorConfig
+	extends BaseObjectInspectorConfig {
+
+	//
+	// Private members
+	//
+
+	private ValidatorFactory	mValidatorFactory;
+
+	//
+	// Public methods
+	//
+
+	/**
+	 * Sets the ValidatorFactory whose metadata API (<code>BeanDescriptor</code>) should be used to
+	 * read constraints. Null by default.
+	 * <p>
+	 * By default, BeanValidationInspector looks up each supported constraint annotation on each
+	 * property. If a ValidatorFactory is set, BeanValidationInspector instead asks the validator
+	 * for the constraints of each class once, and caches the result. This is faster, and also
+	 * finds constraints composed into custom constraint annotations, as well as any constraints
+	 * declared in XML.
+	 *
+	 * @return this, as part of a fluent interface
+	 */
+
+	public BeanValidationInspectorConfig setValidatorFactory( ValidatorFactory validatorFactory ) {
+
+		mValidatorFactory = validatorFactory;
+
+		// Fluent interface
+
+		return this;
+	}
+
+	/**
+	 * Overridden to return a BeanValidationInspectorConfig, as part of a fluent interface.
+	 */
+
+	@Override
+	public BeanValidationInspectorConfig setPropertyStyle( PropertyStyle propertyStyle ) {
+
+		return (BeanValidationInspectorConfig) super.setPropertyStyle( propertyStyle );
+	}
+
+	@Override
+	public boolean equals( Object that ) {
+
+		if ( this == that ) {
+			return true;
+		}
+
+		if ( !ObjectUtils.nullSafeClassEquals( this, that ) ) {
+			return false;
+		}
+
+		if ( !ObjectUtils.nullSafeEquals( mValidatorFactory, ( (BeanValidationInspectorConfig) that ).mValidatorFactory ) ) {
+			return false;
+		}
+
+		return super.equals( that );
+	}
+
+	@Override
+	public int hashCode() {
+
+		int hashCode = super.hashCode();
+		hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode( mValidatorFactory );
+
+		return hashCode;
+	}
+
+	//
+	// Protected methods
+	//
+
+	protected ValidatorFactory getValidatorFactory() {
+
+		return mValidatorFactory;
+	}
+}
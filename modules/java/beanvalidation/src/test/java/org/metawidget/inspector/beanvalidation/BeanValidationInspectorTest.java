@@ -13,6 +13,16 @@ package org.metawidget.inspector.beanvalidation;
 
 import static org.metawidget.inspector.InspectionResultConstants.*;
 
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.List;
+import java.util.Map;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+import javax.validation.Validation;
 import javax.validation.constraints.Digits;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
@@ -22,6 +32,8 @@ import javax.validation.constraints.Size;
 
 import junit.framework.TestCase;
 
+import org.metawidget.inspector.impl.propertystyle.Property;
+import org.metawidget.util.CollectionUtils;
 import org.metawidget.util.XmlUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -78,6 +90,104 @@ public class BeanValidationInspectorTest
 		assertEquals( 2, property.getAttributes().getLength() );
 	}
 
+	public void testValidatorMetadata() {
+
+		BeanValidationInspector inspector = new BeanValidationInspector( new BeanValidationInspectorConfig().setValidatorFactory( Validation.buildDefaultValidatorFactory() ) );
+		Document document = XmlUtils.documentFromString( inspector.inspect( new Foo(), Foo.class.getName() ) );
+
+		assertEquals( "inspection-result", document.getFirstChild().getNodeName() );
+
+		// Entity
+
+		Element entity = (Element) document.getDocumentElement().getFirstChild();
+		assertEquals( ENTITY, entity.getNodeName() );
+		assertEquals( Foo.class.getName(), entity.getAttribute( TYPE ) );
+		assertFalse( entity.hasAttribute( NAME ) );
+
+		// Properties (same as testInspection)
+
+		Element property = XmlUtils.getChildWithAttributeValue( entity, NAME, "bar" );
+		assertEquals( PROPERTY, property.getNodeName() );
+		assertEquals( TRUE, property.getAttribute( REQUIRED ) );
+		assertEquals( 2, property.getAttributes().getLength() );
+
+		property = XmlUtils.getChildWithAttributeValue( entity, NAME, "baz" );
+		assertEquals( PROPERTY, property.getNodeName() );
+		assertEquals( "1", property.getAttribute( MAXIMUM_INTEGER_DIGITS ) );
+		assertEquals( "2", property.getAttribute( MAXIMUM_FRACTIONAL_DIGITS ) );
+		assertEquals( 3, property.getAttributes().getLength() );
+
+		property = XmlUtils.getChildWithAttributeValue( entity, NAME, "range" );
+		assertEquals( PROPERTY, property.getNodeName() );
+		assertEquals( "1", property.getAttribute( MINIMUM_VALUE ) );
+		assertEquals( "99", property.getAttribute( MAXIMUM_VALUE ) );
+		assertEquals( "2", property.getAttribute( MINIMUM_LENGTH ) );
+		assertEquals( "25", property.getAttribute( MAXIMUM_LENGTH ) );
+		assertEquals( 5, property.getAttributes().getLength() );
+
+		property = XmlUtils.getChildWithAttributeValue( entity, NAME, "telephone" );
+		assertEquals( PROPERTY, property.getNodeName() );
+		assertEquals( "[A-Za-z ]*", property.getAttribute( VALIDATION_PATTERN ) );
+		assertEquals( 2, property.getAttributes().getLength() );
+
+		// Composed constraints
+
+		property = XmlUtils.getChildWithAttributeValue( entity, NAME, "nickname" );
+		assertEquals( PROPERTY, property.getNodeName() );
+		assertEquals( TRUE, property.getAttribute( REQUIRED ) );
+		assertEquals( "10", property.getAttribute( MAXIMUM_LENGTH ) );
+		assertEquals( 3, property.getAttributes().getLength() );
+
+		// Cached
+
+		assertEquals( XmlUtils.documentToString( document, false ), inspector.inspect( new Foo(), Foo.class.getName() ) );
+	}
+
+	public void testValidatorMetadataSubclass() {
+
+		final List<String> inspected = CollectionUtils.newArrayList();
+
+		BeanValidationInspector inspector = new BeanValidationInspector( new BeanValidationInspectorConfig().setValidatorFactory( Validation.buildDefaultValidatorFactory() ) ) {
+
+			@Override
+			protected Map<String, String> inspectProperty( Property property )
+				throws Exception {
+
+				inspected.add( property.getName() );
+
+				Map<String, String> attributes = super.inspectProperty( property );
+				attributes.put( "foo", "bar" );
+				return attributes;
+			}
+		};
+
+		// Subclasses can still override inspectProperty
+
+		Document document = XmlUtils.documentFromString( inspector.inspect( new Foo(), Foo.class.getName() ) );
+		Element entity = (Element) document.getDocumentElement().getFirstChild();
+		assertTrue( inspected.contains( "bar" ) );
+
+		Element property = XmlUtils.getChildWithAttributeValue( entity, NAME, "bar" );
+		assertEquals( TRUE, property.getAttribute( REQUIRED ) );
+		assertEquals( "bar", property.getAttribute( "foo" ) );
+		assertEquals( 3, property.getAttributes().getLength() );
+
+		// Properties in the parent
+
+		document = XmlUtils.documentFromString( inspector.inspect( new Foo(), Foo.class.getName(), "bar" ) );
+		entity = (Element) document.getDocumentElement().getFirstChild();
+		assertEquals( TRUE, entity.getAttribute( REQUIRED ) );
+		assertEquals( "bar", entity.getAttribute( "foo" ) );
+	}
+
+	public void testComposedConstraintWithoutValidatorMetadata() {
+
+		BeanValidationInspector inspector = new BeanValidationInspector();
+		Document document = XmlUtils.documentFromString( inspector.inspect( new Foo(), Foo.class.getName() ) );
+		Element entity = (Element) document.getDocumentElement().getFirstChild();
+		assertEquals( null, XmlUtils.getChildWithAttributeValue( entity, NAME, "nickname" ) );
+	}
+
 	//
 	// Inner class
 	//
@@ -124,5 +234,25 @@ public class BeanValidationInspectorTest
 
 			return null;
 		}
+
+		@Nickname
+		public String getNickname() {
+
+			return null;
+		}
+	}
+
+	@NotNull
+	@Size( max = 10 )
+	@Constraint( validatedBy = {} )
+	@Retention( RetentionPolicy.RUNTIME )
+	@Target( { ElementType.METHOD, ElementType.FIELD } )
+	public static @interface Nickname {
+
+		String message() default "";
+
+		Class<?>[] groups() default {};
+
+		Class<? extends Payload>[] payload() default {};
 	}
 }
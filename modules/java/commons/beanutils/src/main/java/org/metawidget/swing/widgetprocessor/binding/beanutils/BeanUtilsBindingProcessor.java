@@ -124,7 +124,7 @@ public class BeanUtilsBindingProcessor
 			// Convert 'com.Foo/bar/baz' into BeanUtils notation 'bar.baz'
 
 			String names = typeAndNames.getNames().replace( StringUtils.SEPARATOR_FORWARD_SLASH_CHAR, StringUtils.SEPARATOR_DOT_CHAR );
-			SavedBinding binding = new SavedBinding( componentToBind, componentProperty, names, TRUE.equals( attributes.get( NO_SETTER ) ) );
+			SavedBinding binding = new SavedBinding( componentToBind, componentProperty, names, typeAndNames.getNamesAsArray(), TRUE.equals( attributes.get( NO_SETTER ) ) );
 			saveValueToWidget( binding, sourceValue );
 
 			State state = getState( metawidget );
@@ -160,11 +160,10 @@ public class BeanUtilsBindingProcessor
 		if ( state.bindings != null ) {
 			try {
 				for ( SavedBinding binding : state.bindings ) {
-					String names = binding.getNames();
-					ValueAndDeclaredType valueAndDeclaredType = mPropertyStyle.traverse( toRebind, toRebind.getClass().getName(), false, names.split( "\\" + StringUtils.SEPARATOR_DOT_CHAR ) );
+					ValueAndDeclaredType valueAndDeclaredType = mPropertyStyle.traverse( toRebind, toRebind.getClass().getName(), false, binding.getNamesAsArray() );
 
 					if ( valueAndDeclaredType.getDeclaredType() == null ) {
-						throw WidgetProcessorException.newException( "Property '" + names + "' has no getter" );
+						throw WidgetProcessorException.newException( "Property '" + binding.getNames() + "' has no getter" );
 					}
 
 					saveValueToWidget( binding, valueAndDeclaredType.getValue() );
@@ -329,6 +328,8 @@ public class BeanUtilsBindingProcessor
 
 		private String		mNames;
 
+		private String[]	mNamesAsArray;
+
 		private boolean		mNoSetter;
 
 		//
@@ -337,11 +338,12 @@ public class BeanUtilsBindingProcessor
 		//
 		//
 
-		public SavedBinding( Component component, String componentProperty, String names, boolean noSetter ) {
+		public SavedBinding( Component component, String componentProperty, String names, String[] namesAsArray, boolean noSetter ) {
 
 			mComponent = component;
 			mComponentProperty = componentProperty;
 			mNames = names;
+			mNamesAsArray = namesAsArray;
 			mNoSetter = noSetter;
 		}
 
@@ -372,6 +374,16 @@ public class BeanUtilsBindingProcessor
 			return mNames;
 		}
 
+		/**
+		 * Property names into the source object, pre-split so that <code>rebind</code> need not
+		 * re-parse them every time.
+		 */
+
+		public String[] getNamesAsArray() {
+
+			return mNamesAsArray;
+		}
+
 		public boolean isSettable() {
 
 			return !mNoSetter;
@@ -63,8 +63,7 @@ public class CommonsValidatorInspector
 		Element root = document.createElement( FORMSET_ELEMENT );
 		document.appendChild( root );
 
-		for ( InputStream file : files ) {
-			Document documentParsed = XmlUtils.parse( file );
+		for ( Document documentParsed : parseDocuments( files ) ) {
 			Element formSet = XmlUtils.getChildNamed( documentParsed.getDocumentElement(), FORMSET_ELEMENT );
 
 			if ( formSet == null ) {
@@ -77,6 +76,16 @@ public class CommonsValidatorInspector
 		return root;
 	}
 
+	/**
+	 * Lazy parsing is not supported, because <code>getDocumentElement</code> restructures the DOM.
+	 */
+
+	@Override
+	protected void indexDocuments( ResourceResolver resolver, InputStream... files ) {
+
+		throw InspectorException.newException( "CommonsValidatorInspector does not support parseLazily" );
+	}
+
 	@Override
 	protected Map<String, String> inspectProperty( Element toInspect ) {
 
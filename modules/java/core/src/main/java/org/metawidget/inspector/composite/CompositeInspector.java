@@ -191,6 +191,20 @@ public class CompositeInspector
 		}
 	}
 
+	/**
+	 * Exposed so that pipelines can instrument each sub-Inspector.
+	 */
+
+	public Inspector[] getInspectors() {
+
+		// Defensive copy
+
+		Inspector[] inspectors = new Inspector[mInspectors.length];
+		System.arraycopy( mInspectors, 0, inspectors, 0, mInspectors.length );
+
+		return inspectors;
+	}
+
 	//
 	// Protected methods
 	//
@@ -255,7 +269,10 @@ public class CompositeInspector
 			return null;
 		}
 
-		LOG.trace( "{0} inspected {1}{2}\r\n{3}", inspector.getClass(), type, ArrayUtils.toString( names, StringUtils.SEPARATOR_FORWARD_SLASH, true, false ), xml );
+		if ( LOG.isTraceEnabled() ) {
+			LOG.trace( "{0} inspected {1}{2}\r\n{3}", inspector.getClass(), type, ArrayUtils.toString( names, StringUtils.SEPARATOR_FORWARD_SLASH, true, false ), xml );
+		}
+
 		return XmlUtils.documentFromString( xml );
 	}
 
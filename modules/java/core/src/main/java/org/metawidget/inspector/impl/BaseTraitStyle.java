@@ -108,6 +108,16 @@ public abstract class BaseTraitStyle<T extends Trait> {
 	// Protected methods
 	//
 
+	/**
+	 * Whether lookups are cached. Subclasses that cache derived information (eg. resolved paths)
+	 * should honour this.
+	 */
+
+	protected final boolean isCacheLookups() {
+
+		return ( mCache != null );
+	}
+
 	protected final Map<String, T> getTraits( String type ) {
 
 		if ( mCache == null ) {
@@ -13,8 +13,18 @@ package org.metawidget.inspector.impl;
 
 import static org.metawidget.inspector.InspectionResultConstants.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.SAXParserFactory;
 
 import org.metawidget.config.iface.ResourceResolver;
 import org.metawidget.inspector.iface.DomInspector;
@@ -24,12 +34,17 @@ import org.metawidget.inspector.impl.propertystyle.PropertyStyle;
 import org.metawidget.inspector.impl.propertystyle.ValueAndDeclaredType;
 import org.metawidget.util.ArrayUtils;
 import org.metawidget.util.ClassUtils;
+import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.IOUtils;
 import org.metawidget.util.LogUtils;
 import org.metawidget.util.LogUtils.Log;
 import org.metawidget.util.XmlUtils;
 import org.metawidget.util.simple.StringUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * Convenience implementation for Inspectors that inspect XML files.
@@ -94,6 +109,12 @@ import org.w3c.dom.Element;
  * Third, it is important the properties defined by the XML and the ones defined by the Java classes
  * stay in sync. To enforce this, you can set
  * <code>BaseXmlInspectorConfig.setValidateAgainstClasses</code>.
+ * <p>
+ * <h2>Large Numbers of Files</h2>
+ * <p>
+ * Multiple files can be parsed in parallel (see <code>BaseXmlInspectorConfig.setParseThreads</code>
+ * ), or lazily as their types are first inspected (see
+ * <code>BaseXmlInspectorConfig.setParseLazily</code>).
  *
  * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
  */
@@ -129,6 +150,17 @@ public abstract class BaseXmlInspector
 
 	private final boolean		mInferInheritanceHierarchy;
 
+	private final int			mParseThreads;
+
+	/**
+	 * Index of documents not yet parsed, by the top-level types they define. Only used if
+	 * <code>parseLazily</code>. Each List is in the order the documents were specified.
+	 * <p>
+	 * Guarded by <code>mRoot</code> (once <code>mRoot</code> is set).
+	 */
+
+	private Map<String, List<LazyDocument>>	mLazyIndex;
+
 	//
 	// Constructor
 	//
@@ -142,12 +174,31 @@ public abstract class BaseXmlInspector
 	protected BaseXmlInspector( BaseXmlInspectorConfig config ) {
 
 		try {
+			mParseThreads = config.getParseThreads();
+
 			// Look up the XML file
 
 			InputStream[] inputStreams = config.getInputStreams();
 
 			if ( inputStreams != null && inputStreams.length > 0 ) {
-				mRoot = getDocumentElement( config.getResourceResolver(), config.getInputStreams() );
+
+				if ( config.isParseLazily() ) {
+
+					if ( config.getValidateAgainstClasses() != null ) {
+						throw InspectorException.newException( "When using parseLazily, validateAgainstClasses is not supported" );
+					}
+
+					if ( config.getCacheDirectory() != null ) {
+						throw InspectorException.newException( "When using parseLazily, cacheDirectory is not supported" );
+					}
+
+					mLazyIndex = CollectionUtils.newLinkedHashMap();
+					indexDocuments( config.getResourceResolver(), inputStreams );
+				} else if ( config.getCacheDirectory() != null ) {
+					mRoot = getCachedDocumentElement( config.getCacheDirectory(), config.getResourceResolver(), inputStreams );
+				} else {
+					mRoot = getDocumentElement( config.getResourceResolver(), inputStreams );
+				}
 			} else {
 
 				// REFACTOR: support both at once
@@ -374,14 +425,212 @@ public abstract class BaseXmlInspector
 	protected Element getDocumentElement( ResourceResolver resolver, InputStream... files )
 		throws Exception {
 
-		int length = files.length;
-		Document[] documents = new Document[length];
+		return getDocumentElement( parseDocuments( files ) );
+	}
 
-		for ( int loop = 0; loop < length; loop++ ) {
-			documents[loop] = XmlUtils.parse( files[loop] );
+	/**
+	 * Parse the given InputStreams into DOM Documents.
+	 * <p>
+	 * If configured with more than one <code>parseThreads</code>, parses in parallel, with one
+	 * DocumentBuilder per thread. Either way, the returned Documents are in the same order as the
+	 * given InputStreams, so that subsequent merging is deterministic.
+	 */
+
+	protected Document[] parseDocuments( final InputStream... files )
+		throws Exception {
+
+		final int length = files.length;
+		final Document[] documents = new Document[length];
+		final int threads = Math.min( mParseThreads, length );
+
+		if ( threads <= 1 ) {
+
+			for ( int loop = 0; loop < length; loop++ ) {
+				documents[loop] = XmlUtils.parse( files[loop] );
+			}
+
+			return documents;
 		}
 
-		return getDocumentElement( documents );
+		ExecutorService executor = Executors.newFixedThreadPool( threads );
+
+		try {
+			List<Future<Object>> futures = CollectionUtils.newArrayList();
+
+			for ( int thread = 0; thread < threads; thread++ ) {
+
+				final int firstFile = thread;
+
+				futures.add( executor.submit( new Callable<Object>() {
+
+					public Object call()
+						throws Exception {
+
+						DocumentBuilder documentBuilder = XmlUtils.newDocumentBuilder();
+
+						for ( int loop = firstFile; loop < length; loop += threads ) {
+							documents[loop] = documentBuilder.parse( files[loop] );
+						}
+
+						return null;
+					}
+				} ) );
+			}
+
+			for ( Future<Object> future : futures ) {
+
+				try {
+					future.get();
+				} catch ( ExecutionException e ) {
+
+					if ( e.getCause() instanceof Exception ) {
+						throw (Exception) e.getCause();
+					}
+
+					throw e;
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		return documents;
+	}
+
+	/**
+	 * Index the given InputStreams for lazy parsing (see
+	 * <code>BaseXmlInspectorConfig.setParseLazily</code>).
+	 * <p>
+	 * Subclasses that override <code>getDocumentElement</code> to follow references to other files
+	 * should override this method similarly. Subclasses that override
+	 * <code>getDocumentElement</code> to restructure the DOM cannot support lazy parsing, and
+	 * should throw an exception.
+	 */
+
+	protected void indexDocuments( ResourceResolver resolver, InputStream... files )
+		throws Exception {
+
+		for ( InputStream file : files ) {
+			indexDocument( IOUtils.streamToBytes( file ) );
+		}
+	}
+
+	/**
+	 * Scan the given XML, without building a DOM, for the top-level types it defines and index it
+	 * by them. It will be parsed the first time one of those types is inspected.
+	 *
+	 * @return the name of the root element
+	 */
+
+	protected final String indexDocument( final byte[] xml )
+		throws Exception {
+
+		final String topLevelTypeAttribute = getTopLevelTypeAttribute();
+		final LazyDocument lazyDocument = new LazyDocument( xml );
+		final String[] rootName = new String[1];
+
+		SAXParserFactory factory = SAXParserFactory.newInstance();
+		factory.setNamespaceAware( true );
+
+		factory.newSAXParser().parse( new ByteArrayInputStream( xml ), new DefaultHandler() {
+
+			private int					mDepth;
+
+			private Map<String, String>	mRootAttributes;
+
+			@Override
+			public void startElement( String uri, String localName, String name, Attributes attributes ) {
+
+				mDepth++;
+
+				if ( mDepth == 1 ) {
+					rootName[0] = name;
+					mRootAttributes = CollectionUtils.newHashMap();
+
+					for ( int loop = 0, length = attributes.getLength(); loop < length; loop++ ) {
+						mRootAttributes.put( attributes.getQName( loop ), attributes.getValue( loop ) );
+					}
+
+					return;
+				}
+
+				if ( mDepth != 2 ) {
+					return;
+				}
+
+				String topLevelType = attributes.getValue( topLevelTypeAttribute );
+
+				if ( topLevelType == null || "".equals( topLevelType ) ) {
+					return;
+				}
+
+				topLevelType = preprocessTopLevelType( rootName[0], mRootAttributes, topLevelType );
+
+				if ( topLevelType == null ) {
+					return;
+				}
+
+				// Index
+
+				List<LazyDocument> lazyDocuments = mLazyIndex.get( topLevelType );
+
+				if ( lazyDocuments == null ) {
+					lazyDocuments = CollectionUtils.newArrayList();
+					mLazyIndex.put( topLevelType, lazyDocuments );
+				}
+
+				if ( !lazyDocuments.contains( lazyDocument ) ) {
+					lazyDocuments.add( lazyDocument );
+				}
+
+				// (use the root element name of the first indexed document)
+
+				if ( mRoot == null ) {
+					Document document = XmlUtils.newDocument();
+					mRoot = document.createElementNS( null, rootName[0] );
+					document.appendChild( mRoot );
+				}
+			}
+
+			@Override
+			public void endElement( String uri, String localName, String name ) {
+
+				mDepth--;
+			}
+
+			/**
+			 * Do not resolve external entities (eg. DTDs), same as <code>XmlUtils.parse</code>.
+			 */
+
+			@Override
+			public InputSource resolveEntity( String publicId, String systemId ) {
+
+				return new InputSource( new ByteArrayInputStream( new byte[0] ) );
+			}
+		} );
+
+		return rootName[0];
+	}
+
+	/**
+	 * Hook for subclasses to preprocess top-level types when indexing documents for lazy parsing.
+	 * This should mirror any changes <code>preprocessDocument</code> makes to top-level types.
+	 * <p>
+	 * For example, <code>HibernateInspector</code> prepends the <code>package</code> attribute of
+	 * the root element.
+	 *
+	 * @param rootName
+	 *            name of the root element of the document being indexed
+	 * @param rootAttributes
+	 *            attributes of the root element of the document being indexed
+	 * @param topLevelType
+	 *            the value of the <code>getTopLevelTypeAttribute</code> of a top-level element
+	 * @return the top-level type to index, or null to not index this element
+	 */
+
+	protected String preprocessTopLevelType( String rootName, Map<String, String> rootAttributes, String topLevelType ) {
+
+		return topLevelType;
 	}
 
 	/**
@@ -609,8 +858,7 @@ public abstract class BaseXmlInspector
 
 		// Validate type
 
-		String topLevelTypeAttribute = getTopLevelTypeAttribute();
-		Element topLevelElement = XmlUtils.getChildWithAttributeValue( mRoot, topLevelTypeAttribute, typeToInspect );
+		Element topLevelElement = getTopLevelElement( typeToInspect );
 
 		if ( topLevelElement == null ) {
 
@@ -641,7 +889,7 @@ public abstract class BaseXmlInspector
 					break;
 				}
 
-				topLevelElement = XmlUtils.getChildWithAttributeValue( mRoot, topLevelTypeAttribute, actualClass.getName() );
+				topLevelElement = getTopLevelElement( actualClass.getName() );
 			}
 
 			if ( topLevelElement == null ) {
@@ -692,7 +940,7 @@ public abstract class BaseXmlInspector
 					}
 
 					String childExtends = elementWithNamedChildren.getAttribute( extendsAttribute );
-					elementWithNamedChildren = XmlUtils.getChildWithAttributeValue( mRoot, topLevelTypeAttribute, childExtends );
+					elementWithNamedChildren = getTopLevelElement( childExtends );
 
 					if ( elementWithNamedChildren == null ) {
 						break;
@@ -762,7 +1010,7 @@ public abstract class BaseXmlInspector
 
 			// Traverse to new top-level element of the given declaredType
 
-			topLevelElement = XmlUtils.getChildWithAttributeValue( mRoot, topLevelTypeAttribute, declaredType );
+			topLevelElement = getTopLevelElement( declaredType );
 
 			if ( topLevelElement == null ) {
 				return new ValueAndDeclaredType( null, declaredType );
@@ -785,6 +1033,44 @@ public abstract class BaseXmlInspector
 		return new ValueAndDeclaredType( elementWithNamedChildren, declaredType );
 	}
 
+	protected PropertyStyle getRestrictAgainstObject() {
+
+		return mRestrictAgainstObject;
+	}
+
+	/**
+	 * The values of <code>getTopLevelTypeAttribute</code> for every top-level element, in document
+	 * order. Useful for subclasses wishing to precompute inspection results.
+	 */
+
+	protected List<String> getTopLevelTypes() {
+
+		List<String> topLevelTypes = CollectionUtils.newArrayList();
+		String topLevelTypeAttribute = getTopLevelTypeAttribute();
+
+		synchronized ( mRoot ) {
+
+			// Parse any lazy documents
+
+			if ( mLazyIndex != null ) {
+
+				for ( String lazyType : CollectionUtils.newArrayList( mLazyIndex.keySet() ) ) {
+					getTopLevelElement( lazyType );
+				}
+			}
+
+			Element topLevelElement = XmlUtils.getChildWithAttribute( mRoot, topLevelTypeAttribute );
+
+			while ( topLevelElement != null ) {
+
+				topLevelTypes.add( topLevelElement.getAttribute( topLevelTypeAttribute ) );
+				topLevelElement = XmlUtils.getSiblingWithAttribute( topLevelElement, topLevelTypeAttribute );
+			}
+		}
+
+		return topLevelTypes;
+	}
+
 	/**
 	 * The attribute on top-level elements that uniquely identifies them.
 	 */
@@ -851,4 +1137,149 @@ public abstract class BaseXmlInspector
 
 		return topLevel;
 	}
+
+	//
+	// Private methods
+	//
+
+	/**
+	 * Gets the document element from the cache in the given directory or, if it is not cached (or
+	 * its files have changed), from <code>getDocumentElement</code> and then caches it.
+	 * <p>
+	 * Failure to read or write the cache is not fatal: it is logged and the files are parsed as
+	 * normal.
+	 */
+
+	private Element getCachedDocumentElement( String cacheDirectory, ResourceResolver resolver, InputStream... files )
+		throws Exception {
+
+		byte[][] sources = new byte[files.length][];
+
+		for ( int loop = 0, length = files.length; loop < length; loop++ ) {
+			sources[loop] = IOUtils.streamToBytes( files[loop] );
+		}
+
+		BaseXmlInspectorCache cache = new BaseXmlInspectorCache( cacheDirectory, getClass(), resolver, sources );
+
+		try {
+			Element root = cache.read();
+
+			if ( root != null ) {
+				mLog.debug( "Read {0} from {1}", getClass().getSimpleName(), cache.getCacheFile() );
+				return root;
+			}
+		} catch ( Exception e ) {
+			mLog.warn( "Unable to read {0}: {1}", cache.getCacheFile(), e.getMessage() );
+		}
+
+		// Parse (recording any other files the subclass opens)
+
+		InputStream[] inputStreams = new InputStream[sources.length];
+
+		for ( int loop = 0, length = sources.length; loop < length; loop++ ) {
+			inputStreams[loop] = new ByteArrayInputStream( sources[loop] );
+		}
+
+		Element root = getDocumentElement( cache.getRecordingResourceResolver(), inputStreams );
+
+		try {
+			cache.write( root );
+		} catch ( Exception e ) {
+			mLog.warn( "Unable to write {0}: {1}", cache.getCacheFile(), e.getMessage() );
+		}
+
+		return root;
+	}
+
+	/**
+	 * Gets the top-level element of the given type, first parsing any lazy documents that define
+	 * it. Must be called while synchronized on <code>mRoot</code>.
+	 */
+
+	private Element getTopLevelElement( String type ) {
+
+		String topLevelTypeAttribute = getTopLevelTypeAttribute();
+
+		if ( mLazyIndex != null ) {
+
+			List<LazyDocument> lazyDocuments = mLazyIndex.remove( type );
+
+			if ( lazyDocuments != null ) {
+
+				// Combine in the order the documents were specified, same as when not lazy
+
+				for ( LazyDocument lazyDocument : lazyDocuments ) {
+
+					Document document = lazyDocument.getDocument();
+					Element toAdd = XmlUtils.getChildWithAttributeValue( document.getDocumentElement(), topLevelTypeAttribute, type );
+
+					if ( toAdd == null ) {
+						continue;
+					}
+
+					Element wrapper = document.createElementNS( null, mRoot.getNodeName() );
+					wrapper.appendChild( toAdd );
+					XmlUtils.combineElements( mRoot, wrapper, topLevelTypeAttribute, getNameAttribute() );
+				}
+			}
+		}
+
+		return XmlUtils.getChildWithAttributeValue( mRoot, topLevelTypeAttribute, type );
+	}
+
+	//
+	// Inner class
+	//
+
+	/**
+	 * A document indexed, but not yet parsed.
+	 */
+
+	private class LazyDocument {
+
+		//
+		// Private members
+		//
+
+		private byte[]		mXml;
+
+		private Document	mDocument;
+
+		//
+		// Constructor
+		//
+
+		public LazyDocument( byte[] xml ) {
+
+			mXml = xml;
+		}
+
+		//
+		// Public methods
+		//
+
+		/**
+		 * Parses (and preprocesses) the document the first time it is requested.
+		 */
+
+		public Document getDocument() {
+
+			if ( mDocument == null ) {
+
+				try {
+					mDocument = XmlUtils.parse( new ByteArrayInputStream( mXml ) );
+				} catch ( Exception e ) {
+					throw InspectorException.newException( e );
+				}
+
+				preprocessDocument( mDocument );
+
+				// (no longer needed)
+
+				mXml = null;
+			}
+
+			return mDocument;
+		}
+	}
 }
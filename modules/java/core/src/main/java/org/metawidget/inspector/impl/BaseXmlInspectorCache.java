@@ -0,0 +1,376 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+
+package org.metawidget.inspector.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.metawidget.config.iface.ResourceResolver;
+import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.IOUtils;
+import org.metawidget.util.XmlUtils;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * On-disk cache of the merged, preprocessed DOM of a BaseXmlInspector.
+ * <p>
+ * The cache file is named after a hash of the Inspector's class and the content of its XML
+ * sources, so a change to any source results in a different file. Additional resources opened
+ * while building the DOM (eg. the mapping files referenced by <code>hibernate.cfg.xml</code>) are
+ * recorded in the cache file along with their own hashes, and rechecked before the cache is used.
+ * <p>
+ * The DOM is stored in a compact, gzipped binary form, so that reading it back requires neither
+ * XML parsing nor preprocessing nor combining.
+ *
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+/* package private */final class BaseXmlInspectorCache {
+
+	//
+	// Private statics
+	//
+
+	/**
+	 * Version of the binary format. Incrementing it invalidates all existing cache files.
+	 */
+
+	private static final int	VERSION			= 1;
+
+	private static final String	HASH_ALGORITHM	= "SHA-1";
+
+	private static final String	CHARSET			= "UTF-8";
+
+	//
+	// Private members
+	//
+
+	private final File					mCacheFile;
+
+	private final ResourceResolver		mResourceResolver;
+
+	/**
+	 * Hashes of resources opened through <code>getRecordingResourceResolver</code>, by name.
+	 */
+
+	private final Map<String, String>	mResourceHashes	= CollectionUtils.newLinkedHashMap();
+
+	//
+	// Constructor
+	//
+
+	public BaseXmlInspectorCache( String cacheDirectory, Class<?> inspectorClass, ResourceResolver resourceResolver, byte[]... sources )
+		throws Exception {
+
+		MessageDigest digest = MessageDigest.getInstance( HASH_ALGORITHM );
+		digest.update( String.valueOf( VERSION ).getBytes( CHARSET ) );
+		digest.update( inspectorClass.getName().getBytes( CHARSET ) );
+
+		for ( byte[] source : sources ) {
+			digest.update( hash( source ).getBytes( CHARSET ) );
+		}
+
+		mCacheFile = new File( cacheDirectory, inspectorClass.getSimpleName() + '-' + toHex( digest.digest() ) + ".bin" );
+		mResourceResolver = resourceResolver;
+	}
+
+	//
+	// Public methods
+	//
+
+	public File getCacheFile() {
+
+		return mCacheFile;
+	}
+
+	/**
+	 * Gets a ResourceResolver that records (and hashes) every resource it opens, so that they can
+	 * be rechecked when the cache is next read.
+	 */
+
+	public ResourceResolver getRecordingResourceResolver() {
+
+		return new ResourceResolver() {
+
+			public InputStream openResource( String resource ) {
+
+				byte[] bytes = IOUtils.streamToBytes( mResourceResolver.openResource( resource ) );
+
+				try {
+					mResourceHashes.put( resource, hash( bytes ) );
+				} catch ( Exception e ) {
+					throw new RuntimeException( e );
+				}
+
+				return new ByteArrayInputStream( bytes );
+			}
+		};
+	}
+
+	/**
+	 * @return the cached root element, or null if there is no cache file or any of the resources it
+	 *         records have changed
+	 */
+
+	public Element read()
+		throws Exception {
+
+		if ( !mCacheFile.exists() ) {
+			return null;
+		}
+
+		DataInputStream in = new DataInputStream( new GZIPInputStream( new BufferedInputStream( new FileInputStream( mCacheFile ) ) ) );
+
+		try {
+			if ( in.readInt() != VERSION ) {
+				return null;
+			}
+
+			// Recheck resources
+
+			for ( int loop = 0, length = in.readInt(); loop < length; loop++ ) {
+
+				String resource = readString( in );
+				String resourceHash = readString( in );
+
+				if ( !resourceHash.equals( hash( IOUtils.streamToBytes( mResourceResolver.openResource( resource ) ) ) ) ) {
+					return null;
+				}
+			}
+
+			// Read DOM
+
+			Document document = XmlUtils.newDocument();
+			Element root = readElement( in, document );
+			document.appendChild( root );
+
+			return root;
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Writes the given root element, and the hashes of any resources opened through
+	 * <code>getRecordingResourceResolver</code>.
+	 * <p>
+	 * Writes to a temporary file first, then renames it, so that concurrently starting applications
+	 * never read a partially written cache.
+	 */
+
+	public void write( Element root )
+		throws IOException {
+
+		File cacheDirectory = mCacheFile.getParentFile();
+
+		if ( cacheDirectory != null && !cacheDirectory.exists() && !cacheDirectory.mkdirs() ) {
+			throw new IOException( "Unable to create " + cacheDirectory );
+		}
+
+		File tempFile = File.createTempFile( mCacheFile.getName(), ".tmp", cacheDirectory );
+
+		try {
+			DataOutputStream out = new DataOutputStream( new GZIPOutputStream( new BufferedOutputStream( new FileOutputStream( tempFile ) ) ) );
+
+			try {
+				out.writeInt( VERSION );
+				out.writeInt( mResourceHashes.size() );
+
+				for ( Map.Entry<String, String> entry : mResourceHashes.entrySet() ) {
+					writeString( out, entry.getKey() );
+					writeString( out, entry.getValue() );
+				}
+
+				writeElement( out, root );
+			} finally {
+				out.close();
+			}
+
+			if ( !tempFile.renameTo( mCacheFile ) ) {
+
+				// (another application may have written the same cache first)
+
+				if ( !mCacheFile.exists() ) {
+					throw new IOException( "Unable to rename " + tempFile + " to " + mCacheFile );
+				}
+			}
+		} finally {
+			if ( tempFile.exists() ) {
+				tempFile.delete();
+			}
+		}
+	}
+
+	//
+	// Private methods
+	//
+
+	private void writeElement( DataOutputStream out, Element element )
+		throws IOException {
+
+		writeString( out, element.getNamespaceURI() );
+		writeString( out, element.getNodeName() );
+
+		// Attributes
+
+		NamedNodeMap attributes = element.getAttributes();
+		int attributesLength = attributes.getLength();
+		out.writeInt( attributesLength );
+
+		for ( int loop = 0; loop < attributesLength; loop++ ) {
+			Attr attribute = (Attr) attributes.item( loop );
+			writeString( out, attribute.getNamespaceURI() );
+			writeString( out, attribute.getName() );
+			writeString( out, attribute.getValue() );
+		}
+
+		// Children (elements and text only)
+
+		NodeList children = element.getChildNodes();
+		List<Node> toWrite = CollectionUtils.newArrayList();
+
+		for ( int loop = 0, length = children.getLength(); loop < length; loop++ ) {
+			Node child = children.item( loop );
+			short nodeType = child.getNodeType();
+
+			if ( nodeType == Node.ELEMENT_NODE || nodeType == Node.TEXT_NODE || nodeType == Node.CDATA_SECTION_NODE ) {
+				toWrite.add( child );
+			}
+		}
+
+		out.writeInt( toWrite.size() );
+
+		for ( Node child : toWrite ) {
+
+			if ( child instanceof Element ) {
+				out.writeByte( Node.ELEMENT_NODE );
+				writeElement( out, (Element) child );
+			} else {
+				out.writeByte( Node.TEXT_NODE );
+				writeString( out, child.getNodeValue() );
+			}
+		}
+	}
+
+	private Element readElement( DataInputStream in, Document document )
+		throws IOException {
+
+		// (preserve whether nodes were namespace-aware, so the DOM is the same as if parsed)
+
+		String namespace = readString( in );
+		String name = readString( in );
+		Element element;
+
+		if ( namespace == null ) {
+			element = document.createElement( name );
+		} else {
+			element = document.createElementNS( namespace, name );
+		}
+
+		// Attributes
+
+		for ( int loop = 0, length = in.readInt(); loop < length; loop++ ) {
+
+			String attributeNamespace = readString( in );
+			String attributeName = readString( in );
+			String attributeValue = readString( in );
+
+			if ( attributeNamespace == null ) {
+				element.setAttribute( attributeName, attributeValue );
+			} else {
+				element.setAttributeNS( attributeNamespace, attributeName, attributeValue );
+			}
+		}
+
+		// Children
+
+		for ( int loop = 0, length = in.readInt(); loop < length; loop++ ) {
+
+			if ( in.readByte() == Node.ELEMENT_NODE ) {
+				element.appendChild( readElement( in, document ) );
+			} else {
+				element.appendChild( document.createTextNode( readString( in ) ) );
+			}
+		}
+
+		return element;
+	}
+
+	/**
+	 * Writes a String that may be null. Unlike <code>DataOutputStream.writeUTF</code>, supports
+	 * Strings longer than 64K.
+	 */
+
+	private static void writeString( DataOutputStream out, String value )
+		throws IOException {
+
+		if ( value == null ) {
+			out.writeInt( -1 );
+			return;
+		}
+
+		byte[] bytes = value.getBytes( CHARSET );
+		out.writeInt( bytes.length );
+		out.write( bytes );
+	}
+
+	private static String readString( DataInputStream in )
+		throws IOException {
+
+		int length = in.readInt();
+
+		if ( length == -1 ) {
+			return null;
+		}
+
+		byte[] bytes = new byte[length];
+		in.readFully( bytes );
+
+		return new String( bytes, CHARSET );
+	}
+
+	private static String hash( byte[] bytes )
+		throws Exception {
+
+		return toHex( MessageDigest.getInstance( HASH_ALGORITHM ).digest( bytes ) );
+	}
+
+	private static String toHex( byte[] bytes ) {
+
+		StringBuilder builder = new StringBuilder( bytes.length * 2 );
+
+		for ( byte b : bytes ) {
+			builder.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) );
+			builder.append( Character.forDigit( b & 0xF, 16 ) );
+		}
+
+		return builder.toString();
+	}
+}
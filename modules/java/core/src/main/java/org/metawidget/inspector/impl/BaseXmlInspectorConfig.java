@@ -56,6 +56,12 @@ public class BaseXmlInspectorConfig
 
 	private PropertyStyle		mValidateAgainstClasses;
 
+	private int					mParseThreads	= 1;
+
+	private boolean				mParseLazily;
+
+	private String				mCacheDirectory;
+
 	//
 	// Public methods
 	//
@@ -179,6 +185,68 @@ public class BaseXmlInspectorConfig
 		return this;
 	}
 
+	/**
+	 * Sets the number of threads to use when parsing multiple XML files. 1 by default.
+	 * <p>
+	 * Each thread uses its own parser, so this can substantially reduce startup time when there
+	 * are many files (eg. hundreds of Hibernate mapping files). Files are always combined in the
+	 * order they were specified, regardless of which finishes parsing first.
+	 *
+	 * @return this, as part of a fluent interface
+	 */
+
+	public BaseXmlInspectorConfig setParseThreads( int parseThreads ) {
+
+		mParseThreads = parseThreads;
+
+		// Fluent interface
+
+		return this;
+	}
+
+	/**
+	 * Sets whether to parse XML files lazily. False by default.
+	 * <p>
+	 * If true, the Inspector only scans each file at startup to index which top-level types it
+	 * defines. A file is parsed the first time one of its types is inspected. This suits large
+	 * numbers of files of which only a few are used at a time. It cannot be combined with
+	 * <code>setValidateAgainstClasses</code>, which needs every file up front.
+	 *
+	 * @return this, as part of a fluent interface
+	 */
+
+	public BaseXmlInspectorConfig setParseLazily( boolean parseLazily ) {
+
+		mParseLazily = parseLazily;
+
+		// Fluent interface
+
+		return this;
+	}
+
+	/**
+	 * Sets a directory in which to cache the combined, preprocessed XML. Null (no caching) by
+	 * default.
+	 * <p>
+	 * Parsing and combining large numbers of XML files can dominate startup time. If set, the
+	 * result is written to a compact binary file in this directory, named after a hash of the
+	 * content of the XML files. On subsequent startups with unchanged XML files, the result is
+	 * read back from the cache instead. Any file referenced by the XML files (eg. Hibernate mapping
+	 * files referenced by <code>hibernate.cfg.xml</code>) is also checked for changes. It cannot
+	 * be combined with <code>setParseLazily</code>.
+	 *
+	 * @return this, as part of a fluent interface
+	 */
+
+	public BaseXmlInspectorConfig setCacheDirectory( String cacheDirectory ) {
+
+		mCacheDirectory = cacheDirectory;
+
+		// Fluent interface
+
+		return this;
+	}
+
 	@Override
 	public boolean equals( Object that ) {
 
@@ -218,6 +286,18 @@ public class BaseXmlInspectorConfig
 			return false;
 		}
 
+		if ( mParseThreads != ( (BaseXmlInspectorConfig) that ).mParseThreads ) {
+			return false;
+		}
+
+		if ( mParseLazily != ( (BaseXmlInspectorConfig) that ).mParseLazily ) {
+			return false;
+		}
+
+		if ( !ObjectUtils.nullSafeEquals( mCacheDirectory, ( (BaseXmlInspectorConfig) that ).mCacheDirectory ) ) {
+			return false;
+		}
+
 		return true;
 	}
 
@@ -232,6 +312,9 @@ public class BaseXmlInspectorConfig
 		hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode( mRestrictAgainstObject );
 		hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode( mInferInheritanceHierarchy );
 		hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode( mValidateAgainstClasses );
+		hashCode = 31 * hashCode + mParseThreads;
+		hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode( mParseLazily );
+		hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode( mCacheDirectory );
 
 		return hashCode;
 	}
@@ -287,4 +370,19 @@ public class BaseXmlInspectorConfig
 
 		return mValidateAgainstClasses;
 	}
+
+	protected int getParseThreads() {
+
+		return mParseThreads;
+	}
+
+	protected boolean isParseLazily() {
+
+		return mParseLazily;
+	}
+
+	protected String getCacheDirectory() {
+
+		return mCacheDirectory;
+	}
 }
@@ -11,14 +11,16 @@
 
 package org.metawidget.inspector.impl.propertystyle;
 
+import java.lang.ref.WeakReference;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.metawidget.inspector.impl.BaseTraitStyle;
 import org.metawidget.inspector.impl.BaseTraitStyleConfig;
 import org.metawidget.util.ArrayUtils;
 import org.metawidget.util.ClassUtils;
-import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.LogUtils;
 import org.metawidget.util.simple.StringUtils;
 
 /**
@@ -31,6 +33,32 @@ public abstract class BasePropertyStyle
 	extends BaseTraitStyle<Property>
 	implements PropertyStyle {
 
+	//
+	// Private statics
+	//
+
+	/**
+	 * Maximum number of traversal plans cached per root class. Paths are normally a bounded set,
+	 * but guard against unbounded growth.
+	 */
+
+	private static final int												MAXIMUM_TRAVERSAL_PLANS	= 1024;
+
+	//
+	// Private members
+	//
+
+	/**
+	 * Cache of traversal plans, keyed by root class name and then by type and names.
+	 * <p>
+	 * Nested Metawidgets traverse the same paths, from the same root classes, many times over.
+	 * <p>
+	 * Keyed by class name (like the cache of traits) rather than by class, and plans hold classes
+	 * only weakly, so as not to prevent ClassLoaders being garbage collected.
+	 */
+
+	private final ConcurrentMap<String, ConcurrentMap<String, TraversalPlan>>	mTraversalPlans			= new ConcurrentHashMap<String, ConcurrentMap<String, TraversalPlan>>();
+
 	//
 	// Constructor
 	//
@@ -72,19 +100,9 @@ public abstract class BasePropertyStyle
 			return new ValueAndDeclaredType( null, type );
 		}
 
-		// Sanity check that the given toTraverse is, in fact, of the given type.
-		//
-		// This is harder than it seems. We cannot do a simple 'equals', but to do a
-		// 'isAssignableFrom' we must instantiate the class. But instantiating the class may
-		// not be possible because of proxies, virtual classes, what tier we're on, etc. Basically,
-		// we can't be too strict about it.
-		//
-		// Use the toTraverse's ClassLoader, to support ClassLoader isolation (eg. classes from a
-		// WAR being inspected by an EJB lib) and dynamic classes (eg. Groovy)
+		TraversalPlan plan = getTraversalPlan( toTraverse.getClass(), type, names );
 
-		Class<?> sanityCheck = ClassUtils.niceForName( type, toTraverse.getClass().getClassLoader() );
-
-		if ( sanityCheck != null && !sanityCheck.isAssignableFrom( toTraverse.getClass() ) ) {
+		if ( !plan.isAssignable() ) {
 			return new ValueAndDeclaredType( null, null );
 		}
 
@@ -102,14 +120,13 @@ public abstract class BasePropertyStyle
 			}
 
 		} else {
-			Set<Object> traversed = CollectionUtils.newHashSet();
-			traversed.add( traverse );
-
 			int length = names.length;
+			Object[] traversed = new Object[length + 1];
+			traversed[0] = traverse;
 
 			for ( int loop = 0; loop < length; loop++ ) {
 				String name = names[loop];
-				Property property = getProperties( traverse.getClass().getName() ).get( name );
+				Property property = plan.getProperty( loop, traverse.getClass() );
 
 				if ( property == null || !property.isReadable() ) {
 					return new ValueAndDeclaredType( null, null );
@@ -122,14 +139,16 @@ public abstract class BasePropertyStyle
 				// cyclic reference because it only looks at types, not objects),
 				// BaseObjectInspector can detect cycles and nip them in the bud
 
-				if ( !traversed.add( traverse ) ) {
+				if ( isTraversed( traversed, loop + 1, traverse ) ) {
 					// Trace, rather than do a debug log, because it makes for a nicer 'out
 					// of the box' experience
 
-					mLog.trace( "Prevented infinite recursion on {0}{1}. Consider marking {2} as hidden", type, ArrayUtils.toString( names, StringUtils.SEPARATOR_FORWARD_SLASH, true, false ), name );
+					mLog.trace( "Prevented infinite recursion on {0}{1}. Consider marking {2} as hidden", type, LogUtils.lazyPath( names ), name );
 					return new ValueAndDeclaredType( null, null );
 				}
 
+				traversed[loop + 1] = traverse;
+
 				// Always come in this loop once, even if onlyToParent, because we
 				// want to do the recursion check
 
@@ -165,6 +184,13 @@ public abstract class BasePropertyStyle
 		return new ValueAndDeclaredType( traverse, traverseDeclaredType );
 	}
 
+	@Override
+	public void clearCache() {
+
+		super.clearCache();
+		mTraversalPlans.clear();
+	}
+
 	//
 	// Protected methods
 	//
@@ -180,4 +206,227 @@ public abstract class BasePropertyStyle
 	 */
 
 	protected abstract Map<String, Property> inspectProperties( String type );
+
+	//
+	// Private methods
+	//
+
+	private TraversalPlan getTraversalPlan( Class<?> rootClass, String type, String... names ) {
+
+		if ( !isCacheLookups() ) {
+			return new TraversalPlan( rootClass, type, names );
+		}
+
+		String rootClassName = rootClass.getName();
+		ConcurrentMap<String, TraversalPlan> plans = mTraversalPlans.get( rootClassName );
+
+		if ( plans == null ) {
+			plans = new ConcurrentHashMap<String, TraversalPlan>();
+			ConcurrentMap<String, TraversalPlan> existingPlans = mTraversalPlans.putIfAbsent( rootClassName, plans );
+
+			if ( existingPlans != null ) {
+				plans = existingPlans;
+			}
+		}
+
+		String key = type + StringUtils.SEPARATOR_FORWARD_SLASH + ArrayUtils.toString( names, StringUtils.SEPARATOR_FORWARD_SLASH );
+		TraversalPlan plan = plans.get( key );
+
+		// (a class of the same name may have been reloaded by a different ClassLoader)
+
+		if ( plan == null || plan.getRootClass() != rootClass ) {
+
+			if ( plans.size() >= MAXIMUM_TRAVERSAL_PLANS ) {
+				plans.clear();
+			}
+
+			plan = new TraversalPlan( rootClass, type, names );
+			plans.put( key, plan );
+		}
+
+		return plan;
+	}
+
+	/**
+	 * Whether the given Object has already been traversed.
+	 * <p>
+	 * Only compares against previously traversed Objects of related classes (ie. where the type
+	 * graph can actually recurse), so avoids calling <code>hashCode</code> on every value.
+	 */
+
+	private boolean isTraversed( Object[] traversed, int length, Object toCheck ) {
+
+		if ( toCheck == null ) {
+			return false;
+		}
+
+		Class<?> toCheckClass = toCheck.getClass();
+
+		for ( int loop = 0; loop < length; loop++ ) {
+
+			Object alreadyTraversed = traversed[loop];
+
+			if ( alreadyTraversed == null ) {
+				continue;
+			}
+
+			if ( alreadyTraversed == toCheck ) {
+				return true;
+			}
+
+			Class<?> alreadyTraversedClass = alreadyTraversed.getClass();
+
+			if ( !alreadyTraversedClass.isAssignableFrom( toCheckClass ) && !toCheckClass.isAssignableFrom( alreadyTraversedClass ) ) {
+				continue;
+			}
+
+			if ( alreadyTraversed.equals( toCheck ) ) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	//
+	// Inner class
+	//
+
+	/**
+	 * Compiled form of a traversal from a given root class, through given names.
+	 * <p>
+	 * Caches the sanity check of the root class, and the <code>Property</code> resolved at each
+	 * step. Each step remembers the class it was resolved against, and re-resolves only if handed
+	 * an instance of a different class (eg. a subclass), so that only the value reads happen at
+	 * runtime.
+	 * <p>
+	 * Classes are held weakly. The properties are the same instances held by the cache of traits.
+	 */
+
+	private class TraversalPlan {
+
+		//
+		// Private members
+		//
+
+		private final WeakReference<Class<?>>	mRootClass;
+
+		private final boolean					mAssignable;
+
+		private final String[]					mNames;
+
+		/**
+		 * Steps resolved so far. Each Step is replaced (never mutated) so that readers on other
+		 * threads always see a consistent class/property pairing.
+		 */
+
+		private final Step[]					mSteps;
+
+		//
+		// Constructor
+		//
+
+		public TraversalPlan( Class<?> rootClass, String type, String... names ) {
+
+			// Sanity check that the given toTraverse is, in fact, of the given type.
+			//
+			// This is harder than it seems. We cannot do a simple 'equals', but to do a
+			// 'isAssignableFrom' we must instantiate the class. But instantiating the class may
+			// not be possible because of proxies, virtual classes, what tier we're on, etc.
+			// Basically, we can't be too strict about it.
+			//
+			// Use the toTraverse's ClassLoader, to support ClassLoader isolation (eg. classes from
+			// a WAR being inspected by an EJB lib) and dynamic classes (eg. Groovy)
+
+			Class<?> sanityCheck = ClassUtils.niceForName( type, rootClass.getClassLoader() );
+			mRootClass = new WeakReference<Class<?>>( rootClass );
+			mAssignable = ( sanityCheck == null || sanityCheck.isAssignableFrom( rootClass ) );
+
+			mNames = names;
+
+			if ( names == null ) {
+				mSteps = null;
+			} else {
+				mSteps = new Step[names.length];
+			}
+		}
+
+		//
+		// Public methods
+		//
+
+		/**
+		 * @return the root class, or null if it has been garbage collected
+		 */
+
+		public Class<?> getRootClass() {
+
+			return mRootClass.get();
+		}
+
+		public boolean isAssignable() {
+
+			return mAssignable;
+		}
+
+		/**
+		 * @return the property for the given step, or null if there is no such property
+		 */
+
+		public Property getProperty( int index, Class<?> clazz ) {
+
+			Step step = mSteps[index];
+
+			if ( step == null || step.getType() != clazz ) {
+				step = new Step( clazz, getProperties( clazz.getName() ).get( mNames[index] ) );
+				mSteps[index] = step;
+			}
+
+			return step.getProperty();
+		}
+	}
+
+	/**
+	 * A single step of a <code>TraversalPlan</code>.
+	 */
+
+	private static class Step {
+
+		//
+		// Private members
+		//
+
+		private final WeakReference<Class<?>>	mType;
+
+		private final Property					mProperty;
+
+		//
+		// Constructor
+		//
+
+		public Step( Class<?> type, Property property ) {
+
+			mType = new WeakReference<Class<?>>( type );
+			mProperty = property;
+		}
+
+		//
+		// Public methods
+		//
+
+		/**
+		 * @return the class this step was resolved against, or null if it has been garbage
+		 *         collected
+		 */
+
+		public Class<?> getType() {
+
+			return mType.get();
+		}
+
+		public Property getProperty() {
+
+			return mProperty;
+		}
+	}
 }
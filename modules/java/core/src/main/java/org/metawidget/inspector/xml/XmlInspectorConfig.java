@@ -88,4 +88,34 @@ public class XmlInspectorConfig
 
 		return (XmlInspectorConfig) super.setValidateAgainstClasses( validateAgainstClasses );
 	}
+
+	/**
+	 * Overridden to provide a covariant return type for our fluent interface.
+	 */
+
+	@Override
+	public XmlInspectorConfig setParseThreads( int parseThreads ) {
+
+		return (XmlInspectorConfig) super.setParseThreads( parseThreads );
+	}
+
+	/**
+	 * Overridden to provide a covariant return type for our fluent interface.
+	 */
+
+	@Override
+	public XmlInspectorConfig setParseLazily( boolean parseLazily ) {
+
+		return (XmlInspectorConfig) super.setParseLazily( parseLazily );
+	}
+
+	/**
+	 * Overridden to provide a covariant return type for our fluent interface.
+	 */
+
+	@Override
+	public XmlInspectorConfig setCacheDirectory( String cacheDirectory ) {
+
+		return (XmlInspectorConfig) super.setCacheDirectory( cacheDirectory );
+	}
 }
@@ -25,6 +25,7 @@ import org.metawidget.inspector.iface.DomInspector;
 import org.metawidget.inspector.iface.Inspector;
 import org.metawidget.layout.iface.AdvancedLayout;
 import org.metawidget.layout.iface.Layout;
+import org.metawidget.util.simple.ObjectUtils;
 import org.metawidget.widgetbuilder.iface.AdvancedWidgetBuilder;
 import org.metawidget.widgetbuilder.iface.WidgetBuilder;
 import org.metawidget.widgetprocessor.iface.AdvancedWidgetProcessor;
@@ -87,6 +88,13 @@ public abstract class BasePipeline<W, C extends W, E, M extends C> {
 
 	private Layout<W, C, M>						mLayout;
 
+	/**
+	 * Template of our configuration, shared with nested pipelines. May be stale, if our
+	 * configuration has since changed.
+	 */
+
+	private PipelineTemplate<W, C, M>			mTemplate;
+
 	//
 	// Public methods
 	//
@@ -169,10 +177,30 @@ public abstract class BasePipeline<W, C extends W, E, M extends C> {
 	 * <p>
 	 * We use a List of InspectionResultProcessors, however, so as to be consistent with
 	 * WidgetProcessors. Note ordering of InspectionResultProcessors is significant.
+	 * <p>
+	 * The returned List is modifiable. If it is currently shared with a
+	 * <code>PipelineTemplate</code>, this pipeline first takes its own copy.
 	 */
 
 	public List<InspectionResultProcessor<M>> getInspectionResultProcessors() {
 
+		configureOnce();
+		unshareTemplate();
+		return mInspectionResultProcessors;
+	}
+
+	/**
+	 * Gets the List of InspectionResultProcessors, for reading only.
+	 * <p>
+	 * Unlike <code>getInspectionResultProcessors</code>, never takes a copy of a List shared with a
+	 * <code>PipelineTemplate</code>. Suitable for null checks and lookups, which happen for every
+	 * nested pipeline.
+	 *
+	 * @return the List of InspectionResultProcessors, or null. Must not be modified
+	 */
+
+	public List<InspectionResultProcessor<M>> getReadOnlyInspectionResultProcessors() {
+
 		configureOnce();
 		return mInspectionResultProcessors;
 	}
@@ -189,6 +217,7 @@ public abstract class BasePipeline<W, C extends W, E, M extends C> {
 	public void addInspectionResultProcessor( InspectionResultProcessor<M> inspectionResultProcessor ) {
 
 		configureOnce();
+		unshareTemplate();
 
 		if ( mInspectionResultProcessors == null ) {
 			mInspectionResultProcessors = new ArrayList<InspectionResultProcessor<M>>();
@@ -203,6 +232,7 @@ public abstract class BasePipeline<W, C extends W, E, M extends C> {
 			InspectionResultProcessor<M> inspectionResultProcessors ) {
 
 		configureOnce();
+		unshareTemplate();
 
 		if ( mInspectionResultProcessors == null ) {
 			return;
@@ -243,10 +273,30 @@ public abstract class BasePipeline<W, C extends W, E, M extends C> {
 	 * classes.
 	 * <p>
 	 * There, we use a List of WidgetProcessors. Note ordering of WidgetProcessors is significant.
+	 * <p>
+	 * The returned List is modifiable. If it is currently shared with a
+	 * <code>PipelineTemplate</code>, this pipeline first takes its own copy.
 	 */
 
 	public List<WidgetProcessor<W, M>> getWidgetProcessors() {
 
+		configureOnce();
+		unshareTemplate();
+		return mWidgetProcessors;
+	}
+
+	/**
+	 * Gets the List of WidgetProcessors, for reading only.
+	 * <p>
+	 * Unlike <code>getWidgetProcessors</code>, never takes a copy of a List shared with a
+	 * <code>PipelineTemplate</code>. Suitable for null checks and lookups, which happen for every
+	 * nested pipeline.
+	 *
+	 * @return the List of WidgetProcessors, or null. Must not be modified
+	 */
+
+	public List<WidgetProcessor<W, M>> getReadOnlyWidgetProcessors() {
+
 		configureOnce();
 		return mWidgetProcessors;
 	}
@@ -263,6 +313,7 @@ public abstract class BasePipeline<W, C extends W, E, M extends C> {
 	public void addWidgetProcessor( WidgetProcessor<W, M> widgetProcessor ) {
 
 		configureOnce();
+		unshareTemplate();
 
 		if ( mWidgetProcessors == null ) {
 			mWidgetProcessors = new ArrayList<WidgetProcessor<W, M>>();
@@ -276,6 +327,7 @@ public abstract class BasePipeline<W, C extends W, E, M extends C> {
 	public void removeWidgetProcessor( WidgetProcessor<W, M> widgetProcessor ) {
 
 		configureOnce();
+		unshareTemplate();
 
 		if ( mWidgetProcessors == null ) {
 			return;
@@ -300,6 +352,44 @@ public abstract class BasePipeline<W, C extends W, E, M extends C> {
 		mLayout = layout;
 	}
 
+	/**
+	 * Gets an immutable template of this pipeline's current configuration.
+	 * <p>
+	 * The template is built once, and rebuilt only if the configuration changes. It is safe to
+	 * share between pipelines.
+	 */
+
+	public PipelineTemplate<W, C, M> getTemplate() {
+
+		configureOnce();
+
+		if ( !isTemplateCurrent() ) {
+			mTemplate = new PipelineTemplate<W, C, M>( mInspector, mInspectionResultProcessors, mWidgetBuilder, mWidgetProcessors, mLayout );
+		}
+
+		return mTemplate;
+	}
+
+	/**
+	 * Configures this pipeline from the given template.
+	 * <p>
+	 * The template's configuration is shared by reference, not copied. This pipeline only takes its
+	 * own copy of the InspectionResultProcessor and WidgetProcessor Lists (copy-on-write) if it
+	 * calls one of the <code>add</code> or <code>remove</code> methods, or hands the Lists to
+	 * clients through <code>getInspectionResultProcessors</code> or
+	 * <code>getWidgetProcessors</code>.
+	 */
+
+	public void setTemplate( PipelineTemplate<W, C, M> template ) {
+
+		mInspector = template.getInspector();
+		mInspectionResultProcessors = template.getInspectionResultProcessors();
+		mWidgetBuilder = template.getWidgetBuilder();
+		mWidgetProcessors = template.getWidgetProcessors();
+		mLayout = template.getLayout();
+		mTemplate = template;
+	}
+
 	/**
 	 * Inspect the given Object according to the given path, and return the
 	 * result as a String conforming to inspection-result-1.0.xsd.
@@ -336,13 +426,7 @@ public abstract class BasePipeline<W, C extends W, E, M extends C> {
 			throw new NullPointerException( "No inspector configured" );
 		}
 
-		Object inspectionResult;
-
-		if ( mInspector instanceof DomInspector<?> ) {
-			inspectionResult = ( (DomInspector<?>) mInspector ).inspectAsDom( toInspect, type, names );
-		} else {
-			inspectionResult = mInspector.inspect( toInspect, type, names );
-		}
+		Object inspectionResult = invokeInspector( mInspector, toInspect, type, names );
 
 		if ( inspectionResult == null ) {
 			return null;
@@ -439,7 +523,8 @@ public abstract class BasePipeline<W, C extends W, E, M extends C> {
 	 * maximumInspectionDepth reaches zero</li>
 	 * <li>the given pipeline is initialised with the same Inspectors, InspectionResultProcessors,
 	 * WidgetBuilders, WidgetProcessors and Layouts as the current pipeline. This is safe because
-	 * they are all immutable</li>
+	 * they are all immutable. They are shared by way of a <code>PipelineTemplate</code>, so are not
+	 * copied at each level of nesting</li>
 	 * </ul>
 	 *
 	 * @param attributes
@@ -452,24 +537,11 @@ public abstract class BasePipeline<W, C extends W, E, M extends C> {
 		nestedPipeline.setMaximumInspectionDepth( getMaximumInspectionDepth() - 1 );
 
 		// Inspectors, InspectionResultProcessors, WidgetBuilders,
-		// WidgetProcessors and Layouts can be shared because they are immutable. However note that
-		// the InspectionResultProcessor and WidgetProcessor Lists are defensively copied
-
-		nestedPipeline.setInspector( getInspector() );
-		nestedPipeline.setWidgetBuilder( getWidgetBuilder() );
-		nestedPipeline.setLayout( getLayout() );
-
-		if ( mInspectionResultProcessors == null ) {
-			nestedPipeline.mInspectionResultProcessors = null;
-		} else {
-			nestedPipeline.mInspectionResultProcessors = new ArrayList<InspectionResultProcessor<M>>( mInspectionResultProcessors );
-		}
+		// WidgetProcessors and Layouts can be shared because they are immutable. The
+		// InspectionResultProcessor and WidgetProcessor Lists are shared too, but are unmodifiable
+		// (copy-on-write)
 
-		if ( mWidgetProcessors == null ) {
-			nestedPipeline.mWidgetProcessors = null;
-		} else {
-			nestedPipeline.mWidgetProcessors = new ArrayList<WidgetProcessor<W, M>>( mWidgetProcessors );
-		}
+		nestedPipeline.setTemplate( getTemplate() );
 	}
 
 	//
@@ -633,20 +705,7 @@ public abstract class BasePipeline<W, C extends W, E, M extends C> {
 			M pipelineOwner = getPipelineOwner();
 
 			for ( InspectionResultProcessor<M> inspectionResultProcessor : mInspectionResultProcessors ) {
-				if ( inspectionResultProcessor instanceof DomInspectionResultProcessor<?, ?> ) {
-					if ( inspectionResultToProcess instanceof String ) {
-						inspectionResultToProcess = stringToElement( (String) inspectionResultToProcess );
-					}
-					DomInspectionResultProcessor<E, M> domInspectionResultProcessor = (DomInspectionResultProcessor<E, M>) inspectionResultProcessor;
-					E inspectionResultToProcessElement = (E) inspectionResultToProcess;
-					inspectionResultToProcess = domInspectionResultProcessor.processInspectionResultAsDom( inspectionResultToProcessElement, pipelineOwner, toInspect, type, names );
-				} else {
-					if ( !( inspectionResultToProcess instanceof String ) ) {
-						E inspectionResultToProcessElement = (E) inspectionResultToProcess;
-						inspectionResultToProcess = elementToString( inspectionResultToProcessElement );
-					}
-					inspectionResultToProcess = inspectionResultProcessor.processInspectionResult( (String) inspectionResultToProcess, pipelineOwner, toInspect, type, names );
-				}
+				inspectionResultToProcess = invokeInspectionResultProcessor( inspectionResultProcessor, inspectionResultToProcess, pipelineOwner, toInspect, type, names );
 
 				// An InspectionResultProcessor could return null to cancel the
 				// inspection
@@ -664,6 +723,57 @@ public abstract class BasePipeline<W, C extends W, E, M extends C> {
 		return (E) inspectionResultToProcess;
 	}
 
+	/**
+	 * Invokes the given Inspector.
+	 * <p>
+	 * This is a hook for subclasses wishing to instrument each stage of the pipeline.
+	 *
+	 * @return may be a String of XML, or an E, depending on whether the Inspector was a
+	 *         DomInspector
+	 */
+
+	protected Object invokeInspector( Inspector inspector, Object toInspect, String type, String... names ) {
+
+		if ( inspector instanceof DomInspector<?> ) {
+			return ( (DomInspector<?>) inspector ).inspectAsDom( toInspect, type, names );
+		}
+
+		return inspector.inspect( toInspect, type, names );
+	}
+
+	/**
+	 * Invokes the given InspectionResultProcessor, converting the given inspection result to a
+	 * String or an E as required.
+	 * <p>
+	 * This is a hook for subclasses wishing to instrument each stage of the pipeline.
+	 *
+	 * @param inspectionResult
+	 *            may be a String of XML, or an E
+	 * @return may be a String of XML, or an E
+	 */
+
+	@SuppressWarnings( "unchecked" )
+	protected Object invokeInspectionResultProcessor( InspectionResultProcessor<M> inspectionResultProcessor, Object inspectionResult, M pipelineOwner, Object toInspect, String type, String... names ) {
+
+		Object inspectionResultToProcess = inspectionResult;
+
+		if ( inspectionResultProcessor instanceof DomInspectionResultProcessor<?, ?> ) {
+			if ( inspectionResultToProcess instanceof String ) {
+				inspectionResultToProcess = stringToElement( (String) inspectionResultToProcess );
+			}
+			DomInspectionResultProcessor<E, M> domInspectionResultProcessor = (DomInspectionResultProcessor<E, M>) inspectionResultProcessor;
+			E inspectionResultToProcessElement = (E) inspectionResultToProcess;
+			return domInspectionResultProcessor.processInspectionResultAsDom( inspectionResultToProcessElement, pipelineOwner, toInspect, type, names );
+		}
+
+		if ( !( inspectionResultToProcess instanceof String ) ) {
+			E inspectionResultToProcessElement = (E) inspectionResultToProcess;
+			inspectionResultToProcess = elementToString( inspectionResultToProcessElement );
+		}
+
+		return inspectionResultProcessor.processInspectionResult( (String) inspectionResultToProcess, pipelineOwner, toInspect, type, names );
+	}
+
 	/**
 	 * Returns additional attributes associated with the widget.
 	 * <p>
@@ -697,7 +807,7 @@ public abstract class BasePipeline<W, C extends W, E, M extends C> {
 			M pipelineOwner = getPipelineOwner();
 
 			for ( WidgetProcessor<W, M> widgetProcessor : mWidgetProcessors ) {
-				processedWidget = widgetProcessor.processWidget( processedWidget, elementName, attributes, pipelineOwner );
+				processedWidget = invokeWidgetProcessor( widgetProcessor, processedWidget, elementName, attributes, pipelineOwner );
 
 				// A WidgetProcessor could return null to cancel the widget
 
@@ -710,6 +820,17 @@ public abstract class BasePipeline<W, C extends W, E, M extends C> {
 		return processedWidget;
 	}
 
+	/**
+	 * Invokes the given WidgetProcessor.
+	 * <p>
+	 * This is a hook for subclasses wishing to instrument each stage of the pipeline.
+	 */
+
+	protected W invokeWidgetProcessor( WidgetProcessor<W, M> widgetProcessor, W widget, String elementName, Map<String, String> attributes, M pipelineOwner ) {
+
+		return widgetProcessor.processWidget( widget, elementName, attributes, pipelineOwner );
+	}
+
 	protected abstract M buildNestedMetawidget( Map<String, String> attributes )
 		throws Exception;
 
@@ -751,4 +872,54 @@ public abstract class BasePipeline<W, C extends W, E, M extends C> {
 			( (AdvancedWidgetBuilder<W, M>) mWidgetBuilder ).onEndBuild( pipelineOwner );
 		}
 	}
+
+	//
+	// Private methods
+	//
+
+	/**
+	 * Stops sharing our template's (unmodifiable) Lists, if we are, taking our own copy of them so
+	 * that they can be modified. The template itself is kept, for as long as it still matches our
+	 * configuration.
+	 */
+
+	private void unshareTemplate() {
+
+		if ( mTemplate == null ) {
+			return;
+		}
+
+		if ( mInspectionResultProcessors != null && mInspectionResultProcessors == mTemplate.getInspectionResultProcessors() ) {
+			mInspectionResultProcessors = new ArrayList<InspectionResultProcessor<M>>( mInspectionResultProcessors );
+		}
+
+		if ( mWidgetProcessors != null && mWidgetProcessors == mTemplate.getWidgetProcessors() ) {
+			mWidgetProcessors = new ArrayList<WidgetProcessor<W, M>>( mWidgetProcessors );
+		}
+	}
+
+	/**
+	 * Whether our template still matches our configuration.
+	 * <p>
+	 * Our configuration can change not just through our setters, but also by clients modifying the
+	 * Lists returned by <code>getInspectionResultProcessors</code> and
+	 * <code>getWidgetProcessors</code>. So compare rather than rely on invalidation.
+	 */
+
+	private boolean isTemplateCurrent() {
+
+		if ( mTemplate == null ) {
+			return false;
+		}
+
+		if ( mTemplate.getInspector() != mInspector || mTemplate.getWidgetBuilder() != mWidgetBuilder || mTemplate.getLayout() != mLayout ) {
+			return false;
+		}
+
+		if ( !ObjectUtils.nullSafeEquals( mTemplate.getInspectionResultProcessors(), mInspectionResultProcessors ) ) {
+			return false;
+		}
+
+		return ObjectUtils.nullSafeEquals( mTemplate.getWidgetProcessors(), mWidgetProcessors );
+	}
 }
@@ -0,0 +1,124 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+
+package org.metawidget.pipeline.base;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.metawidget.iface.Immutable;
+import org.metawidget.inspectionresultprocessor.iface.InspectionResultProcessor;
+import org.metawidget.inspector.iface.Inspector;
+import org.metawidget.layout.iface.Layout;
+import org.metawidget.widgetbuilder.iface.WidgetBuilder;
+import org.metawidget.widgetprocessor.iface.WidgetProcessor;
+
+/**
+ * Immutable snapshot of a pipeline's configuration: its Inspector, InspectionResultProcessors,
+ * WidgetBuilder, WidgetProcessors and Layout.
+ * <p>
+ * A template is built once by a configured pipeline, then shared by reference with every nested
+ * pipeline (and their nested pipelines in turn). This saves each level of nesting from copying the
+ * configuration. Nested pipelines carry only their per-instance state, such as read-only and
+ * maximum inspection depth.
+ * <p>
+ * The Lists returned by a template are unmodifiable. A pipeline that adds or removes an
+ * InspectionResultProcessor or WidgetProcessor, or that returns its Lists to clients, takes its own
+ * (modifiable) copy first.
+ *
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public final class PipelineTemplate<W, C extends W, M extends C>
+	implements Immutable {
+
+	//
+	// Private members
+	//
+
+	private final Inspector								mInspector;
+
+	private final List<InspectionResultProcessor<M>>	mInspectionResultProcessors;
+
+	private final WidgetBuilder<W, M>					mWidgetBuilder;
+
+	private final List<WidgetProcessor<W, M>>			mWidgetProcessors;
+
+	private final Layout<W, C, M>						mLayout;
+
+	//
+	// Constructor
+	//
+
+	/**
+	 * @param inspectionResultProcessors
+	 *            may be null. Is defensively copied
+	 * @param widgetProcessors
+	 *            may be null. Is defensively copied
+	 */
+
+	public PipelineTemplate( Inspector inspector, List<InspectionResultProcessor<M>> inspectionResultProcessors, WidgetBuilder<W, M> widgetBuilder, List<WidgetProcessor<W, M>> widgetProcessors, Layout<W, C, M> layout ) {
+
+		mInspector = inspector;
+		mWidgetBuilder = widgetBuilder;
+		mLayout = layout;
+
+		if ( inspectionResultProcessors == null ) {
+			mInspectionResultProcessors = null;
+		} else {
+			mInspectionResultProcessors = Collections.unmodifiableList( new ArrayList<InspectionResultProcessor<M>>( inspectionResultProcessors ) );
+		}
+
+		if ( widgetProcessors == null ) {
+			mWidgetProcessors = null;
+		} else {
+			mWidgetProcessors = Collections.unmodifiableList( new ArrayList<WidgetProcessor<W, M>>( widgetProcessors ) );
+		}
+	}
+
+	//
+	// Public methods
+	//
+
+	public Inspector getInspector() {
+
+		return mInspector;
+	}
+
+	/**
+	 * @return an unmodifiable List. May be null
+	 */
+
+	public List<InspectionResultProcessor<M>> getInspectionResultProcessors() {
+
+		return mInspectionResultProcessors;
+	}
+
+	public WidgetBuilder<W, M> getWidgetBuilder() {
+
+		return mWidgetBuilder;
+	}
+
+	/**
+	 * @return an unmodifiable List. May be null
+	 */
+
+	public List<WidgetProcessor<W, M>> getWidgetProcessors() {
+
+		return mWidgetProcessors;
+	}
+
+	public Layout<W, C, M> getLayout() {
+
+		return mLayout;
+	}
+}
@@ -0,0 +1,77 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+
+package org.metawidget.pipeline.metrics.iface;
+
+import org.metawidget.iface.Immutable;
+
+/**
+ * Common interface implemented by all PipelineMetrics. PipelineMetrics record how long each stage
+ * of a pipeline (ie. each Inspector, InspectionResultProcessor, WidgetBuilder, WidgetProcessor and
+ * Layout) takes, for each type.
+ * <p>
+ * PipelineMetrics are shared by every Metawidget that is configured with them, so must be
+ * immutable (or, at least, appear that way to clients. They will accumulate counters internally,
+ * so must be threadsafe). Pipelines only time their stages if configured with PipelineMetrics, so
+ * there is no overhead otherwise.
+ * <p>
+ * A <code>CompositeInspector</code> or <code>CompositeWidgetBuilder</code> is recorded both as a
+ * whole and for each of its sub-Inspectors or sub-WidgetBuilders, so totals for the same stage
+ * overlap.
+ *
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public interface PipelineMetrics
+	extends Immutable {
+
+	//
+	// Stages
+	//
+
+	String	INSPECT						= "inspect";
+
+	/**
+	 * An inspection served from the pipeline's cache of type inspections, without invoking the
+	 * Inspector. Recorded against the Inspector that would otherwise have been invoked.
+	 */
+
+	String	INSPECT_CACHED				= "inspectCached";
+
+	String	PROCESS_INSPECTION_RESULT	= "processInspectionResult";
+
+	String	BUILD_WIDGET				= "buildWidget";
+
+	String	PROCESS_WIDGET				= "processWidget";
+
+	String	LAYOUT_WIDGET				= "layoutWidget";
+
+	//
+	// Methods
+	//
+
+	/**
+	 * Records a single invocation of a pipeline stage.
+	 *
+	 * @param stage
+	 *            the stage of the pipeline (eg. <code>INSPECT</code>). Never null
+	 * @param component
+	 *            the class of the Inspector, InspectionResultProcessor etc. that was invoked. Never
+	 *            null
+	 * @param type
+	 *            the type (and, for inspection, the path) being processed. May be null (eg. for
+	 *            actions)
+	 * @param elapsedNanos
+	 *            time taken, as measured by <code>System.nanoTime</code>
+	 */
+
+	void record( String stage, Class<?> component, String type, long elapsedNanos );
+}
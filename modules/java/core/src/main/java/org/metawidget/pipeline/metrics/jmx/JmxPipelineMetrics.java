@@ -0,0 +1,118 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+package org.metawidget.pipeline.metrics.jmx;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.metawidget.iface.MetawidgetException;
+import org.metawidget.pipeline.metrics.snapshot.PipelineMetric;
+import org.metawidget.pipeline.metrics.snapshot.SnapshotPipelineMetrics;
+
+/**
+ * PipelineMetrics that can register itself with the platform MBeanServer, so that counters can be
+ * viewed (and reset) using any JMX console.
+ * <p>
+ * Registration is explicit: clients call <code>register</code> (eg. on application startup) and
+ * <code>unregister</code> (eg. on application shutdown). Otherwise the MBeanServer would hold a
+ * reference to this instance, and so to its ClassLoader, after the application was undeployed.
+ *
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public class JmxPipelineMetrics
+	extends SnapshotPipelineMetrics
+	implements JmxPipelineMetricsMBean {
+
+	//
+	// Private members
+	//
+
+	private final ObjectName	mObjectName;
+
+	//
+	// Constructor
+	//
+
+	public JmxPipelineMetrics() {
+
+		this( new JmxPipelineMetricsConfig() );
+	}
+
+	public JmxPipelineMetrics( JmxPipelineMetricsConfig config ) {
+
+		try {
+			mObjectName = new ObjectName( config.getObjectName() );
+		} catch ( Exception e ) {
+			throw MetawidgetException.newException( e );
+		}
+	}
+
+	//
+	// Public methods
+	//
+
+	/**
+	 * Registers with the platform MBeanServer.
+	 * <p>
+	 * If an MBean is already registered under the same name (eg. from a previous deployment of the
+	 * same application that was never unregistered), it is replaced.
+	 */
+
+	public void register() {
+
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+			try {
+				server.registerMBean( this, mObjectName );
+			} catch ( InstanceAlreadyExistsException e ) {
+				server.unregisterMBean( mObjectName );
+				server.registerMBean( this, mObjectName );
+			}
+		} catch ( Exception e ) {
+			throw MetawidgetException.newException( e );
+		}
+	}
+
+	/**
+	 * Unregisters from the platform MBeanServer, if registered.
+	 */
+
+	public void unregister() {
+
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+			if ( server.isRegistered( mObjectName ) ) {
+				server.unregisterMBean( mObjectName );
+			}
+		} catch ( Exception e ) {
+			throw MetawidgetException.newException( e );
+		}
+	}
+
+	public String[] getMetrics() {
+
+		List<PipelineMetric> snapshot = getSnapshot();
+		String[] metrics = new String[snapshot.size()];
+
+		for ( int loop = 0, length = metrics.length; loop < length; loop++ ) {
+			metrics[loop] = snapshot.get( loop ).toString();
+		}
+
+		return metrics;
+	}
+}
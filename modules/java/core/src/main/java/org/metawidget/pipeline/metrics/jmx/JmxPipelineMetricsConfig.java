@@ -0,0 +1,79 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+package org.metawidget.pipeline.metrics.jmx;
+
+import org.metawidget.util.simple.ObjectUtils;
+
+/**
+ * Configures a JmxPipelineMetrics prior to use. Once instantiated, PipelineMetrics are immutable.
+ *
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public class JmxPipelineMetricsConfig {
+
+	//
+	// Private members
+	//
+
+	private String	mObjectName	= "org.metawidget:type=PipelineMetrics";
+
+	//
+	// Public methods
+	//
+
+	/**
+	 * Sets the JMX ObjectName to register under. Defaults to
+	 * <code>org.metawidget:type=PipelineMetrics</code>.
+	 *
+	 * @return this, as part of a fluent interface
+	 */
+
+	public JmxPipelineMetricsConfig setObjectName( String objectName ) {
+
+		mObjectName = objectName;
+
+		return this;
+	}
+
+	@Override
+	public boolean equals( Object that ) {
+
+		if ( this == that ) {
+			return true;
+		}
+
+		if ( !ObjectUtils.nullSafeClassEquals( this, that ) ) {
+			return false;
+		}
+
+		if ( !ObjectUtils.nullSafeEquals( mObjectName, ( (JmxPipelineMetricsConfig) that ).mObjectName ) ) {
+			return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+
+		return ObjectUtils.nullSafeHashCode( mObjectName );
+	}
+
+	//
+	// Protected methods
+	//
+
+	protected String getObjectName() {
+
+		return mObjectName;
+	}
+}
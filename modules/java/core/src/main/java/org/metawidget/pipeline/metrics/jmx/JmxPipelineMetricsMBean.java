@@ -0,0 +1,32 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+package org.metawidget.pipeline.metrics.jmx;
+
+/**
+ * Management interface exposed by JmxPipelineMetrics.
+ *
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public interface JmxPipelineMetricsMBean {
+
+	//
+	// Methods
+	//
+
+	/**
+	 * @return a description of each counter, slowest (by total time) first
+	 */
+
+	String[] getMetrics();
+
+	void reset();
+}
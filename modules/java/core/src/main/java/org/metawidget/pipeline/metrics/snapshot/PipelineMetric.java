@@ -0,0 +1,131 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+
+package org.metawidget.pipeline.metrics.snapshot;
+
+import org.metawidget.iface.Immutable;
+
+/**
+ * Snapshot of the timings of a single stage, component and type.
+ *
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public class PipelineMetric
+	implements Immutable {
+
+	//
+	// Private members
+	//
+
+	private final String	mStage;
+
+	private final String	mComponent;
+
+	private final String	mType;
+
+	private final long		mCount;
+
+	private final long		mTotalNanos;
+
+	private final long		mMaximumNanos;
+
+	//
+	// Constructor
+	//
+
+	public PipelineMetric( String stage, String component, String type, long count, long totalNanos, long maximumNanos ) {
+
+		mStage = stage;
+		mComponent = component;
+		mType = type;
+		mCount = count;
+		mTotalNanos = totalNanos;
+		mMaximumNanos = maximumNanos;
+	}
+
+	//
+	// Public methods
+	//
+
+	public String getStage() {
+
+		return mStage;
+	}
+
+	/**
+	 * @return the class name of the component
+	 */
+
+	public String getComponent() {
+
+		return mComponent;
+	}
+
+	/**
+	 * @return the type (and, for inspection, the path). May be null
+	 */
+
+	public String getType() {
+
+		return mType;
+	}
+
+	public long getCount() {
+
+		return mCount;
+	}
+
+	public long getTotalNanos() {
+
+		return mTotalNanos;
+	}
+
+	public long getMaximumNanos() {
+
+		return mMaximumNanos;
+	}
+
+	public long getAverageNanos() {
+
+		if ( mCount == 0 ) {
+			return 0;
+		}
+
+		return mTotalNanos / mCount;
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuilder builder = new StringBuilder();
+		builder.append( mStage );
+		builder.append( ' ' );
+		builder.append( mComponent );
+
+		if ( mType != null ) {
+			builder.append( ' ' );
+			builder.append( mType );
+		}
+
+		builder.append( ": count=" );
+		builder.append( mCount );
+		builder.append( ", total=" );
+		builder.append( mTotalNanos / 1000 );
+		builder.append( "us, average=" );
+		builder.append( getAverageNanos() / 1000 );
+		builder.append( "us, maximum=" );
+		builder.append( mMaximumNanos / 1000 );
+		builder.append( "us" );
+
+		return builder.toString();
+	}
+}
@@ -0,0 +1,231 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+
+package org.metawidget.pipeline.metrics.snapshot;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.metawidget.pipeline.metrics.iface.PipelineMetrics;
+import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.simple.ObjectUtils;
+
+/**
+ * PipelineMetrics that accumulates counters in-process, and can return a snapshot of them.
+ * <p>
+ * Configure it in <code>metawidget.xml</code>, then retrieve the (shared) instance from the
+ * <code>ConfigReader</code> or Metawidget and call <code>getSnapshot</code>. Counters are kept
+ * per stage, component and type. To bound memory, new combinations are ignored once
+ * <code>MAXIMUM_ENTRIES</code> is reached (until <code>reset</code>).
+ *
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public class SnapshotPipelineMetrics
+	implements PipelineMetrics {
+
+	//
+	// Public statics
+	//
+
+	public static final int							MAXIMUM_ENTRIES	= 10000;
+
+	//
+	// Private members
+	//
+
+	private final ConcurrentMap<Key, Counter>	mCounters		= new ConcurrentHashMap<Key, Counter>();
+
+	//
+	// Public methods
+	//
+
+	public void record( String stage, Class<?> component, String type, long elapsedNanos ) {
+
+		Key key = new Key( stage, component, type );
+		Counter counter = mCounters.get( key );
+
+		if ( counter == null ) {
+
+			if ( mCounters.size() >= MAXIMUM_ENTRIES ) {
+				return;
+			}
+
+			counter = new Counter();
+			Counter existingCounter = mCounters.putIfAbsent( key, counter );
+
+			if ( existingCounter != null ) {
+				counter = existingCounter;
+			}
+		}
+
+		counter.record( elapsedNanos );
+	}
+
+	/**
+	 * Gets a snapshot of all counters, slowest (by total time) first.
+	 */
+
+	public List<PipelineMetric> getSnapshot() {
+
+		List<PipelineMetric> snapshot = CollectionUtils.newArrayList();
+
+		for ( Map.Entry<Key, Counter> entry : mCounters.entrySet() ) {
+
+			Key key = entry.getKey();
+			Counter counter = entry.getValue();
+			snapshot.add( new PipelineMetric( key.getStage(), key.getComponent().getName(), key.getType(), counter.getCount(), counter.getTotalNanos(), counter.getMaximumNanos() ) );
+		}
+
+		Collections.sort( snapshot, new Comparator<PipelineMetric>() {
+
+			public int compare( PipelineMetric metric1, PipelineMetric metric2 ) {
+
+				if ( metric1.getTotalNanos() == metric2.getTotalNanos() ) {
+					return 0;
+				}
+
+				return ( metric1.getTotalNanos() > metric2.getTotalNanos() ) ? -1 : 1;
+			}
+		} );
+
+		return snapshot;
+	}
+
+	/**
+	 * Clears all counters.
+	 * <p>
+	 * This does not affect immutability, as our configuration is unchanged.
+	 */
+
+	public void reset() {
+
+		mCounters.clear();
+	}
+
+	//
+	// Inner class
+	//
+
+	private static class Key {
+
+		//
+		// Private members
+		//
+
+		private final String	mStage;
+
+		private final Class<?>	mComponent;
+
+		private final String	mType;
+
+		//
+		// Constructor
+		//
+
+		public Key( String stage, Class<?> component, String type ) {
+
+			mStage = stage;
+			mComponent = component;
+			mType = type;
+		}
+
+		//
+		// Public methods
+		//
+
+		public String getStage() {
+
+			return mStage;
+		}
+
+		public Class<?> getComponent() {
+
+			return mComponent;
+		}
+
+		public String getType() {
+
+			return mType;
+		}
+
+		@Override
+		public boolean equals( Object that ) {
+
+			if ( !( that instanceof Key ) ) {
+				return false;
+			}
+
+			Key thatKey = (Key) that;
+
+			return mStage.equals( thatKey.mStage ) && mComponent.equals( thatKey.mComponent ) && ObjectUtils.nullSafeEquals( mType, thatKey.mType );
+		}
+
+		@Override
+		public int hashCode() {
+
+			int hashCode = mStage.hashCode();
+			hashCode = 31 * hashCode + mComponent.hashCode();
+			hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode( mType );
+
+			return hashCode;
+		}
+	}
+
+	private static class Counter {
+
+		//
+		// Private members
+		//
+
+		private final AtomicLong	mCount			= new AtomicLong();
+
+		private final AtomicLong	mTotalNanos		= new AtomicLong();
+
+		private final AtomicLong	mMaximumNanos	= new AtomicLong();
+
+		//
+		// Public methods
+		//
+
+		public void record( long elapsedNanos ) {
+
+			mCount.incrementAndGet();
+			mTotalNanos.addAndGet( elapsedNanos );
+
+			long maximumNanos = mMaximumNanos.get();
+
+			while ( elapsedNanos > maximumNanos && !mMaximumNanos.compareAndSet( maximumNanos, elapsedNanos ) ) {
+				maximumNanos = mMaximumNanos.get();
+			}
+		}
+
+		public long getCount() {
+
+			return mCount.get();
+		}
+
+		public long getTotalNanos() {
+
+			return mTotalNanos.get();
+		}
+
+		public long getMaximumNanos() {
+
+			return mMaximumNanos.get();
+		}
+	}
+}
@@ -11,13 +11,36 @@
 
 package org.metawidget.pipeline.w3c;
 
+import static org.metawidget.inspector.InspectionResultConstants.*;
+
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 
 import org.metawidget.config.iface.ConfigReader;
 import org.metawidget.config.impl.BaseConfigReader;
 import org.metawidget.inspectionresultprocessor.iface.InspectionResultProcessor;
+import org.metawidget.inspector.composite.CompositeInspector;
+import org.metawidget.inspector.composite.CompositeInspectorConfig;
+import org.metawidget.inspector.iface.Inspector;
 import org.metawidget.pipeline.base.BasePipeline;
+import org.metawidget.pipeline.metrics.iface.PipelineMetrics;
+import org.metawidget.util.ArrayUtils;
+import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.ColumnModel;
+import org.metawidget.util.LogUtils;
+import org.metawidget.util.LogUtils.Log;
 import org.metawidget.util.XmlUtils;
+import org.metawidget.util.simple.PathUtils;
+import org.metawidget.util.simple.PathUtils.TypeAndNames;
+import org.metawidget.util.simple.StringUtils;
+import org.metawidget.widgetbuilder.composite.CompositeWidgetBuilder;
+import org.metawidget.widgetbuilder.composite.CompositeWidgetBuilderConfig;
+import org.metawidget.widgetbuilder.iface.WidgetBuilder;
 import org.metawidget.widgetprocessor.iface.WidgetProcessor;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -35,7 +58,33 @@ public abstract class W3CPipeline<W, C extends W, M extends C>
 	// Private statics
 	//
 
-	private static ConfigReader	DEFAULT_CONFIG_READER;
+	private static ConfigReader											DEFAULT_CONFIG_READER;
+
+	private static final Log											LOG						= LogUtils.getLog( W3CPipeline.class );
+
+	/**
+	 * Maximum number of paths cached per Inspector by <code>getColumnModel</code> and
+	 * <code>prefetch</code>.
+	 */
+
+	private static final int											MAXIMUM_CACHED_PATHS	= 256;
+
+	/**
+	 * Cache of Inspector results for types (ie. inspections with no object), keyed by the
+	 * (immutable, and therefore deterministic) Inspector and then by path. Because Inspectors are
+	 * shared between all Metawidgets with the same configuration, so is this cache.
+	 */
+
+	private static final Map<Inspector, ConcurrentMap<String, Element>>	TYPE_INSPECTIONS		= Collections.synchronizedMap( new WeakHashMap<Inspector, ConcurrentMap<String, Element>>() );
+
+	/**
+	 * Cache of instrumented copies of <code>CompositeInspector</code>s and
+	 * <code>CompositeWidgetBuilder</code>s, keyed by the original and then by PipelineMetrics.
+	 * Because composites and PipelineMetrics are shared between all Metawidgets with the same
+	 * configuration (including nested Metawidgets), so are their instrumented copies.
+	 */
+
+	private static final Map<Object, Map<PipelineMetrics, Object>>		INSTRUMENTED_COMPOSITES	= Collections.synchronizedMap( new WeakHashMap<Object, Map<PipelineMetrics, Object>>() );
 
 	//
 	// Private methods
@@ -45,6 +94,25 @@ public abstract class W3CPipeline<W, C extends W, M extends C>
 
 	private Object				mConfig;
 
+	private PipelineMetrics		mPipelineMetrics;
+
+	/**
+	 * CompositeInspector that <code>mInstrumentedInspector</code> is an instrumented copy of.
+	 */
+
+	private Inspector			mInstrumentedInspectorFor;
+
+	private Inspector			mInstrumentedInspector;
+
+	/**
+	 * CompositeWidgetBuilder that <code>mInstrumentedWidgetBuilder</code> is an instrumented copy
+	 * of.
+	 */
+
+	private WidgetBuilder<W, M>	mInstrumentedWidgetBuilderFor;
+
+	private WidgetBuilder<W, M>	mInstrumentedWidgetBuilder;
+
 	//
 	// Public methods
 	//
@@ -91,6 +159,31 @@ public abstract class W3CPipeline<W, C extends W, M extends C>
 		setNeedsConfiguring();
 	}
 
+	public PipelineMetrics getPipelineMetrics() {
+
+		return mPipelineMetrics;
+	}
+
+	/**
+	 * Sets the PipelineMetrics to record the time taken by each stage of this pipeline (and any
+	 * nested pipelines). If null (the default) stages are not timed.
+	 * <p>
+	 * The sub-Inspectors of a <code>CompositeInspector</code>, and the sub-WidgetBuilders of a
+	 * <code>CompositeWidgetBuilder</code>, are timed too. Composites are shared between pipelines,
+	 * so cannot be told about any one pipeline's PipelineMetrics. Instead, pipelines with
+	 * PipelineMetrics use a copy of them that times each sub-Inspector and sub-WidgetBuilder. The
+	 * sub-Inspectors and sub-WidgetBuilders themselves are not wrapped.
+	 */
+
+	public void setPipelineMetrics( PipelineMetrics pipelineMetrics ) {
+
+		mPipelineMetrics = pipelineMetrics;
+		mInstrumentedInspectorFor = null;
+		mInstrumentedInspector = null;
+		mInstrumentedWidgetBuilderFor = null;
+		mInstrumentedWidgetBuilder = null;
+	}
+
 	/**
 	 * Returns the first InspectionResultProcessor in this pipeline's list of
 	 * InspectionResultProcessors (ie. as added by <code>addInspectionResultProcessor</code>) that
@@ -111,13 +204,13 @@ public abstract class W3CPipeline<W, C extends W, M extends C>
 	@SuppressWarnings( "unchecked" )
 	public <T> T getInspectionResultProcessor( Class<T> inspectionResultProcessorClass ) {
 
-		configureOnce();
+		List<InspectionResultProcessor<M>> inspectionResultProcessors = getReadOnlyInspectionResultProcessors();
 
-		if ( getInspectionResultProcessors() == null ) {
+		if ( inspectionResultProcessors == null ) {
 			return null;
 		}
 
-		for ( InspectionResultProcessor<M> inspectionResultProcessor : getInspectionResultProcessors() ) {
+		for ( InspectionResultProcessor<M> inspectionResultProcessor : inspectionResultProcessors ) {
 			if ( inspectionResultProcessorClass.isAssignableFrom( inspectionResultProcessor.getClass() ) ) {
 				return (T) inspectionResultProcessor;
 			}
@@ -146,13 +239,13 @@ public abstract class W3CPipeline<W, C extends W, M extends C>
 	@SuppressWarnings( "unchecked" )
 	public <T> T getWidgetProcessor( Class<T> widgetProcessorClass ) {
 
-		configureOnce();
+		List<WidgetProcessor<W, M>> widgetProcessors = getReadOnlyWidgetProcessors();
 
-		if ( getWidgetProcessors() == null ) {
+		if ( widgetProcessors == null ) {
 			return null;
 		}
 
-		for ( WidgetProcessor<W, M> widgetProcessor : getWidgetProcessors() ) {
+		for ( WidgetProcessor<W, M> widgetProcessor : widgetProcessors ) {
 			if ( widgetProcessorClass.isAssignableFrom( widgetProcessor.getClass() ) ) {
 				return (T) widgetProcessor;
 			}
@@ -161,6 +254,113 @@ public abstract class W3CPipeline<W, C extends W, M extends C>
 		return null;
 	}
 
+	/**
+	 * Gets the columns to use when rendering a Collection of the given component type.
+	 * <p>
+	 * Equivalent to inspecting the component type and reading its properties, but the
+	 * Inspector's result is cached per component type and never round-tripped through a String.
+	 * InspectionResultProcessors are still run each time, as they may vary their result (eg. by
+	 * evaluating expressions against the current request).
+	 *
+	 * @return the ColumnModel, or null if no Inspectors matched the component type
+	 */
+
+	public ColumnModel getColumnModel( String componentType ) {
+
+		configureOnce();
+
+		Inspector inspector = getInspector();
+
+		if ( inspector == null ) {
+			throw new NullPointerException( "No inspector configured" );
+		}
+
+		Element inspectionResult = getTypeInspection( inspector, componentType );
+
+		if ( inspectionResult == null ) {
+			return null;
+		}
+
+		inspectionResult = processInspectionResult( inspectionResult, null, componentType );
+
+		if ( inspectionResult == null ) {
+			return null;
+		}
+
+		return new ColumnModel( inspectionResult );
+	}
+
+	/**
+	 * Inspects the given types or paths (eg. <code>com.myapp.Person</code> or
+	 * <code>com.myapp.Person/address</code>) in the background, so that later inspections of them
+	 * need not wait.
+	 * <p>
+	 * The Inspector's results are cached and shared with every pipeline that uses the same
+	 * Inspector. They are used directly for later inspections with no object (eg.
+	 * <code>setPath</code> without <code>setToInspect</code>, or <code>getColumnModel</code>).
+	 * Later inspections of objects of the same type still run the Inspector, but find its internal
+	 * caches (eg. of properties and annotations) already warm. Call at application start, or when
+	 * the user looks likely to open a screen (eg. on hover).
+	 * <p>
+	 * Prefetching is best effort: failures are logged, not thrown.
+	 *
+	 * @param executor
+	 *            the Executor to inspect on. Must not be null
+	 */
+
+	public void prefetch( Executor executor, String... paths ) {
+
+		// (configure on the calling thread, as configuration is not threadsafe)
+
+		configureOnce();
+
+		final Inspector inspector = getInspector();
+
+		if ( inspector == null ) {
+			throw new NullPointerException( "No inspector configured" );
+		}
+
+		for ( final String path : paths ) {
+
+			executor.execute( new Runnable() {
+
+				public void run() {
+
+					try {
+						TypeAndNames typeAndNames = PathUtils.parsePath( path );
+						getTypeInspection( inspector, typeAndNames.getType(), typeAndNames.getNamesAsArray() );
+					} catch ( Exception e ) {
+						LOG.warn( "Unable to prefetch {0}", path, e );
+					}
+				}
+			} );
+		}
+	}
+
+	/**
+	 * Overridden to use any cached Inspector result (see <code>prefetch</code>) when inspecting
+	 * with no object.
+	 */
+
+	@Override
+	public Element inspectAsDom( Object toInspect, String type, String... names ) {
+
+		if ( toInspect == null ) {
+			configureOnce();
+			Inspector inspector = getInspector();
+
+			if ( inspector != null ) {
+				Element inspectionResult = getCachedTypeInspection( inspector, type, names );
+
+				if ( inspectionResult != null ) {
+					return processInspectionResult( inspectionResult, null, type, names );
+				}
+			}
+		}
+
+		return super.inspectAsDom( toInspect, type, names );
+	}
+
 	/**
 	 * Overridden to support custom ConfigReaders.
 	 */
@@ -169,6 +369,7 @@ public abstract class W3CPipeline<W, C extends W, M extends C>
 	public void initNestedPipeline( BasePipeline<W, C, Element, M> nestedPipeline, Map<String, String> attributes ) {
 
 		( (W3CPipeline<W, C, M>) nestedPipeline ).setConfigReader( getConfigReader() );
+		( (W3CPipeline<W, C, M>) nestedPipeline ).setPipelineMetrics( mPipelineMetrics );
 		super.initNestedPipeline( nestedPipeline, attributes );
 	}
 
@@ -212,7 +413,7 @@ public abstract class W3CPipeline<W, C extends W, M extends C>
 				configReader.configure( defaultConfiguration, getPipelineOwner(), "inspector" );
 			}
 
-			if ( getInspectionResultProcessors() == null ) {
+			if ( getReadOnlyInspectionResultProcessors() == null ) {
 				configReader.configure( defaultConfiguration, getPipelineOwner(), "inspectionResultProcessors" );
 			}
 
@@ -220,7 +421,7 @@ public abstract class W3CPipeline<W, C extends W, M extends C>
 				configReader.configure( defaultConfiguration, getPipelineOwner(), "widgetBuilder" );
 			}
 
-			if ( getWidgetProcessors() == null ) {
+			if ( getReadOnlyWidgetProcessors() == null ) {
 				configReader.configure( defaultConfiguration, getPipelineOwner(), "widgetProcessors" );
 			}
 
@@ -230,6 +431,91 @@ public abstract class W3CPipeline<W, C extends W, M extends C>
 		}
 	}
 
+	@Override
+	protected Object invokeInspector( Inspector inspector, Object toInspect, String type, String... names ) {
+
+		if ( mPipelineMetrics == null ) {
+			return super.invokeInspector( inspector, toInspect, type, names );
+		}
+
+		Inspector instrumentedInspector = getInstrumentedInspector( inspector );
+		long start = System.nanoTime();
+
+		try {
+			return super.invokeInspector( instrumentedInspector, toInspect, type, names );
+		} finally {
+			mPipelineMetrics.record( PipelineMetrics.INSPECT, inspector.getClass(), getPath( type, names ), System.nanoTime() - start );
+		}
+	}
+
+	@Override
+	protected Object invokeInspectionResultProcessor( InspectionResultProcessor<M> inspectionResultProcessor, Object inspectionResult, M pipelineOwner, Object toInspect, String type, String... names ) {
+
+		if ( mPipelineMetrics == null ) {
+			return super.invokeInspectionResultProcessor( inspectionResultProcessor, inspectionResult, pipelineOwner, toInspect, type, names );
+		}
+
+		long start = System.nanoTime();
+
+		try {
+			return super.invokeInspectionResultProcessor( inspectionResultProcessor, inspectionResult, pipelineOwner, toInspect, type, names );
+		} finally {
+			mPipelineMetrics.record( PipelineMetrics.PROCESS_INSPECTION_RESULT, inspectionResultProcessor.getClass(), getPath( type, names ), System.nanoTime() - start );
+		}
+	}
+
+	@Override
+	protected W buildWidget( String elementName, Map<String, String> attributes ) {
+
+		WidgetBuilder<W, M> widgetBuilder = getWidgetBuilder();
+
+		if ( mPipelineMetrics == null || widgetBuilder == null ) {
+			return super.buildWidget( elementName, attributes );
+		}
+
+		WidgetBuilder<W, M> instrumentedWidgetBuilder = getInstrumentedWidgetBuilder( widgetBuilder );
+		long start = System.nanoTime();
+
+		try {
+			return instrumentedWidgetBuilder.buildWidget( elementName, attributes, getPipelineOwner() );
+		} finally {
+			mPipelineMetrics.record( PipelineMetrics.BUILD_WIDGET, widgetBuilder.getClass(), attributes.get( TYPE ), System.nanoTime() - start );
+		}
+	}
+
+	@Override
+	protected W invokeWidgetProcessor( WidgetProcessor<W, M> widgetProcessor, W widget, String elementName, Map<String, String> attributes, M pipelineOwner ) {
+
+		if ( mPipelineMetrics == null ) {
+			return super.invokeWidgetProcessor( widgetProcessor, widget, elementName, attributes, pipelineOwner );
+		}
+
+		long start = System.nanoTime();
+
+		try {
+			return super.invokeWidgetProcessor( widgetProcessor, widget, elementName, attributes, pipelineOwner );
+		} finally {
+			mPipelineMetrics.record( PipelineMetrics.PROCESS_WIDGET, widgetProcessor.getClass(), attributes.get( TYPE ), System.nanoTime() - start );
+		}
+	}
+
+	@Override
+	protected void layoutWidget( W widget, String elementName, Map<String, String> attributes ) {
+
+		if ( mPipelineMetrics == null ) {
+			super.layoutWidget( widget, elementName, attributes );
+			return;
+		}
+
+		long start = System.nanoTime();
+
+		try {
+			super.layoutWidget( widget, elementName, attributes );
+		} finally {
+			mPipelineMetrics.record( PipelineMetrics.LAYOUT_WIDGET, getLayout().getClass(), attributes.get( TYPE ), System.nanoTime() - start );
+		}
+	}
+
 	@Override
 	protected Element stringToElement( String xml ) {
 
@@ -266,4 +552,338 @@ public abstract class W3CPipeline<W, C extends W, M extends C>
 
 		return XmlUtils.getAttributesAsMap( element );
 	}
+
+	//
+	// Private methods
+	//
+
+	/**
+	 * Gets the (cached) result of the given Inspector for the given type and names, inspecting
+	 * (and caching) it if necessary.
+	 *
+	 * @return a copy of the cached result, which callers are free to modify. May be null
+	 */
+
+	private Element getTypeInspection( Inspector inspector, String type, String... names ) {
+
+		long start = ( mPipelineMetrics == null ? 0 : System.nanoTime() );
+		ConcurrentMap<String, Element> inspections = getTypeInspections( inspector, true );
+		String path = getPath( type, names );
+		Element inspection = inspections.get( path );
+
+		if ( inspection != null ) {
+			recordCachedInspection( inspector, path, start );
+		} else {
+			Object inspectionResult = invokeInspector( inspector, null, type, names );
+
+			if ( inspectionResult == null ) {
+				return null;
+			}
+
+			if ( inspectionResult instanceof String ) {
+				inspection = stringToElement( (String) inspectionResult );
+			} else {
+				inspection = (Element) inspectionResult;
+			}
+
+			if ( inspections.size() < MAXIMUM_CACHED_PATHS ) {
+				Element existingInspection = inspections.putIfAbsent( path, inspection );
+
+				if ( existingInspection != null ) {
+					inspection = existingInspection;
+				}
+			}
+		}
+
+		return copyInspection( inspection );
+	}
+
+	/**
+	 * Gets the cached result of the given Inspector for the given type and names, without
+	 * inspecting.
+	 *
+	 * @return a copy of the cached result, or null if none is cached
+	 */
+
+	private Element getCachedTypeInspection( Inspector inspector, String type, String... names ) {
+
+		long start = ( mPipelineMetrics == null ? 0 : System.nanoTime() );
+		ConcurrentMap<String, Element> inspections = getTypeInspections( inspector, false );
+
+		if ( inspections == null ) {
+			return null;
+		}
+
+		String path = getPath( type, names );
+		Element inspection = inspections.get( path );
+
+		if ( inspection == null ) {
+			return null;
+		}
+
+		recordCachedInspection( inspector, path, start );
+		return copyInspection( inspection );
+	}
+
+	/**
+	 * Records an inspection served from the cache, so that PipelineMetrics see every inspection
+	 * (not just those that invoked the Inspector).
+	 */
+
+	private void recordCachedInspection( Inspector inspector, String path, long start ) {
+
+		if ( mPipelineMetrics == null ) {
+			return;
+		}
+
+		mPipelineMetrics.record( PipelineMetrics.INSPECT_CACHED, inspector.getClass(), path, System.nanoTime() - start );
+	}
+
+	private ConcurrentMap<String, Element> getTypeInspections( Inspector inspector, boolean create ) {
+
+		synchronized ( TYPE_INSPECTIONS ) {
+			ConcurrentMap<String, Element> inspections = TYPE_INSPECTIONS.get( inspector );
+
+			if ( inspections == null && create ) {
+				inspections = new ConcurrentHashMap<String, Element>();
+				TYPE_INSPECTIONS.put( inspector, inspections );
+			}
+
+			return inspections;
+		}
+	}
+
+	/**
+	 * Copy, so that InspectionResultProcessors cannot modify the cached result. DOM
+	 * implementations are not threadsafe, even for reads, so synchronize.
+	 */
+
+	private Element copyInspection( Element inspection ) {
+
+		Document document = XmlUtils.newDocument();
+
+		synchronized ( inspection ) {
+			document.appendChild( XmlUtils.importElement( document, inspection ) );
+		}
+
+		return document.getDocumentElement();
+	}
+
+	/**
+	 * Gets a copy of the given Inspector, if it is a <code>CompositeInspector</code>, that records
+	 * PipelineMetrics for each sub-Inspector.
+	 */
+
+	private Inspector getInstrumentedInspector( Inspector inspector ) {
+
+		if ( !CompositeInspector.class.equals( inspector.getClass() ) ) {
+			return inspector;
+		}
+
+		if ( inspector != mInstrumentedInspectorFor ) {
+			mInstrumentedInspector = (Inspector) getInstrumentedComposite( inspector, mPipelineMetrics );
+			mInstrumentedInspectorFor = inspector;
+		}
+
+		return mInstrumentedInspector;
+	}
+
+	/**
+	 * Gets a copy of the given WidgetBuilder, if it is a <code>CompositeWidgetBuilder</code>, that
+	 * records PipelineMetrics for each sub-WidgetBuilder.
+	 * <p>
+	 * The copy is only used for <code>buildWidget</code>. <code>onStartBuild</code> and
+	 * <code>onEndBuild</code> are still called on the original, which reaches the same
+	 * sub-WidgetBuilders.
+	 */
+
+	@SuppressWarnings( "unchecked" )
+	private WidgetBuilder<W, M> getInstrumentedWidgetBuilder( WidgetBuilder<W, M> widgetBuilder ) {
+
+		if ( !CompositeWidgetBuilder.class.equals( widgetBuilder.getClass() ) ) {
+			return widgetBuilder;
+		}
+
+		if ( widgetBuilder != mInstrumentedWidgetBuilderFor ) {
+			mInstrumentedWidgetBuilder = (WidgetBuilder<W, M>) getInstrumentedComposite( widgetBuilder, mPipelineMetrics );
+			mInstrumentedWidgetBuilderFor = widgetBuilder;
+		}
+
+		return mInstrumentedWidgetBuilder;
+	}
+
+	/**
+	 * Gets the shared, instrumented copy of the given composite for the given PipelineMetrics,
+	 * creating it if necessary.
+	 */
+
+	@SuppressWarnings( "unchecked" )
+	private static Object getInstrumentedComposite( Object composite, PipelineMetrics pipelineMetrics ) {
+
+		synchronized ( INSTRUMENTED_COMPOSITES ) {
+			Map<PipelineMetrics, Object> instrumentedComposites = INSTRUMENTED_COMPOSITES.get( composite );
+
+			if ( instrumentedComposites == null ) {
+				instrumentedComposites = CollectionUtils.newHashMap();
+				INSTRUMENTED_COMPOSITES.put( composite, instrumentedComposites );
+			}
+
+			Object instrumentedComposite = instrumentedComposites.get( pipelineMetrics );
+
+			if ( instrumentedComposite == null ) {
+
+				if ( composite instanceof Inspector ) {
+					instrumentedComposite = instrument( (Inspector) composite, pipelineMetrics );
+				} else {
+					instrumentedComposite = instrument( (WidgetBuilder<Object, Object>) composite, pipelineMetrics );
+				}
+
+				instrumentedComposites.put( pipelineMetrics, instrumentedComposite );
+			}
+
+			return instrumentedComposite;
+		}
+	}
+
+	private static Inspector instrument( Inspector inspector, PipelineMetrics pipelineMetrics ) {
+
+		if ( !CompositeInspector.class.equals( inspector.getClass() ) ) {
+			return inspector;
+		}
+
+		Inspector[] inspectors = ( (CompositeInspector) inspector ).getInspectors();
+
+		for ( int loop = 0, length = inspectors.length; loop < length; loop++ ) {
+			inspectors[loop] = instrument( inspectors[loop], pipelineMetrics );
+		}
+
+		return new TimedCompositeInspector( new CompositeInspectorConfig().setInspectors( inspectors ), pipelineMetrics );
+	}
+
+	private static <W, M extends W> WidgetBuilder<W, M> instrument( WidgetBuilder<W, M> widgetBuilder, PipelineMetrics pipelineMetrics ) {
+
+		if ( !CompositeWidgetBuilder.class.equals( widgetBuilder.getClass() ) ) {
+			return widgetBuilder;
+		}
+
+		WidgetBuilder<W, M>[] widgetBuilders = ( (CompositeWidgetBuilder<W, M>) widgetBuilder ).getWidgetBuilders();
+
+		for ( int loop = 0, length = widgetBuilders.length; loop < length; loop++ ) {
+			widgetBuilders[loop] = instrument( widgetBuilders[loop], pipelineMetrics );
+		}
+
+		return new TimedCompositeWidgetBuilder<W, M>( new CompositeWidgetBuilderConfig<W, M>().setWidgetBuilders( widgetBuilders ), pipelineMetrics );
+	}
+
+	/**
+	 * Gets the class to record PipelineMetrics against, which for instrumented copies is that of
+	 * the original.
+	 */
+
+	private static Class<?> getComponent( Object component ) {
+
+		if ( component instanceof TimedCompositeInspector ) {
+			return CompositeInspector.class;
+		}
+
+		if ( component instanceof TimedCompositeWidgetBuilder<?, ?> ) {
+			return CompositeWidgetBuilder.class;
+		}
+
+		return component.getClass();
+	}
+
+	private static String getPath( String type, String... names ) {
+
+		if ( names == null || names.length == 0 ) {
+			return type;
+		}
+
+		return type + StringUtils.SEPARATOR_FORWARD_SLASH + ArrayUtils.toString( names, StringUtils.SEPARATOR_FORWARD_SLASH );
+	}
+
+	//
+	// Inner class
+	//
+
+	/**
+	 * CompositeInspector that records the time taken by each of its sub-Inspectors.
+	 */
+
+	private static class TimedCompositeInspector
+		extends CompositeInspector {
+
+		//
+		// Private members
+		//
+
+		private final PipelineMetrics	mPipelineMetrics;
+
+		//
+		// Constructor
+		//
+
+		public TimedCompositeInspector( CompositeInspectorConfig config, PipelineMetrics pipelineMetrics ) {
+
+			super( config );
+			mPipelineMetrics = pipelineMetrics;
+		}
+
+		//
+		// Protected methods
+		//
+
+		@Override
+		protected Document runInspector( Inspector inspector, Object toInspect, String type, String... names )
+			throws Exception {
+
+			long start = System.nanoTime();
+
+			try {
+				return super.runInspector( inspector, toInspect, type, names );
+			} finally {
+				mPipelineMetrics.record( PipelineMetrics.INSPECT, getComponent( inspector ), getPath( type, names ), System.nanoTime() - start );
+			}
+		}
+	}
+
+	/**
+	 * CompositeWidgetBuilder that records the time taken by each of its sub-WidgetBuilders.
+	 */
+
+	private static class TimedCompositeWidgetBuilder<W, M extends W>
+		extends CompositeWidgetBuilder<W, M> {
+
+		//
+		// Private members
+		//
+
+		private final PipelineMetrics	mPipelineMetrics;
+
+		//
+		// Constructor
+		//
+
+		public TimedCompositeWidgetBuilder( CompositeWidgetBuilderConfig<W, M> config, PipelineMetrics pipelineMetrics ) {
+
+			super( config );
+			mPipelineMetrics = pipelineMetrics;
+		}
+
+		//
+		// Protected methods
+		//
+
+		@Override
+		protected W buildWidget( WidgetBuilder<W, M> widgetBuilder, String elementName, Map<String, String> attributes, M metawidget ) {
+
+			long start = System.nanoTime();
+
+			try {
+				return super.buildWidget( widgetBuilder, elementName, attributes, metawidget );
+			} finally {
+				mPipelineMetrics.record( PipelineMetrics.BUILD_WIDGET, getComponent( widgetBuilder ), attributes.get( TYPE ), System.nanoTime() - start );
+			}
+		}
+	}
 }
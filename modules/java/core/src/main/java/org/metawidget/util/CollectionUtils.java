@@ -25,7 +25,6 @@ import java.util.Set;
 import java.util.Stack;
 import java.util.TreeMap;
 import java.util.WeakHashMap;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.metawidget.util.simple.StringUtils;
@@ -296,27 +295,73 @@ public final class CollectionUtils {
 			return Collections.emptyList();
 		}
 
+		// Scan by hand, rather than using a regular expression, as this is called for every lookup
+		// on every widget build
+
 		List<String> split = CollectionUtils.newArrayList();
-		Pattern patternSplit = Pattern.compile( "((\\\\" + separator + "|[^" + separator + "])*)(" + separator + "|$)" );
-		Pattern patternSeparator = Pattern.compile( "\\" + separator, Pattern.LITERAL );
-		String replacement = String.valueOf( separator );
+		int length = collection.length();
+		int start = 0;
+		boolean escaped = false;
 
-		Matcher matcher = patternSplit.matcher( collection );
+		for ( int loop = 0; loop <= length; loop++ ) {
 
-		while ( matcher.find() ) {
-			String match = matcher.group( 1 ).trim();
-			match = patternSeparator.matcher( match ).replaceAll( replacement );
+			if ( loop < length ) {
+				char c = collection.charAt( loop );
 
-			split.add( match );
+				// Escaped separator
+
+				if ( c == '\\' && loop + 1 < length && collection.charAt( loop + 1 ) == separator ) {
+					escaped = true;
+					loop++;
+					continue;
+				}
+
+				if ( c != separator ) {
+					continue;
+				}
+			}
+
+			// Trim, then unescape
+
+			String match = collection.substring( start, loop ).trim();
 
-			if ( matcher.end( 1 ) == collection.length() ) {
-				break;
+			if ( escaped ) {
+				match = unescape( match, separator );
+				escaped = false;
 			}
+
+			split.add( match );
+			start = loop + 1;
 		}
 
 		return split;
 	}
 
+	//
+	// Private statics
+	//
+
+	/**
+	 * Replaces occurrences of backslash-separator with separator.
+	 */
+
+	private static String unescape( String match, char separator ) {
+
+		StringBuilder builder = new StringBuilder( match.length() );
+
+		for ( int loop = 0, length = match.length(); loop < length; loop++ ) {
+			char c = match.charAt( loop );
+
+			if ( c == '\\' && loop + 1 < length && match.charAt( loop + 1 ) == separator ) {
+				continue;
+			}
+
+			builder.append( c );
+		}
+
+		return builder.toString();
+	}
+
 	//
 	// Private constructor
 	//
@@ -0,0 +1,182 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+
+package org.metawidget.util;
+
+import static org.metawidget.inspector.InspectionResultConstants.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.metawidget.iface.Immutable;
+import org.w3c.dom.Element;
+
+/**
+ * Columns to render for a Collection, derived from an inspection of the Collection's component
+ * type.
+ * <p>
+ * WidgetBuilders that render Collections as tables (eg. a JSF <code>HtmlDataTable</code> or a Swing
+ * <code>JTable</code>) all need the same thing from the inspection result: the properties of the
+ * component type, in order, with their attributes. <code>ColumnModel</code> extracts these once,
+ * straight from the DOM, so that WidgetBuilders need neither reparse the inspection result nor
+ * walk its <code>NodeList</code>.
+ *
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public final class ColumnModel
+	implements Immutable {
+
+	//
+	// Private members
+	//
+
+	private final String		mType;
+
+	private final List<Column>	mColumns;
+
+	//
+	// Constructor
+	//
+
+	/**
+	 * @param inspectionResult
+	 *            the root (<code>inspection-result</code>) element of an inspection of the
+	 *            component type
+	 */
+
+	public ColumnModel( Element inspectionResult ) {
+
+		Element entity = XmlUtils.getFirstChildElement( inspectionResult );
+
+		if ( entity == null ) {
+			mType = null;
+			mColumns = Collections.emptyList();
+			return;
+		}
+
+		mType = entity.getAttribute( TYPE );
+		List<Column> columns = CollectionUtils.newArrayList();
+
+		for ( Element element = XmlUtils.getFirstChildElement( entity ); element != null; element = XmlUtils.getNextSiblingElement( element ) ) {
+
+			// (not actions)
+
+			if ( !PROPERTY.equals( element.getNodeName() ) ) {
+				continue;
+			}
+
+			columns.add( new Column( XmlUtils.getAttributesAsMap( element ) ) );
+		}
+
+		mColumns = Collections.unmodifiableList( columns );
+	}
+
+	//
+	// Public methods
+	//
+
+	/**
+	 * @return the type of the inspected entity. May be null
+	 */
+
+	public String getType() {
+
+		return mType;
+	}
+
+	/**
+	 * @return the columns (including hidden columns), in the order they were inspected. Never
+	 *         null
+	 */
+
+	public List<Column> getColumns() {
+
+		return mColumns;
+	}
+
+	//
+	// Inner class
+	//
+
+	/**
+	 * A single column: the attributes of a single property of the component type.
+	 */
+
+	public static final class Column
+		implements Immutable {
+
+		//
+		// Private members
+		//
+
+		private final Map<String, String>	mAttributes;
+
+		//
+		// Constructor
+		//
+
+		/* package private */Column( Map<String, String> attributes ) {
+
+			mAttributes = Collections.unmodifiableMap( attributes );
+		}
+
+		//
+		// Public methods
+		//
+
+		public String getName() {
+
+			return mAttributes.get( NAME );
+		}
+
+		/**
+		 * @return the type of the column. May be null
+		 */
+
+		public String getType() {
+
+			return mAttributes.get( TYPE );
+		}
+
+		/**
+		 * @return the (possibly localization key of the) label. May be null
+		 */
+
+		public String getLabel() {
+
+			return mAttributes.get( LABEL );
+		}
+
+		public boolean isHidden() {
+
+			return TRUE.equals( mAttributes.get( HIDDEN ) );
+		}
+
+		public boolean isRequired() {
+
+			return TRUE.equals( mAttributes.get( REQUIRED ) );
+		}
+
+		/**
+		 * Gets all attributes of the column.
+		 * <p>
+		 * The returned Map is unmodifiable. WidgetBuilders that need to modify it (eg. to pass it
+		 * down the pipeline) should take a copy using <code>CollectionUtils.newHashMap</code>.
+		 */
+
+		public Map<String, String> getAttributes() {
+
+			return mAttributes;
+		}
+	}
+}
@@ -0,0 +1,294 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+
+package org.metawidget.util;
+
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.metawidget.util.simple.StringUtils;
+
+/**
+ * Utilities for working with localized labels.
+ * <p>
+ * Metawidgets resolve a label for every field on every build, which involves camel-casing (or
+ * uncamel-casing) the field name and looking it up in a <code>ResourceBundle</code>. Lookups that
+ * miss throw a <code>MissingResourceException</code>, which is expensive. These methods cache
+ * both, including misses.
+ * <p>
+ * Lookups are cached per <code>ResourceBundle</code> (or bundle <code>Map</code>) instance. Because
+ * <code>ResourceBundle.getBundle</code> returns a new instance after
+ * <code>ResourceBundle.clearCache</code>, reloaded bundles are automatically cached afresh. The
+ * number of cached bundles is bounded, so stale instances are eventually discarded. Clients that
+ * reload bundles by other means can call <code>clearCache</code>.
+ *
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public final class I18nUtils {
+
+	//
+	// Public statics
+	//
+
+	/**
+	 * Looks up the given key in the given bundle.
+	 *
+	 * @return the localized String, or null if the bundle does not contain the key
+	 */
+
+	public static String getString( ResourceBundle bundle, String key ) {
+
+		// (ResourceBundle does not override equals, so is safe to key by)
+
+		ConcurrentMap<String, String> cache = getBundleCache( bundle );
+		String localized = cache.get( key );
+
+		if ( localized == null ) {
+
+			try {
+				localized = bundle.getString( key );
+			} catch ( MissingResourceException e ) {
+				// Fall through
+			}
+
+			putBundleCache( cache, key, localized );
+		}
+
+		if ( localized == NOT_FOUND ) {
+			return null;
+		}
+
+		return localized;
+	}
+
+	/**
+	 * Looks up the given key in the given bundle <code>Map</code> (such as those exposed by JSF's
+	 * <code>f:loadBundle</code>). The <code>Map</code>'s contents are assumed not to change.
+	 *
+	 * @return the localized String, or null if the bundle does not contain the key
+	 */
+
+	public static String getString( Map<String, String> bundleMap, String key ) {
+
+		// (Maps override equals with an expensive, content-based comparison, so key by identity)
+
+		ConcurrentMap<String, String> cache = getBundleCache( new IdentityKey( bundleMap ) );
+		String localized = cache.get( key );
+
+		if ( localized == null ) {
+
+			// (check for containsKey first, because some bundle Maps return a dummy value otherwise)
+
+			if ( bundleMap.containsKey( key ) ) {
+				localized = bundleMap.get( key );
+			}
+
+			putBundleCache( cache, key, localized );
+		}
+
+		if ( localized == NOT_FOUND ) {
+			return null;
+		}
+
+		return localized;
+	}
+
+	/**
+	 * Memoised version of <code>StringUtils.camelCase</code>.
+	 */
+
+	public static String camelCase( String text ) {
+
+		return memoise( CAMEL_CASE_CACHE, text, true );
+	}
+
+	/**
+	 * Memoised version of <code>StringUtils.uncamelCase</code>.
+	 */
+
+	public static String uncamelCase( String camelCase ) {
+
+		return memoise( UNCAMEL_CASE_CACHE, camelCase, false );
+	}
+
+	/**
+	 * Clears all cached lookups and conversions.
+	 */
+
+	public static void clearCache() {
+
+		BUNDLE_CACHE.clear();
+		CAMEL_CASE_CACHE.clear();
+		UNCAMEL_CASE_CACHE.clear();
+	}
+
+	//
+	// Private statics
+	//
+
+	/**
+	 * Marker for keys missing from a bundle (ConcurrentMaps do not support null values). Compared
+	 * by identity.
+	 */
+
+	private static final String											NOT_FOUND				= new String( StringUtils.RESOURCE_KEY_NOT_FOUND_PREFIX );
+
+	/**
+	 * Maximum size of each conversion cache, and of each bundle's lookup cache. Field names and
+	 * labels are normally a bounded set, but guard against unbounded growth (eg. labels generated
+	 * from data).
+	 */
+
+	private static final int											MAXIMUM_CACHE_SIZE		= 4096;
+
+	/**
+	 * Maximum number of bundles to cache lookups for. Applications normally use a handful (one per
+	 * Locale), but guard against bundles that are recreated per request.
+	 */
+
+	private static final int											MAXIMUM_CACHED_BUNDLES	= 64;
+
+	/**
+	 * Cache of lookups, keyed by bundle.
+	 * <p>
+	 * A <code>ConcurrentMap</code> (rather than, say, a <code>WeakHashMap</code>) so that lookups
+	 * never lock. Holds bundles strongly, but is bounded by <code>MAXIMUM_CACHED_BUNDLES</code>.
+	 */
+
+	private static final ConcurrentMap<Object, ConcurrentMap<String, String>>	BUNDLE_CACHE			= new ConcurrentHashMap<Object, ConcurrentMap<String, String>>();
+
+	private static final ConcurrentMap<String, String>					CAMEL_CASE_CACHE		= new ConcurrentHashMap<String, String>();
+
+	private static final ConcurrentMap<String, String>					UNCAMEL_CASE_CACHE		= new ConcurrentHashMap<String, String>();
+
+	private static String memoise( ConcurrentMap<String, String> cache, String text, boolean camelCase ) {
+
+		if ( text == null ) {
+			return null;
+		}
+
+		String converted = cache.get( text );
+
+		if ( converted == null ) {
+
+			if ( camelCase ) {
+				converted = StringUtils.camelCase( text );
+			} else {
+				converted = StringUtils.uncamelCase( text );
+			}
+
+			if ( cache.size() >= MAXIMUM_CACHE_SIZE ) {
+				cache.clear();
+			}
+
+			cache.put( text, converted );
+		}
+
+		return converted;
+	}
+
+	private static ConcurrentMap<String, String> getBundleCache( Object bundleKey ) {
+
+		ConcurrentMap<String, String> cache = BUNDLE_CACHE.get( bundleKey );
+
+		if ( cache == null ) {
+
+			if ( BUNDLE_CACHE.size() >= MAXIMUM_CACHED_BUNDLES ) {
+				BUNDLE_CACHE.clear();
+			}
+
+			cache = new ConcurrentHashMap<String, String>();
+			ConcurrentMap<String, String> existingCache = BUNDLE_CACHE.putIfAbsent( bundleKey, cache );
+
+			if ( existingCache != null ) {
+				cache = existingCache;
+			}
+		}
+
+		return cache;
+	}
+
+	/**
+	 * Caches the given lookup, or <code>NOT_FOUND</code> if it is null.
+	 */
+
+	private static void putBundleCache( ConcurrentMap<String, String> cache, String key, String localized ) {
+
+		if ( cache.size() >= MAXIMUM_CACHE_SIZE ) {
+			cache.clear();
+		}
+
+		if ( localized == null ) {
+			cache.put( key, NOT_FOUND );
+		} else {
+			cache.put( key, localized );
+		}
+	}
+
+	//
+	// Private constructor
+	//
+
+	private I18nUtils() {
+
+		// Can never be called
+	}
+
+	//
+	// Inner class
+	//
+
+	/**
+	 * Key that compares its referent by identity.
+	 */
+
+	private static final class IdentityKey {
+
+		//
+		// Private members
+		//
+
+		private final Object	mReferent;
+
+		//
+		// Constructor
+		//
+
+		public IdentityKey( Object referent ) {
+
+			mReferent = referent;
+		}
+
+		//
+		// Public methods
+		//
+
+		@Override
+		public boolean equals( Object that ) {
+
+			if ( !( that instanceof IdentityKey ) ) {
+				return false;
+			}
+
+			return ( mReferent == ( (IdentityKey) that ).mReferent );
+		}
+
+		@Override
+		public int hashCode() {
+
+			return System.identityHashCode( mReferent );
+		}
+	}
+}
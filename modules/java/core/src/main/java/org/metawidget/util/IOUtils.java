@@ -11,6 +11,7 @@
 
 package org.metawidget.util;
 
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
@@ -90,6 +91,18 @@ public final class IOUtils {
 		}
 	}
 
+	/**
+	 * Reads all data from the given stream, then closes it.
+	 */
+
+	public static byte[] streamToBytes( InputStream in ) {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		streamBetween( in, out );
+
+		return out.toByteArray();
+	}
+
 	//
 	// Private statics
 	//
@@ -16,6 +16,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.apache.commons.logging.LogFactory;
+import org.metawidget.util.simple.StringUtils;
 
 /**
  * Utilities for working with Logging.
@@ -87,6 +88,19 @@ public final class LogUtils {
 
 		void trace( String trace, Object... arguments );
 
+		/**
+		 * Log a trace message with a single argument.
+		 * <p>
+		 * Equivalent to <code>trace( String, Object... )</code>, but allocates no argument array
+		 * unless trace is enabled.
+		 */
+
+		void trace( String trace, Object argument );
+
+		void trace( String trace, Object argument1, Object argument2 );
+
+		void trace( String trace, Object argument1, Object argument2, Object argument3 );
+
 		boolean isDebugEnabled();
 
 		/**
@@ -103,6 +117,19 @@ public final class LogUtils {
 
 		void debug( String debug, Object... arguments );
 
+		/**
+		 * Log a debug message with a single argument.
+		 * <p>
+		 * Equivalent to <code>debug( String, Object... )</code>, but allocates no argument array
+		 * unless debug is enabled.
+		 */
+
+		void debug( String debug, Object argument );
+
+		void debug( String debug, Object argument1, Object argument2 );
+
+		void debug( String debug, Object argument1, Object argument2, Object argument3 );
+
 		boolean isInfoEnabled();
 
 		/**
@@ -119,6 +146,19 @@ public final class LogUtils {
 
 		void info( String info, Object... arguments );
 
+		/**
+		 * Log an info message with a single argument.
+		 * <p>
+		 * Equivalent to <code>info( String, Object... )</code>, but allocates no argument array
+		 * unless info is enabled.
+		 */
+
+		void info( String info, Object argument );
+
+		void info( String info, Object argument1, Object argument2 );
+
+		void info( String info, Object argument1, Object argument2, Object argument3 );
+
 		boolean isWarnEnabled();
 
 		/**
@@ -135,6 +175,19 @@ public final class LogUtils {
 
 		void warn( String warning, Object... arguments );
 
+		/**
+		 * Log a warn message with a single argument.
+		 * <p>
+		 * Equivalent to <code>warn( String, Object... )</code>, but allocates no argument array
+		 * unless warn is enabled.
+		 */
+
+		void warn( String warning, Object argument );
+
+		void warn( String warning, Object argument1, Object argument2 );
+
+		void warn( String warning, Object argument1, Object argument2, Object argument3 );
+
 		boolean isErrorEnabled();
 
 		/**
@@ -150,6 +203,61 @@ public final class LogUtils {
 		 */
 
 		void error( String error, Object... arguments );
+
+		/**
+		 * Log an error message with a single argument.
+		 * <p>
+		 * Equivalent to <code>error( String, Object... )</code>, but allocates no argument array
+		 * unless error is enabled.
+		 */
+
+		void error( String error, Object argument );
+
+		void error( String error, Object argument1, Object argument2 );
+
+		void error( String error, Object argument1, Object argument2, Object argument3 );
+	}
+
+	/**
+	 * Log argument whose value is only computed if the message is actually logged.
+	 * <p>
+	 * Use for arguments that are expensive to compute (eg. formatting a path), and combine with the
+	 * fixed-arity <code>Log</code> methods so that a disabled log level costs nothing.
+	 */
+
+	public abstract static class LazyArgument {
+
+		//
+		// Public methods
+		//
+
+		@Override
+		public String toString() {
+
+			return String.valueOf( resolve() );
+		}
+
+		//
+		// Protected methods
+		//
+
+		protected abstract Object resolve();
+	}
+
+	/**
+	 * Returns a LazyArgument that formats the given names as a path (eg. <code>/foo/bar</code>).
+	 */
+
+	public static LazyArgument lazyPath( final String... names ) {
+
+		return new LazyArgument() {
+
+			@Override
+			protected Object resolve() {
+
+				return ArrayUtils.toString( names, StringUtils.SEPARATOR_FORWARD_SLASH, true, false );
+			}
+		};
 	}
 
 	//
@@ -165,6 +273,20 @@ public final class LogUtils {
 
 	/* package private */static Object[]	LAST_TRACE_ARGUMENTS;
 
+	/**
+	 * Lightweight fields that store the arguments last sent to the fixed-arity <code>trace</code>
+	 * methods when trace is disabled (in which case <code>LAST_TRACE_ARGUMENTS</code> is null).
+	 * Intended for unit tests.
+	 */
+
+	/* package private */static int			LAST_TRACE_ARGUMENT_COUNT;
+
+	/* package private */static Object		LAST_TRACE_ARGUMENT1;
+
+	/* package private */static Object		LAST_TRACE_ARGUMENT2;
+
+	/* package private */static Object		LAST_TRACE_ARGUMENT3;
+
 	/**
 	 * Lightweight field that stores the last message sent to <code>Log.debug</code>. Intended for
 	 * unit tests.
@@ -174,6 +296,20 @@ public final class LogUtils {
 
 	/* package private */static Object[]	LAST_DEBUG_ARGUMENTS;
 
+	/**
+	 * Lightweight fields that store the arguments last sent to the fixed-arity <code>debug</code>
+	 * methods when debug is disabled (in which case <code>LAST_DEBUG_ARGUMENTS</code> is null).
+	 * Intended for unit tests.
+	 */
+
+	/* package private */static int			LAST_DEBUG_ARGUMENT_COUNT;
+
+	/* package private */static Object		LAST_DEBUG_ARGUMENT1;
+
+	/* package private */static Object		LAST_DEBUG_ARGUMENT2;
+
+	/* package private */static Object		LAST_DEBUG_ARGUMENT3;
+
 	/**
 	 * Lightweight field that stores the last message sent to <code>Log.info</code>. Intended for
 	 * unit tests.
@@ -195,12 +331,192 @@ public final class LogUtils {
 
 	/* package private */static String		LAST_ERROR_MESSAGE;
 
+	/**
+	 * Base implementation of the fixed-arity <code>Log</code> methods.
+	 * <p>
+	 * Checks the log level <em>before</em> allocating an argument array, then delegates to the
+	 * varargs methods.
+	 */
+
+	private abstract static class BaseLog
+		implements Log {
+
+		//
+		// Public methods
+		//
+
+		public void trace( String trace, Object argument ) {
+
+			if ( isTraceEnabled() ) {
+				trace( trace, new Object[] { argument } );
+				return;
+			}
+
+			setLastTrace( trace, 1, argument, null, null );
+		}
+
+		public void trace( String trace, Object argument1, Object argument2 ) {
+
+			if ( isTraceEnabled() ) {
+				trace( trace, new Object[] { argument1, argument2 } );
+				return;
+			}
+
+			setLastTrace( trace, 2, argument1, argument2, null );
+		}
+
+		public void trace( String trace, Object argument1, Object argument2, Object argument3 ) {
+
+			if ( isTraceEnabled() ) {
+				trace( trace, new Object[] { argument1, argument2, argument3 } );
+				return;
+			}
+
+			setLastTrace( trace, 3, argument1, argument2, argument3 );
+		}
+
+		public void debug( String debug, Object argument ) {
+
+			if ( isDebugEnabled() ) {
+				debug( debug, new Object[] { argument } );
+				return;
+			}
+
+			setLastDebug( debug, 1, argument, null, null );
+		}
+
+		public void debug( String debug, Object argument1, Object argument2 ) {
+
+			if ( isDebugEnabled() ) {
+				debug( debug, new Object[] { argument1, argument2 } );
+				return;
+			}
+
+			setLastDebug( debug, 2, argument1, argument2, null );
+		}
+
+		public void debug( String debug, Object argument1, Object argument2, Object argument3 ) {
+
+			if ( isDebugEnabled() ) {
+				debug( debug, new Object[] { argument1, argument2, argument3 } );
+				return;
+			}
+
+			setLastDebug( debug, 3, argument1, argument2, argument3 );
+		}
+
+		public void info( String info, Object argument ) {
+
+			if ( isInfoEnabled() ) {
+				info( info, new Object[] { argument } );
+				return;
+			}
+
+			LAST_INFO_MESSAGE = info;
+		}
+
+		public void info( String info, Object argument1, Object argument2 ) {
+
+			if ( isInfoEnabled() ) {
+				info( info, new Object[] { argument1, argument2 } );
+				return;
+			}
+
+			LAST_INFO_MESSAGE = info;
+		}
+
+		public void info( String info, Object argument1, Object argument2, Object argument3 ) {
+
+			if ( isInfoEnabled() ) {
+				info( info, new Object[] { argument1, argument2, argument3 } );
+				return;
+			}
+
+			LAST_INFO_MESSAGE = info;
+		}
+
+		public void warn( String warning, Object argument ) {
+
+			if ( isWarnEnabled() ) {
+				warn( warning, new Object[] { argument } );
+				return;
+			}
+
+			LAST_WARN_MESSAGE = warning;
+		}
+
+		public void warn( String warning, Object argument1, Object argument2 ) {
+
+			if ( isWarnEnabled() ) {
+				warn( warning, new Object[] { argument1, argument2 } );
+				return;
+			}
+
+			LAST_WARN_MESSAGE = warning;
+		}
+
+		public void warn( String warning, Object argument1, Object argument2, Object argument3 ) {
+
+			if ( isWarnEnabled() ) {
+				warn( warning, new Object[] { argument1, argument2, argument3 } );
+				return;
+			}
+
+			LAST_WARN_MESSAGE = warning;
+		}
+
+		public void error( String error, Object argument ) {
+
+			if ( isErrorEnabled() ) {
+				error( error, new Object[] { argument } );
+			}
+		}
+
+		public void error( String error, Object argument1, Object argument2 ) {
+
+			if ( isErrorEnabled() ) {
+				error( error, new Object[] { argument1, argument2 } );
+			}
+		}
+
+		public void error( String error, Object argument1, Object argument2, Object argument3 ) {
+
+			if ( isErrorEnabled() ) {
+				error( error, new Object[] { argument1, argument2, argument3 } );
+			}
+		}
+
+		//
+		// Private methods
+		//
+
+		private static void setLastTrace( String trace, int count, Object argument1, Object argument2, Object argument3 ) {
+
+			LAST_TRACE_MESSAGE = trace;
+			LAST_TRACE_ARGUMENTS = null;
+			LAST_TRACE_ARGUMENT_COUNT = count;
+			LAST_TRACE_ARGUMENT1 = argument1;
+			LAST_TRACE_ARGUMENT2 = argument2;
+			LAST_TRACE_ARGUMENT3 = argument3;
+		}
+
+		private static void setLastDebug( String debug, int count, Object argument1, Object argument2, Object argument3 ) {
+
+			LAST_DEBUG_MESSAGE = debug;
+			LAST_DEBUG_ARGUMENTS = null;
+			LAST_DEBUG_ARGUMENT_COUNT = count;
+			LAST_DEBUG_ARGUMENT1 = argument1;
+			LAST_DEBUG_ARGUMENT2 = argument2;
+			LAST_DEBUG_ARGUMENT3 = argument3;
+		}
+	}
+
 	/**
 	 * Logging implementation that uses <code>java.util.Logger</code>.
 	 */
 
 	private static class UtilLog
-		implements Log {
+		extends BaseLog {
 
 		//
 		// Private members
@@ -316,7 +632,7 @@ public final class LogUtils {
 	 */
 
 	private static class CommonsLog
-		implements Log {
+		extends BaseLog {
 
 		//
 		// Private members
@@ -0,0 +1,295 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+
+package org.metawidget.util;
+
+import java.lang.reflect.Method;
+
+import org.metawidget.util.simple.PathUtils;
+
+/**
+ * Compiled form of a path of JavaBean-convention property names (eg. <code>foo/bar/baz</code>).
+ * <p>
+ * <code>ClassUtils.getProperty</code> looks up the read method by name, via reflection, every
+ * time it is called. That is fine for one-off reads, but binding processors traverse the same
+ * paths on every save, rebind and action. <code>PropertyPath</code> parses the path once and
+ * caches the accessor for each segment, so that subsequent traversals cost roughly one method
+ * invocation per segment.
+ * <p>
+ * Each segment remembers the class it last resolved against, and re-resolves only if handed an
+ * instance of a different class (eg. a subclass). Traversal is null-safe: if any intermediate
+ * value is <code>null</code>, <code>getValue</code> returns <code>null</code> and
+ * <code>setValue</code> does nothing.
+ * <p>
+ * Instances are safe to share between threads.
+ *
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public final class PropertyPath {
+
+	//
+	// Private members
+	//
+
+	private final String[]		mNames;
+
+	private final Segment[]		mSegments;
+
+	//
+	// Constructor
+	//
+
+	public PropertyPath( String... names ) {
+
+		if ( names == null ) {
+			throw new NullPointerException( "names" );
+		}
+
+		mNames = names;
+		mSegments = new Segment[names.length];
+
+		for ( int loop = 0, length = names.length; loop < length; loop++ ) {
+			mSegments[loop] = new Segment( names[loop] );
+		}
+	}
+
+	//
+	// Public statics
+	//
+
+	/**
+	 * Compiles the names portion of the given <code>type/name</code>-formatted path (eg.
+	 * <code>com.Foo/bar/baz</code> compiles to <code>bar/baz</code>).
+	 */
+
+	public static PropertyPath fromPath( String path ) {
+
+		return new PropertyPath( PathUtils.parsePath( path ).getNamesAsArray() );
+	}
+
+	//
+	// Public methods
+	//
+
+	public String[] getNames() {
+
+		return mNames;
+	}
+
+	/**
+	 * Traverses the full path from the given base.
+	 *
+	 * @return the value at the end of the path, or <code>null</code> if the base or any
+	 *         intermediate value is <code>null</code>
+	 */
+
+	@SuppressWarnings( "unchecked" )
+	public <T> T getValue( Object base ) {
+
+		return (T) traverse( base, mSegments.length );
+	}
+
+	/**
+	 * Traverses all but the last segment of the path from the given base.
+	 *
+	 * @return the Object that owns the last property in the path, or <code>null</code> if the base
+	 *         or any intermediate value is <code>null</code>
+	 */
+
+	public Object getParent( Object base ) {
+
+		return traverse( base, mSegments.length - 1 );
+	}
+
+	/**
+	 * Sets the last property in the path. Does nothing if the base or any intermediate value is
+	 * <code>null</code>.
+	 *
+	 * @return true if the property was set, false if the base or any intermediate value was
+	 *         <code>null</code>
+	 */
+
+	public boolean setValue( Object base, Object value ) {
+
+		if ( mSegments.length == 0 ) {
+			throw new UnsupportedOperationException( "Cannot set an empty path" );
+		}
+
+		Object parent = getParent( base );
+
+		if ( parent == null ) {
+			return false;
+		}
+
+		mSegments[mSegments.length - 1].write( parent, value );
+		return true;
+	}
+
+	@Override
+	public String toString() {
+
+		return ArrayUtils.toString( mNames, "/" );
+	}
+
+	//
+	// Private methods
+	//
+
+	private Object traverse( Object base, int depth ) {
+
+		Object traverse = base;
+
+		for ( int loop = 0; loop < depth; loop++ ) {
+
+			if ( traverse == null ) {
+				return null;
+			}
+
+			traverse = mSegments[loop].read( traverse );
+		}
+
+		return traverse;
+	}
+
+	//
+	// Inner class
+	//
+
+	/**
+	 * A single segment of the path, caching its accessors.
+	 */
+
+	private static class Segment {
+
+		//
+		// Private members
+		//
+
+		private final String		mName;
+
+		/**
+		 * Accessors resolved against the last class seen. Replaced (never mutated) so that readers
+		 * on other threads always see a consistent class/method pairing.
+		 */
+
+		private volatile Accessors	mAccessors;
+
+		//
+		// Constructor
+		//
+
+		public Segment( String name ) {
+
+			mName = name;
+		}
+
+		//
+		// Public methods
+		//
+
+		public Object read( Object base ) {
+
+			try {
+				return getAccessors( base.getClass() ).getReadMethod().invoke( base );
+			} catch ( Exception e ) {
+				throw new RuntimeException( "Unable to get '" + mName + "' of '" + base + "' (" + base.getClass() + ")", e );
+			}
+		}
+
+		public void write( Object base, Object value ) {
+
+			try {
+				getAccessors( base.getClass() ).getWriteMethod().invoke( base, value );
+			} catch ( Exception e ) {
+				throw new RuntimeException( "Unable to set '" + mName + "' of '" + base + "' to '" + value + "'", e );
+			}
+		}
+
+		//
+		// Private methods
+		//
+
+		private Accessors getAccessors( Class<?> clazz ) {
+
+			Accessors accessors = mAccessors;
+
+			if ( accessors == null || !accessors.getType().equals( clazz ) ) {
+				accessors = new Accessors( clazz, mName );
+				mAccessors = accessors;
+			}
+
+			return accessors;
+		}
+	}
+
+	/**
+	 * Read (and, lazily, write) methods for a single property of a single class.
+	 */
+
+	private static class Accessors {
+
+		//
+		// Private members
+		//
+
+		private final Class<?>	mType;
+
+		private final String	mName;
+
+		private final Method	mReadMethod;
+
+		private volatile Method	mWriteMethod;
+
+		//
+		// Constructor
+		//
+
+		public Accessors( Class<?> type, String name ) {
+
+			mType = type;
+			mName = name;
+			mReadMethod = ClassUtils.getReadMethod( type, name );
+		}
+
+		//
+		// Public methods
+		//
+
+		public Class<?> getType() {
+
+			return mType;
+		}
+
+		public Method getReadMethod() {
+
+			return mReadMethod;
+		}
+
+		/**
+		 * Resolved lazily, as most paths are only ever read. Determines the type based on the
+		 * 'read' method, not the value.getClass(), because that is unreliable for 'Integer' versus
+		 * 'int'.
+		 */
+
+		public Method getWriteMethod() {
+
+			Method writeMethod = mWriteMethod;
+
+			if ( writeMethod == null ) {
+				writeMethod = ClassUtils.getWriteMethod( mType, mName, mReadMethod.getReturnType() );
+				mWriteMethod = writeMethod;
+			}
+
+			return writeMethod;
+		}
+	}
+}
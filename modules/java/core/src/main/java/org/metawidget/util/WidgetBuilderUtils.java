@@ -14,7 +14,11 @@ package org.metawidget.util;
 import static org.metawidget.inspector.InspectionResultConstants.*;
 import static org.metawidget.inspector.propertytype.PropertyTypeInspectionResultConstants.*;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Utilities for working with WidgetBuilders.
@@ -146,6 +150,48 @@ public final class WidgetBuilderUtils {
 		return true;
 	}
 
+	/**
+	 * Splits the given LOOKUP or LOOKUP_LABELS attribute by comma (as per
+	 * <code>CollectionUtils.fromString</code>).
+	 * <p>
+	 * Inspection results are generally cached, so the same lookups are split again on every widget
+	 * build. Splits are therefore cached by the attribute value itself.
+	 *
+	 * @return an unmodifiable List. Never null
+	 */
+
+	public static List<String> splitLookup( String lookup ) {
+
+		if ( lookup == null || lookup.length() == 0 ) {
+			return Collections.emptyList();
+		}
+
+		List<String> split = SPLIT_LOOKUP_CACHE.get( lookup );
+
+		if ( split == null ) {
+			split = Collections.unmodifiableList( CollectionUtils.fromString( lookup ) );
+
+			if ( SPLIT_LOOKUP_CACHE.size() < MAXIMUM_CACHED_LOOKUPS ) {
+				SPLIT_LOOKUP_CACHE.putIfAbsent( lookup, split );
+			}
+		}
+
+		return split;
+	}
+
+	//
+	// Private statics
+	//
+
+	/**
+	 * Maximum number of split lookups to cache. Lookups are normally a bounded set, but guard
+	 * against unbounded growth (eg. lookups generated from data).
+	 */
+
+	private static final int								MAXIMUM_CACHED_LOOKUPS	= 1024;
+
+	private static final ConcurrentMap<String, List<String>>	SPLIT_LOOKUP_CACHE		= new ConcurrentHashMap<String, List<String>>();
+
 	//
 	// Private constructor
 	//
@@ -412,6 +412,31 @@ public final class XmlUtils {
 		}
 	}
 
+	/**
+	 * Creates a new, unshared DocumentBuilder configured the same way as the shared one used by
+	 * <code>parse</code> and <code>newDocument</code>.
+	 * <p>
+	 * DocumentBuilders are not threadsafe, so the shared one is synchronized. Clients parsing many
+	 * documents on several threads can instead use one DocumentBuilder per thread, and avoid
+	 * contending for the shared one.
+	 */
+
+	public static DocumentBuilder newDocumentBuilder() {
+
+		try {
+			DocumentBuilder documentBuilder;
+
+			synchronized ( DOCUMENT_BUILDER_FACTORY ) {
+				documentBuilder = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+			}
+
+			documentBuilder.setEntityResolver( new NopEntityResolver() );
+			return documentBuilder;
+		} catch ( ParserConfigurationException e ) {
+			throw new RuntimeException( e );
+		}
+	}
+
 	/**
 	 * Get the indexed Element.
 	 * <p>
@@ -572,7 +597,37 @@ public final class XmlUtils {
 
 	public static String inspectionResultToJsonSchema( Element inspectionResult ) {
 
-		return inspectionResultToJsonSchema( XmlUtils.getFirstChildElement( inspectionResult ), false );
+		StringBuilder jsonBuilder = new StringBuilder();
+
+		try {
+			inspectionResultToJsonSchema( inspectionResult, jsonBuilder );
+		} catch ( IOException e ) {
+
+			// (StringBuilder never throws IOException)
+
+			throw new RuntimeException( e );
+		}
+
+		return jsonBuilder.toString();
+	}
+
+	/**
+	 * Convert the given Element to a JSON Schema (v3), appending it directly to the given
+	 * Appendable (such as a <code>Writer</code>).
+	 * <p>
+	 * Produces the same output as <code>inspectionResultToJsonSchema( Element )</code>, but without
+	 * building an intermediate String. Useful for streaming large inspection results (eg. to an
+	 * HTTP response).
+	 */
+
+	public static void inspectionResultToJsonSchema( Element inspectionResult, Appendable appendable )
+		throws IOException {
+
+		Element element = XmlUtils.getFirstChildElement( inspectionResult );
+
+		if ( element != null ) {
+			inspectionResultToJsonSchema( element, false, appendable );
+		}
 	}
 
 	/**
@@ -607,88 +662,77 @@ public final class XmlUtils {
 
 	private static final String[]	JSON_SCHEMA_NON_STRING_ATTRIBUTE_NAMES	= new String[] { REQUIRED, HIDDEN, "minimum", "maximum", "minLength", "maxLength", "propertyOrder" };
 
-	private static String inspectionResultToJsonSchema( Element element, boolean excludeName ) {
-
-		StringBuilder jsonBuilder = new StringBuilder();
-
-		if ( element != null ) {
-
-			// For each child trait...
+	private static void inspectionResultToJsonSchema( Element element, boolean excludeName, Appendable appendable )
+		throws IOException {
 
-			Element trait = XmlUtils.getFirstChildElement( element );
+		appendable.append( '{' );
+		boolean first = true;
 
-			while ( trait != null ) {
+		// Actions with no type are functions
 
-				// ...that has a name...
-
-				if ( trait.hasAttribute( NAME ) ) {
+		if ( ACTION.equals( getLocalName( element ) ) && !element.hasAttribute( "type" ) ) {
+			appendable.append( "\"type\":\"function\"" );
+			first = false;
+		}
 
-					// ..recurse into it...
+		// Write out the attributes...
 
-					String traitSchema = inspectionResultToJsonSchema( trait, true );
+		first = attributesToJsonSchema( element.getAttributes(), excludeName, appendable, first );
 
-					if ( traitSchema.length() > 0 ) {
+		// ...then, for each child trait that has a name...
 
-						if ( jsonBuilder.length() > 0 ) {
-							jsonBuilder.append( StringUtils.SEPARATOR_COMMA_CHAR );
-						}
+		boolean properties = false;
 
-						jsonBuilder.append( '\"' );
-						jsonBuilder.append( trait.getAttribute( NAME ) );
-						jsonBuilder.append( "\":" );
-						jsonBuilder.append( traitSchema );
-					}
-				}
+		for ( Element trait = XmlUtils.getFirstChildElement( element ); trait != null; trait = XmlUtils.getNextSiblingElement( trait ) ) {
 
-				trait = XmlUtils.getNextSiblingElement( trait );
+			if ( !trait.hasAttribute( NAME ) ) {
+				continue;
 			}
 
-			// ...and write them all out as 'properties'
+			// ...write them all out as 'properties' (for arrays, 'properties' is inside 'items')...
 
-			if ( jsonBuilder.length() > 0 ) {
-				jsonBuilder.insert( 0, "\"properties\":{" );
-				jsonBuilder.append( '}' );
-
-				// For arrays, 'properties' is inside 'items'
+			if ( properties ) {
+				appendable.append( StringUtils.SEPARATOR_COMMA_CHAR );
+			} else {
+				if ( !first ) {
+					appendable.append( StringUtils.SEPARATOR_COMMA_CHAR );
+				}
 
 				if ( "array".equals( element.getAttribute( TYPE ) ) ) {
-					jsonBuilder.insert( 0, "\"items\":{" );
-					jsonBuilder.append( '}' );
+					appendable.append( "\"items\":{" );
 				}
-			}
 
-			// Finally write out the root...
-
-			String attributes = attributesToJsonSchema( element.getAttributes(), excludeName );
+				appendable.append( "\"properties\":{" );
+				properties = true;
+			}
 
-			if ( attributes.length() > 0 ) {
+			// ...recursing into each
 
-				if ( jsonBuilder.length() > 0 ) {
-					jsonBuilder.insert( 0, "," );
-				}
+			appendable.append( '\"' );
+			appendable.append( trait.getAttribute( NAME ) );
+			appendable.append( "\":" );
+			inspectionResultToJsonSchema( trait, true, appendable );
+		}
 
-				jsonBuilder.insert( 0, attributes );
-			}
+		if ( properties ) {
+			appendable.append( '}' );
 
-			if ( ACTION.equals( getLocalName( element ) ) && !element.hasAttribute( "type" ) ) {
-				if ( jsonBuilder.length() > 0 ) {
-					jsonBuilder.insert( 0, "," );
-				}
-				jsonBuilder.insert( 0, "\"type\":\"function\"" );
+			if ( "array".equals( element.getAttribute( TYPE ) ) ) {
+				appendable.append( '}' );
 			}
-
-			// ...all inside an Object
-
-			jsonBuilder.insert( 0, "{" );
-			jsonBuilder.append( "}" );
 		}
 
-		return jsonBuilder.toString();
+		appendable.append( '}' );
 	}
 
-	private static String attributesToJsonSchema( NamedNodeMap attributes, boolean excludeName ) {
+	/**
+	 * @return whether nothing has been written yet (ie. the next write needs no comma)
+	 */
+
+	private static boolean attributesToJsonSchema( NamedNodeMap attributes, boolean excludeName, Appendable appendable, boolean first )
+		throws IOException {
 
-		StringBuilder propertyBuilder = new StringBuilder();
+		boolean firstToReturn = first;
 
 		for ( int loop = 0, length = attributes.getLength(); loop < length; loop++ ) {
 
@@ -705,32 +749,36 @@ public final class XmlUtils {
 
 			attributeName = StringUtils.camelCase( attributeName, '-' );
 
-			if ( propertyBuilder.length() > 0 ) {
-				propertyBuilder.append( StringUtils.SEPARATOR_COMMA_CHAR );
+			if ( !firstToReturn ) {
+				appendable.append( StringUtils.SEPARATOR_COMMA_CHAR );
 			}
 
-			propertyBuilder.append( "\"" + attributeName + "\"" );
-			propertyBuilder.append( StringUtils.SEPARATOR_COLON_CHAR );
+			firstToReturn = false;
+
+			appendable.append( '\"' );
+			appendable.append( attributeName );
+			appendable.append( '\"' );
+			appendable.append( StringUtils.SEPARATOR_COLON_CHAR );
 
 			if ( ArrayUtils.contains( JSON_SCHEMA_ARRAY_BASED_ATTRIBUTE_NAMES, attributeName ) ) {
-				propertyBuilder.append( "[" );
-				propertyBuilder.append( arrayToJsonSchema( attributeValue ) );
-				propertyBuilder.append( "]" );
-			} else if ( ArrayUtils.contains( JSON_SCHEMA_NON_STRING_ATTRIBUTE_NAMES, attributeName ) && !attributeValue.contains( "{" )) {
-				propertyBuilder.append( attributeValue );
-			} else if ( "xsi:nil".equals( attributeValue )) {
-				propertyBuilder.append( "null" );
+				appendable.append( '[' );
+				appendable.append( arrayToJsonSchema( attributeValue ) );
+				appendable.append( ']' );
+			} else if ( ArrayUtils.contains( JSON_SCHEMA_NON_STRING_ATTRIBUTE_NAMES, attributeName ) && !attributeValue.contains( "{" ) ) {
+				appendable.append( attributeValue );
+			} else if ( "xsi:nil".equals( attributeValue ) ) {
+				appendable.append( "null" );
 			} else {
 
 				// Write out all other values as a string, as this is the safest option
 
-				propertyBuilder.append( "\"" );
-				propertyBuilder.append( attributeValue );
-				propertyBuilder.append( "\"" );
+				appendable.append( '\"' );
+				appendable.append( attributeValue );
+				appendable.append( '\"' );
 			}
 		}
 
-		return propertyBuilder.toString();
+		return firstToReturn;
 	}
 
 	private static String arrayToJsonSchema( String array ) {
@@ -1638,19 +1686,16 @@ public final class XmlUtils {
 	// Private statics
 	//
 
-	private static final DocumentBuilder	DOCUMENT_BUILDER;
+	private static final DocumentBuilderFactory	DOCUMENT_BUILDER_FACTORY;
+
+	private static final DocumentBuilder		DOCUMENT_BUILDER;
 
 	static {
-		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-		factory.setNamespaceAware( true );
-		factory.setIgnoringComments( true );
-		factory.setIgnoringElementContentWhitespace( true );
-		try {
-			DOCUMENT_BUILDER = factory.newDocumentBuilder();
-			DOCUMENT_BUILDER.setEntityResolver( new NopEntityResolver() );
-		} catch ( ParserConfigurationException e ) {
-			throw new RuntimeException( e );
-		}
+		DOCUMENT_BUILDER_FACTORY = DocumentBuilderFactory.newInstance();
+		DOCUMENT_BUILDER_FACTORY.setNamespaceAware( true );
+		DOCUMENT_BUILDER_FACTORY.setIgnoringComments( true );
+		DOCUMENT_BUILDER_FACTORY.setIgnoringElementContentWhitespace( true );
+		DOCUMENT_BUILDER = newDocumentBuilder();
 	}
 
 	private static final Pattern			PATTERN_AMP		= Pattern.compile( "&", Pattern.LITERAL );
@@ -11,9 +11,13 @@
 
 package org.metawidget.widgetbuilder.composite;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.metawidget.widgetbuilder.iface.AdvancedWidgetBuilder;
+import org.metawidget.widgetbuilder.iface.DispatchableWidgetBuilder;
 import org.metawidget.widgetbuilder.iface.WidgetBuilder;
 import org.metawidget.widgetbuilder.iface.WidgetBuilderException;
 
@@ -24,6 +28,10 @@ import org.metawidget.widgetbuilder.iface.WidgetBuilderException;
  * method. The first non-null result is returned. If all sub-WidgetBuilders return null, null is
  * returned (the parent Metawidget will generally instantiate a nested Metawidget in this case).
  * <p>
+ * Sub-WidgetBuilders that implement <code>DispatchableWidgetBuilder</code> are indexed: once one
+ * has returned null for a given signature (element name plus dispatch attributes), it is skipped
+ * for that signature thereafter. Other sub-WidgetBuilders are always invoked.
+ * <p>
  * Note: the name <em>Composite</em>WidgetBuilder refers to the Composite design pattern.
  *
  * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
@@ -32,12 +40,46 @@ import org.metawidget.widgetbuilder.iface.WidgetBuilderException;
 public class CompositeWidgetBuilder<W, M extends W>
 	implements AdvancedWidgetBuilder<W, M> {
 
+	//
+	// Private statics
+	//
+
+	/**
+	 * Maximum number of signatures in the dispatch index. Signatures beyond this are still built,
+	 * just not indexed.
+	 */
+
+	/* package private */static final int				MAXIMUM_CACHED_SIGNATURES	= 1024;
+
 	//
 	// Private members
 	//
 
 	/* package private */final WidgetBuilder<W, M>[]	mWidgetBuilders;
 
+	/**
+	 * Whether each sub-WidgetBuilder is a <code>DispatchableWidgetBuilder</code>.
+	 */
+
+	private final boolean[]								mDispatchable;
+
+	/**
+	 * Union of the dispatch attributes of all sub-WidgetBuilders, or null if none are
+	 * <code>DispatchableWidgetBuilder</code>s.
+	 */
+
+	private final String[]								mDispatchAttributes;
+
+	/**
+	 * Index of signature to a bitmask of the (first 64) sub-WidgetBuilders known to return null
+	 * for that signature.
+	 * <p>
+	 * Always accessed while synchronized on itself. Avoids <code>java.util.concurrent</code>,
+	 * because CompositeWidgetBuilder is also compiled by GWT.
+	 */
+
+	private final Map<String, Long>						mDispatchIndex;
+
 	//
 	// Constructor
 	//
@@ -56,6 +98,8 @@ public class CompositeWidgetBuilder<W, M extends W>
 		// Defensive copy
 
 		mWidgetBuilders = new WidgetBuilder[widgetBuilders.length];
+		mDispatchable = new boolean[widgetBuilders.length];
+		Set<String> dispatchAttributes = new HashSet<String>();
 
 		for ( int loop = 0, length = widgetBuilders.length; loop < length; loop++ ) {
 			WidgetBuilder<W, M> widgetBuilder = widgetBuilders[loop];
@@ -67,6 +111,24 @@ public class CompositeWidgetBuilder<W, M extends W>
 			}
 
 			mWidgetBuilders[loop] = widgetBuilder;
+
+			if ( widgetBuilder instanceof DispatchableWidgetBuilder<?, ?> ) {
+				mDispatchable[loop] = true;
+
+				for ( String dispatchAttribute : ( (DispatchableWidgetBuilder<W, M>) widgetBuilder ).getDispatchAttributes() ) {
+					dispatchAttributes.add( dispatchAttribute );
+				}
+			}
+		}
+
+		// Dispatch index
+
+		if ( dispatchAttributes.isEmpty() ) {
+			mDispatchAttributes = null;
+			mDispatchIndex = null;
+		} else {
+			mDispatchAttributes = dispatchAttributes.toArray( new String[dispatchAttributes.size()] );
+			mDispatchIndex = new HashMap<String, Long>();
 		}
 	}
 
@@ -86,15 +148,58 @@ public class CompositeWidgetBuilder<W, M extends W>
 
 	public W buildWidget( String elementName, Map<String, String> attributes, M metawidget ) {
 
-		for ( WidgetBuilder<W, M> widgetBuilder : mWidgetBuilders ) {
-			W widget = widgetBuilder.buildWidget( elementName, attributes, metawidget );
+		// No index?
+
+		if ( mDispatchIndex == null || attributes == null ) {
+
+			for ( WidgetBuilder<W, M> widgetBuilder : mWidgetBuilders ) {
+				W widget = buildWidget( widgetBuilder, elementName, attributes, metawidget );
+
+				if ( widget != null ) {
+					return widget;
+				}
+			}
+
+			return null;
+		}
+
+		// Skip sub-WidgetBuilders known to return null for this signature
+
+		String signature = getSignature( elementName, attributes );
+		Long indexed;
+
+		synchronized ( mDispatchIndex ) {
+			indexed = mDispatchIndex.get( signature );
+		}
+
+		long knownNulls = ( indexed == null ? 0 : indexed );
+		long returnedNulls = knownNulls;
+		W widget = null;
+
+		for ( int loop = 0, length = mWidgetBuilders.length; loop < length; loop++ ) {
+
+			long bit = ( loop < Long.SIZE ? 1L << loop : 0 );
+
+			if ( ( knownNulls & bit ) != 0 ) {
+				continue;
+			}
+
+			widget = buildWidget( mWidgetBuilders[loop], elementName, attributes, metawidget );
 
 			if ( widget != null ) {
-				return widget;
+				break;
+			}
+
+			if ( mDispatchable[loop] ) {
+				returnedNulls |= bit;
 			}
 		}
 
-		return null;
+		if ( returnedNulls != knownNulls ) {
+			updateDispatchIndex( signature, returnedNulls );
+		}
+
+		return widget;
 	}
 
 	public void onEndBuild( M metawidget ) {
@@ -121,4 +226,60 @@ public class CompositeWidgetBuilder<W, M extends W>
 
 		return widgetBuilders;
 	}
+
+	//
+	// Protected methods
+	//
+
+	/**
+	 * Invokes the given sub-WidgetBuilder.
+	 * <p>
+	 * Subclasses may override this method to, say, time each sub-WidgetBuilder.
+	 */
+
+	protected W buildWidget( WidgetBuilder<W, M> widgetBuilder, String elementName, Map<String, String> attributes, M metawidget ) {
+
+		return widgetBuilder.buildWidget( elementName, attributes, metawidget );
+	}
+
+	//
+	// Private methods
+	//
+
+	private void updateDispatchIndex( String signature, long returnedNulls ) {
+
+		synchronized ( mDispatchIndex ) {
+			Long indexed = mDispatchIndex.get( signature );
+
+			if ( indexed == null && mDispatchIndex.size() >= MAXIMUM_CACHED_SIGNATURES ) {
+				return;
+			}
+
+			mDispatchIndex.put( signature, ( indexed == null ? returnedNulls : indexed | returnedNulls ) );
+		}
+	}
+
+	private String getSignature( String elementName, Map<String, String> attributes ) {
+
+		StringBuilder builder = new StringBuilder();
+		builder.append( elementName );
+
+		for ( String dispatchAttribute : mDispatchAttributes ) {
+
+			// Use separators that cannot appear in XML attributes, and distinguish 'absent' from
+			// any String value
+
+			String value = attributes.get( dispatchAttribute );
+
+			if ( value == null ) {
+				builder.append( (char) 1 );
+				continue;
+			}
+
+			builder.append( (char) 0 );
+			builder.append( value );
+		}
+
+		return builder.toString();
+	}
 }
@@ -0,0 +1,46 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+
+package org.metawidget.widgetbuilder.iface;
+
+/**
+ * Optional interface for WidgetBuilders that can take part in <code>CompositeWidgetBuilder</code>'s
+ * dispatch index.
+ * <p>
+ * A DispatchableWidgetBuilder promises that whether it returns <code>null</code> from
+ * <code>buildWidget</code> depends <em>only</em> on the element name and the values of the
+ * attributes named by <code>getDispatchAttributes</code> (not on the Metawidget, nor on any other
+ * attributes). <code>CompositeWidgetBuilder</code> can then remember which signatures a
+ * DispatchableWidgetBuilder declined, and skip straight past it next time.
+ * <p>
+ * WidgetBuilders that cannot make this promise (such as those that look for manually overridden
+ * widgets on the Metawidget) should simply not implement this interface. They will always be
+ * called.
+ *
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public interface DispatchableWidgetBuilder<W, M extends W>
+	extends WidgetBuilder<W, M> {
+
+	//
+	// Methods
+	//
+
+	/**
+	 * Names of the attributes this WidgetBuilder consults when deciding whether to return
+	 * <code>null</code>.
+	 *
+	 * @return the attribute names. Never null
+	 */
+
+	String[] getDispatchAttributes();
+}
@@ -14,8 +14,13 @@ package org.metawidget.inspector.impl.propertystyle.javabean;
 import java.beans.BeanInfo;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.text.MessageFormat;
 import java.util.Date;
 import java.util.List;
@@ -274,6 +279,39 @@ public class JavaBeanPropertyStyleTest
 		assertEquals( String[].class.getName(), valueAndDeclaredType.getDeclaredType() );
 	}
 
+	public void testTraverseDoesNotHoldClassLoader()
+		throws Exception {
+
+		JavaBeanPropertyStyle propertyStyle = new JavaBeanPropertyStyle();
+
+		// Load ArrayHolder in its own ClassLoader (eg. a redeployed WAR)
+
+		ClassLoader classLoader = new URLClassLoader( new URL[] { ArrayHolder.class.getProtectionDomain().getCodeSource().getLocation() }, null );
+		Constructor<?> constructor = classLoader.loadClass( ArrayHolder.class.getName() ).getDeclaredConstructor();
+		constructor.setAccessible( true );
+		Object reloaded = constructor.newInstance();
+		assertTrue( reloaded == propertyStyle.traverse( reloaded, ArrayHolder.class.getName(), false ).getValue() );
+
+		// Class of the same name, different ClassLoader
+
+		ArrayHolder arrayHolder = new ArrayHolder();
+		assertTrue( arrayHolder == propertyStyle.traverse( arrayHolder, ArrayHolder.class.getName(), false ).getValue() );
+
+		// Cached traversal plans should not prevent garbage collection
+
+		Reference<ClassLoader> reference = new WeakReference<ClassLoader>( classLoader );
+		classLoader = null;
+		constructor = null;
+		reloaded = null;
+
+		for ( int loop = 0; loop < 10 && reference.get() != null; loop++ ) {
+			System.gc();
+			Thread.sleep( 10 );
+		}
+
+		assertEquals( null, reference.get() );
+	}
+
 	public void testPrivateField() {
 
 		JavaBeanPropertyStyleConfig config = new JavaBeanPropertyStyleConfig();
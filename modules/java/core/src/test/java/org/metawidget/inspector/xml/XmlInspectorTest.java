@@ -14,6 +14,9 @@ package org.metawidget.inspector.xml;
 import static org.metawidget.inspector.InspectionResultConstants.*;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 
@@ -849,6 +852,152 @@ public class XmlInspectorTest
 		assertEquals( 2, entity.getChildNodes().getLength() );
 	}
 
+	public void testParseThreadsAndLazily() {
+
+		String xml2 = "<?xml version=\"1.0\"?>";
+		xml2 += "<inspection-result xmlns=\"http://www.metawidget.org/inspection-result\" version=\"1.0\">";
+		xml2 += "<entity type=\"Bar\">";
+		xml2 += "<property name=\"qux\"/>";
+		xml2 += "</entity>";
+		xml2 += "<entity type=\"Quux\">";
+		xml2 += "<property name=\"corge\"/>";
+		xml2 += "</entity>";
+		xml2 += "</inspection-result>";
+
+		String xml3 = "<?xml version=\"1.0\"?>";
+		xml3 += "<inspection-result xmlns=\"http://www.metawidget.org/inspection-result\" version=\"1.0\">";
+		xml3 += "<entity type=\"Quux\">";
+		xml3 += "<property name=\"grault\"/>";
+		xml3 += "</entity>";
+		xml3 += "<entity type=\"Bar\">";
+		xml3 += "<property name=\"baz\" required=\"true\"/>";
+		xml3 += "<property name=\"garply\"/>";
+		xml3 += "</entity>";
+		xml3 += "</inspection-result>";
+
+		XmlInspector inspector = new XmlInspector( newConfig( xml2, xml3 ) );
+		XmlInspector parallelInspector = new XmlInspector( newConfig( xml2, xml3 ).setParseThreads( 2 ) );
+		XmlInspector lazyInspector = new XmlInspector( newConfig( xml2, xml3 ).setParseLazily( true ) );
+
+		// Files should be combined in the order they were specified, regardless of parallel or lazy
+		// parsing (and, for lazy parsing, regardless of which type is inspected first)
+
+		assertEquals( inspector.inspect( null, "Quux" ), lazyInspector.inspect( null, "Quux" ) );
+
+		for ( XmlInspector otherInspector : new XmlInspector[] { parallelInspector, lazyInspector } ) {
+
+			assertEquals( inspector.inspect( null, "org.metawidget.inspector.xml.XmlInspectorTest$SubFoo" ), otherInspector.inspect( null, "org.metawidget.inspector.xml.XmlInspectorTest$SubFoo" ) );
+			assertEquals( inspector.inspect( null, "org.metawidget.inspector.xml.XmlInspectorTest$SubFoo", "bar" ), otherInspector.inspect( null, "org.metawidget.inspector.xml.XmlInspectorTest$SubFoo", "bar" ) );
+			assertEquals( inspector.inspect( null, "Bar" ), otherInspector.inspect( null, "Bar" ) );
+			assertEquals( inspector.inspect( null, "Quux" ), otherInspector.inspect( null, "Quux" ) );
+			assertEquals( null, otherInspector.inspect( null, "NoSuchType" ) );
+		}
+
+		Document document = XmlUtils.documentFromString( lazyInspector.inspect( null, "Bar" ) );
+		Element entity = (Element) document.getDocumentElement().getFirstChild();
+		Element property = (Element) entity.getFirstChild();
+		assertEquals( "baz", property.getAttribute( NAME ) );
+		assertEquals( TRUE, property.getAttribute( REQUIRED ) );
+		property = (Element) property.getNextSibling();
+		assertEquals( "garply", property.getAttribute( NAME ) );
+		property = (Element) property.getNextSibling();
+		assertEquals( ACTION, property.getNodeName() );
+		assertEquals( "doAction", property.getAttribute( NAME ) );
+		property = (Element) property.getNextSibling();
+		assertEquals( "qux", property.getAttribute( NAME ) );
+		assertEquals( null, property.getNextSibling() );
+
+		// validateAgainstClasses needs every file up front
+
+		try {
+			new XmlInspector( newConfig().setParseLazily( true ).setValidateAgainstClasses( new JavaBeanPropertyStyle() ) );
+			fail();
+		} catch ( InspectorException e ) {
+			assertEquals( "When using parseLazily, validateAgainstClasses is not supported", e.getMessage() );
+		}
+	}
+
+	public void testCacheDirectory()
+		throws Exception {
+
+		File cacheDirectory = File.createTempFile( "XmlInspectorTest", "" );
+		assertTrue( cacheDirectory.delete() );
+
+		try {
+			String xml2 = "<?xml version=\"1.0\"?>";
+			xml2 += "<inspection-result xmlns=\"http://www.metawidget.org/inspection-result\" version=\"1.0\">";
+			xml2 += "<entity type=\"Bar\">";
+			xml2 += "<property name=\"qux\" label=\"Qux &amp; &lt;Quux&gt;\"/>";
+			xml2 += "</entity>";
+			xml2 += "</inspection-result>";
+
+			XmlInspector inspector = new XmlInspector( newConfig( xml2 ) );
+
+			// Cache miss should create the directory and write a file
+
+			XmlInspector cachedInspector = new XmlInspector( newConfig( xml2 ).setCacheDirectory( cacheDirectory.getPath() ) );
+			assertEquals( 1, cacheDirectory.listFiles().length );
+			File cacheFile = cacheDirectory.listFiles()[0];
+
+			// Cache hit should give the same results
+
+			XmlInspector readInspector = new XmlInspector( newConfig( xml2 ).setCacheDirectory( cacheDirectory.getPath() ) );
+			assertEquals( 1, cacheDirectory.listFiles().length );
+
+			for ( XmlInspector otherInspector : new XmlInspector[] { cachedInspector, readInspector } ) {
+
+				assertEquals( inspector.inspect( null, "org.metawidget.inspector.xml.XmlInspectorTest$SubFoo" ), otherInspector.inspect( null, "org.metawidget.inspector.xml.XmlInspectorTest$SubFoo" ) );
+				assertEquals( inspector.inspect( null, "org.metawidget.inspector.xml.XmlInspectorTest$SubFoo", "bar" ), otherInspector.inspect( null, "org.metawidget.inspector.xml.XmlInspectorTest$SubFoo", "bar" ) );
+				assertEquals( inspector.inspect( null, "Bar" ), otherInspector.inspect( null, "Bar" ) );
+			}
+
+			// Changed sources should use a different file
+
+			String xml3 = xml2.replace( "qux", "corge" );
+			XmlInspector changedInspector = new XmlInspector( newConfig( xml3 ).setCacheDirectory( cacheDirectory.getPath() ) );
+			assertEquals( 2, cacheDirectory.listFiles().length );
+			assertTrue( changedInspector.inspect( null, "Bar" ).contains( "corge" ) );
+			assertFalse( changedInspector.inspect( null, "Bar" ).contains( "qux" ) );
+
+			// Prove the cache is actually read (by swapping in the other file)
+
+			File changedCacheFile = null;
+
+			for ( File file : cacheDirectory.listFiles() ) {
+				if ( !file.equals( cacheFile ) ) {
+					changedCacheFile = file;
+				}
+			}
+
+			assertTrue( cacheFile.delete() );
+			assertTrue( changedCacheFile.renameTo( cacheFile ) );
+			assertTrue( new XmlInspector( newConfig( xml2 ).setCacheDirectory( cacheDirectory.getPath() ) ).inspect( null, "Bar" ).contains( "corge" ) );
+
+			// Corrupt cache should be ignored
+
+			FileOutputStream out = new FileOutputStream( cacheFile );
+			out.write( "corrupt".getBytes() );
+			out.close();
+
+			assertEquals( inspector.inspect( null, "Bar" ), new XmlInspector( newConfig( xml2 ).setCacheDirectory( cacheDirectory.getPath() ) ).inspect( null, "Bar" ) );
+
+			// parseLazily never parses everything up front
+
+			try {
+				new XmlInspector( newConfig().setParseLazily( true ).setCacheDirectory( cacheDirectory.getPath() ) );
+				fail();
+			} catch ( InspectorException e ) {
+				assertEquals( "When using parseLazily, cacheDirectory is not supported", e.getMessage() );
+			}
+		} finally {
+			for ( File file : cacheDirectory.listFiles() ) {
+				file.delete();
+			}
+
+			cacheDirectory.delete();
+		}
+	}
+
 	//
 	// Protected methods
 	//
@@ -885,6 +1034,26 @@ public class XmlInspectorTest
 		mInspector = new XmlInspector( new XmlInspectorConfig().setInputStream( new ByteArrayInputStream( mXml.getBytes() ) ) );
 	}
 
+	//
+	// Private methods
+	//
+
+	/**
+	 * @return a config for <code>mXml</code> followed by the given XML files
+	 */
+
+	private XmlInspectorConfig newConfig( String... xmls ) {
+
+		InputStream[] inputStreams = new InputStream[xmls.length + 1];
+		inputStreams[0] = new ByteArrayInputStream( mXml.getBytes() );
+
+		for ( int loop = 0; loop < xmls.length; loop++ ) {
+			inputStreams[loop + 1] = new ByteArrayInputStream( xmls[loop].getBytes() );
+		}
+
+		return (XmlInspectorConfig) new XmlInspectorConfig().setInputStreams( inputStreams );
+	}
+
 	//
 	// Inner class
 	//
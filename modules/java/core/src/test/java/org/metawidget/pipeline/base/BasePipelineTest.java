@@ -16,6 +16,7 @@ import static org.metawidget.inspector.InspectionResultConstants.*;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import javax.swing.JComponent;
 import javax.swing.JPanel;
@@ -26,11 +27,16 @@ import org.metawidget.config.iface.ConfigReader;
 import org.metawidget.config.impl.BaseConfigReader;
 import org.metawidget.inspectionresultprocessor.iface.InspectionResultProcessor;
 import org.metawidget.inspectionresultprocessor.sort.ComesAfterInspectionResultProcessor;
+import org.metawidget.inspector.iface.Inspector;
 import org.metawidget.inspector.propertytype.PropertyTypeInspector;
 import org.metawidget.layout.iface.AdvancedLayout;
 import org.metawidget.layout.iface.Layout;
+import org.metawidget.pipeline.metrics.iface.PipelineMetrics;
+import org.metawidget.pipeline.metrics.snapshot.PipelineMetric;
+import org.metawidget.pipeline.metrics.snapshot.SnapshotPipelineMetrics;
 import org.metawidget.pipeline.w3c.W3CPipeline;
 import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.ColumnModel;
 import org.metawidget.util.XmlUtils;
 import org.metawidget.widgetbuilder.iface.AdvancedWidgetBuilder;
 import org.metawidget.widgetbuilder.iface.WidgetBuilder;
@@ -184,6 +190,107 @@ public class BasePipelineTest
 		assertEquals( 99, nestedPipeline.getMaximumInspectionDepth() );
 	}
 
+	public void testPipelineTemplate() {
+
+		W3CPipeline<JComponent, JComponent, JComponent> pipeline = new MockPipeline();
+		W3CPipeline<JComponent, JComponent, JComponent> nestedPipeline = new MockPipeline();
+		W3CPipeline<JComponent, JComponent, JComponent> nestedNestedPipeline = new MockPipeline();
+
+		ComesAfterInspectionResultProcessor<JComponent> inspectionResultProcessor = new ComesAfterInspectionResultProcessor<JComponent>();
+		pipeline.setInspector( new PropertyTypeInspector() );
+		pipeline.addInspectionResultProcessor( inspectionResultProcessor );
+
+		// Template is shared by reference at every level of nesting
+
+		pipeline.initNestedPipeline( nestedPipeline, null );
+		nestedPipeline.initNestedPipeline( nestedNestedPipeline, null );
+
+		PipelineTemplate<JComponent, JComponent, JComponent> template = pipeline.getTemplate();
+		assertTrue( template == pipeline.getTemplate() );
+		assertTrue( template == nestedPipeline.getTemplate() );
+		assertTrue( template == nestedNestedPipeline.getTemplate() );
+		assertTrue( template.getWidgetProcessors() == null );
+
+		// Looking up by class does not need its own copy
+
+		assertTrue( inspectionResultProcessor == nestedPipeline.getInspectionResultProcessor( ComesAfterInspectionResultProcessor.class ) );
+
+		// Lists returned to clients are modifiable (copy-on-write), without affecting the template
+
+		assertTrue( template.getInspectionResultProcessors() != nestedPipeline.getInspectionResultProcessors() );
+		assertTrue( template == nestedPipeline.getTemplate() );
+		nestedPipeline.getInspectionResultProcessors().clear();
+		assertTrue( nestedPipeline.getInspectionResultProcessors().isEmpty() );
+		assertEquals( 1, nestedNestedPipeline.getInspectionResultProcessors().size() );
+		assertEquals( 1, template.getInspectionResultProcessors().size() );
+		assertTrue( template != nestedPipeline.getTemplate() );
+
+		// Copy on write
+
+		nestedNestedPipeline.removeInspectionResultProcessor( inspectionResultProcessor );
+		assertTrue( nestedNestedPipeline.getInspectionResultProcessors().isEmpty() );
+		assertEquals( 1, template.getInspectionResultProcessors().size() );
+		assertTrue( template != nestedNestedPipeline.getTemplate() );
+
+		// Template is rebuilt if configuration changes
+
+		pipeline.getInspectionResultProcessors().clear();
+		assertTrue( template != pipeline.getTemplate() );
+		assertTrue( pipeline.getTemplate().getInspectionResultProcessors().isEmpty() );
+		assertTrue( pipeline.getTemplate() == pipeline.getTemplate() );
+
+		pipeline.setInspector( new PropertyTypeInspector() );
+		assertTrue( pipeline.getInspector() == pipeline.getTemplate().getInspector() );
+	}
+
+	public void testPipelineTemplateConfigureDefaults() {
+
+		W3CPipeline<JComponent, JComponent, JComponent> pipeline = new MockPipeline();
+		pipeline.setInspector( new PropertyTypeInspector() );
+		pipeline.addInspectionResultProcessor( new ComesAfterInspectionResultProcessor<JComponent>() );
+		pipeline.setWidgetBuilder( new WidgetBuilder<JComponent, JComponent>() {
+
+			public JComponent buildWidget( String elementName, Map<String, String> attributes, JComponent metawidget ) {
+
+				return null;
+			}
+		} );
+		pipeline.addWidgetProcessor( new WidgetProcessor<JComponent, JComponent>() {
+
+			public JComponent processWidget( JComponent widget, String elementName, Map<String, String> attributes, JComponent metawidget ) {
+
+				return widget;
+			}
+		} );
+		pipeline.setLayout( new Layout<JComponent, JComponent, JComponent>() {
+
+			public void layoutWidget( JComponent widget, String elementName, Map<String, String> attributes, JComponent container, JComponent metawidget ) {
+
+				// Do nothing
+			}
+		} );
+
+		// Nested pipelines that configure defaults (ie. all W3CPipeline front ends) should neither
+		// copy the shared Lists nor need to read their default configuration
+
+		W3CPipeline<JComponent, JComponent, JComponent> nestedPipeline = new MockPipeline() {
+
+			@Override
+			protected String getDefaultConfiguration() {
+
+				return "no-such-default-configuration.xml";
+			}
+		};
+
+		pipeline.initNestedPipeline( nestedPipeline, null );
+		nestedPipeline.configureOnce();
+
+		PipelineTemplate<JComponent, JComponent, JComponent> template = pipeline.getTemplate();
+		assertTrue( template.getInspectionResultProcessors() == nestedPipeline.getReadOnlyInspectionResultProcessors() );
+		assertTrue( template.getWidgetProcessors() == nestedPipeline.getReadOnlyWidgetProcessors() );
+		assertTrue( template == nestedPipeline.getTemplate() );
+	}
+
 	public void testAdvancedStartEndBuild()
 		throws Exception {
 
@@ -286,6 +393,146 @@ public class BasePipelineTest
 		assertEquals( myInspectionResultProcessor, pipeline.getInspectionResultProcessor( MyInspectionResultProcessor.class ) );
 	}
 
+	public void testGetColumnModel() {
+
+		final int[] inspections = new int[1];
+		final int[] processings = new int[1];
+
+		MockPipeline pipeline = new MockPipeline();
+		pipeline.setInspector( new Inspector() {
+
+			public String inspect( Object toInspect, String type, String... names ) {
+
+				inspections[0]++;
+				assertTrue( toInspect == null );
+				assertEquals( 0, names.length );
+
+				return "<inspection-result xmlns=\"http://metawidget.org/inspection-result\" version=\"1.0\"><entity type=\"" + type + "\"><property name=\"bar\" required=\"true\"/><action name=\"save\"/><property name=\"baz\"/></entity></inspection-result>";
+			}
+		} );
+		pipeline.addInspectionResultProcessor( new InspectionResultProcessor<JComponent>() {
+
+			public String processInspectionResult( String inspectionResult, JComponent metawidget, Object toInspect, String type, String... names ) {
+
+				processings[0]++;
+				return inspectionResult.replace( "name=\"baz\"", "name=\"baz\" hidden=\"true\"" );
+			}
+		} );
+
+		ColumnModel columnModel = pipeline.getColumnModel( "Foo" );
+		assertEquals( "Foo", columnModel.getType() );
+		assertEquals( 2, columnModel.getColumns().size() );
+		assertEquals( "bar", columnModel.getColumns().get( 0 ).getName() );
+		assertTrue( columnModel.getColumns().get( 0 ).isRequired() );
+		assertTrue( !columnModel.getColumns().get( 0 ).isHidden() );
+		assertEquals( "baz", columnModel.getColumns().get( 1 ).getName() );
+		assertTrue( columnModel.getColumns().get( 1 ).isHidden() );
+		assertEquals( 1, inspections[0] );
+		assertEquals( 1, processings[0] );
+
+		// Inspector result should be cached, but InspectionResultProcessors re-run
+
+		columnModel = pipeline.getColumnModel( "Foo" );
+		assertEquals( 2, columnModel.getColumns().size() );
+		assertEquals( "baz", columnModel.getColumns().get( 1 ).getName() );
+		assertTrue( columnModel.getColumns().get( 1 ).isHidden() );
+		assertEquals( 1, inspections[0] );
+		assertEquals( 2, processings[0] );
+
+		try {
+			columnModel.getColumns().get( 0 ).getAttributes().put( HIDDEN, TRUE );
+			fail();
+		} catch ( UnsupportedOperationException e ) {
+			// Should fail
+		}
+
+		// Different component types should be cached separately
+
+		assertEquals( "Bar", pipeline.getColumnModel( "Bar" ).getType() );
+		assertEquals( 2, inspections[0] );
+	}
+
+	public void testPrefetch() {
+
+		final List<String> inspections = CollectionUtils.newArrayList();
+
+		SnapshotPipelineMetrics pipelineMetrics = new SnapshotPipelineMetrics();
+		MockPipeline pipeline = new MockPipeline();
+		pipeline.setPipelineMetrics( pipelineMetrics );
+		pipeline.setInspector( new Inspector() {
+
+			public String inspect( Object toInspect, String type, String... names ) {
+
+				String path = type;
+
+				for ( String name : names ) {
+					path += "/" + name;
+				}
+
+				inspections.add( path );
+
+				if ( "Fail".equals( type ) ) {
+					throw new RuntimeException( "Failed" );
+				}
+
+				return "<inspection-result xmlns=\"http://metawidget.org/inspection-result\" version=\"1.0\"><entity type=\"" + type + "\"><property name=\"bar\"/></entity></inspection-result>";
+			}
+		} );
+
+		// Prefetch (failures should be logged, not thrown)
+
+		pipeline.prefetch( new Executor() {
+
+			public void execute( Runnable runnable ) {
+
+				runnable.run();
+			}
+		}, "Foo", "Foo/bar", "Fail" );
+
+		assertEquals( "Foo", inspections.get( 0 ) );
+		assertEquals( "Foo/bar", inspections.get( 1 ) );
+		assertEquals( "Fail", inspections.get( 2 ) );
+		assertEquals( 3, inspections.size() );
+
+		// Inspections without an object should use the prefetched result...
+
+		assertEquals( "Foo", XmlUtils.getFirstChildElement( pipeline.inspectAsDom( null, "Foo" ) ).getAttribute( TYPE ) );
+		assertEquals( "Foo", XmlUtils.getFirstChildElement( pipeline.inspectAsDom( null, "Foo", "bar" ) ).getAttribute( TYPE ) );
+		assertEquals( 3, inspections.size() );
+		assertEquals( pipeline.getColumnModel( "Foo" ).getColumns().get( 0 ).getName(), "bar" );
+		assertEquals( 3, inspections.size() );
+
+		// ...and still be seen by PipelineMetrics
+
+		int cachedFoo = 0;
+		int cachedFooBar = 0;
+
+		for ( PipelineMetric metric : pipelineMetrics.getSnapshot() ) {
+
+			if ( !PipelineMetrics.INSPECT_CACHED.equals( metric.getStage() ) ) {
+				continue;
+			}
+
+			assertEquals( pipeline.getInspector().getClass().getName(), metric.getComponent() );
+
+			if ( "Foo".equals( metric.getType() ) ) {
+				cachedFoo += metric.getCount();
+			} else if ( "Foo/bar".equals( metric.getType() ) ) {
+				cachedFooBar += metric.getCount();
+			}
+		}
+
+		assertEquals( 2, cachedFoo );
+		assertEquals( 1, cachedFooBar );
+
+		// ...but inspections of objects should not
+
+		pipeline.inspectAsDom( new Object(), "Foo" );
+		assertEquals( 4, inspections.size() );
+		pipeline.inspectAsDom( null, "Bar" );
+		assertEquals( 5, inspections.size() );
+	}
+
 	//
 	// Inner class
 	//
@@ -0,0 +1,73 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+package org.metawidget.pipeline.metrics.jmx;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import junit.framework.TestCase;
+
+import org.metawidget.pipeline.metrics.iface.PipelineMetrics;
+
+/**
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public class JmxPipelineMetricsTest
+	extends TestCase {
+
+	//
+	// Public methods
+	//
+
+	public void testJmx()
+		throws Exception {
+
+		String objectName = "org.metawidget:type=PipelineMetrics,name=test";
+		JmxPipelineMetrics pipelineMetrics = new JmxPipelineMetrics( new JmxPipelineMetricsConfig().setObjectName( objectName ) );
+		pipelineMetrics.record( PipelineMetrics.INSPECT, Object.class, "foo", 2000 );
+
+		// Not registered until asked
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		assertFalse( server.isRegistered( new ObjectName( objectName ) ) );
+
+		pipelineMetrics.register();
+		String[] metrics = (String[]) server.getAttribute( new ObjectName( objectName ), "Metrics" );
+		assertEquals( 1, metrics.length );
+		assertEquals( "inspect java.lang.Object foo: count=1, total=2us, average=2us, maximum=2us", metrics[0] );
+
+		// Replaces existing registrations
+
+		JmxPipelineMetrics newPipelineMetrics = new JmxPipelineMetrics( new JmxPipelineMetricsConfig().setObjectName( objectName ) );
+		newPipelineMetrics.register();
+		assertEquals( 0, ( (String[]) server.getAttribute( new ObjectName( objectName ), "Metrics" ) ).length );
+
+		newPipelineMetrics.record( PipelineMetrics.INSPECT, Object.class, "foo", 2000 );
+		server.invoke( new ObjectName( objectName ), "reset", null, null );
+		assertEquals( 0, newPipelineMetrics.getMetrics().length );
+
+		newPipelineMetrics.unregister();
+		assertFalse( server.isRegistered( new ObjectName( objectName ) ) );
+
+		// Unregistering twice is harmless
+
+		newPipelineMetrics.unregister();
+
+		// Config
+
+		assertEquals( new JmxPipelineMetricsConfig(), new JmxPipelineMetricsConfig() );
+		assertEquals( new JmxPipelineMetricsConfig().hashCode(), new JmxPipelineMetricsConfig().hashCode() );
+		assertFalse( new JmxPipelineMetricsConfig().equals( new JmxPipelineMetricsConfig().setObjectName( objectName ) ) );
+	}
+}
@@ -0,0 +1,266 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+package org.metawidget.pipeline.metrics.snapshot;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+
+import junit.framework.TestCase;
+
+import org.metawidget.inspector.composite.CompositeInspector;
+import org.metawidget.inspector.composite.CompositeInspectorConfig;
+import org.metawidget.inspector.iface.Inspector;
+import org.metawidget.inspector.propertytype.PropertyTypeInspector;
+import org.metawidget.layout.iface.Layout;
+import org.metawidget.pipeline.metrics.iface.PipelineMetrics;
+import org.metawidget.pipeline.w3c.W3CPipeline;
+import org.metawidget.widgetbuilder.composite.CompositeWidgetBuilder;
+import org.metawidget.widgetbuilder.composite.CompositeWidgetBuilderConfig;
+import org.metawidget.widgetbuilder.iface.DispatchableWidgetBuilder;
+import org.metawidget.widgetbuilder.iface.WidgetBuilder;
+import org.w3c.dom.Element;
+
+/**
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public class SnapshotPipelineMetricsTest
+	extends TestCase {
+
+	//
+	// Public methods
+	//
+
+	public void testPipelineMetrics()
+		throws Exception {
+
+		SnapshotPipelineMetrics pipelineMetrics = new SnapshotPipelineMetrics();
+		MockPipeline pipeline = new MockPipeline();
+		pipeline.setPipelineMetrics( pipelineMetrics );
+		pipeline.setInspector( new PropertyTypeInspector() );
+		pipeline.setWidgetBuilder( new WidgetBuilder<JComponent, JComponent>() {
+
+			public JComponent buildWidget( String elementName, Map<String, String> attributes, JComponent metawidget ) {
+
+				return new JLabel();
+			}
+		} );
+		pipeline.setLayout( new Layout<JComponent, JComponent, JComponent>() {
+
+			public void layoutWidget( JComponent widget, String elementName, Map<String, String> attributes, JComponent container, JComponent metawidget ) {
+
+				// Do nothing
+			}
+		} );
+
+		Element inspectionResult = pipeline.inspectAsDom( new Foo(), Foo.class.getName() );
+		pipeline.buildWidgets( inspectionResult );
+		pipeline.inspectAsDom( new Foo(), Foo.class.getName(), "bar" );
+
+		// Snapshot
+
+		List<PipelineMetric> snapshot = pipelineMetrics.getSnapshot();
+		assertEquals( 4, snapshot.size() );
+
+		PipelineMetric inspect = getMetric( snapshot, PipelineMetrics.INSPECT, Foo.class.getName() );
+		assertEquals( PropertyTypeInspector.class.getName(), inspect.getComponent() );
+		assertEquals( 1, inspect.getCount() );
+		assertTrue( inspect.getTotalNanos() >= inspect.getMaximumNanos() );
+		assertEquals( inspect.getTotalNanos(), inspect.getAverageNanos() );
+		assertEquals( 1, getMetric( snapshot, PipelineMetrics.INSPECT, Foo.class.getName() + "/bar" ).getCount() );
+		assertEquals( 1, getMetric( snapshot, PipelineMetrics.BUILD_WIDGET, Foo.class.getName() ).getCount() );
+		assertEquals( 1, getMetric( snapshot, PipelineMetrics.LAYOUT_WIDGET, Foo.class.getName() ).getCount() );
+		assertTrue( inspect.toString().startsWith( "inspect " + PropertyTypeInspector.class.getName() + " " + Foo.class.getName() + ": count=1, total=" ) );
+
+		// Sorted slowest first
+
+		for ( int loop = 1; loop < snapshot.size(); loop++ ) {
+			assertTrue( snapshot.get( loop - 1 ).getTotalNanos() >= snapshot.get( loop ).getTotalNanos() );
+		}
+
+		// Reset
+
+		pipelineMetrics.reset();
+		assertTrue( pipelineMetrics.getSnapshot().isEmpty() );
+
+		// Nested pipelines
+
+		MockPipeline nestedPipeline = new MockPipeline();
+		pipeline.initNestedPipeline( nestedPipeline, null );
+		assertTrue( pipelineMetrics == nestedPipeline.getPipelineMetrics() );
+	}
+
+	@SuppressWarnings( "unchecked" )
+	public void testComposites()
+		throws Exception {
+
+		Inspector noInspector = new Inspector() {
+
+			public String inspect( Object toInspect, String type, String... names ) {
+
+				return null;
+			}
+		};
+
+		DispatchableWidgetBuilder<JComponent, JComponent> noWidgetBuilder = new DispatchableWidgetBuilder<JComponent, JComponent>() {
+
+			public String[] getDispatchAttributes() {
+
+				return new String[] { "type" };
+			}
+
+			public JComponent buildWidget( String elementName, Map<String, String> attributes, JComponent metawidget ) {
+
+				return null;
+			}
+		};
+
+		WidgetBuilder<JComponent, JComponent> labelWidgetBuilder = new WidgetBuilder<JComponent, JComponent>() {
+
+			public JComponent buildWidget( String elementName, Map<String, String> attributes, JComponent metawidget ) {
+
+				return new JLabel();
+			}
+		};
+
+		CompositeInspector compositeInspector = new CompositeInspector( new CompositeInspectorConfig().setInspectors( new PropertyTypeInspector(), noInspector ) );
+		CompositeWidgetBuilder<JComponent, JComponent> compositeWidgetBuilder = new CompositeWidgetBuilder<JComponent, JComponent>( new CompositeWidgetBuilderConfig<JComponent, JComponent>().setWidgetBuilders( noWidgetBuilder, labelWidgetBuilder ) );
+
+		SnapshotPipelineMetrics pipelineMetrics = new SnapshotPipelineMetrics();
+		MockPipeline pipeline = new MockPipeline();
+		pipeline.setPipelineMetrics( pipelineMetrics );
+		pipeline.setInspector( compositeInspector );
+		pipeline.setWidgetBuilder( compositeWidgetBuilder );
+		pipeline.setLayout( new Layout<JComponent, JComponent, JComponent>() {
+
+			public void layoutWidget( JComponent widget, String elementName, Map<String, String> attributes, JComponent container, JComponent metawidget ) {
+
+				// Do nothing
+			}
+		} );
+
+		// Each sub-Inspector should be recorded, as well as the CompositeInspector
+
+		Element inspectionResult = pipeline.inspectAsDom( new Foo(), Foo.class.getName() );
+		List<PipelineMetric> snapshot = pipelineMetrics.getSnapshot();
+		assertEquals( 1, getMetric( snapshot, PipelineMetrics.INSPECT, CompositeInspector.class, Foo.class.getName() ).getCount() );
+		assertEquals( 1, getMetric( snapshot, PipelineMetrics.INSPECT, PropertyTypeInspector.class, Foo.class.getName() ).getCount() );
+		assertEquals( 1, getMetric( snapshot, PipelineMetrics.INSPECT, noInspector.getClass(), Foo.class.getName() ).getCount() );
+
+		// Each sub-WidgetBuilder should be recorded, as well as the CompositeWidgetBuilder...
+
+		pipeline.buildWidgets( inspectionResult );
+		snapshot = pipelineMetrics.getSnapshot();
+		assertEquals( 1, getMetric( snapshot, PipelineMetrics.BUILD_WIDGET, CompositeWidgetBuilder.class, Foo.class.getName() ).getCount() );
+		assertEquals( 1, getMetric( snapshot, PipelineMetrics.BUILD_WIDGET, noWidgetBuilder.getClass(), Foo.class.getName() ).getCount() );
+		assertEquals( 1, getMetric( snapshot, PipelineMetrics.BUILD_WIDGET, labelWidgetBuilder.getClass(), Foo.class.getName() ).getCount() );
+
+		// ...without defeating the dispatch index
+
+		pipeline.buildWidgets( inspectionResult );
+		snapshot = pipelineMetrics.getSnapshot();
+		assertEquals( 2, getMetric( snapshot, PipelineMetrics.BUILD_WIDGET, CompositeWidgetBuilder.class, Foo.class.getName() ).getCount() );
+		assertEquals( 1, getMetric( snapshot, PipelineMetrics.BUILD_WIDGET, noWidgetBuilder.getClass(), Foo.class.getName() ).getCount() );
+		assertEquals( 2, getMetric( snapshot, PipelineMetrics.BUILD_WIDGET, labelWidgetBuilder.getClass(), Foo.class.getName() ).getCount() );
+
+		// Composites themselves are not modified
+
+		assertTrue( compositeInspector == pipeline.getInspector() );
+		assertTrue( compositeWidgetBuilder == pipeline.getWidgetBuilder() );
+		assertTrue( noInspector == compositeInspector.getInspectors()[1] );
+		assertTrue( noWidgetBuilder == compositeWidgetBuilder.getWidgetBuilders()[0] );
+
+		// Other pipelines (eg. nested ones) share the same instrumented copy, and therefore the
+		// same dispatch index
+
+		MockPipeline nestedPipeline = new MockPipeline();
+		pipeline.initNestedPipeline( nestedPipeline, null );
+		nestedPipeline.buildWidgets( inspectionResult );
+		snapshot = pipelineMetrics.getSnapshot();
+		assertEquals( 3, getMetric( snapshot, PipelineMetrics.BUILD_WIDGET, CompositeWidgetBuilder.class, Foo.class.getName() ).getCount() );
+		assertEquals( 1, getMetric( snapshot, PipelineMetrics.BUILD_WIDGET, noWidgetBuilder.getClass(), Foo.class.getName() ).getCount() );
+		assertEquals( 3, getMetric( snapshot, PipelineMetrics.BUILD_WIDGET, labelWidgetBuilder.getClass(), Foo.class.getName() ).getCount() );
+	}
+
+	//
+	// Private methods
+	//
+
+	private PipelineMetric getMetric( List<PipelineMetric> snapshot, String stage, String type ) {
+
+		for ( PipelineMetric metric : snapshot ) {
+
+			if ( metric.getStage().equals( stage ) && type.equals( metric.getType() ) ) {
+				return metric;
+			}
+		}
+
+		fail( "No metric for " + stage + " " + type );
+		return null;
+	}
+
+	private PipelineMetric getMetric( List<PipelineMetric> snapshot, String stage, Class<?> component, String type ) {
+
+		for ( PipelineMetric metric : snapshot ) {
+
+			if ( metric.getStage().equals( stage ) && metric.getComponent().equals( component.getName() ) && type.equals( metric.getType() ) ) {
+				return metric;
+			}
+		}
+
+		fail( "No metric for " + stage + " " + component.getName() + " " + type );
+		return null;
+	}
+
+	//
+	// Inner class
+	//
+
+	public static class Foo {
+
+		public Foo getBar() {
+
+			return null;
+		}
+	}
+
+	/* package private */static class MockPipeline
+		extends W3CPipeline<JComponent, JComponent, JComponent> {
+
+		@Override
+		protected String getDefaultConfiguration() {
+
+			return null;
+		}
+
+		@Override
+		protected Map<String, String> getAdditionalAttributes( JComponent widget ) {
+
+			return null;
+		}
+
+		@Override
+		protected JComponent buildNestedMetawidget( Map<String, String> attributes )
+			throws Exception {
+
+			return null;
+		}
+
+		@Override
+		protected JComponent getPipelineOwner() {
+
+			return null;
+		}
+	}
+}
@@ -52,5 +52,11 @@ public class CollectionUtilsTest
 		assertEquals( CollectionUtils.fromString( "foo," ).size(), 2 );
 		assertEquals( CollectionUtils.fromString( ",,foo" ).size(), 3 );
 		assertEquals( CollectionUtils.fromString( ",,foo," ).size(), 4 );
+
+		// Escaping
+
+		assertEquals( CollectionUtils.newArrayList( "foo,bar", "baz" ), CollectionUtils.fromString( " foo\\,bar , baz" ) );
+		assertEquals( CollectionUtils.newArrayList( "foo\\bar" ), CollectionUtils.fromString( "foo\\bar" ) );
+		assertEquals( CollectionUtils.newArrayList( "foo;bar", "baz" ), CollectionUtils.fromString( "foo\\;bar;baz", ';' ) );
 	}
 }
@@ -0,0 +1,175 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+
+package org.metawidget.util;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+import junit.framework.TestCase;
+
+/**
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public class I18nUtilsTest
+	extends TestCase {
+
+	//
+	// Public methods
+	//
+
+	public void testGetString() {
+
+		final List<String> lookups = CollectionUtils.newArrayList();
+
+		ResourceBundle bundle = new ResourceBundle() {
+
+			@Override
+			public Enumeration<String> getKeys() {
+
+				return Collections.enumeration( Collections.singleton( "foo" ) );
+			}
+
+			@Override
+			protected Object handleGetObject( String key ) {
+
+				lookups.add( key );
+
+				if ( "foo".equals( key ) ) {
+					return "Foo Label";
+				}
+
+				return null;
+			}
+		};
+
+		assertEquals( "Foo Label", I18nUtils.getString( bundle, "foo" ) );
+		assertEquals( "Foo Label", I18nUtils.getString( bundle, "foo" ) );
+		assertEquals( null, I18nUtils.getString( bundle, "bar" ) );
+		assertEquals( null, I18nUtils.getString( bundle, "bar" ) );
+		assertEquals( "foo", lookups.get( 0 ) );
+		assertEquals( "bar", lookups.get( 1 ) );
+		assertEquals( 2, lookups.size() );
+
+		// Clear
+
+		I18nUtils.clearCache();
+		assertEquals( "Foo Label", I18nUtils.getString( bundle, "foo" ) );
+		assertEquals( "foo", lookups.get( 2 ) );
+		assertEquals( 3, lookups.size() );
+
+		// Alternating bundles should each keep their own cache
+
+		ResourceBundle otherBundle = new ResourceBundle() {
+
+			@Override
+			public Enumeration<String> getKeys() {
+
+				return Collections.enumeration( Collections.singleton( "foo" ) );
+			}
+
+			@Override
+			protected Object handleGetObject( String key ) {
+
+				lookups.add( "other " + key );
+				return "Other Foo Label";
+			}
+		};
+
+		assertEquals( "Other Foo Label", I18nUtils.getString( otherBundle, "foo" ) );
+		assertEquals( "Foo Label", I18nUtils.getString( bundle, "foo" ) );
+		assertEquals( "Other Foo Label", I18nUtils.getString( otherBundle, "foo" ) );
+		assertEquals( "Foo Label", I18nUtils.getString( bundle, "foo" ) );
+		assertEquals( "other foo", lookups.get( 3 ) );
+		assertEquals( 4, lookups.size() );
+	}
+
+	public void testGetStringFromMap() {
+
+		final List<String> lookups = CollectionUtils.newArrayList();
+
+		Map<String, String> bundleMap = new HashMap<String, String>() {
+
+			@Override
+			public boolean containsKey( Object key ) {
+
+				lookups.add( (String) key );
+				return super.containsKey( key );
+			}
+		};
+
+		bundleMap.put( "foo", "Foo Label" );
+
+		assertEquals( "Foo Label", I18nUtils.getString( bundleMap, "foo" ) );
+		assertEquals( "Foo Label", I18nUtils.getString( bundleMap, "foo" ) );
+		assertEquals( null, I18nUtils.getString( bundleMap, "bar" ) );
+		assertEquals( null, I18nUtils.getString( bundleMap, "bar" ) );
+		assertEquals( "foo", lookups.get( 0 ) );
+		assertEquals( "bar", lookups.get( 1 ) );
+		assertEquals( 2, lookups.size() );
+
+		// Maps are cached by identity, not equality
+
+		Map<String, String> otherBundleMap = CollectionUtils.newHashMap();
+		otherBundleMap.put( "foo", "Foo Label" );
+		assertTrue( otherBundleMap.equals( bundleMap ) );
+		otherBundleMap.put( "bar", "Bar Label" );
+		bundleMap.put( "bar", "Bar Label" );
+		assertEquals( "Bar Label", I18nUtils.getString( otherBundleMap, "bar" ) );
+		assertEquals( null, I18nUtils.getString( bundleMap, "bar" ) );
+	}
+
+	public void testCacheBounds() {
+
+		ResourceBundle bundle = new ResourceBundle() {
+
+			@Override
+			public Enumeration<String> getKeys() {
+
+				return Collections.enumeration( Collections.<String> emptySet() );
+			}
+
+			@Override
+			protected Object handleGetObject( String key ) {
+
+				return null;
+			}
+		};
+
+		// Misses are cached, but bounded
+
+		for ( int loop = 0; loop < 10000; loop++ ) {
+			assertEquals( null, I18nUtils.getString( bundle, "missing" + loop ) );
+		}
+
+		// Bundles are bounded too
+
+		for ( int loop = 0; loop < 1000; loop++ ) {
+			Map<String, String> bundleMap = CollectionUtils.newHashMap();
+			bundleMap.put( "foo", "Foo Label " + loop );
+			assertEquals( "Foo Label " + loop, I18nUtils.getString( bundleMap, "foo" ) );
+		}
+	}
+
+	public void testCamelCase() {
+
+		assertEquals( "fooBar", I18nUtils.camelCase( "Foo bar" ) );
+		assertEquals( "fooBar", I18nUtils.camelCase( "Foo bar" ) );
+		assertEquals( "Foo Bar", I18nUtils.uncamelCase( "fooBar" ) );
+		assertEquals( "Foo Bar", I18nUtils.uncamelCase( "fooBar" ) );
+		assertEquals( null, I18nUtils.uncamelCase( null ) );
+	}
+}
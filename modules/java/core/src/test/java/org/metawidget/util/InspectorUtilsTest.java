@@ -112,6 +112,29 @@ public class InspectorUtilsTest
 		valueAndDeclaredType = propertyStyle.traverse( foo, Foo.class.getName(), true, "foo" );
 		assertEquals( null, valueAndDeclaredType.getValue() );
 		assertEquals( null, valueAndDeclaredType.getDeclaredType() );
+
+		// Same path again, but through a subclass (should re-resolve)
+
+		SubFoo subFoo = new SubFoo();
+		subFoo.bar = "SubBar";
+		foo2.foo = subFoo;
+		valueAndDeclaredType = propertyStyle.traverse( foo2, Foo.class.getName(), false, "foo", "bar" );
+		assertEquals( "SubBar", valueAndDeclaredType.getValue() );
+		assertEquals( String.class.getName(), valueAndDeclaredType.getDeclaredType() );
+
+		// Prevent recursion (equal, but not identical)
+
+		EqualFoo equalFoo = new EqualFoo();
+		equalFoo.foo = new EqualFoo();
+		valueAndDeclaredType = propertyStyle.traverse( equalFoo, Foo.class.getName(), false, "foo" );
+		assertEquals( null, valueAndDeclaredType.getValue() );
+		assertEquals( null, valueAndDeclaredType.getDeclaredType() );
+
+		// Clear cache
+
+		propertyStyle.clearCache();
+		valueAndDeclaredType = propertyStyle.traverse( foo2, Foo.class.getName(), false, "foo", "bar" );
+		assertEquals( "SubBar", valueAndDeclaredType.getValue() );
 	}
 
 	//
@@ -124,4 +147,26 @@ public class InspectorUtilsTest
 
 		public Foo		foo;
 	}
+
+	public static class SubFoo
+		extends Foo {
+
+		// Just a subclass
+	}
+
+	public static class EqualFoo
+		extends Foo {
+
+		@Override
+		public boolean equals( Object that ) {
+
+			return ( that instanceof EqualFoo );
+		}
+
+		@Override
+		public int hashCode() {
+
+			return 0;
+		}
+	}
 }
\ No newline at end of file
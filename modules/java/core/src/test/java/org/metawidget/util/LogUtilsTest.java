@@ -35,7 +35,11 @@ public class LogUtilsTest
 
 	public static Object[] getLastTraceArguments() {
 
-		return LogUtils.LAST_TRACE_ARGUMENTS;
+		if ( LogUtils.LAST_TRACE_ARGUMENTS != null ) {
+			return resolve( LogUtils.LAST_TRACE_ARGUMENTS );
+		}
+
+		return resolve( LogUtils.LAST_TRACE_ARGUMENT_COUNT, LogUtils.LAST_TRACE_ARGUMENT1, LogUtils.LAST_TRACE_ARGUMENT2, LogUtils.LAST_TRACE_ARGUMENT3 );
 	}
 
 	public static String getLastDebugMessage() {
@@ -45,7 +49,11 @@ public class LogUtilsTest
 
 	public static Object[] getLastDebugArguments() {
 
-		return LogUtils.LAST_DEBUG_ARGUMENTS;
+		if ( LogUtils.LAST_DEBUG_ARGUMENTS != null ) {
+			return resolve( LogUtils.LAST_DEBUG_ARGUMENTS );
+		}
+
+		return resolve( LogUtils.LAST_DEBUG_ARGUMENT_COUNT, LogUtils.LAST_DEBUG_ARGUMENT1, LogUtils.LAST_DEBUG_ARGUMENT2, LogUtils.LAST_DEBUG_ARGUMENT3 );
 	}
 
 	public static String getLastInfoMessage() {
@@ -72,6 +80,87 @@ public class LogUtilsTest
 	// Public methods
 	//
 
+	public void testFixedArity() {
+
+		Log log = LogUtils.getLog( LogUtilsTest.class );
+
+		if ( log.isTraceEnabled() ) {
+			log.trace( "trace {0} {1} {2}", "a", "b", "c" );
+			assertEquals( "trace a b c", getLastTraceMessage() );
+		} else {
+			log.trace( "trace {0}", "a" );
+			assertEquals( "trace {0}", getLastTraceMessage() );
+			assertEquals( 1, getLastTraceArguments().length );
+			assertEquals( "a", getLastTraceArguments()[0] );
+
+			log.trace( "trace {0} {1} {2}", "a", "b", "c" );
+			assertEquals( "trace {0} {1} {2}", getLastTraceMessage() );
+			assertEquals( 3, getLastTraceArguments().length );
+			assertEquals( "c", getLastTraceArguments()[2] );
+
+			// Varargs still take precedence
+
+			log.trace( "trace {0} {1} {2} {3}", "a", "b", "c", "d" );
+			assertEquals( 4, getLastTraceArguments().length );
+		}
+
+		if ( !log.isDebugEnabled() ) {
+			log.debug( "debug {0} {1}", "a", "b" );
+			assertEquals( "debug {0} {1}", getLastDebugMessage() );
+			assertEquals( 2, getLastDebugArguments().length );
+			assertEquals( "b", getLastDebugArguments()[1] );
+		}
+
+		assertTrue( log.isInfoEnabled() );
+		log.info( "info {0}", 3 );
+		assertEquals( "info 3", getLastInfoMessage() );
+		log.info( "info {0} {1}", "3", "t", new Throwable() );
+		assertEquals( "info 3 t", getLastInfoMessage() );
+
+		assertTrue( log.isWarnEnabled() );
+		log.warn( "warn {0} {1}", 4, "t" );
+		assertEquals( "warn 4 t", getLastWarnMessage() );
+
+		assertTrue( log.isErrorEnabled() );
+		log.error( "error {0} {1} {2}", 5, "t", 't' );
+		assertEquals( "error 5 t t", getLastErrorMessage() );
+	}
+
+	public void testLazyArgument() {
+
+		Log log = LogUtils.getLog( LogUtilsTest.class );
+		final int[] resolved = new int[1];
+
+		LogUtils.LazyArgument lazyArgument = new LogUtils.LazyArgument() {
+
+			@Override
+			protected Object resolve() {
+
+				resolved[0]++;
+				return "lazy";
+			}
+		};
+
+		// Not resolved if not logged
+
+		if ( !log.isTraceEnabled() ) {
+			log.trace( "trace {0}", lazyArgument );
+			assertEquals( 0, resolved[0] );
+		}
+
+		// Resolved if logged
+
+		log.info( "info {0}", lazyArgument );
+		assertEquals( "info lazy", getLastInfoMessage() );
+		assertEquals( 1, resolved[0] );
+
+		// Paths
+
+		log.warn( "warn {0}{1}", "Foo", LogUtils.lazyPath( "bar", "baz" ) );
+		assertEquals( "warn Foo/bar/baz", getLastWarnMessage() );
+		assertEquals( "", LogUtils.lazyPath().toString() );
+	}
+
 	public void testLogger()
 		throws Exception {
 
@@ -174,4 +263,51 @@ public class LogUtilsTest
 			assertTrue( "Given 2 arguments to log, but no {1} in message 'error {0}'".equals( e.getMessage() ));
 		}
 	}
+
+	//
+	// Private methods
+	//
+
+	private static Object[] resolve( Object[] arguments ) {
+
+		Object[] resolved = new Object[arguments.length];
+
+		for ( int loop = 0, length = arguments.length; loop < length; loop++ ) {
+			resolved[loop] = resolve( arguments[loop] );
+		}
+
+		return resolved;
+	}
+
+	private static Object[] resolve( int count, Object argument1, Object argument2, Object argument3 ) {
+
+		Object[] resolved = new Object[count];
+
+		if ( count > 0 ) {
+			resolved[0] = resolve( argument1 );
+		}
+
+		if ( count > 1 ) {
+			resolved[1] = resolve( argument2 );
+		}
+
+		if ( count > 2 ) {
+			resolved[2] = resolve( argument3 );
+		}
+
+		return resolved;
+	}
+
+	/**
+	 * Resolves LazyArguments, so that tests can compare against the value that would be logged.
+	 */
+
+	private static Object resolve( Object argument ) {
+
+		if ( argument instanceof LogUtils.LazyArgument ) {
+			return argument.toString();
+		}
+
+		return argument;
+	}
 }
@@ -0,0 +1,150 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+
+package org.metawidget.util;
+
+import junit.framework.TestCase;
+
+/**
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public class PropertyPathTest
+	extends TestCase {
+
+	//
+	// Public methods
+	//
+
+	public void testPropertyPath() {
+
+		Foo foo = new Foo();
+		foo.setBar( new Bar() );
+		foo.getBar().setBaz( "Baz" );
+
+		PropertyPath propertyPath = PropertyPath.fromPath( Foo.class.getName() + "/bar/baz" );
+		assertEquals( "bar/baz", propertyPath.toString() );
+		assertEquals( "bar", propertyPath.getNames()[0] );
+		assertEquals( "Baz", propertyPath.getValue( foo ) );
+		assertTrue( foo.getBar() == propertyPath.getParent( foo ) );
+
+		assertTrue( propertyPath.setValue( foo, "Baz2" ) );
+		assertEquals( "Baz2", foo.getBar().getBaz() );
+		assertEquals( "Baz2", propertyPath.getValue( foo ) );
+
+		// Subclasses
+
+		foo.setBar( new SubBar() );
+		foo.getBar().setBaz( "SubBaz" );
+		assertEquals( "Sub SubBaz", propertyPath.getValue( foo ) );
+
+		// Primitives
+
+		PropertyPath primitivePath = new PropertyPath( "bar", "count" );
+		primitivePath.setValue( foo, 42 );
+		int count = primitivePath.getValue( foo );
+		assertEquals( 42, count );
+
+		// Null-safe
+
+		assertEquals( null, propertyPath.getValue( null ) );
+		foo.setBar( null );
+		assertEquals( null, propertyPath.getValue( foo ) );
+		assertEquals( null, propertyPath.getParent( foo ) );
+		assertFalse( propertyPath.setValue( foo, "Ignored" ) );
+		assertEquals( null, foo.getBar() );
+
+		// Empty
+
+		PropertyPath emptyPath = PropertyPath.fromPath( Foo.class.getName() );
+		assertEquals( 0, emptyPath.getNames().length );
+		assertTrue( foo == emptyPath.getValue( foo ) );
+
+		try {
+			emptyPath.setValue( foo, "Fail" );
+			fail();
+		} catch ( UnsupportedOperationException e ) {
+			assertEquals( "Cannot set an empty path", e.getMessage() );
+		}
+
+		// Bad names
+
+		try {
+			new PropertyPath( "bad" ).getValue( foo );
+			fail();
+		} catch ( RuntimeException e ) {
+			assertTrue( e.getMessage().startsWith( "Unable to get 'bad' of '" ) );
+		}
+
+		try {
+			new PropertyPath( (String[]) null );
+			fail();
+		} catch ( NullPointerException e ) {
+			assertEquals( "names", e.getMessage() );
+		}
+	}
+
+	//
+	// Inner class
+	//
+
+	public static class Foo {
+
+		private Bar	mBar;
+
+		public Bar getBar() {
+
+			return mBar;
+		}
+
+		public void setBar( Bar bar ) {
+
+			mBar = bar;
+		}
+	}
+
+	public static class Bar {
+
+		private String	mBaz;
+
+		private int		mCount;
+
+		public String getBaz() {
+
+			return mBaz;
+		}
+
+		public void setBaz( String baz ) {
+
+			mBaz = baz;
+		}
+
+		public int getCount() {
+
+			return mCount;
+		}
+
+		public void setCount( int count ) {
+
+			mCount = count;
+		}
+	}
+
+	public static class SubBar
+		extends Bar {
+
+		@Override
+		public String getBaz() {
+
+			return "Sub " + super.getBaz();
+		}
+	}
+}
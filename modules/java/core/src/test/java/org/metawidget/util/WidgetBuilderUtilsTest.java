@@ -15,6 +15,7 @@ import static org.metawidget.inspector.InspectionResultConstants.*;
 import static org.metawidget.inspector.propertytype.PropertyTypeInspectionResultConstants.*;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -47,4 +48,29 @@ public class WidgetBuilderUtilsTest
 		attributes.put( ACTUAL_CLASS, HashSet.class.getName() );
 		assertEquals( HashSet.class, WidgetBuilderUtils.getActualClassOrType( attributes, null ) );
 	}
+
+	public void testSplitLookup() {
+
+		assertTrue( WidgetBuilderUtils.splitLookup( null ).isEmpty() );
+		assertTrue( WidgetBuilderUtils.splitLookup( "" ).isEmpty() );
+
+		List<String> split = WidgetBuilderUtils.splitLookup( "Foo, Bar\\, Baz ,Abc" );
+		assertEquals( "Foo", split.get( 0 ) );
+		assertEquals( "Bar, Baz", split.get( 1 ) );
+		assertEquals( "Abc", split.get( 2 ) );
+		assertEquals( 3, split.size() );
+
+		// Cached
+
+		assertTrue( split == WidgetBuilderUtils.splitLookup( new String( "Foo, Bar\\, Baz ,Abc" ) ) );
+
+		// Unmodifiable
+
+		try {
+			split.add( "Def" );
+			fail();
+		} catch ( UnsupportedOperationException e ) {
+			// Should fail
+		}
+	}
 }
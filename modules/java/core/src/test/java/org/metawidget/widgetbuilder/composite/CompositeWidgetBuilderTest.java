@@ -15,11 +15,13 @@ import java.util.List;
 import java.util.Map;
 
 import javax.swing.JComponent;
+import javax.swing.JLabel;
 
 import junit.framework.TestCase;
 
 import org.metawidget.util.CollectionUtils;
 import org.metawidget.widgetbuilder.iface.AdvancedWidgetBuilder;
+import org.metawidget.widgetbuilder.iface.DispatchableWidgetBuilder;
 import org.metawidget.widgetbuilder.iface.WidgetBuilder;
 
 /**
@@ -65,6 +67,120 @@ public class CompositeWidgetBuilderTest
 		assertEquals( 7, events.size() );
 	}
 
+	public void testDispatchIndex() {
+
+		final List<String> events = CollectionUtils.newArrayList();
+
+		WidgetBuilder<JComponent, JComponent> simpleWidgetBuilder = new WidgetBuilder<JComponent, JComponent>() {
+
+			public JComponent buildWidget( String elementName, Map<String, String> attributes, JComponent metawidget ) {
+
+				events.add( "simpleWidgetBuilder::buildWidget" );
+				return null;
+			}
+		};
+
+		DispatchableWidgetBuilder<JComponent, JComponent> dispatchableWidgetBuilder = new DispatchableWidgetBuilder<JComponent, JComponent>() {
+
+			public String[] getDispatchAttributes() {
+
+				return new String[] { "type" };
+			}
+
+			public JComponent buildWidget( String elementName, Map<String, String> attributes, JComponent metawidget ) {
+
+				events.add( "dispatchableWidgetBuilder::buildWidget" );
+
+				if ( "int".equals( attributes.get( "type" ) ) ) {
+					return new JLabel();
+				}
+
+				return null;
+			}
+		};
+
+		WidgetBuilder<JComponent, JComponent> finalWidgetBuilder = new WidgetBuilder<JComponent, JComponent>() {
+
+			public JComponent buildWidget( String elementName, Map<String, String> attributes, JComponent metawidget ) {
+
+				events.add( "finalWidgetBuilder::buildWidget" );
+				return new JComponent() {
+					// Final widget
+				};
+			}
+		};
+
+		@SuppressWarnings( "unchecked" )
+		CompositeWidgetBuilderConfig<JComponent, JComponent> config = new CompositeWidgetBuilderConfig<JComponent, JComponent>().setWidgetBuilders( simpleWidgetBuilder, dispatchableWidgetBuilder, finalWidgetBuilder );
+		CompositeWidgetBuilder<JComponent, JComponent> widgetBuilder = new CompositeWidgetBuilder<JComponent, JComponent>( config );
+
+		Map<String, String> attributes = CollectionUtils.newHashMap();
+		attributes.put( "name", "foo" );
+		attributes.put( "type", "java.lang.String" );
+
+		// First time, all WidgetBuilders are called
+
+		assertTrue( !( widgetBuilder.buildWidget( "property", attributes, null ) instanceof JLabel ) );
+		assertEquals( "simpleWidgetBuilder::buildWidget", events.get( 0 ) );
+		assertEquals( "dispatchableWidgetBuilder::buildWidget", events.get( 1 ) );
+		assertEquals( "finalWidgetBuilder::buildWidget", events.get( 2 ) );
+		assertEquals( 3, events.size() );
+
+		// Second time (even for a different name), the DispatchableWidgetBuilder is skipped
+
+		events.clear();
+		attributes.put( "name", "bar" );
+		assertTrue( !( widgetBuilder.buildWidget( "property", attributes, null ) instanceof JLabel ) );
+		assertEquals( "simpleWidgetBuilder::buildWidget", events.get( 0 ) );
+		assertEquals( "finalWidgetBuilder::buildWidget", events.get( 1 ) );
+		assertEquals( 2, events.size() );
+
+		// Different signature
+
+		events.clear();
+		attributes.put( "type", "int" );
+		assertTrue( widgetBuilder.buildWidget( "property", attributes, null ) instanceof JLabel );
+		assertTrue( widgetBuilder.buildWidget( "property", attributes, null ) instanceof JLabel );
+		assertEquals( "simpleWidgetBuilder::buildWidget", events.get( 0 ) );
+		assertEquals( "dispatchableWidgetBuilder::buildWidget", events.get( 1 ) );
+		assertEquals( "simpleWidgetBuilder::buildWidget", events.get( 2 ) );
+		assertEquals( "dispatchableWidgetBuilder::buildWidget", events.get( 3 ) );
+		assertEquals( 4, events.size() );
+
+		// Absent is not the same as 'null'
+
+		events.clear();
+		attributes.put( "type", "null" );
+		widgetBuilder.buildWidget( "property", attributes, null );
+		attributes.remove( "type" );
+		widgetBuilder.buildWidget( "property", attributes, null );
+		assertEquals( "dispatchableWidgetBuilder::buildWidget", events.get( 1 ) );
+		assertEquals( "dispatchableWidgetBuilder::buildWidget", events.get( 4 ) );
+		assertEquals( 6, events.size() );
+
+		// Index is bounded (signatures beyond the limit are still built, just not indexed)
+
+		for ( int loop = 0; loop < CompositeWidgetBuilder.MAXIMUM_CACHED_SIGNATURES; loop++ ) {
+			attributes.put( "type", "type" + loop );
+			widgetBuilder.buildWidget( "property", attributes, null );
+		}
+
+		events.clear();
+		attributes.put( "type", "unindexed" );
+		widgetBuilder.buildWidget( "property", attributes, null );
+		widgetBuilder.buildWidget( "property", attributes, null );
+		assertEquals( "dispatchableWidgetBuilder::buildWidget", events.get( 1 ) );
+		assertEquals( "dispatchableWidgetBuilder::buildWidget", events.get( 4 ) );
+		assertEquals( 6, events.size() );
+
+		// Existing signatures are still indexed
+
+		events.clear();
+		attributes.put( "type", "java.lang.String" );
+		widgetBuilder.buildWidget( "property", attributes, null );
+		assertEquals( 2, events.size() );
+	}
+
 	//
 	// Inner class
 	//
@@ -46,9 +46,12 @@ import org.metawidget.iface.MetawidgetException;
 import org.metawidget.inspectionresultprocessor.iface.InspectionResultProcessor;
 import org.metawidget.inspector.iface.Inspector;
 import org.metawidget.layout.iface.Layout;
+import org.metawidget.pipeline.metrics.iface.PipelineMetrics;
 import org.metawidget.pipeline.w3c.W3CPipeline;
 import org.metawidget.util.ClassUtils;
 import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.ColumnModel;
+import org.metawidget.util.I18nUtils;
 import org.metawidget.util.LogUtils;
 import org.metawidget.util.LogUtils.Log;
 import org.metawidget.util.WidgetBuilderUtils;
@@ -272,6 +275,18 @@ public abstract class UIMetawidget
 		return mPipeline.inspect( toInspect, type, names );
 	}
 
+	/**
+	 * Useful for WidgetBuilders that render Collections as tables. Cheaper than
+	 * <code>inspect</code>, as the component type's inspection is cached.
+	 *
+	 * @return the ColumnModel, or null if no Inspectors matched the component type
+	 */
+
+	public ColumnModel getColumnModel( String componentType ) {
+
+		return mPipeline.getColumnModel( componentType );
+	}
+
 	public void addInspectionResultProcessor( InspectionResultProcessor<UIMetawidget> inspectionResultProcessor ) {
 
 		mPipeline.addInspectionResultProcessor( inspectionResultProcessor );
@@ -287,6 +302,21 @@ public abstract class UIMetawidget
 		mPipeline.setInspectionResultProcessors( inspectionResultProcessors );
 	}
 
+	/**
+	 * Sets the PipelineMetrics to record the time taken by each stage of the pipeline. Typically
+	 * configured in <code>metawidget.xml</code>.
+	 */
+
+	public void setPipelineMetrics( PipelineMetrics pipelineMetrics ) {
+
+		mPipeline.setPipelineMetrics( pipelineMetrics );
+	}
+
+	public PipelineMetrics getPipelineMetrics() {
+
+		return mPipeline.getPipelineMetrics();
+	}
+
 	public void setWidgetBuilder( WidgetBuilder<UIComponent, UIMetawidget> widgetBuilder ) {
 
 		mPipeline.setWidgetBuilder( widgetBuilder );
@@ -442,7 +472,7 @@ public abstract class UIMetawidget
 
 			// (localize if possible)
 
-			String localized = getLocalizedKey( StringUtils.camelCase( label ) );
+			String localized = getLocalizedKey( I18nUtils.camelCase( label ) );
 
 			if ( localized != null ) {
 				return localized.trim();
@@ -464,7 +494,7 @@ public abstract class UIMetawidget
 				return localized.trim();
 			}
 
-			return StringUtils.uncamelCase( name );
+			return I18nUtils.uncamelCase( name );
 		}
 
 		return "";
@@ -494,24 +524,23 @@ public abstract class UIMetawidget
 
 			@SuppressWarnings( "unchecked" )
 			Map<String, String> bundleMap = (Map<String, String>) bindingBundle.getValue( context );
-
-			// (check for containsKey first, because BundleMap will return a dummy value otherwise)
-
-			if ( bundleMap.containsKey( key ) ) {
-				localizedKey = bundleMap.get( key );
-			}
+			localizedKey = I18nUtils.getString( bundleMap, key );
 		} else if ( appBundle != null ) {
 
 			// App-specific bundle
 
 			try {
-				localizedKey = ResourceBundle.getBundle( appBundle, context.getViewRoot().getLocale() ).getString( key );
+				localizedKey = I18nUtils.getString( ResourceBundle.getBundle( appBundle, context.getViewRoot().getLocale() ), key );
 			} catch ( MissingResourceException e ) {
 				// Fail gracefully: we seem to have problems locating, say,
 				// org.jboss.seam.core.SeamResourceBundle?
 
 				return null;
 			}
+
+			if ( localizedKey == null ) {
+				return null;
+			}
 		} else {
 
 			// No bundle
@@ -54,12 +54,15 @@ import org.metawidget.faces.component.widgetprocessor.ConverterProcessor;
 import org.metawidget.faces.component.widgetprocessor.StandardBindingProcessor;
 import org.metawidget.util.ArrayUtils;
 import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.ColumnModel;
+import org.metawidget.util.I18nUtils;
 import org.metawidget.util.WidgetBuilderUtils;
 import org.metawidget.util.XmlUtils;
 import org.metawidget.util.simple.StringUtils;
 import org.metawidget.widgetbuilder.iface.WidgetBuilder;
 import org.metawidget.widgetbuilder.iface.WidgetBuilderException;
 import org.metawidget.widgetprocessor.iface.WidgetProcessor;
+import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -107,6 +110,13 @@ public class HtmlWidgetBuilder
 
 	private final int				mMaximumColumnsInDataTable;
 
+	/**
+	 * Whether a subclass overrides the deprecated, <code>NodeList</code>-based
+	 * <code>addColumnComponents</code>.
+	 */
+
+	private final boolean			mNodeListColumnComponents;
+
 	//
 	// Constructor
 	//
@@ -122,6 +132,7 @@ public class HtmlWidgetBuilder
 		mDataTableColumnClasses = config.getDataTableColumnClasses();
 		mDataTableRowClasses = config.getDataTableRowClasses();
 		mMaximumColumnsInDataTable = config.getMaximumColumnsInDataTable();
+		mNodeListColumnComponents = isNodeListColumnComponentsOverridden();
 	}
 
 	//
@@ -314,7 +325,7 @@ public class HtmlWidgetBuilder
 
 		// (pageDirection is a 'safer' default for anything but short lists)
 
-		List<?> values = CollectionUtils.fromString( lookup );
+		List<?> values = WidgetBuilderUtils.splitLookup( lookup );
 
 		if ( values.size() > SHORT_LOOKUP_SIZE ) {
 			if ( component instanceof HtmlSelectManyCheckbox ) {
@@ -372,7 +383,7 @@ public class HtmlWidgetBuilder
 			}
 		}
 
-		addSelectItems( component, valuesAfterConversion, CollectionUtils.fromString( attributes.get( LOOKUP_LABELS ) ), attributes, metawidget );
+		addSelectItems( component, valuesAfterConversion, WidgetBuilderUtils.splitLookup( attributes.get( LOOKUP_LABELS ) ), attributes, metawidget );
 	}
 
 	protected void setMaximumLength( UIComponent component, Map<String, String> attributes ) {
@@ -408,24 +419,19 @@ public class HtmlWidgetBuilder
 		// Inspect component type
 
 		String componentType = WidgetBuilderUtils.getComponentType( attributes );
-		String inspectedType = null;
+		List<ColumnModel.Column> columns = null;
 
 		if ( componentType != null ) {
-			inspectedType = metawidget.inspect( null, componentType );
+			ColumnModel columnModel = metawidget.getColumnModel( componentType );
+
+			if ( columnModel != null ) {
+				columns = columnModel.getColumns();
+			}
 		}
 
 		// If there is no type...
 
-		NodeList elements;
-
-		if ( inspectedType == null ) {
-			elements = null;
-		} else {
-			Element root = XmlUtils.documentFromString( inspectedType ).getDocumentElement();
-			elements = root.getFirstChild().getChildNodes();
-		}
-
-		if ( elements == null || elements.getLength() == 0 ) {
+		if ( columns == null || columns.isEmpty() ) {
 			// ...resort to a single column table...
 
 			Map<String, String> columnAttributes = CollectionUtils.newHashMap();
@@ -435,7 +441,7 @@ public class HtmlWidgetBuilder
 
 			// ...otherwise, iterate over the component type and add multiple columns
 
-			addColumnComponents( dataTable, attributes, elements, metawidget );
+			addColumnComponents( dataTable, attributes, columns, metawidget );
 		}
 
 		// Add an 'action' column (if requested)
@@ -485,8 +491,74 @@ public class HtmlWidgetBuilder
 	 * Adds column components to the given UIData.
 	 * <p>
 	 * Clients can override this method to add additional columns, such as a 'Delete' button.
+	 * <p>
+	 * If a subclass overrides the deprecated, <code>NodeList</code>-based version of this method,
+	 * delegates to that instead.
+	 */
+
+	protected void addColumnComponents( UIData dataTable, Map<String, String> attributes, List<ColumnModel.Column> columns, UIMetawidget metawidget ) {
+
+		if ( mNodeListColumnComponents ) {
+			addColumnComponents( dataTable, attributes, toNodeList( columns ), metawidget );
+			return;
+		}
+
+		// At first, try to add columns for just the 'required' fields
+
+		boolean onlyRequired = true;
+
+		while ( true ) {
+
+			// For each property (ColumnModel excludes actions)...
+
+			for ( ColumnModel.Column column : columns ) {
+
+				// ...that is visible...
+
+				if ( column.isHidden() ) {
+					continue;
+				}
+
+				// ...and is required...
+				//
+				// Note: this is a controversial choice. Our logic is that a) we need to limit
+				// the number of columns somehow, and b) displaying all the required fields should
+				// be enough to uniquely identify the row to the user. However, users may wish
+				// to override this default behaviour
+
+				if ( onlyRequired && !column.isRequired() ) {
+					continue;
+				}
+
+				// ...add a column...
+
+				addColumnComponent( dataTable, attributes, PROPERTY, CollectionUtils.newHashMap( column.getAttributes() ), metawidget );
+
+				// ...up to a sensible maximum
+
+				if ( dataTable.getChildren().size() == getMaximumColumnsInDataTable() ) {
+					break;
+				}
+			}
+
+			// If we couldn't add any 'required' columns, try again for every field
+
+			if ( !dataTable.getChildren().isEmpty() || !onlyRequired ) {
+				break;
+			}
+
+			onlyRequired = false;
+		}
+	}
+
+	/**
+	 * Adds column components to the given UIData.
+	 *
+	 * @deprecated override <code>addColumnComponents( UIData, Map, List, UIMetawidget )</code>
+	 *             instead, which does not require walking a <code>NodeList</code>
 	 */
 
+	@Deprecated
 	protected void addColumnComponents( UIData dataTable, Map<String, String> attributes, NodeList elements, UIMetawidget metawidget ) {
 
 		// At first, try to add columns for just the 'required' fields
@@ -519,11 +591,6 @@ public class HtmlWidgetBuilder
 				}
 
 				// ...and is required...
-				//
-				// Note: this is a controversial choice. Our logic is that a) we need to limit
-				// the number of columns somehow, and b) displaying all the required fields should
-				// be enough to uniquely identify the row to the user. However, users may wish
-				// to override this default behaviour
 
 				if ( onlyRequired && !TRUE.equals( element.getAttribute( REQUIRED ) ) ) {
 					continue;
@@ -732,7 +799,7 @@ public class HtmlWidgetBuilder
 			} else {
 				// Label may be localized
 
-				String localizedLabel = metawidget.getLocalizedKey( StringUtils.camelCase( label ) );
+				String localizedLabel = metawidget.getLocalizedKey( I18nUtils.camelCase( label ) );
 
 				if ( localizedLabel != null ) {
 					selectItem.setItemLabel( localizedLabel );
@@ -790,4 +857,38 @@ public class HtmlWidgetBuilder
 			selectItems.setValueBinding( "itemValue", application.createValueBinding( itemValueBinding ) );
 		}
 	}
+
+	private boolean isNodeListColumnComponentsOverridden() {
+
+		for ( Class<?> clazz = getClass(); !HtmlWidgetBuilder.class.equals( clazz ); clazz = clazz.getSuperclass() ) {
+
+			try {
+				clazz.getDeclaredMethod( "addColumnComponents", UIData.class, Map.class, NodeList.class, UIMetawidget.class );
+				return true;
+			} catch ( NoSuchMethodException e ) {
+				// Try superclass
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Converts columns back into a <code>NodeList</code> of <code>property</code> elements, for
+	 * subclasses that override the deprecated <code>addColumnComponents</code>.
+	 */
+
+	private NodeList toNodeList( List<ColumnModel.Column> columns ) {
+
+		Document document = XmlUtils.newDocument();
+		Element entity = document.createElementNS( NAMESPACE, ENTITY );
+
+		for ( ColumnModel.Column column : columns ) {
+			Element property = document.createElementNS( NAMESPACE, PROPERTY );
+			XmlUtils.setMapAsAttributes( property, column.getAttributes() );
+			entity.appendChild( property );
+		}
+
+		return entity.getChildNodes();
+	}
 }
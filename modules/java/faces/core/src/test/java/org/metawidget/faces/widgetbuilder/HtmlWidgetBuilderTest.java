@@ -24,6 +24,7 @@ import java.util.Set;
 import javax.faces.FacesException;
 import javax.faces.component.UIColumn;
 import javax.faces.component.UIComponent;
+import javax.faces.component.UIData;
 import javax.faces.component.UIOutput;
 import javax.faces.component.UISelectItem;
 import javax.faces.component.html.*;
@@ -50,6 +51,7 @@ import org.metawidget.util.CollectionUtils;
 import org.metawidget.util.MetawidgetTestUtils;
 import org.metawidget.util.XmlUtils;
 import org.metawidget.widgetbuilder.iface.WidgetBuilder;
+import org.w3c.dom.NodeList;
 
 /**
  * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
@@ -462,6 +464,36 @@ public class HtmlWidgetBuilderTest
 		assertEquals( 6, htmlDataTable.getChildCount() );
 	}
 
+	@SuppressWarnings( "deprecation" )
+	public void testCollectionWithDeprecatedColumnComponents()
+		throws Exception {
+
+		HtmlMetawidget metawidget = new HtmlMetawidget();
+		metawidget.setInspector( new PropertyTypeInspector( new BaseObjectInspectorConfig().setPropertyStyle( new JavaBeanPropertyStyle( new JavaBeanPropertyStyleConfig().setSupportPublicFields( true ) ) ) ) );
+
+		final List<String> events = CollectionUtils.newArrayList();
+
+		WidgetBuilder<UIComponent, UIMetawidget> widgetBuilder = new HtmlWidgetBuilder() {
+
+			@Override
+			protected void addColumnComponents( UIData dataTable, Map<String, String> attributes, NodeList elements, UIMetawidget innerMetawidget ) {
+
+				events.add( "addColumnComponents: " + elements.getLength() );
+				super.addColumnComponents( dataTable, attributes, elements, innerMetawidget );
+			}
+		};
+
+		// Subclasses overriding the NodeList-based method should still be called
+
+		Map<String, String> attributes = CollectionUtils.newHashMap();
+		attributes.put( TYPE, List.class.getName() );
+		attributes.put( PARAMETERIZED_TYPE, LargeFoo.class.getName() );
+		HtmlDataTable htmlDataTable = (HtmlDataTable) widgetBuilder.buildWidget( PROPERTY, attributes, metawidget );
+		assertEquals( 5, htmlDataTable.getChildCount() );
+		assertEquals( "addColumnComponents: 6", events.get( 0 ) );
+		assertEquals( 1, events.size() );
+	}
+
 	public void testConfig() {
 
 		MetawidgetTestUtils.testEqualsAndHashcode( HtmlWidgetBuilderConfig.class, new HtmlWidgetBuilderConfig() {
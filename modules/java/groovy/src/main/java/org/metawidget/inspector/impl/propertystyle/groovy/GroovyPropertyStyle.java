@@ -13,6 +13,8 @@ package org.metawidget.inspector.impl.propertystyle.groovy;
 
 import groovy.lang.GroovySystem;
 import groovy.lang.MetaBeanProperty;
+import groovy.lang.MetaClass;
+import groovy.lang.MetaClassImpl;
 import groovy.lang.MetaMethod;
 import groovy.lang.MetaProperty;
 
@@ -25,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.codehaus.groovy.reflection.CachedField;
+import org.codehaus.groovy.runtime.InvokerHelper;
 import org.metawidget.inspector.iface.InspectorException;
 import org.metawidget.inspector.impl.propertystyle.BaseProperty;
 import org.metawidget.inspector.impl.propertystyle.BasePropertyStyle;
@@ -40,6 +43,11 @@ import org.metawidget.util.simple.StringUtils;
  * because the Groovy compiler automatically generates JavaBean-style getters and setters.
  * Unfortunately, it does not also copy any annotations defined on the property to the generated
  * getter and setters. This <code>PropertyStyle</code> is designed to access those annotations.
+ * <p>
+ * Where possible, properties are read and written by invoking their compiled getter and setter
+ * methods directly, rather than dispatching through the <code>MetaClass</code>. This matters when
+ * rendering domain objects with many properties. Objects whose <code>MetaClass</code> has been
+ * replaced or modified (eg. by <code>ExpandoMetaClass</code>) are always dispatched through it.
  *
  * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
  */
@@ -182,6 +190,23 @@ public class GroovyPropertyStyle
 		return super.isExcludedName( name );
 	}
 
+	//
+	// Package private methods
+	//
+
+	/**
+	 * Whether the given <code>MetaClass</code> is Groovy's default, unmodified one, so that the
+	 * compiled getters and setters of its objects can safely be invoked directly.
+	 */
+
+	/* package private */static boolean isDefaultMetaClass( MetaClass metaClass ) {
+
+		// (ExpandoMetaClass, and any MetaClass registered by the application, are subclasses of or
+		// delegates to MetaClassImpl)
+
+		return ( metaClass.getClass() == MetaClassImpl.class );
+	}
+
 	//
 	// Inner classes
 	//
@@ -205,6 +230,20 @@ public class GroovyPropertyStyle
 
 		private Method				mSetterMethod;
 
+		/**
+		 * Parameter type of <code>mSetterMethod</code>, with primitives converted to their wrapper
+		 * class.
+		 */
+
+		private Class<?>			mSetterParameterType;
+
+		/**
+		 * Whether the parameter type of <code>mSetterMethod</code> is primitive (and therefore cannot
+		 * be passed null).
+		 */
+
+		private boolean				mSetterParameterPrimitive;
+
 		//
 		// Constructor
 		//
@@ -235,6 +274,12 @@ public class GroovyPropertyStyle
 				if ( setterMethod != null ) {
 					try {
 						mSetterMethod = javaClass.getMethod( setterMethod.getName(), setterMethod.getNativeParameterTypes() );
+						mSetterParameterType = mSetterMethod.getParameterTypes()[0];
+
+						if ( mSetterParameterType.isPrimitive() ) {
+							mSetterParameterPrimitive = true;
+							mSetterParameterType = ClassUtils.getWrapperClass( mSetterParameterType );
+						}
 					} catch ( NoSuchMethodException ex ) {}
 				}
 			} catch ( Exception e ) {
@@ -254,6 +299,22 @@ public class GroovyPropertyStyle
 		public Object read( Object obj ) {
 
 			try {
+				MetaClass metaClass = InvokerHelper.getMetaClass( obj );
+
+				// Honour any modified MetaClass...
+
+				if ( !isDefaultMetaClass( metaClass ) ) {
+					return metaClass.getProperty( obj, getName() );
+				}
+
+				// ...otherwise fast path: invoke the compiled getter directly...
+
+				if ( mGetterMethod != null && mGetterMethod.getDeclaringClass().isInstance( obj ) ) {
+					return mGetterMethod.invoke( obj );
+				}
+
+				// ...or dispatch through the MetaBeanProperty
+
 				return mProperty.getProperty( obj );
 			} catch ( Exception e ) {
 				throw InspectorException.newException( e );
@@ -268,6 +329,25 @@ public class GroovyPropertyStyle
 		public void write( Object obj, Object value ) {
 
 			try {
+				MetaClass metaClass = InvokerHelper.getMetaClass( obj );
+
+				// Honour any modified MetaClass...
+
+				if ( !isDefaultMetaClass( metaClass ) ) {
+					metaClass.setProperty( obj, getName(), value );
+					return;
+				}
+
+				// ...otherwise fast path: invoke the compiled setter directly, unless the value
+				// needs Groovy's type coercion (eg. a GString to a String)...
+
+				if ( mSetterMethod != null && mSetterMethod.getDeclaringClass().isInstance( obj ) && isAssignable( value ) ) {
+					mSetterMethod.invoke( obj, value );
+					return;
+				}
+
+				// ...or dispatch through the MetaBeanProperty
+
 				mProperty.setProperty( obj, value );
 			} catch ( Exception e ) {
 				throw InspectorException.newException( e );
@@ -314,5 +394,23 @@ public class GroovyPropertyStyle
 			
 			throw InspectorException.newException( "Don't know how to getGenericType from " + getName() );
 		}
+
+		//
+		// Private methods
+		//
+
+		/**
+		 * Whether the given value can be passed to the setter without coercion. Nulls are only
+		 * assignable to non-primitives.
+		 */
+
+		private boolean isAssignable( Object value ) {
+
+			if ( value == null ) {
+				return !mSetterParameterPrimitive;
+			}
+
+			return mSetterParameterType.isInstance( value );
+		}
 	}
 }
@@ -11,6 +11,9 @@
 
 package org.metawidget.inspector.impl.propertystyle.groovy;
 
+import groovy.lang.DelegatingMetaClass;
+import groovy.lang.GroovyObject;
+
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +22,7 @@ import javax.persistence.Column;
 
 import junit.framework.TestCase;
 
+import org.codehaus.groovy.runtime.InvokerHelper;
 import org.hibernate.validator.Length;
 import org.hibernate.validator.NotNull;
 import org.metawidget.inspector.impl.propertystyle.Property;
@@ -69,6 +73,79 @@ public class GroovyPropertyStyleTest
 		assertEquals( "foo", ordered.get( 3 ));
 	}
 
+	public void testReadWrite() {
+
+		GroovyPropertyStyle propertyStyle = new GroovyPropertyStyle();
+		Map<String, Property> properties = propertyStyle.getProperties( GroovyBar.class.getName() );
+
+		GroovyBar groovyBar = new GroovyBar();
+		properties.get( "name" ).write( groovyBar, "Foo" );
+		properties.get( "count" ).write( groovyBar, 42 );
+		properties.get( "active" ).write( groovyBar, Boolean.TRUE );
+
+		assertEquals( "Foo", groovyBar.getName() );
+		assertEquals( "Foo", properties.get( "name" ).read( groovyBar ) );
+		assertEquals( 42, properties.get( "count" ).read( groovyBar ) );
+		assertEquals( Boolean.TRUE, properties.get( "active" ).read( groovyBar ) );
+
+		// Nulls
+
+		properties.get( "name" ).write( groovyBar, null );
+		assertEquals( null, groovyBar.getName() );
+
+		// Values that need coercion fall back to the MetaClass
+
+		properties.get( "name" ).write( groovyBar, new StringBuilder( "Bar" ) );
+		assertEquals( "Bar", groovyBar.getName() );
+	}
+
+	public void testDefaultMetaClass() {
+
+		Map<String, Property> properties = new GroovyPropertyStyle().getProperties( GroovyBar.class.getName() );
+
+		GroovyBar groovyBar = new GroovyBar();
+		groovyBar.setName( "Foo" );
+
+		// Unmodified MetaClass takes the fast path
+
+		assertTrue( GroovyPropertyStyle.isDefaultMetaClass( InvokerHelper.getMetaClass( groovyBar ) ) );
+		assertEquals( "Foo", properties.get( "name" ).read( groovyBar ) );
+
+		// Modified MetaClass does not
+
+		final List<String> dispatched = CollectionUtils.newArrayList();
+
+		// (the GroovyObject methods of GroovyBar are not visible to javac, so cast through Object)
+
+		GroovyObject groovyObject = (GroovyObject) (Object) groovyBar;
+		groovyObject.setMetaClass( new DelegatingMetaClass( groovyObject.getMetaClass() ) {
+
+			@Override
+			public Object getProperty( Object object, String property ) {
+
+				dispatched.add( "get " + property );
+				return "Overridden";
+			}
+
+			@Override
+			public void setProperty( Object object, String property, Object newValue ) {
+
+				dispatched.add( "set " + property );
+				super.setProperty( object, property, "Overridden " + newValue );
+			}
+		} );
+
+		assertFalse( GroovyPropertyStyle.isDefaultMetaClass( InvokerHelper.getMetaClass( groovyBar ) ) );
+		assertEquals( "Overridden", properties.get( "name" ).read( groovyBar ) );
+
+		properties.get( "name" ).write( groovyBar, "Bar" );
+		assertEquals( "Overridden Bar", groovyBar.getName() );
+
+		assertEquals( "get name", dispatched.get( 0 ) );
+		assertEquals( "set name", dispatched.get( 1 ) );
+		assertEquals( 2, dispatched.size() );
+	}
+
 	public void testIgnoreMetaArrayLengthProperty() {
 
 		GroovyPropertyStyle propertyStyle = new GroovyPropertyStyle();
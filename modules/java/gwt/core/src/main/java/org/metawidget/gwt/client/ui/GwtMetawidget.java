@@ -695,7 +695,7 @@ public class GwtMetawidget
 			mPipeline.setWidgetBuilder( DEFAULT_WIDGETBUILDER );
 		}
 
-		if ( mPipeline.getWidgetProcessors() == null ) {
+		if ( mPipeline.getReadOnlyWidgetProcessors() == null ) {
 			if ( DEFAULT_WIDGETPROCESSOR == null ) {
 				DEFAULT_WIDGETPROCESSOR = new StyleNameProcessor();
 			}
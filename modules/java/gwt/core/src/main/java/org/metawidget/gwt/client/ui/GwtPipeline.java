@@ -13,6 +13,7 @@ package org.metawidget.gwt.client.ui;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.metawidget.pipeline.base.BasePipeline;
@@ -48,11 +49,13 @@ public abstract class GwtPipeline<W, C extends W, M extends C>
 	@SuppressWarnings( "unchecked" )
 	public <T> T getWidgetProcessor( Class<T> widgetProcessorClass ) {
 
-		if ( getWidgetProcessors() == null ) {
+		List<WidgetProcessor<W, M>> widgetProcessors = getReadOnlyWidgetProcessors();
+
+		if ( widgetProcessors == null ) {
 			return null;
 		}
 
-		for ( WidgetProcessor<W, M> widgetProcessor : getWidgetProcessors() ) {
+		for ( WidgetProcessor<W, M> widgetProcessor : widgetProcessors ) {
 			if ( widgetProcessorClass.equals( widgetProcessor.getClass() ) ) {
 				return (T) widgetProcessor;
 			}
@@ -13,6 +13,7 @@ package org.metawidget.inspector.hibernate;
 
 import static org.metawidget.inspector.InspectionResultConstants.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +22,7 @@ import org.metawidget.config.iface.ResourceResolver;
 import org.metawidget.inspector.iface.InspectorException;
 import org.metawidget.inspector.impl.BaseXmlInspector;
 import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.IOUtils;
 import org.metawidget.util.XmlUtils;
 import org.metawidget.util.simple.StringUtils;
 import org.w3c.dom.Document;
@@ -106,8 +108,7 @@ public class HibernateInspector
 
 		Document documentMaster = null;
 
-		for ( InputStream file : files ) {
-			Document documentParsed = XmlUtils.parse( file );
+		for ( Document documentParsed : parseDocuments( files ) ) {
 
 			if ( !documentParsed.hasChildNodes() ) {
 				continue;
@@ -119,20 +120,9 @@ public class HibernateInspector
 			String nodeName = parsed.getNodeName();
 
 			if ( HIBERNATE_CONFIGURATION_ELEMENT.equals( nodeName ) ) {
-				// ...look up each hibernate-mapping file...
-
-				Element mapping = XmlUtils.getChildNamed( documentParsed.getDocumentElement(), "session-factory", "mapping" );
-
-				List<InputStream> inputStreamList = CollectionUtils.newArrayList();
-
-				while ( mapping != null ) {
-					inputStreamList.add( resolver.openResource( mapping.getAttribute( "resource" ) ) );
-					mapping = XmlUtils.getSiblingNamed( mapping, "mapping" );
-				}
-
-				// ...and combine them
+				// ...look up each hibernate-mapping file and combine them
 
-				parsed = getDocumentElement( resolver, inputStreamList.toArray( EMPTY_INPUTSTREAM_ARRAY ) );
+				parsed = getDocumentElement( resolver, getMappingInputStreams( resolver, documentParsed ) );
 
 				if ( documentMaster == null || !documentMaster.hasChildNodes() ) {
 					documentMaster = parsed.getOwnerDocument();
@@ -162,6 +152,51 @@ public class HibernateInspector
 		return documentMaster.getDocumentElement();
 	}
 
+	/**
+	 * Overridden to automatically drill into Hibernate Configuration files.
+	 */
+
+	@Override
+	protected void indexDocuments( ResourceResolver resolver, InputStream... files )
+		throws Exception {
+
+		for ( InputStream file : files ) {
+
+			byte[] xml = IOUtils.streamToBytes( file );
+			String rootName = indexDocument( xml );
+
+			// If the document is a hibernate-configuration file, index each hibernate-mapping file
+			// (hibernate-configuration files are small, so can be parsed immediately)
+
+			if ( HIBERNATE_CONFIGURATION_ELEMENT.equals( rootName ) ) {
+				indexDocuments( resolver, getMappingInputStreams( resolver, XmlUtils.parse( new ByteArrayInputStream( xml ) ) ) );
+			} else if ( !HIBERNATE_MAPPING_ELEMENT.equals( rootName ) ) {
+				throw InspectorException.newException( "Expected an XML document starting with '" + HIBERNATE_CONFIGURATION_ELEMENT + "' or '" + HIBERNATE_MAPPING_ELEMENT + "', but got '" + rootName + "'" );
+			}
+		}
+	}
+
+	/**
+	 * Overridden to only index hibernate-mapping files, and to prepend their 'package' attribute
+	 * (same as <code>preprocessDocument</code>).
+	 */
+
+	@Override
+	protected String preprocessTopLevelType( String rootName, Map<String, String> rootAttributes, String topLevelType ) {
+
+		if ( !HIBERNATE_MAPPING_ELEMENT.equals( rootName ) ) {
+			return null;
+		}
+
+		String packagePrefix = rootAttributes.get( "package" );
+
+		if ( packagePrefix != null && !"".equals( packagePrefix ) && topLevelType.indexOf( StringUtils.SEPARATOR_DOT_CHAR ) == -1 ) {
+			return packagePrefix + StringUtils.SEPARATOR_DOT_CHAR + topLevelType;
+		}
+
+		return topLevelType;
+	}
+
 	/**
 	 * Prepend 'package' attribute to class 'name' and 'extends' attributes, and to 'class'
 	 * attributes of children.
@@ -293,6 +328,24 @@ public class HibernateInspector
 	// Private methods
 	//
 
+	/**
+	 * Opens each hibernate-mapping file referenced by the given hibernate-configuration file.
+	 */
+
+	private InputStream[] getMappingInputStreams( ResourceResolver resolver, Document configuration ) {
+
+		Element mapping = XmlUtils.getChildNamed( configuration.getDocumentElement(), "session-factory", "mapping" );
+
+		List<InputStream> inputStreamList = CollectionUtils.newArrayList();
+
+		while ( mapping != null ) {
+			inputStreamList.add( resolver.openResource( mapping.getAttribute( "resource" ) ) );
+			mapping = XmlUtils.getSiblingNamed( mapping, "mapping" );
+		}
+
+		return inputStreamList.toArray( EMPTY_INPUTSTREAM_ARRAY );
+	}
+
 	/**
 	 * Inspect attributes that can appear either on 'property' elements or 'column' elements.
 	 */
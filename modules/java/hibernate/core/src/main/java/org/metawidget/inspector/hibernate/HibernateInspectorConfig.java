@@ -54,6 +54,36 @@ public class HibernateInspectorConfig
 		return (HibernateInspectorConfig) super.setInputStream( stream );
 	}
 
+	/**
+	 * Overridden to provide a covariant return type for our fluent interface.
+	 */
+
+	@Override
+	public HibernateInspectorConfig setParseThreads( int parseThreads ) {
+
+		return (HibernateInspectorConfig) super.setParseThreads( parseThreads );
+	}
+
+	/**
+	 * Overridden to provide a covariant return type for our fluent interface.
+	 */
+
+	@Override
+	public HibernateInspectorConfig setParseLazily( boolean parseLazily ) {
+
+		return (HibernateInspectorConfig) super.setParseLazily( parseLazily );
+	}
+
+	/**
+	 * Overridden to provide a covariant return type for our fluent interface.
+	 */
+
+	@Override
+	public HibernateInspectorConfig setCacheDirectory( String cacheDirectory ) {
+
+		return (HibernateInspectorConfig) super.setCacheDirectory( cacheDirectory );
+	}
+
 	/**
 	 * Sets whether the Inspector returns &lt;id&gt; properties as <code>hidden="true"</code>. True
 	 * by default.
@@ -14,6 +14,8 @@ package org.metawidget.inspector.hibernate;
 import static org.metawidget.inspector.InspectionResultConstants.*;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
 
 import junit.framework.TestCase;
 
@@ -185,6 +187,84 @@ public class HibernateInspectorTest
 		assertEquals( property.getNextSibling(), null );
 	}
 
+	public void testParseThreadsAndLazily() {
+
+		String cfg = "org/metawidget/inspector/hibernate/test-hibernate.cfg.xml";
+		SimpleResourceResolver resolver = new SimpleResourceResolver();
+
+		HibernateInspector parallelInspector = new HibernateInspector( new HibernateInspectorConfig().setParseThreads( 3 ).setInputStream( resolver.openResource( cfg ) ) );
+		HibernateInspector lazyInspector = new HibernateInspector( new HibernateInspectorConfig().setParseLazily( true ).setInputStream( resolver.openResource( cfg ) ) );
+
+		for ( HibernateInspector inspector : new HibernateInspector[] { parallelInspector, lazyInspector } ) {
+
+			assertEquals( mInspector.inspect( null, "org.metawidget.inspector.hibernate.SubFoo" ), inspector.inspect( null, "org.metawidget.inspector.hibernate.SubFoo" ) );
+			assertEquals( mInspector.inspect( null, "org.metawidget.inspector.hibernate.SubFoo", "bar" ), inspector.inspect( null, "org.metawidget.inspector.hibernate.SubFoo", "bar" ) );
+			assertEquals( mInspector.inspect( null, "org.metawidget.inspector.hibernate.Bar" ), inspector.inspect( null, "org.metawidget.inspector.hibernate.Bar" ) );
+			assertEquals( null, inspector.inspect( null, "org.metawidget.inspector.hibernate.NoSuchClass" ) );
+		}
+
+		try {
+			new HibernateInspector( new HibernateInspectorConfig().setParseLazily( true ).setInputStream( new ByteArrayInputStream( "<foo></foo>".getBytes() ) ) );
+			fail();
+		} catch ( InspectorException e ) {
+			assertEquals( "Expected an XML document starting with 'hibernate-configuration' or 'hibernate-mapping', but got 'foo'", e.getMessage() );
+		}
+	}
+
+	public void testCacheDirectory()
+		throws Exception {
+
+		final String cfg = "org/metawidget/inspector/hibernate/test-hibernate.cfg.xml";
+		final String[] mapping3 = new String[1];
+
+		// Resolver that can change a mapping file (but never the cfg file)
+
+		SimpleResourceResolver resolver = new SimpleResourceResolver() {
+
+			@Override
+			public InputStream openResource( String resource ) {
+
+				if ( mapping3[0] != null && resource.endsWith( "test-mapping3.hbm.xml" ) ) {
+					return new ByteArrayInputStream( mapping3[0].getBytes() );
+				}
+
+				return super.openResource( resource );
+			}
+		};
+
+		File cacheDirectory = File.createTempFile( "HibernateInspectorTest", "" );
+		assertTrue( cacheDirectory.delete() );
+
+		try {
+			HibernateInspectorConfig config = new HibernateInspectorConfig().setCacheDirectory( cacheDirectory.getPath() );
+			config.setResourceResolver( resolver );
+			HibernateInspector cachedInspector = new HibernateInspector( config.setInputStream( resolver.openResource( cfg ) ) );
+			assertEquals( 1, cacheDirectory.listFiles().length );
+			HibernateInspector readInspector = new HibernateInspector( config.setInputStream( resolver.openResource( cfg ) ) );
+
+			for ( HibernateInspector inspector : new HibernateInspector[] { cachedInspector, readInspector } ) {
+
+				assertEquals( mInspector.inspect( null, "org.metawidget.inspector.hibernate.SubFoo" ), inspector.inspect( null, "org.metawidget.inspector.hibernate.SubFoo" ) );
+				assertEquals( mInspector.inspect( null, "org.metawidget.inspector.hibernate.SubFoo", "bar" ), inspector.inspect( null, "org.metawidget.inspector.hibernate.SubFoo", "bar" ) );
+				assertEquals( mInspector.inspect( null, "org.metawidget.inspector.hibernate.Baz" ), inspector.inspect( null, "org.metawidget.inspector.hibernate.Baz" ) );
+			}
+
+			// Changing a referenced mapping file (but not the cfg file) should still invalidate the
+			// cache
+
+			mapping3[0] = "<hibernate-mapping package=\"org.metawidget.inspector.hibernate\"><class name=\"Baz\"><id name=\"id\"/><property name=\"abc\"/></class></hibernate-mapping>";
+			HibernateInspector changedInspector = new HibernateInspector( config.setInputStream( resolver.openResource( cfg ) ) );
+			assertTrue( changedInspector.inspect( null, "org.metawidget.inspector.hibernate.Baz" ).contains( "abc" ) );
+			assertEquals( mInspector.inspect( null, "org.metawidget.inspector.hibernate.SubFoo" ), changedInspector.inspect( null, "org.metawidget.inspector.hibernate.SubFoo" ) );
+		} finally {
+			for ( File file : cacheDirectory.listFiles() ) {
+				file.delete();
+			}
+
+			cacheDirectory.delete();
+		}
+	}
+
 	public void testConfig() {
 
 		MetawidgetTestUtils.testEqualsAndHashcode( HibernateInspectorConfig.class, new HibernateInspectorConfig() {
@@ -54,6 +54,9 @@ import org.metawidget.util.CollectionUtils;
  * interleave superclass and subclass properties. However, it is possible to use both
  * <code>UiComesAfter</code> and <code>JavassistPropertyStyle</code> together to get the best of
  * both worlds.
+ * <p>
+ * For faster startup, <code>JavassistPropertyStyleConfig.setScanClassFiles</code> reads line
+ * numbers using a lightweight class file scanner instead of Javassist.
  *
  * @author <a href="http://kennardconsulting.com">Richard Kennard</a>, inspired by Tapestry 5's BeanEditForm
  */
@@ -70,18 +73,50 @@ import org.metawidget.util.CollectionUtils;
 public class JavassistPropertyStyle
 	extends JavaBeanPropertyStyle {
 
+	//
+	// Private members
+	//
+
+	private boolean								mScanClassFiles;
+
+	private ClassPool							mClassPool;
+
+	/**
+	 * Line numbers already scanned, per class. Only used if <code>mScanClassFiles</code>.
+	 */
+
+	private Map<Class<?>, Map<String, Integer>>	mLineNumbers;
+
 	//
 	// Constructor
 	//
 
 	public JavassistPropertyStyle() {
 
-		super();
+		this( new JavassistPropertyStyleConfig() );
 	}
 
+	/**
+	 * @param config
+	 *            either a <code>JavassistPropertyStyleConfig</code>, or (for default Javassist
+	 *            settings) a plain <code>JavaBeanPropertyStyleConfig</code>
+	 */
+
 	public JavassistPropertyStyle( JavaBeanPropertyStyleConfig config ) {
 
 		super( config );
+
+		if ( config instanceof JavassistPropertyStyleConfig ) {
+			JavassistPropertyStyleConfig javassistConfig = (JavassistPropertyStyleConfig) config;
+			mScanClassFiles = javassistConfig.isScanClassFiles();
+			mClassPool = javassistConfig.getClassPool();
+		}
+
+		if ( mScanClassFiles ) {
+			mLineNumbers = CollectionUtils.newWeakHashMap();
+		} else if ( mClassPool == null ) {
+			mClassPool = ClassPool.getDefault();
+		}
 	}
 
 	//
@@ -94,8 +129,11 @@ public class JavassistPropertyStyle
 		try {
 			Map<ClassAndLineNumberAndName, Property> lineNumberedProperties = CollectionUtils.newTreeMap();
 
-			ClassPool pool = ClassPool.getDefault();
-			CtClass ctClass = pool.get( type );
+			CtClass ctClass = null;
+
+			if ( !mScanClassFiles ) {
+				ctClass = mClassPool.get( type );
+			}
 
 			// For each JavaBean property...
 
@@ -107,28 +145,43 @@ public class JavassistPropertyStyle
 				// ...lookup the corresponding Javassist method...
 
 				if ( property instanceof JavaBeanProperty ) {
-					CtMethod ctMethod = null;
 					JavaBeanProperty javaBeanProperty = (JavaBeanProperty) property;
 					Method method = javaBeanProperty.getReadMethod();
+					int lineNumber;
+					boolean isInterface;
+
+					// ...by its getter (or its setter)...
+
+					if ( method == null ) {
+						method = javaBeanProperty.getWriteMethod();
+					}
+
+					if ( mScanClassFiles ) {
 
-					// ...by its getter...
+						// ...(either by scanning the class file)...
 
-					if ( method != null ) {
-						ctMethod = getCtMethod( ctClass, method );
+						lineNumber = LineNumberScanner.getLineNumber( method, mLineNumbers );
+						isInterface = method.getDeclaringClass().isInterface();
 					} else {
-						
-						// ...or its setter...
 
-						method = javaBeanProperty.getWriteMethod();
-						ctMethod = getCtMethod( ctClass, method, pool.get( property.getType() ) );
+						// ...(or using Javassist)...
+
+						CtMethod ctMethod;
+
+						if ( method == javaBeanProperty.getReadMethod() ) {
+							ctMethod = getCtMethod( ctClass, method );
+						} else {
+							ctMethod = getCtMethod( ctClass, method, mClassPool.get( property.getType() ) );
+						}
+
+						MethodInfo methodInfo = ctMethod.getMethodInfo();
+						lineNumber = methodInfo.getLineNumber( 0 );
+						isInterface = ctClass.isInterface();
 					}
 
 					// ...and remember its line number
 
-					MethodInfo methodInfo = ctMethod.getMethodInfo();
-					int lineNumber = methodInfo.getLineNumber( 0 );
-
-					if ( lineNumber == -1 && !ctClass.isInterface() ) {
+					if ( lineNumber == -1 && !isInterface ) {
 						throw InspectorException.newException( "Line number information for " + type + " not available. Did you compile without debug info?" );
 					}
 
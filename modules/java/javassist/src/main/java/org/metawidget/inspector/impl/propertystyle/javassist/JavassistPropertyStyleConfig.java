@@ -0,0 +1,123 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+
+package org.metawidget.inspector.impl.propertystyle.javassist;
+
+import javassist.ClassPool;
+
+import org.metawidget.inspector.impl.propertystyle.javabean.JavaBeanPropertyStyleConfig;
+import org.metawidget.util.simple.ObjectUtils;
+
+/**
+ * Configures a JavassistPropertyStyle prior to use. Once instantiated, PropertyStyles are
+ * immutable.
+ *
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public class JavassistPropertyStyleConfig
+	extends JavaBeanPropertyStyleConfig {
+
+	//
+	// Private members
+	//
+
+	private boolean		mScanClassFiles;
+
+	private ClassPool	mClassPool;
+
+	//
+	// Public methods
+	//
+
+	/**
+	 * Sets whether to read line numbers using a lightweight class file scanner, rather than
+	 * Javassist. False by default.
+	 * <p>
+	 * The scanner reads each class file once, retains only its line numbers, and never touches a
+	 * Javassist <code>ClassPool</code>. This is considerably cheaper at startup, and avoids the
+	 * <code>ClassPool</code> growing without bound.
+	 *
+	 * @return this, as part of a fluent interface
+	 */
+
+	public JavassistPropertyStyleConfig setScanClassFiles( boolean scanClassFiles ) {
+
+		mScanClassFiles = scanClassFiles;
+
+		return this;
+	}
+
+	/**
+	 * Sets the Javassist <code>ClassPool</code> to use. Defaults to
+	 * <code>ClassPool.getDefault()</code>.
+	 * <p>
+	 * The default <code>ClassPool</code> caches every <code>CtClass</code> it loads, for the life of
+	 * the application. Clients that want to bound or release that memory can supply their own
+	 * <code>ClassPool</code>, and discard it (along with the <code>JavassistPropertyStyle</code>)
+	 * when no longer needed. Not used if <code>setScanClassFiles</code>.
+	 *
+	 * @return this, as part of a fluent interface
+	 */
+
+	public JavassistPropertyStyleConfig setClassPool( ClassPool classPool ) {
+
+		mClassPool = classPool;
+
+		return this;
+	}
+
+	@Override
+	public boolean equals( Object that ) {
+
+		if ( this == that ) {
+			return true;
+		}
+
+		if ( !ObjectUtils.nullSafeClassEquals( this, that ) ) {
+			return false;
+		}
+
+		if ( mScanClassFiles != ( (JavassistPropertyStyleConfig) that ).mScanClassFiles ) {
+			return false;
+		}
+
+		if ( !ObjectUtils.nullSafeEquals( mClassPool, ( (JavassistPropertyStyleConfig) that ).mClassPool ) ) {
+			return false;
+		}
+
+		return super.equals( that );
+	}
+
+	@Override
+	public int hashCode() {
+
+		int hashCode = super.hashCode();
+		hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode( mScanClassFiles );
+		hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode( mClassPool );
+
+		return hashCode;
+	}
+
+	//
+	// Protected methods
+	//
+
+	protected boolean isScanClassFiles() {
+
+		return mScanClassFiles;
+	}
+
+	protected ClassPool getClassPool() {
+
+		return mClassPool;
+	}
+}
@@ -0,0 +1,347 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+
+package org.metawidget.inspector.impl.propertystyle.javassist;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+
+import org.metawidget.inspector.iface.InspectorException;
+import org.metawidget.util.CollectionUtils;
+
+/**
+ * Lightweight reader of the debug line numbers embedded in class files.
+ * <p>
+ * Reads just enough of the class file format to extract the <code>LineNumberTable</code> of each
+ * method, skipping everything else. Unlike Javassist, it builds no object model of the class, and
+ * retains nothing but a map of method signature to line number.
+ *
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+final class LineNumberScanner {
+
+	//
+	// Public statics
+	//
+
+	/**
+	 * Returned if the method has no line number information (eg. it was compiled without debug
+	 * info, or is abstract).
+	 */
+
+	public static final int	NO_LINE_NUMBER	= -1;
+
+	/**
+	 * Gets the line number of the given method (or the nearest method of the same name and
+	 * parameters up its class hierarchy).
+	 *
+	 * @return the line number, or NO_LINE_NUMBER
+	 */
+
+	public static int getLineNumber( Method method, Map<Class<?>, Map<String, Integer>> cache ) {
+
+		String key = getKey( method.getName(), method.getParameterTypes() );
+
+		for ( Class<?> clazz = method.getDeclaringClass(); clazz != null; clazz = clazz.getSuperclass() ) {
+
+			Map<String, Integer> lineNumbers;
+
+			synchronized ( cache ) {
+				lineNumbers = cache.get( clazz );
+
+				if ( lineNumbers == null ) {
+					lineNumbers = scan( clazz );
+					cache.put( clazz, lineNumbers );
+				}
+			}
+
+			Integer lineNumber = lineNumbers.get( key );
+
+			if ( lineNumber != null ) {
+				return lineNumber;
+			}
+		}
+
+		throw InspectorException.newException( "Unable to find " + method + " in class file" );
+	}
+
+	/**
+	 * Scans the class file of the given class.
+	 *
+	 * @return map of method name and parameter descriptor (eg. <code>setFoo(Ljava/lang/String;)</code>)
+	 *         to line number
+	 */
+
+	public static Map<String, Integer> scan( Class<?> clazz ) {
+
+		String resource = clazz.getName().replace( '.', '/' ) + ".class";
+		ClassLoader classLoader = clazz.getClassLoader();
+		InputStream inputStream;
+
+		if ( classLoader == null ) {
+			inputStream = ClassLoader.getSystemResourceAsStream( resource );
+		} else {
+			inputStream = classLoader.getResourceAsStream( resource );
+		}
+
+		if ( inputStream == null ) {
+			throw InspectorException.newException( "Unable to locate class file for " + clazz );
+		}
+
+		try {
+			try {
+				return scan( new DataInputStream( new BufferedInputStream( inputStream ) ) );
+			} finally {
+				inputStream.close();
+			}
+		} catch ( IOException e ) {
+			throw InspectorException.newException( e );
+		}
+	}
+
+	//
+	// Private statics
+	//
+
+	private static final int	MAGIC	= 0xCAFEBABE;
+
+	private static Map<String, Integer> scan( DataInputStream in )
+		throws IOException {
+
+		if ( in.readInt() != MAGIC ) {
+			throw InspectorException.newException( "Not a class file" );
+		}
+
+		// Version
+
+		in.readUnsignedShort();
+		in.readUnsignedShort();
+
+		// Constant pool (only UTF8 entries are needed)
+
+		int constantPoolCount = in.readUnsignedShort();
+		String[] utf8s = new String[constantPoolCount];
+
+		for ( int loop = 1; loop < constantPoolCount; loop++ ) {
+
+			int tag = in.readUnsignedByte();
+
+			switch ( tag ) {
+
+				// Utf8
+
+				case 1:
+					utf8s[loop] = in.readUTF();
+					break;
+
+				// Class, String, MethodType, Module, Package
+
+				case 7:
+				case 8:
+				case 16:
+				case 19:
+				case 20:
+					skip( in, 2 );
+					break;
+
+				// MethodHandle
+
+				case 15:
+					skip( in, 3 );
+					break;
+
+				// Integer, Float, Fieldref, Methodref, InterfaceMethodref, NameAndType, Dynamic,
+				// InvokeDynamic
+
+				case 3:
+				case 4:
+				case 9:
+				case 10:
+				case 11:
+				case 12:
+				case 17:
+				case 18:
+					skip( in, 4 );
+					break;
+
+				// Long, Double (take two slots)
+
+				case 5:
+				case 6:
+					skip( in, 8 );
+					loop++;
+					break;
+
+				default:
+					throw InspectorException.newException( "Unknown constant pool tag " + tag );
+			}
+		}
+
+		// Access flags, this class, super class, interfaces
+
+		skip( in, 6 );
+		skip( in, 2 * in.readUnsignedShort() );
+
+		// Fields
+
+		for ( int fields = in.readUnsignedShort(); fields > 0; fields-- ) {
+			skip( in, 6 );
+			skipAttributes( in );
+		}
+
+		// Methods
+
+		Map<String, Integer> lineNumbers = CollectionUtils.newHashMap();
+
+		for ( int methods = in.readUnsignedShort(); methods > 0; methods-- ) {
+
+			skip( in, 2 );
+			String name = utf8s[in.readUnsignedShort()];
+			String descriptor = utf8s[in.readUnsignedShort()];
+			int lineNumber = NO_LINE_NUMBER;
+
+			for ( int attributes = in.readUnsignedShort(); attributes > 0; attributes-- ) {
+
+				String attributeName = utf8s[in.readUnsignedShort()];
+				int attributeLength = in.readInt();
+
+				if ( !"Code".equals( attributeName ) ) {
+					skip( in, attributeLength );
+					continue;
+				}
+
+				// Max stack, max locals, code, exception table
+
+				skip( in, 4 );
+				skip( in, in.readInt() );
+				skip( in, 8 * in.readUnsignedShort() );
+
+				for ( int codeAttributes = in.readUnsignedShort(); codeAttributes > 0; codeAttributes-- ) {
+
+					String codeAttributeName = utf8s[in.readUnsignedShort()];
+					int codeAttributeLength = in.readInt();
+
+					if ( !"LineNumberTable".equals( codeAttributeName ) ) {
+						skip( in, codeAttributeLength );
+						continue;
+					}
+
+					// Line number at the start of the method (same as Javassist's
+					// MethodInfo.getLineNumber( 0 ))
+
+					for ( int entries = in.readUnsignedShort(), entry = 0; entry < entries; entry++ ) {
+
+						int startPc = in.readUnsignedShort();
+						int line = in.readUnsignedShort();
+
+						if ( entry == 0 || startPc == 0 ) {
+							lineNumber = line;
+						}
+					}
+				}
+			}
+
+			// First declaration wins (eg. over a later bridge method)
+
+			String key = name + descriptor.substring( 0, descriptor.indexOf( ')' ) + 1 );
+
+			if ( !lineNumbers.containsKey( key ) ) {
+				lineNumbers.put( key, lineNumber );
+			}
+		}
+
+		return Collections.unmodifiableMap( lineNumbers );
+	}
+
+	private static void skipAttributes( DataInputStream in )
+		throws IOException {
+
+		for ( int attributes = in.readUnsignedShort(); attributes > 0; attributes-- ) {
+			skip( in, 2 );
+			skip( in, in.readInt() );
+		}
+	}
+
+	private static void skip( DataInputStream in, int bytes )
+		throws IOException {
+
+		int remaining = bytes;
+
+		while ( remaining > 0 ) {
+
+			int skipped = in.skipBytes( remaining );
+
+			if ( skipped <= 0 ) {
+				throw new EOFException();
+			}
+
+			remaining -= skipped;
+		}
+	}
+
+	private static String getKey( String name, Class<?>[] parameterTypes ) {
+
+		StringBuilder builder = new StringBuilder( name );
+		builder.append( '(' );
+
+		for ( Class<?> parameterType : parameterTypes ) {
+			appendDescriptor( builder, parameterType );
+		}
+
+		builder.append( ')' );
+		return builder.toString();
+	}
+
+	private static void appendDescriptor( StringBuilder builder, Class<?> clazz ) {
+
+		if ( clazz.isArray() ) {
+			builder.append( clazz.getName().replace( '.', '/' ) );
+		} else if ( clazz.isPrimitive() ) {
+			if ( int.class.equals( clazz ) ) {
+				builder.append( 'I' );
+			} else if ( long.class.equals( clazz ) ) {
+				builder.append( 'J' );
+			} else if ( boolean.class.equals( clazz ) ) {
+				builder.append( 'Z' );
+			} else if ( byte.class.equals( clazz ) ) {
+				builder.append( 'B' );
+			} else if ( char.class.equals( clazz ) ) {
+				builder.append( 'C' );
+			} else if ( short.class.equals( clazz ) ) {
+				builder.append( 'S' );
+			} else if ( float.class.equals( clazz ) ) {
+				builder.append( 'F' );
+			} else if ( double.class.equals( clazz ) ) {
+				builder.append( 'D' );
+			} else {
+				builder.append( 'V' );
+			}
+		} else {
+			builder.append( 'L' ).append( clazz.getName().replace( '.', '/' ) ).append( ';' );
+		}
+	}
+
+	//
+	// Private constructor
+	//
+
+	private LineNumberScanner() {
+
+		// Can never be called
+	}
+}
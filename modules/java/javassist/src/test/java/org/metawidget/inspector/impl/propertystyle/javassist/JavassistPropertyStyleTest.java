@@ -17,12 +17,14 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import javassist.ClassPool;
 import junit.framework.TestCase;
 
 import org.metawidget.inspector.annotation.UiMasked;
 import org.metawidget.inspector.iface.InspectorException;
 import org.metawidget.inspector.impl.propertystyle.Property;
 import org.metawidget.inspector.impl.propertystyle.javabean.JavaBeanPropertyStyleConfig;
+import org.metawidget.util.CollectionUtils;
 
 /**
  * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
@@ -102,6 +104,41 @@ public class JavassistPropertyStyleTest
 		assertFalse( i.hasNext() );
 	}
 
+	public void testScanClassFiles() {
+
+		JavassistPropertyStyle propertyStyle = new JavassistPropertyStyle( new JavassistPropertyStyleConfig().setScanClassFiles( true ).setSupportPublicFields( true ) );
+		Map<String, Property> properties;
+
+		try {
+			properties = propertyStyle.getProperties( Foo.class.getName() );
+		} catch ( InspectorException e ) {
+			assertEquals( "Line number information for org.metawidget.inspector.impl.propertystyle.javassist.JavassistPropertyStyleTest$Foo not available. Did you compile without debug info?", e.getMessage() );
+			return;
+		}
+
+		// Should match Javassist's ordering
+
+		Map<String, Property> javassistProperties = new JavassistPropertyStyle( new JavaBeanPropertyStyleConfig().setSupportPublicFields( true ) ).getProperties( Foo.class.getName() );
+		assertEquals( CollectionUtils.newArrayList( javassistProperties.keySet() ), CollectionUtils.newArrayList( properties.keySet() ) );
+		assertEquals( "superBar", properties.keySet().iterator().next() );
+
+		// Interfaces
+
+		properties = propertyStyle.getProperties( ProxiedByCGLIB$$.class.getName() );
+		assertTrue( properties.get( "interfaceBar" ).isAnnotationPresent( UiMasked.class ) );
+
+		// Private ClassPool
+
+		propertyStyle = new JavassistPropertyStyle( new JavassistPropertyStyleConfig().setClassPool( new ClassPool( true ) ) );
+		assertEquals( "methodSuperFoo", propertyStyle.getProperties( Foo.class.getName() ).keySet().iterator().next() );
+
+		// Config
+
+		assertTrue( new JavassistPropertyStyleConfig().setScanClassFiles( true ).equals( new JavassistPropertyStyleConfig().setScanClassFiles( true ) ) );
+		assertFalse( new JavassistPropertyStyleConfig().setScanClassFiles( true ).equals( new JavassistPropertyStyleConfig() ) );
+		assertEquals( new JavassistPropertyStyleConfig().setScanClassFiles( true ).hashCode(), new JavassistPropertyStyleConfig().setScanClassFiles( true ).hashCode() );
+	}
+
 	public void testInterfaceBasedPropertyStyle() {
 
 		JavassistPropertyStyle propertyStyle = new JavassistPropertyStyle();
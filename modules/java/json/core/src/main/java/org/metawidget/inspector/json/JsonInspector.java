@@ -13,13 +13,19 @@ package org.metawidget.inspector.json;
 
 import static org.metawidget.inspector.InspectionResultConstants.*;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import org.metawidget.inspector.iface.DomInspector;
 import org.metawidget.inspector.iface.InspectorException;
+import org.metawidget.util.ArrayUtils;
+import org.metawidget.util.CollectionUtils;
 import org.metawidget.util.XmlUtils;
+import org.metawidget.util.simple.StringUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
@@ -27,9 +33,14 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 /**
  * Inspector to look for metadata in JSON files.
+ * <p>
+ * By default, the JSON is parsed into an in-memory tree. For large JSON files, consider
+ * <code>JsonInspectorConfig.setIndexed</code>.
  *
  * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
  */
@@ -37,11 +48,24 @@ import com.google.gson.JsonPrimitive;
 public class JsonInspector
 	implements DomInspector<Element> {
 
+	//
+	// Private statics
+	//
+
+	private static final String	ARRAY	= "array";
+
 	//
 	// Private members
 	//
 
-	private JsonObject	mRoot;
+	private JsonObject				mRoot;
+
+	/**
+	 * Index of path (names separated by forward slashes) to properties, where the properties are
+	 * flattened into alternating name and type. Null unless <code>JsonInspectorConfig.setIndexed</code>.
+	 */
+
+	private Map<String, String[]>	mIndex;
 
 	//
 	// Constructor
@@ -55,7 +79,14 @@ public class JsonInspector
 			throw InspectorException.newException( "No JSON input stream specified" );
 		}
 
-		// Parse the JSON
+		// Index the JSON...
+
+		if ( config.isIndexed() ) {
+			mIndex = index( inputStream );
+			return;
+		}
+
+		// ...or parse it
 
 		mRoot = (JsonObject) new JsonParser().parse( new InputStreamReader( inputStream ) );
 	}
@@ -77,20 +108,81 @@ public class JsonInspector
 
 	public Element inspectAsDom( Object toInspect, String type, String... names ) {
 
+		// Indexed?
+
+		if ( mIndex != null ) {
+
+			String[] properties = mIndex.get( ArrayUtils.toString( names, StringUtils.SEPARATOR_FORWARD_SLASH ) );
+
+			if ( properties == null ) {
+				return null;
+			}
+
+			Element entity = newEntity( type );
+
+			for ( int loop = 0, length = properties.length; loop < length; loop += 2 ) {
+				entity.appendChild( newProperty( entity.getOwnerDocument(), properties[loop], properties[loop + 1] ) );
+			}
+
+			return (Element) entity.getParentNode();
+		}
+
 		JsonObject root = getRoot();
 
 		// Traverse names
 
-		for( String name : names ) {
+		for ( String name : names ) {
 
-			if ( !root.has( name )) {
+			if ( !root.has( name ) ) {
 				return null;
 			}
 
 			root = root.getAsJsonObject( name );
 		}
 
-		// Start the DOM
+		// Write all JSON values into the DOM
+
+		Element entity = newEntity( type );
+
+		for ( Map.Entry<String, JsonElement> entry : root.entrySet() ) {
+
+			entity.appendChild( newProperty( entity.getOwnerDocument(), entry.getKey(), getType( entry.getValue() ) ) );
+		}
+
+		// Return the DOM
+
+		return (Element) entity.getParentNode();
+	}
+
+	//
+	// Protected methods
+	//
+
+	/**
+	 * @throws InspectorException
+	 *             if <code>JsonInspectorConfig.setIndexed</code>, as the tree is never materialised
+	 */
+
+	protected JsonObject getRoot() {
+
+		if ( mRoot == null ) {
+			throw InspectorException.newException( "JSON was indexed, not parsed into a tree" );
+		}
+
+		return mRoot;
+	}
+
+	//
+	// Private methods
+	//
+
+	/**
+	 * Starts a new DOM.
+	 *
+	 * @return the entity Element, a child of the root Element
+	 */
+
+	private Element newEntity( String type ) {
 
 		Document document = XmlUtils.newDocument();
 		Element documentRoot = document.createElementNS( NAMESPACE, ROOT );
@@ -100,50 +192,118 @@ public class JsonInspector
 		entity.setAttribute( TYPE, type );
 		documentRoot.appendChild( entity );
 
-		// Write all JSON values into it
+		return entity;
+	}
 
-		for ( Map.Entry<String, JsonElement> entry : root.entrySet() ) {
+	private Element newProperty( Document document, String name, String type ) {
 
-			JsonElement element = entry.getValue();
+		Element property = document.createElementNS( NAMESPACE, PROPERTY );
+		property.setAttribute( NAME, name );
+		property.setAttribute( TYPE, type );
 
-			// Write the name
+		return property;
+	}
 
-			Element child = document.createElementNS( NAMESPACE, PROPERTY );
-			child.setAttribute( NAME, entry.getKey() );
+	private String getType( JsonElement element ) {
 
-			// Write the type
+		if ( element.isJsonPrimitive() ) {
 
-			if ( element.isJsonPrimitive() ) {
+			JsonPrimitive primitive = (JsonPrimitive) element;
 
-				JsonPrimitive primitive = (JsonPrimitive) element;
+			if ( primitive.isNumber() ) {
+				return int.class.getName();
+			}
 
-				if ( primitive.isNumber() ) {
-					child.setAttribute( TYPE, int.class.getName() );
-				} else if ( primitive.isBoolean() ) {
-					child.setAttribute( TYPE, boolean.class.getName() );
-				} else {
-					child.setAttribute( TYPE, String.class.getName() );
-				}
-			} else if ( element.isJsonArray() ) {
-				child.setAttribute( TYPE, "array" );
-			} else {
-				child.setAttribute( TYPE, Object.class.getName() );
+			if ( primitive.isBoolean() ) {
+				return boolean.class.getName();
 			}
 
-			entity.appendChild( child );
+			return String.class.getName();
 		}
 
-		// Return the DOM
+		if ( element.isJsonArray() ) {
+			return ARRAY;
+		}
 
-		return documentRoot;
+		return Object.class.getName();
 	}
 
-	//
-	// Protected methods
-	//
+	/**
+	 * Streams the given JSON into an index, without materialising a tree of
+	 * <code>JsonElements</code>.
+	 */
 
-	protected JsonObject getRoot() {
+	private Map<String, String[]> index( InputStream inputStream ) {
 
-		return mRoot;
+		Map<String, String[]> index = CollectionUtils.newHashMap();
+		JsonReader reader = new JsonReader( new InputStreamReader( inputStream ) );
+
+		try {
+			if ( reader.peek() != JsonToken.BEGIN_OBJECT ) {
+				throw InspectorException.newException( "JSON input stream does not start with an object" );
+			}
+
+			List<String> names = CollectionUtils.newArrayList();
+			index( reader, names, index );
+		} catch ( IOException e ) {
+			throw InspectorException.newException( e );
+		}
+
+		return Collections.unmodifiableMap( index );
+	}
+
+	/**
+	 * Indexes the object at the reader's current position, recursing into child objects.
+	 */
+
+	private void index( JsonReader reader, List<String> names, Map<String, String[]> index )
+		throws IOException {
+
+		List<String> properties = CollectionUtils.newArrayList();
+		reader.beginObject();
+
+		while ( reader.hasNext() ) {
+
+			String name = reader.nextName();
+			properties.add( name );
+
+			switch ( reader.peek() ) {
+
+				case BEGIN_OBJECT:
+					properties.add( Object.class.getName() );
+					names.add( name );
+					index( reader, names, index );
+					names.remove( names.size() - 1 );
+					break;
+
+				case BEGIN_ARRAY:
+					properties.add( ARRAY );
+					reader.skipValue();
+					break;
+
+				case NUMBER:
+					properties.add( int.class.getName() );
+					reader.skipValue();
+					break;
+
+				case BOOLEAN:
+					properties.add( boolean.class.getName() );
+					reader.skipValue();
+					break;
+
+				case STRING:
+					properties.add( String.class.getName() );
+					reader.skipValue();
+					break;
+
+				default:
+					properties.add( Object.class.getName() );
+					reader.skipValue();
+					break;
+			}
+		}
+
+		reader.endObject();
+		index.put( ArrayUtils.toString( names.toArray(), StringUtils.SEPARATOR_FORWARD_SLASH ), properties.toArray( new String[properties.size()] ) );
 	}
 }
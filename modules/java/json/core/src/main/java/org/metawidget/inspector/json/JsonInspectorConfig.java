@@ -29,6 +29,8 @@ public class JsonInspectorConfig {
 
 	private InputStream	mInputStream;
 
+	private boolean		mIndexed;
+
 	//
 	// Public methods
 	//
@@ -48,6 +50,28 @@ public class JsonInspectorConfig {
 		return this;
 	}
 
+	/**
+	 * Sets whether to parse the JSON into a compact, immutable index rather than an in-memory tree.
+	 * <p>
+	 * By default, <code>JsonInspector</code> parses the JSON into a tree of
+	 * <code>JsonElements</code> and walks it on every inspection. For large JSON files this costs
+	 * considerable heap. If indexed, the JSON is instead streamed once and every object is
+	 * reduced to a list of property names and (pre-classified) types, keyed by its path. The tree
+	 * is never materialised. Note subclasses that rely on <code>getRoot</code> cannot use this
+	 * mode.
+	 *
+	 * @return this, as part of a fluent interface
+	 */
+
+	public JsonInspectorConfig setIndexed( boolean indexed ) {
+
+		mIndexed = indexed;
+
+		// Fluent interface
+
+		return this;
+	}
+
 	@Override
 	public boolean equals( Object that ) {
 
@@ -63,6 +87,10 @@ public class JsonInspectorConfig {
 			return false;
 		}
 
+		if ( !ObjectUtils.nullSafeEquals( mIndexed, ( (JsonInspectorConfig) that ).mIndexed ) ) {
+			return false;
+		}
+
 		return true;
 	}
 
@@ -71,6 +99,7 @@ public class JsonInspectorConfig {
 
 		int hashCode = 1;
 		hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode( mInputStream );
+		hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode( mIndexed );
 
 		return hashCode;
 	}
@@ -83,4 +112,9 @@ public class JsonInspectorConfig {
 
 		return mInputStream;
 	}
+
+	protected boolean isIndexed() {
+
+		return mIndexed;
+	}
 }
@@ -135,6 +135,41 @@ public class JsonInspectorTest
 		assertEquals( null, XmlUtils.documentFromString( inspector.inspect( null, "fooObject", "badPath" ) ) );
 	}
 
+	public void testIndexed() {
+
+		String json = "{ \"foo\": \"Foo\", \"bar\": 42, \"baz\": true, \"abc\": [ 1, { \"ignored\": 2 }, 3 ], \"nul\": null, \"def\": { \"one\": 1, \"two\": { \"three\": \"3\" } }}";
+		JsonInspector parsed = new JsonInspector( new JsonInspectorConfig().setInputStream( new ByteArrayInputStream( json.getBytes() ) ) );
+		JsonInspector indexed = new JsonInspector( new JsonInspectorConfig().setInputStream( new ByteArrayInputStream( json.getBytes() ) ).setIndexed( true ) );
+
+		// Should give identical results to parsing
+
+		assertEquals( parsed.inspect( null, "fooObject" ), indexed.inspect( null, "fooObject" ) );
+		assertEquals( parsed.inspect( null, "fooObject", "def" ), indexed.inspect( null, "fooObject", "def" ) );
+		assertEquals( parsed.inspect( null, "fooObject", "def", "two" ), indexed.inspect( null, "fooObject", "def", "two" ) );
+		assertTrue( indexed.inspect( null, "fooObject", "def", "two" ).contains( "name=\"three\" type=\"java.lang.String\"" ) );
+		assertEquals( null, indexed.inspect( null, "fooObject", "badPath" ) );
+		assertEquals( null, indexed.inspect( null, "fooObject", "def", "one" ) );
+		assertEquals( null, indexed.inspect( null, "fooObject", "abc" ) );
+
+		// Tree is never materialised
+
+		try {
+			indexed.getRoot();
+			fail();
+		} catch ( InspectorException e ) {
+			assertEquals( "JSON was indexed, not parsed into a tree", e.getMessage() );
+		}
+
+		// Must be an object
+
+		try {
+			new JsonInspector( new JsonInspectorConfig().setInputStream( new ByteArrayInputStream( "[ 1, 2 ]".getBytes() ) ).setIndexed( true ) );
+			fail();
+		} catch ( InspectorException e ) {
+			assertEquals( "JSON input stream does not start with an object", e.getMessage() );
+		}
+	}
+
 	public void testConfig() {
 
 		MetawidgetTestUtils.testEqualsAndHashcode( JsonInspectorConfig.class, new JsonInspectorConfig() {
@@ -0,0 +1,569 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+
+package org.metawidget.servlet.json.schema;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.metawidget.config.impl.BaseConfigReader;
+import org.metawidget.config.impl.ServletResourceResolver;
+import org.metawidget.inspectionresultprocessor.iface.InspectionResultProcessor;
+import org.metawidget.inspector.iface.Inspector;
+import org.metawidget.pipeline.w3c.W3CPipeline;
+import org.metawidget.util.ClassUtils;
+import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.XmlUtils;
+import org.metawidget.util.simple.PathUtils;
+import org.metawidget.util.simple.PathUtils.TypeAndNames;
+import org.w3c.dom.Element;
+
+/**
+ * Servlet for serving inspection results as JSON Schema, for consumption by the JavaScript
+ * versions of Metawidget (eg. via <code>metawidget.inspector.JsonSchemaInspector</code>).
+ * <p>
+ * Requests can be for a single type path (<code>/schema/com.myapp.Person</code> returns the JSON
+ * Schema of <code>com.myapp.Person</code>, and <code>/schema/com.myapp.Person/address</code> that
+ * of its <code>address</code> property) or for a batch of type paths
+ * (<code>/schema?path=com.myapp.Person&amp;path=com.myapp.Address</code> returns a JSON object
+ * of schemas keyed by path, with <code>null</code> for any path that could not be inspected).
+ * <p>
+ * All requests share a single, configured Inspector and list of InspectionResultProcessors. As no
+ * object is inspected (only types) the results depend only on that configuration, so each JSON
+ * Schema is written once (directly from the DOM, without an intermediate XML String) and cached.
+ * Responses carry an <code>ETag</code> so that clients can revalidate with
+ * <code>If-None-Match</code> and receive a <code>304 Not Modified</code>, and are gzipped for
+ * clients that accept it.
+ * <p>
+ * This servlet recognizes the following &lt;init-param&gt;'s:
+ * <ul>
+ * <li><code>config</code> - fully qualified path to (optional) <code>metawidget.xml</code>, for
+ * example <code>com/foo/metawidget.xml</code>.
+ * </ul>
+ *
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public class JsonSchemaServlet
+	extends HttpServlet {
+
+	//
+	// Public statics
+	//
+
+	/**
+	 * Maximum number of paths whose schemas are cached. Paths beyond this are inspected each time
+	 * rather than cached. Paths that cannot be inspected are never cached, so a client probing many
+	 * nonexistent types cannot fill the cache.
+	 */
+
+	public static final int						MAXIMUM_CACHED_SCHEMAS	= 1000;
+
+	/**
+	 * Request parameter for a batch of type paths.
+	 */
+
+	public static final String					PATH_PARAMETER			= "path";
+
+	//
+	// Private statics
+	//
+
+	private static final long					serialVersionUID		= 1l;
+
+	private static final String					CONTENT_TYPE			= "application/json";
+
+	private static final String					CHARSET					= "UTF-8";
+
+	private static final String					GZIP					= "gzip";
+
+	//
+	// Private members
+	//
+
+	private transient JsonSchemaServletPipeline	mPipeline;
+
+	private transient ConcurrentMap<String, CachedSchema>	mSchemas;
+
+	//
+	// Constructor
+	//
+
+	public JsonSchemaServlet() {
+
+		mPipeline = newPipeline();
+		mSchemas = new ConcurrentHashMap<String, CachedSchema>();
+	}
+
+	//
+	// Public methods
+	//
+
+	@Override
+	public void init( ServletConfig servletConfig )
+		throws ServletException {
+
+		super.init( servletConfig );
+
+		mPipeline.setConfigReader( new BaseConfigReader( new ServletResourceResolver( getServletContext() ) ) );
+
+		// Locate metawidget.xml (if one specified)
+
+		String config = getConfigInitParameter();
+
+		if ( config != null ) {
+			mPipeline.setConfig( config );
+		}
+
+		// Configure up front, so that concurrent requests share one configured pipeline
+
+		mPipeline.configureOnce();
+	}
+
+	public void setInspector( Inspector inspector ) {
+
+		mPipeline.setInspector( inspector );
+	}
+
+	public void setInspectionResultProcessors( InspectionResultProcessor<JsonSchemaServlet>... inspectionResultProcessors ) {
+
+		mPipeline.setInspectionResultProcessors( inspectionResultProcessors );
+	}
+
+	//
+	// Protected methods
+	//
+
+	@Override
+	protected void doGet( HttpServletRequest request, HttpServletResponse response )
+		throws IOException {
+
+		String[] paths = request.getParameterValues( PATH_PARAMETER );
+
+		if ( paths != null && paths.length > 0 ) {
+			writeSchemas( request, response, paths );
+			return;
+		}
+
+		String pathInfo = request.getPathInfo();
+
+		if ( pathInfo != null && pathInfo.length() > 1 ) {
+			writeSchema( request, response, pathInfo.substring( 1 ) );
+			return;
+		}
+
+		response.sendError( HttpServletResponse.SC_BAD_REQUEST, "No type path specified" );
+	}
+
+	/**
+	 * Instantiate the Pipeline used by this servlet.
+	 * <p>
+	 * Subclasses wishing to use their own Pipeline should override this method to instantiate their
+	 * version.
+	 */
+
+	protected JsonSchemaServletPipeline newPipeline() {
+
+		return new JsonSchemaServletPipeline();
+	}
+
+	/**
+	 * Refactored to support unit tests.
+	 */
+
+	protected String getConfigInitParameter() {
+
+		return getServletConfig().getInitParameter( "config" );
+	}
+
+	/**
+	 * Gets the (cached) schema for the given type path, inspecting (and caching) it if necessary.
+	 * <p>
+	 * Paths that cannot be inspected are not cached, because they are supplied by the client.
+	 */
+
+	protected CachedSchema getSchema( String path )
+		throws IOException {
+
+		CachedSchema schema = mSchemas.get( path );
+
+		if ( schema == null ) {
+
+			TypeAndNames typeAndNames = PathUtils.parsePath( path );
+			schema = new CachedSchema( mPipeline.inspectAsDom( null, typeAndNames.getType(), typeAndNames.getNamesAsArray() ) );
+
+			if ( schema.getJson() != null && mSchemas.size() < MAXIMUM_CACHED_SCHEMAS ) {
+				CachedSchema existingSchema = mSchemas.putIfAbsent( path, schema );
+
+				if ( existingSchema != null ) {
+					schema = existingSchema;
+				}
+			}
+		}
+
+		return schema;
+	}
+
+	//
+	// Private methods
+	//
+
+	private void writeSchema( HttpServletRequest request, HttpServletResponse response, String path )
+		throws IOException {
+
+		CachedSchema schema = getSchema( path );
+
+		if ( schema.getJson() == null ) {
+			response.sendError( HttpServletResponse.SC_NOT_FOUND, "No such type path" );
+			return;
+		}
+
+		if ( isNotModified( request, response, schema.getETag() ) ) {
+			return;
+		}
+
+		// (write the cached, precompressed bytes as-is)
+
+		byte[] bytes;
+
+		if ( isGzipAccepted( request ) ) {
+			response.setHeader( "Content-Encoding", GZIP );
+			bytes = schema.getGzip();
+		} else {
+			bytes = schema.getJson();
+		}
+
+		response.setContentLength( bytes.length );
+		response.getOutputStream().write( bytes );
+	}
+
+	private void writeSchemas( HttpServletRequest request, HttpServletResponse response, String... paths )
+		throws IOException {
+
+		// Look up each (distinct) path, and combine their ETags
+
+		Map<String, CachedSchema> schemas = CollectionUtils.newLinkedHashMap();
+		MessageDigest digest = newMessageDigest();
+
+		for ( String path : paths ) {
+
+			if ( schemas.containsKey( path ) ) {
+				continue;
+			}
+
+			CachedSchema schema = getSchema( path );
+			schemas.put( path, schema );
+
+			digest.update( path.getBytes( CHARSET ) );
+			digest.update( (byte) 0 );
+
+			if ( schema.getETag() != null ) {
+				digest.update( schema.getETag().getBytes( CHARSET ) );
+			}
+
+			digest.update( (byte) 0 );
+		}
+
+		if ( isNotModified( request, response, toETag( digest.digest() ) ) ) {
+			return;
+		}
+
+		// Stream each cached schema, without assembling the whole response
+
+		OutputStream out = response.getOutputStream();
+
+		if ( isGzipAccepted( request ) ) {
+			response.setHeader( "Content-Encoding", GZIP );
+			out = new GZIPOutputStream( out );
+		}
+
+		out.write( '{' );
+		boolean first = true;
+
+		for ( Map.Entry<String, CachedSchema> entry : schemas.entrySet() ) {
+
+			if ( !first ) {
+				out.write( ',' );
+			}
+
+			first = false;
+
+			writeJsonString( out, entry.getKey() );
+			out.write( ':' );
+
+			byte[] json = entry.getValue().getJson();
+
+			if ( json == null ) {
+				out.write( "null".getBytes( CHARSET ) );
+			} else {
+				out.write( json );
+			}
+		}
+
+		out.write( '}' );
+
+		if ( out instanceof GZIPOutputStream ) {
+			( (GZIPOutputStream) out ).finish();
+		}
+	}
+
+	/**
+	 * Sets the headers common to all successful responses and, if the client already has the given
+	 * ETag, sends a <code>304 Not Modified</code>.
+	 *
+	 * @return true if the response has been sent
+	 */
+
+	private boolean isNotModified( HttpServletRequest request, HttpServletResponse response, String eTag ) {
+
+		response.setHeader( "ETag", eTag );
+		response.setHeader( "Vary", "Accept-Encoding" );
+
+		// (always revalidate, as the schema changes whenever the application is redeployed)
+
+		response.setHeader( "Cache-Control", "no-cache" );
+
+		String ifNoneMatch = request.getHeader( "If-None-Match" );
+
+		if ( ifNoneMatch != null ) {
+
+			for ( String match : ifNoneMatch.split( "," ) ) {
+
+				match = match.trim();
+
+				if ( eTag.equals( match ) || "*".equals( match ) ) {
+					response.setStatus( HttpServletResponse.SC_NOT_MODIFIED );
+					return true;
+				}
+			}
+		}
+
+		response.setContentType( CONTENT_TYPE );
+		response.setCharacterEncoding( CHARSET );
+
+		return false;
+	}
+
+	private boolean isGzipAccepted( HttpServletRequest request ) {
+
+		String acceptEncoding = request.getHeader( "Accept-Encoding" );
+
+		return ( acceptEncoding != null && acceptEncoding.contains( GZIP ) );
+	}
+
+	/**
+	 * Writes the given String as a JSON string, escaping quotes, backslashes and control
+	 * characters (paths are supplied by the client, so cannot be trusted).
+	 */
+
+	private static void writeJsonString( OutputStream out, String value )
+		throws IOException {
+
+		StringBuilder builder = new StringBuilder( value.length() + 2 );
+		builder.append( '\"' );
+
+		for ( int loop = 0, length = value.length(); loop < length; loop++ ) {
+
+			char c = value.charAt( loop );
+
+			if ( c == '\"' || c == '\\' ) {
+				builder.append( '\\' );
+				builder.append( c );
+			} else if ( c < ' ' ) {
+				builder.append( String.format( "\\u%04x", (int) c ) );
+			} else {
+				builder.append( c );
+			}
+		}
+
+		builder.append( '\"' );
+		out.write( builder.toString().getBytes( CHARSET ) );
+	}
+
+	private static MessageDigest newMessageDigest() {
+
+		try {
+			return MessageDigest.getInstance( "SHA-1" );
+		} catch ( Exception e ) {
+			throw new RuntimeException( e );
+		}
+	}
+
+	private static String toETag( byte[] digest ) {
+
+		StringBuilder builder = new StringBuilder( digest.length * 2 + 2 );
+		builder.append( '\"' );
+
+		for ( byte b : digest ) {
+			builder.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) );
+			builder.append( Character.forDigit( b & 0xF, 16 ) );
+		}
+
+		builder.append( '\"' );
+
+		return builder.toString();
+	}
+
+	//
+	// Inner class
+	//
+
+	/**
+	 * A JSON Schema, rendered once and cached along with its ETag.
+	 */
+
+	protected static class CachedSchema {
+
+		//
+		// Private members
+		//
+
+		private final byte[]	mJson;
+
+		private final String	mETag;
+
+		/**
+		 * Compressed lazily, as not all clients accept gzip. Compressing twice under contention is
+		 * harmless.
+		 */
+
+		private volatile byte[]	mGzip;
+
+		//
+		// Constructor
+		//
+
+		/**
+		 * @param inspectionResult
+		 *            may be null, if the path could not be inspected
+		 */
+
+		public CachedSchema( Element inspectionResult )
+			throws IOException {
+
+			if ( inspectionResult == null ) {
+				mJson = null;
+				mETag = null;
+				return;
+			}
+
+			// Write straight from the DOM to UTF-8 bytes
+
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			Writer writer = new OutputStreamWriter( bytes, CHARSET );
+			XmlUtils.inspectionResultToJsonSchema( inspectionResult, writer );
+			writer.close();
+
+			if ( bytes.size() == 0 ) {
+				mJson = null;
+				mETag = null;
+				return;
+			}
+
+			mJson = bytes.toByteArray();
+			mETag = toETag( newMessageDigest().digest( mJson ) );
+		}
+
+		//
+		// Public methods
+		//
+
+		/**
+		 * @return the JSON Schema as UTF-8 bytes, or null if the path could not be inspected
+		 */
+
+		public byte[] getJson() {
+
+			return mJson;
+		}
+
+		/**
+		 * @return the (quoted) ETag, or null if the path could not be inspected
+		 */
+
+		public String getETag() {
+
+			return mETag;
+		}
+
+		public byte[] getGzip()
+			throws IOException {
+
+			if ( mGzip == null ) {
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				GZIPOutputStream gzip = new GZIPOutputStream( bytes );
+				gzip.write( mJson );
+				gzip.close();
+
+				mGzip = bytes.toByteArray();
+			}
+
+			return mGzip;
+		}
+	}
+
+	/**
+	 * Use the Pipeline for its Inspector/InspectionResultProcessor support.
+	 */
+
+	protected class JsonSchemaServletPipeline
+		extends W3CPipeline<Object, Object, JsonSchemaServlet> {
+
+		//
+		// Protected methods
+		//
+
+		@Override
+		protected String getDefaultConfiguration() {
+
+			return ClassUtils.getPackagesAsFolderNames( JsonSchemaServlet.class ) + "/metawidget-jsonschema-servlet-default.xml";
+		}
+
+		@Override
+		protected JsonSchemaServlet getPipelineOwner() {
+
+			// For passing to processInspectionResult
+
+			return JsonSchemaServlet.this;
+		}
+
+		//
+		// Unsupported protected methods (these are for client-side)
+		//
+
+		@Override
+		protected Map<String, String> getAdditionalAttributes( Object stub ) {
+
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected JsonSchemaServlet buildNestedMetawidget( Map<String, String> attributes )
+			throws Exception {
+
+			throw new UnsupportedOperationException();
+		}
+	}
+}
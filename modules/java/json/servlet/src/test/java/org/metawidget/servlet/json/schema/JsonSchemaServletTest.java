@@ -0,0 +1,357 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+
+package org.metawidget.servlet.json.schema;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import junit.framework.TestCase;
+
+import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.IOUtils;
+
+/**
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public class JsonSchemaServletTest
+	extends TestCase {
+
+	//
+	// Private statics
+	//
+
+	private static final String	PERSON	= "org.metawidget.servlet.json.schema.JsonSchemaServletTest$Person";
+
+	private static final String	ADDRESS	= "org.metawidget.servlet.json.schema.JsonSchemaServletTest$Address";
+
+	//
+	// Private members
+	//
+
+	private JsonSchemaServlet	mServlet;
+
+	//
+	// Public methods
+	//
+
+	public void testSchema()
+		throws Exception {
+
+		MockResponse response = get( "/" + PERSON, null, null );
+		assertEquals( HttpServletResponse.SC_OK, response.getStatus() );
+		assertEquals( "application/json", response.getHeaders().get( "Content-Type" ) );
+		assertEquals( "{\"properties\":{\"age\":{\"noSetter\":\"true\",\"propertyOrder\":0,\"type\":\"number\"},\"name\":{\"noSetter\":\"true\",\"propertyOrder\":1,\"type\":\"string\"},\"nicknames\":{\"noSetter\":\"true\",\"propertyOrder\":2,\"type\":\"array\"}}}", response.getBody() );
+
+		// Not found
+
+		response = get( "/" + PERSON + "/noSuchProperty", null, null );
+		assertEquals( HttpServletResponse.SC_NOT_FOUND, response.getStatus() );
+		response = get( null, null, null );
+		assertEquals( HttpServletResponse.SC_BAD_REQUEST, response.getStatus() );
+
+		// Cached
+
+		assertTrue( mServlet.getSchema( PERSON ) == mServlet.getSchema( PERSON ) );
+
+		// Misses should not be cached (so cannot fill the cache)
+
+		assertTrue( mServlet.getSchema( PERSON + "/noSuchProperty" ) != mServlet.getSchema( PERSON + "/noSuchProperty" ) );
+
+		for ( int loop = 0; loop < JsonSchemaServlet.MAXIMUM_CACHED_SCHEMAS; loop++ ) {
+			mServlet.getSchema( PERSON + "/noSuchProperty" + loop );
+		}
+
+		assertTrue( mServlet.getSchema( ADDRESS ) == mServlet.getSchema( ADDRESS ) );
+	}
+
+	public void testETag()
+		throws Exception {
+
+		MockResponse response = get( "/" + PERSON, null, null );
+		String eTag = response.getHeaders().get( "ETag" );
+		assertTrue( eTag.startsWith( "\"" ) );
+		assertTrue( eTag.endsWith( "\"" ) );
+		assertEquals( "no-cache", response.getHeaders().get( "Cache-Control" ) );
+
+		// Same ETag for same schema, different for different schema
+
+		assertEquals( eTag, get( "/" + PERSON, null, null ).getHeaders().get( "ETag" ) );
+		assertFalse( eTag.equals( get( "/" + ADDRESS, null, null ).getHeaders().get( "ETag" ) ) );
+
+		// Not modified
+
+		response = get( "/" + PERSON, null, newHeaders( "If-None-Match", "\"foo\", " + eTag ) );
+		assertEquals( HttpServletResponse.SC_NOT_MODIFIED, response.getStatus() );
+		assertEquals( "", response.getBody() );
+
+		// Modified
+
+		response = get( "/" + PERSON, null, newHeaders( "If-None-Match", "\"foo\"" ) );
+		assertEquals( HttpServletResponse.SC_OK, response.getStatus() );
+		assertTrue( response.getBody().length() > 0 );
+	}
+
+	public void testBatch()
+		throws Exception {
+
+		String person = get( "/" + PERSON, null, null ).getBody();
+		String address = get( "/" + ADDRESS, null, null ).getBody();
+
+		// Duplicates should be ignored, and paths that cannot be inspected be null
+
+		MockResponse response = get( null, new String[] { PERSON, ADDRESS, PERSON + "/noSuchProperty", PERSON }, null );
+		assertEquals( HttpServletResponse.SC_OK, response.getStatus() );
+		assertEquals( "{\"" + PERSON + "\":" + person + ",\"" + ADDRESS + "\":" + address + ",\"" + PERSON + "/noSuchProperty\":null}", response.getBody() );
+
+		// Paths should be escaped
+
+		response = get( null, new String[] { PERSON + "/\"noSuchProperty\\" }, null );
+		assertEquals( "{\"" + PERSON + "/\\\"noSuchProperty\\\\\":null}", response.getBody() );
+
+		// ETag of batch
+
+		String eTag = get( null, new String[] { PERSON, ADDRESS }, null ).getHeaders().get( "ETag" );
+		assertFalse( eTag.equals( get( null, new String[] { ADDRESS, PERSON }, null ).getHeaders().get( "ETag" ) ) );
+
+		response = get( null, new String[] { PERSON, ADDRESS }, newHeaders( "If-None-Match", eTag ) );
+		assertEquals( HttpServletResponse.SC_NOT_MODIFIED, response.getStatus() );
+	}
+
+	public void testGzip()
+		throws Exception {
+
+		Map<String, String> gzip = newHeaders( "Accept-Encoding", "gzip, deflate" );
+
+		// Single
+
+		String person = get( "/" + PERSON, null, null ).getBody();
+		MockResponse response = get( "/" + PERSON, null, gzip );
+		assertEquals( "gzip", response.getHeaders().get( "Content-Encoding" ) );
+		assertEquals( "Accept-Encoding", response.getHeaders().get( "Vary" ) );
+		assertEquals( person, response.getGunzippedBody() );
+
+		// Batch
+
+		String batch = get( null, new String[] { PERSON, ADDRESS }, null ).getBody();
+		response = get( null, new String[] { PERSON, ADDRESS }, gzip );
+		assertEquals( "gzip", response.getHeaders().get( "Content-Encoding" ) );
+		assertEquals( batch, response.getGunzippedBody() );
+	}
+
+	//
+	// Protected methods
+	//
+
+	@Override
+	protected void setUp()
+		throws Exception {
+
+		mServlet = new JsonSchemaServlet() {
+
+			@Override
+			protected String getConfigInitParameter() {
+
+				return null;
+			}
+		};
+
+		mServlet.init( newProxy( ServletConfig.class, new InvocationHandler() {
+
+			public Object invoke( Object proxy, Method method, Object[] args ) {
+
+				if ( "getServletContext".equals( method.getName() ) ) {
+					return newProxy( ServletContext.class, null );
+				}
+
+				return null;
+			}
+		} ) );
+	}
+
+	//
+	// Private methods
+	//
+
+	private MockResponse get( final String pathInfo, final String[] paths, final Map<String, String> headers )
+		throws Exception {
+
+		HttpServletRequest request = newProxy( HttpServletRequest.class, new InvocationHandler() {
+
+			public Object invoke( Object proxy, Method method, Object[] args ) {
+
+				String methodName = method.getName();
+
+				if ( "getMethod".equals( methodName ) ) {
+					return "GET";
+				}
+
+				if ( "getPathInfo".equals( methodName ) ) {
+					return pathInfo;
+				}
+
+				if ( "getParameterValues".equals( methodName ) && JsonSchemaServlet.PATH_PARAMETER.equals( args[0] ) ) {
+					return paths;
+				}
+
+				if ( "getHeader".equals( methodName ) && headers != null ) {
+					return headers.get( args[0] );
+				}
+
+				if ( "getDateHeader".equals( methodName ) ) {
+					return -1l;
+				}
+
+				return null;
+			}
+		} );
+
+		MockResponse mockResponse = new MockResponse();
+		mServlet.service( request, newProxy( HttpServletResponse.class, mockResponse ) );
+
+		return mockResponse;
+	}
+
+	private static Map<String, String> newHeaders( String name, String value ) {
+
+		Map<String, String> headers = CollectionUtils.newHashMap();
+		headers.put( name, value );
+
+		return headers;
+	}
+
+	@SuppressWarnings( "unchecked" )
+	private static <T> T newProxy( Class<T> clazz, InvocationHandler handler ) {
+
+		if ( handler == null ) {
+			return newProxy( clazz, new InvocationHandler() {
+
+				public Object invoke( Object proxy, Method method, Object[] args ) {
+
+					return null;
+				}
+			} );
+		}
+
+		return (T) Proxy.newProxyInstance( JsonSchemaServletTest.class.getClassLoader(), new Class[] { clazz }, handler );
+	}
+
+	//
+	// Inner class
+	//
+
+	public static class Person {
+
+		public int getAge() {
+
+			return 0;
+		}
+
+		public String getName() {
+
+			return null;
+		}
+
+		public String[] getNicknames() {
+
+			return null;
+		}
+	}
+
+	public static class Address {
+
+		public String getStreet() {
+
+			return null;
+		}
+	}
+
+	/**
+	 * Records the status, headers and body of an HttpServletResponse.
+	 */
+
+	private static class MockResponse
+		implements InvocationHandler {
+
+		//
+		// Private members
+		//
+
+		private int							mStatus		= HttpServletResponse.SC_OK;
+
+		private Map<String, String>			mHeaders	= CollectionUtils.newHashMap();
+
+		private final ByteArrayOutputStream	mBody		= new ByteArrayOutputStream();
+
+		//
+		// Public methods
+		//
+
+		public Object invoke( Object proxy, Method method, Object[] args ) {
+
+			String methodName = method.getName();
+
+			if ( "setHeader".equals( methodName ) ) {
+				mHeaders.put( (String) args[0], (String) args[1] );
+			} else if ( "setContentType".equals( methodName ) ) {
+				mHeaders.put( "Content-Type", (String) args[0] );
+			} else if ( "setStatus".equals( methodName ) || "sendError".equals( methodName ) ) {
+				mStatus = (Integer) args[0];
+			} else if ( "getOutputStream".equals( methodName ) ) {
+				return new ServletOutputStream() {
+
+					@Override
+					public void write( int b ) {
+
+						mBody.write( b );
+					}
+				};
+			}
+
+			return null;
+		}
+
+		public int getStatus() {
+
+			return mStatus;
+		}
+
+		public Map<String, String> getHeaders() {
+
+			return mHeaders;
+		}
+
+		public String getBody()
+			throws IOException {
+
+			return mBody.toString( "UTF-8" );
+		}
+
+		public String getGunzippedBody()
+			throws IOException {
+
+			return new String( IOUtils.streamToBytes( new GZIPInputStream( new ByteArrayInputStream( mBody.toByteArray() ) ) ), "UTF-8" );
+		}
+	}
+}
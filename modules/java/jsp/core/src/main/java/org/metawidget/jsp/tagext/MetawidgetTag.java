@@ -15,7 +15,6 @@ import static org.metawidget.inspector.InspectionResultConstants.*;
 
 import java.io.FileNotFoundException;
 import java.util.Map;
-import java.util.MissingResourceException;
 import java.util.ResourceBundle;
 
 import javax.servlet.ServletContext;
@@ -32,8 +31,11 @@ import org.metawidget.iface.MetawidgetException;
 import org.metawidget.inspectionresultprocessor.iface.InspectionResultProcessor;
 import org.metawidget.inspector.iface.Inspector;
 import org.metawidget.layout.iface.Layout;
+import org.metawidget.pipeline.metrics.iface.PipelineMetrics;
 import org.metawidget.pipeline.w3c.W3CPipeline;
 import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.ColumnModel;
+import org.metawidget.util.I18nUtils;
 import org.metawidget.util.LogUtils;
 import org.metawidget.util.XmlUtils;
 import org.metawidget.util.simple.PathUtils;
@@ -200,7 +202,7 @@ public abstract class MetawidgetTag
 
 			// (localize if possible)
 
-			String localized = getLocalizedKey( StringUtils.camelCase( label ) );
+			String localized = getLocalizedKey( I18nUtils.camelCase( label ) );
 
 			if ( localized != null ) {
 				return localized.trim();
@@ -222,7 +224,7 @@ public abstract class MetawidgetTag
 				return localized.trim();
 			}
 
-			return StringUtils.uncamelCase( name );
+			return I18nUtils.uncamelCase( name );
 		}
 
 		return "";
@@ -238,14 +240,10 @@ public abstract class MetawidgetTag
 			return null;
 		}
 
-		try {
-			String localizedKey = mBundle.getString( key );
+		String localizedKey = I18nUtils.getString( mBundle, key );
 
-			if ( localizedKey != null ) {
-				return localizedKey;
-			}
-		} catch ( MissingResourceException e ) {
-			// Fall through
+		if ( localizedKey != null ) {
+			return localizedKey;
 		}
 
 		return StringUtils.RESOURCE_KEY_NOT_FOUND_PREFIX + key + StringUtils.RESOURCE_KEY_NOT_FOUND_SUFFIX;
@@ -302,12 +300,39 @@ public abstract class MetawidgetTag
 		return mPipeline.inspect( toInspect, type, names );
 	}
 
+	/**
+	 * Useful for WidgetBuilders that render Collections as tables. Cheaper than
+	 * <code>inspect</code>, as the component type's inspection is cached.
+	 *
+	 * @return the ColumnModel, or null if no Inspectors matched the component type
+	 */
+
+	public ColumnModel getColumnModel( String componentType ) {
+
+		return mPipeline.getColumnModel( componentType );
+	}
+
 	public void setInspectionResultProcessors( InspectionResultProcessor<MetawidgetTag>... inspectionResultProcessors ) {
 
 		mPipeline.setInspectionResultProcessors( inspectionResultProcessors );
 	}
 
 	@SuppressWarnings( { "unchecked", "rawtypes" } )
+	/**
+	 * Sets the PipelineMetrics to record the time taken by each stage of the pipeline. Typically
+	 * configured in <code>metawidget.xml</code>.
+	 */
+
+	public void setPipelineMetrics( PipelineMetrics pipelineMetrics ) {
+
+		mPipeline.setPipelineMetrics( pipelineMetrics );
+	}
+
+	public PipelineMetrics getPipelineMetrics() {
+
+		return mPipeline.getPipelineMetrics();
+	}
+
 	public void setWidgetBuilder( WidgetBuilder<Object, ? extends MetawidgetTag> widgetBuilder ) {
 
 		mPipeline.setWidgetBuilder( (WidgetBuilder) widgetBuilder );
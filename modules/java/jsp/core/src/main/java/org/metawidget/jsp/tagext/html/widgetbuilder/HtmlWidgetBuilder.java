@@ -87,7 +87,7 @@ public class HtmlWidgetBuilder
 		String lookup = attributes.get( LOOKUP );
 
 		if ( lookup != null && !"".equals( lookup ) ) {
-			return createSelectTag( CollectionUtils.fromString( lookup ), CollectionUtils.fromString( attributes.get( LOOKUP_LABELS ) ), attributes, metawidget );
+			return createSelectTag( WidgetBuilderUtils.splitLookup( lookup ), WidgetBuilderUtils.splitLookup( attributes.get( LOOKUP_LABELS ) ), attributes, metawidget );
 		}
 
 		if ( clazz != null ) {
@@ -291,7 +291,9 @@ public class HtmlWidgetBuilder
 			throw WidgetBuilderException.newException( "Labels list must be same size as values list" );
 		}
 
-		StringBuilder builder = new StringBuilder();
+		// (presize, as lookups can be large)
+
+		StringBuilder builder = new StringBuilder( 64 + values.size() * 32 );
 
 		// Start the SELECT tag
 
@@ -14,6 +14,7 @@ package org.metawidget.jsp.tagext.html.widgetbuilder.displaytag;
 import static org.metawidget.inspector.InspectionResultConstants.*;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import javax.servlet.jsp.PageContext;
@@ -24,11 +25,14 @@ import org.displaytag.tags.TableTag;
 import org.metawidget.jsp.JspUtils;
 import org.metawidget.jsp.tagext.MetawidgetTag;
 import org.metawidget.util.ClassUtils;
+import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.ColumnModel;
 import org.metawidget.util.WidgetBuilderUtils;
 import org.metawidget.util.XmlUtils;
 import org.metawidget.util.simple.StringUtils;
 import org.metawidget.widgetbuilder.iface.WidgetBuilder;
 import org.metawidget.widgetbuilder.iface.WidgetBuilderException;
+import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -45,6 +49,26 @@ import org.w3c.dom.NodeList;
 public class DisplayTagWidgetBuilder
 	implements WidgetBuilder<Tag, MetawidgetTag> {
 
+	//
+	// Private members
+	//
+
+	/**
+	 * Whether a subclass overrides the deprecated, <code>NodeList</code>-based
+	 * <code>addColumnTags</code>.
+	 */
+
+	private final boolean	mNodeListColumnTags;
+
+	//
+	// Constructor
+	//
+
+	public DisplayTagWidgetBuilder() {
+
+		mNodeListColumnTags = isNodeListColumnTagsOverridden();
+	}
+
 	//
 	// Public methods
 	//
@@ -91,21 +115,18 @@ public class DisplayTagWidgetBuilder
 			// Inspect component type
 
 			String componentType = WidgetBuilderUtils.getComponentType( attributes );
-			String inspectedType = null;
+			ColumnModel columnModel = null;
 
 			if ( componentType != null ) {
-				inspectedType = metawidgetTag.inspect( null, componentType );
+				columnModel = metawidgetTag.getColumnModel( componentType );
 			}
 
 			// If there is a type...
 
-			if ( componentType != null ) {
+			if ( columnModel != null ) {
 				// ...iterate over it and add columns
 
-				Element root = XmlUtils.documentFromString( inspectedType ).getDocumentElement();
-				NodeList elements = root.getFirstChild().getChildNodes();
-				addColumnTags( tableTag, attributes, elements, metawidgetTag );
-
+				addColumnTags( tableTag, attributes, columnModel.getColumns(), metawidgetTag );
 			}
 
 			// If there is no type, DisplayTag will make a best guess
@@ -120,6 +141,54 @@ public class DisplayTagWidgetBuilder
 	// Protected methods
 	//
 
+	/**
+	 * Adds column tags to the given TableTag.
+	 * <p>
+	 * If a subclass overrides the deprecated, <code>NodeList</code>-based version of this method,
+	 * delegates to that instead.
+	 */
+
+	protected void addColumnTags( TableTag tableTag, Map<String, String> attributes, List<ColumnModel.Column> columns, MetawidgetTag metawidgetTag ) {
+
+		if ( mNodeListColumnTags ) {
+			addColumnTags( tableTag, attributes, toNodeList( columns ), metawidgetTag );
+			return;
+		}
+
+		// For each property...
+
+		int columnsAdded = 0;
+
+		for ( ColumnModel.Column column : columns ) {
+
+			// ...that is visible...
+
+			if ( column.isHidden() ) {
+				continue;
+			}
+
+			// ...add a column...
+
+			if ( addColumnTag( tableTag, attributes, CollectionUtils.newHashMap( column.getAttributes() ), metawidgetTag ) ) {
+				columnsAdded++;
+			}
+
+			// ...up to a sensible maximum
+
+			if ( columnsAdded == 5 ) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Adds column tags to the given TableTag.
+	 *
+	 * @deprecated override <code>addColumnTags( TableTag, Map, List, MetawidgetTag )</code>
+	 *             instead, which does not require walking a <code>NodeList</code>
+	 */
+
+	@Deprecated
 	protected void addColumnTags( TableTag tableTag, Map<String, String> attributes, NodeList elements, MetawidgetTag metawidgetTag ) {
 
 		// For each property...
@@ -176,4 +245,42 @@ public class DisplayTagWidgetBuilder
 		JspUtils.addDeferredChild( tableTag, columnTag );
 		return true;
 	}
+
+	//
+	// Private methods
+	//
+
+	private boolean isNodeListColumnTagsOverridden() {
+
+		for ( Class<?> clazz = getClass(); !DisplayTagWidgetBuilder.class.equals( clazz ); clazz = clazz.getSuperclass() ) {
+
+			try {
+				clazz.getDeclaredMethod( "addColumnTags", TableTag.class, Map.class, NodeList.class, MetawidgetTag.class );
+				return true;
+			} catch ( NoSuchMethodException e ) {
+				// Try superclass
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Converts columns back into a <code>NodeList</code> of <code>property</code> elements, for
+	 * subclasses that override the deprecated <code>addColumnTags</code>.
+	 */
+
+	private NodeList toNodeList( List<ColumnModel.Column> columns ) {
+
+		Document document = XmlUtils.newDocument();
+		Element entity = document.createElementNS( NAMESPACE, ENTITY );
+
+		for ( ColumnModel.Column column : columns ) {
+			Element property = document.createElementNS( NAMESPACE, PROPERTY );
+			XmlUtils.setMapAsAttributes( property, column.getAttributes() );
+			entity.appendChild( property );
+		}
+
+		return entity.getChildNodes();
+	}
 }
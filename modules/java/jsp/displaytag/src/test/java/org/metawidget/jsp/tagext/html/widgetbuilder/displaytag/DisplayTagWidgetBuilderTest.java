@@ -23,9 +23,11 @@ import org.metawidget.jsp.JspUtilsTest.DummyPageContext;
 import org.metawidget.jsp.tagext.MetawidgetTag;
 import org.metawidget.jsp.tagext.html.HtmlMetawidgetTag;
 import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.ColumnModel;
 import org.metawidget.util.XmlUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
 
 /**
  * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
@@ -78,7 +80,7 @@ public class DisplayTagWidgetBuilderTest
 		metawidgetTag.setPageContext( new DummyPageContext() );
 
 		Document document = XmlUtils.documentFromString( "<inspection-result><entity><property name=\"column1\"/><property name=\"column2\"/><property name=\"column3\"/><property name=\"column4\"/><property name=\"column5\"/><property name=\"column6\"/></entity></inspection-result>" );
-		Element entity = (Element) document.getDocumentElement().getFirstChild();
+		ColumnModel columnModel = new ColumnModel( document.getDocumentElement() );
 
 		final List<String> columnsAdded = CollectionUtils.newArrayList();
 
@@ -94,10 +96,59 @@ public class DisplayTagWidgetBuilderTest
 
 		TableTag tableTag = new TableTag();
 		Map<String, String> attributes = CollectionUtils.newHashMap();
-		widgetBuilder.addColumnTags( tableTag, attributes, entity.getChildNodes(), metawidgetTag );
+		widgetBuilder.addColumnTags( tableTag, attributes, columnModel.getColumns(), metawidgetTag );
 		assertEquals( 5, columnsAdded.size() );
 	}
 
+	@SuppressWarnings( "deprecation" )
+	public void testCollectionWithDeprecatedColumnTags()
+		throws Exception {
+
+		HtmlMetawidgetTag metawidgetTag = new HtmlMetawidgetTag();
+		metawidgetTag.setPageContext( new DummyPageContext() );
+
+		Document document = XmlUtils.documentFromString( "<inspection-result><entity><property name=\"column1\"/><property name=\"column2\"/><property name=\"column3\"/><property name=\"column4\"/><property name=\"column5\"/><property name=\"column6\"/></entity></inspection-result>" );
+		Element entity = (Element) document.getDocumentElement().getFirstChild();
+		ColumnModel columnModel = new ColumnModel( document.getDocumentElement() );
+
+		final List<String> events = CollectionUtils.newArrayList();
+
+		DisplayTagWidgetBuilder widgetBuilder = new DisplayTagWidgetBuilder() {
+
+			@Override
+			protected void addColumnTags( TableTag tableTag, Map<String, String> attributes, NodeList elements, MetawidgetTag innerMetawidgetTag ) {
+
+				events.add( "addColumnTags: " + elements.getLength() );
+				super.addColumnTags( tableTag, attributes, elements, innerMetawidgetTag );
+			}
+
+			@Override
+			protected boolean addColumnTag( TableTag tableTag, Map<String, String> tableAttributes, Map<String, String> columnAttributes, MetawidgetTag innerMetawidgetTag ) {
+
+				events.add( innerMetawidgetTag.getLabelString( columnAttributes ) );
+				return true;
+			}
+		};
+
+		// NodeList-based method should still work when called directly...
+
+		TableTag tableTag = new TableTag();
+		Map<String, String> attributes = CollectionUtils.newHashMap();
+		widgetBuilder.addColumnTags( tableTag, attributes, entity.getChildNodes(), metawidgetTag );
+		assertEquals( "addColumnTags: 6", events.get( 0 ) );
+		assertEquals( "Column 1", events.get( 1 ) );
+		assertEquals( "Column 5", events.get( 5 ) );
+		assertEquals( 6, events.size() );
+
+		// ...and subclasses overriding it should still be called
+
+		events.clear();
+		widgetBuilder.addColumnTags( tableTag, attributes, columnModel.getColumns(), metawidgetTag );
+		assertEquals( "addColumnTags: 6", events.get( 0 ) );
+		assertEquals( "Column 1", events.get( 1 ) );
+		assertEquals( 6, events.size() );
+	}
+
 	//
 	// Inner class
 	//
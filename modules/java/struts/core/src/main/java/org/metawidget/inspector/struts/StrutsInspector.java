@@ -17,6 +17,7 @@ import java.io.InputStream;
 import java.util.Map;
 
 import org.metawidget.config.iface.ResourceResolver;
+import org.metawidget.inspector.iface.InspectorException;
 import org.metawidget.inspector.impl.BaseXmlInspector;
 import org.metawidget.util.CollectionUtils;
 import org.metawidget.util.XmlUtils;
@@ -61,8 +62,7 @@ public class StrutsInspector
 		Element root = document.createElement( FORM_BEANS_ELEMENT );
 		document.appendChild( root );
 
-		for ( InputStream file : files ) {
-			Document documentParsed = XmlUtils.parse( file );
+		for ( Document documentParsed : parseDocuments( files ) ) {
 			Element formBeans = XmlUtils.getChildNamed( documentParsed.getDocumentElement(), FORM_BEANS_ELEMENT );
 
 			if ( formBeans == null ) {
@@ -75,6 +75,16 @@ public class StrutsInspector
 		return root;
 	}
 
+	/**
+	 * Lazy parsing is not supported, because <code>getDocumentElement</code> restructures the DOM.
+	 */
+
+	@Override
+	protected void indexDocuments( ResourceResolver resolver, InputStream... files ) {
+
+		throw InspectorException.newException( "StrutsInspector does not support parseLazily" );
+	}
+
 	@Override
 	protected Map<String, String> inspectProperty( Element toInspect ) {
 
@@ -16,10 +16,13 @@ import static org.metawidget.inspector.InspectionResultConstants.*;
 import java.awt.Component;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.swing.JComponent;
 import javax.swing.JScrollPane;
 
+import org.jdesktop.beansbinding.AutoBinding;
 import org.jdesktop.beansbinding.AutoBinding.UpdateStrategy;
 import org.jdesktop.beansbinding.BeanProperty;
 import org.jdesktop.beansbinding.Binding;
@@ -52,6 +55,9 @@ import org.metawidget.widgetprocessor.iface.WidgetProcessorException;
  * there is no need to call <code>BeansBindingProcessor.save</code>.
  * </ul>
  * <p>
+ * For screens that rebind frequently (such as master-detail screens), see
+ * <code>BeansBindingProcessorConfig.setRetargetOnRebind</code>.
+ * <p>
  * Note: <code>BeansBinding</code> does not bind <em>actions</em>, such as invoking a method when a
  * <code>JButton</code> is pressed. For that, see <code>ReflectionBindingProcessor</code> and
  * <code>MetawidgetActionStyle</code> or <code>SwingAppFrameworkActionStyle</code>.
@@ -62,13 +68,34 @@ import org.metawidget.widgetprocessor.iface.WidgetProcessorException;
 public class BeansBindingProcessor
 	implements AdvancedWidgetProcessor<JComponent, SwingMetawidget>, BindingConverter {
 
+	//
+	// Private statics
+	//
+
+	/**
+	 * Maximum number of <code>BeanProperty</code> instances cached when retargeting on rebind.
+	 */
+
+	private static final int								MAXIMUM_CACHED_BEAN_PROPERTIES	= 1000;
+
 	//
 	// Private members
 	//
 
 	private final UpdateStrategy							mUpdateStrategy;
 
-	private final Map<ConvertFromTo<?, ?>, Converter<?, ?>>	mConverters	= CollectionUtils.newHashMap();
+	private final Map<ConvertFromTo<?, ?>, Converter<?, ?>>	mConverters						= CollectionUtils.newHashMap();
+
+	private final boolean									mRetargetOnRebind;
+
+	/**
+	 * <code>BeanProperty</code> instances, keyed by path. A <code>BeanProperty</code> is not tied
+	 * to any particular source class or object, so can be shared between Bindings.
+	 * <p>
+	 * Only used if <code>mRetargetOnRebind</code>.
+	 */
+
+	private final ConcurrentMap<String, BeanProperty<?, ?>>	mBeanProperties;
 
 	//
 	// Constructor
@@ -82,6 +109,13 @@ public class BeansBindingProcessor
 	public BeansBindingProcessor( BeansBindingProcessorConfig config ) {
 
 		mUpdateStrategy = config.getUpdateStrategy();
+		mRetargetOnRebind = config.isRetargetOnRebind();
+
+		if ( mRetargetOnRebind ) {
+			mBeanProperties = new ConcurrentHashMap<String, BeanProperty<?, ?>>();
+		} else {
+			mBeanProperties = null;
+		}
 
 		// Default converters
 
@@ -148,6 +182,9 @@ public class BeansBindingProcessor
 	 * <em>without</em> calling setToInspect, and therefore without reinspecting the object or
 	 * recreating the components. It is the client's responsbility to ensure the rebound object is
 	 * compatible with the original setToInspect.
+	 * <p>
+	 * If configured to <code>setRetargetOnRebind</code>, existing Bindings are simply pointed at
+	 * the new source object. Otherwise, each is passed back through <code>processBinding</code>.
 	 */
 
 	public void rebind( Object toRebind, SwingMetawidget metawidget ) {
@@ -161,6 +198,16 @@ public class BeansBindingProcessor
 			for ( org.jdesktop.beansbinding.Binding<Object, ?, ? extends Component, ?> binding : state.getBindings() ) {
 				binding.unbind();
 				binding.setSourceObject( toRebind );
+
+				// AutoBindings refresh themselves as part of bind(), so retargeting them updates
+				// each widget once (rather than twice) and fires a single round of change
+				// notifications. These coalesce into a single repaint
+
+				if ( mRetargetOnRebind && binding instanceof AutoBinding<?, ?, ?, ?> ) {
+					binding.bind();
+					continue;
+				}
+
 				binding = processBinding( binding, metawidget );
 
 				if ( binding == null ) {
@@ -331,13 +378,13 @@ public class BeansBindingProcessor
 			sourceProperty += attributes.get( NAME );
 		}
 
-		BeanProperty<S, V> propertySource = BeanProperty.create( sourceProperty );
+		BeanProperty<S, V> propertySource = getBeanProperty( sourceProperty );
 
 		Class<W> targetClass;
 
 		// Create binding
 
-		BeanProperty<T, W> propertyTarget = BeanProperty.create( componentProperty );
+		BeanProperty<T, W> propertyTarget = getBeanProperty( componentProperty );
 
 		org.jdesktop.beansbinding.Binding<S, V, T, W> binding = Bindings.createAutoBinding( mUpdateStrategy, source, propertySource, component, propertyTarget );
 		targetClass = (Class<W>) propertyTarget.getWriteType( component );
@@ -430,6 +477,35 @@ public class BeansBindingProcessor
 	// Private methods
 	//
 
+	/**
+	 * Gets a <code>BeanProperty</code> for the given path, reusing a cached instance if
+	 * retargeting on rebind.
+	 */
+
+	@SuppressWarnings( "unchecked" )
+	private <S, V> BeanProperty<S, V> getBeanProperty( String path ) {
+
+		if ( mBeanProperties == null ) {
+			return BeanProperty.create( path );
+		}
+
+		BeanProperty<S, V> beanProperty = (BeanProperty<S, V>) mBeanProperties.get( path );
+
+		if ( beanProperty == null ) {
+			beanProperty = BeanProperty.create( path );
+
+			if ( mBeanProperties.size() < MAXIMUM_CACHED_BEAN_PROPERTIES ) {
+				BeanProperty<S, V> existingBeanProperty = (BeanProperty<S, V>) mBeanProperties.putIfAbsent( path, beanProperty );
+
+				if ( existingBeanProperty != null ) {
+					beanProperty = existingBeanProperty;
+				}
+			}
+		}
+
+		return beanProperty;
+	}
+
 	private <S, T> void registerConverter( Class<S> source, Class<T> target, Converter<S, T> converter ) {
 
 		mConverters.put( new ConvertFromTo<S, T>( source, target ), converter );
@@ -36,6 +36,8 @@ public class BeansBindingProcessorConfig {
 
 	private Map<ConvertFromTo<?, ?>, Converter<?, ?>>	mConverters;
 
+	private boolean										mRetargetOnRebind;
+
 	//
 	// Public methods
 	//
@@ -87,6 +89,27 @@ public class BeansBindingProcessorConfig {
 		return this;
 	}
 
+	/**
+	 * Sets whether <code>BeansBindingProcessor.rebind</code> should simply retarget existing
+	 * Bindings at the new source object.
+	 * <p>
+	 * By default, <code>rebind</code> passes each Binding back through <code>processBinding</code>
+	 * and explicitly refreshes it. When retargeting, Bindings (and their
+	 * <code>BeanProperty</code> instances, which are shared between Bindings of the same path) are
+	 * kept exactly as built, and each widget is updated only once, by the Binding itself. This
+	 * suits master-detail screens that rebind many times a second. Sync failures are then
+	 * reported to the Binding's <code>BindingListener</code>s, rather than thrown.
+	 *
+	 * @return this, as part of a fluent interface
+	 */
+
+	public BeansBindingProcessorConfig setRetargetOnRebind( boolean retargetOnRebind ) {
+
+		mRetargetOnRebind = retargetOnRebind;
+
+		return this;
+	}
+
 	@Override
 	public boolean equals( Object that ) {
 
@@ -106,6 +129,10 @@ public class BeansBindingProcessorConfig {
 			return false;
 		}
 
+		if ( mRetargetOnRebind != ( (BeansBindingProcessorConfig) that ).mRetargetOnRebind ) {
+			return false;
+		}
+
 		return true;
 	}
 
@@ -115,6 +142,7 @@ public class BeansBindingProcessorConfig {
 		int hashCode = 1;
 		hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode( mUpdateStrategy );
 		hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode( mConverters );
+		hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode( mRetargetOnRebind );
 
 		return hashCode;
 	}
@@ -132,4 +160,9 @@ public class BeansBindingProcessorConfig {
 
 		return mConverters;
 	}
+
+	protected boolean isRetargetOnRebind() {
+
+		return mRetargetOnRebind;
+	}
 }
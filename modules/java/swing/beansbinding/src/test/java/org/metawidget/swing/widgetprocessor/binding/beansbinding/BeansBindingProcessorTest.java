@@ -22,6 +22,8 @@ import javax.swing.JLabel;
 import javax.swing.JSpinner;
 import javax.swing.JTabbedPane;
 import javax.swing.JTextField;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 import junit.framework.TestCase;
 
@@ -476,6 +478,67 @@ public class BeansBindingProcessorTest
 		assertEquals( "Bar2", ( (JTextField) metawidget.getComponent( "address", "street" ) ).getText() );
 	}
 
+	public void testRetargetOnRebind() {
+
+		final List<String> processed = CollectionUtils.newArrayList();
+
+		Contact contact = new PersonalContact();
+		contact.setFirstname( "Foo" );
+		SwingMetawidget metawidget = new SwingMetawidget();
+		metawidget.addWidgetProcessor( new BeansBindingProcessor( new BeansBindingProcessorConfig().setRetargetOnRebind( true ) ) {
+
+			@Override
+			protected <S, V, T extends Component, W> Binding<S, V, T, W> processBinding( Binding<S, V, T, W> binding, SwingMetawidget theMetawidget ) {
+
+				processed.add( binding.getSourceProperty().toString() );
+				return binding;
+			}
+		} );
+		metawidget.add( new Stub( "dateOfBirth" ) );
+		metawidget.setToInspect( contact );
+
+		JTextField firstname = (JTextField) metawidget.getComponent( "firstname" );
+		assertEquals( "Foo", firstname.getText() );
+		int processedOnBuild = processed.size();
+		assertTrue( processedOnBuild > 0 );
+
+		final int[] inserts = new int[1];
+		firstname.getDocument().addDocumentListener( new DocumentListener() {
+
+			public void insertUpdate( DocumentEvent event ) {
+
+				inserts[0]++;
+			}
+
+			public void removeUpdate( DocumentEvent event ) {
+
+				// Do nothing
+			}
+
+			public void changedUpdate( DocumentEvent event ) {
+
+				// Do nothing
+			}
+		} );
+
+		// Rebind should retarget, not reprocess, and update each widget only once
+
+		contact = new PersonalContact();
+		contact.setFirstname( "Foo1" );
+		contact.getAddress().setStreet( "Bar1" );
+		metawidget.getWidgetProcessor( BeansBindingProcessor.class ).rebind( contact, metawidget );
+		assertEquals( "Foo1", firstname.getText() );
+		assertEquals( "Bar1", ( (JTextField) metawidget.getComponent( "address", "street" ) ).getText() );
+		assertEquals( processedOnBuild, processed.size() );
+		assertEquals( 1, inserts[0] );
+
+		// Bindings should still save to the new object
+
+		firstname.setText( "Foo2" );
+		metawidget.getWidgetProcessor( BeansBindingProcessor.class ).save( metawidget );
+		assertEquals( "Foo2", contact.getFirstname() );
+	}
+
 	public void testMissingReadOnlyWidgetBuilder() {
 
 		Foo foo = new Foo();
@@ -14,6 +14,7 @@ package org.metawidget.swing;
 import static org.metawidget.inspector.InspectionResultConstants.*;
 
 import java.awt.BasicStroke;
+import java.awt.BorderLayout;
 import java.awt.Component;
 import java.awt.Container;
 import java.awt.Dimension;
@@ -25,21 +26,30 @@ import java.awt.Stroke;
 import java.beans.Beans;
 import java.util.List;
 import java.util.Map;
-import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.concurrent.Executor;
 
 import javax.swing.JComponent;
 import javax.swing.JScrollPane;
+import javax.swing.JTabbedPane;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 
 import org.metawidget.iface.Immutable;
 import org.metawidget.iface.MetawidgetException;
 import org.metawidget.inspectionresultprocessor.iface.InspectionResultProcessor;
 import org.metawidget.inspector.iface.Inspector;
 import org.metawidget.layout.iface.Layout;
+import org.metawidget.pipeline.metrics.iface.PipelineMetrics;
 import org.metawidget.pipeline.w3c.W3CPipeline;
 import org.metawidget.util.ArrayUtils;
 import org.metawidget.util.ClassUtils;
 import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.ColumnModel;
+import org.metawidget.util.I18nUtils;
+import org.metawidget.util.LogUtils;
+import org.metawidget.util.LogUtils.Log;
 import org.metawidget.util.simple.PathUtils;
 import org.metawidget.util.simple.PathUtils.TypeAndNames;
 import org.metawidget.util.simple.StringUtils;
@@ -67,6 +77,8 @@ public class SwingMetawidget
 
 	private static final Stroke		STROKE_DOTTED		= new BasicStroke( 1f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND, 0f, new float[] { 3f }, 0f );
 
+	private static final Log		LOG					= LogUtils.getLog( SwingMetawidget.class );
+
 	//
 	// Private members
 	//
@@ -102,6 +114,33 @@ public class SwingMetawidget
 
 	private Map<String, Facet>		mFacets				= CollectionUtils.newHashMap();
 
+	private Executor				mInspectionExecutor;
+
+	private JComponent				mInspectionPlaceholder;
+
+	/**
+	 * Whether a background inspection is currently running.
+	 */
+
+	private boolean					mInspectionPending;
+
+	/**
+	 * Whether the inspection was invalidated while a background inspection was running, and so
+	 * the result of that background inspection should be discarded.
+	 */
+
+	private boolean					mInspectionStale;
+
+	private boolean					mLazyNesting;
+
+	/**
+	 * The JTabbedPane whose unselected tab we are waiting on (if lazy nesting), and its listener.
+	 */
+
+	private JTabbedPane				mDeferredTabbedPane;
+
+	private ChangeListener			mDeferredBuildListener;
+
 	/* package private */Pipeline	mPipeline;
 
 	//
@@ -210,6 +249,29 @@ public class SwingMetawidget
 		return mPipeline.inspect( toInspect, type, names );
 	}
 
+	/**
+	 * Useful for WidgetBuilders that render Collections as tables. Cheaper than
+	 * <code>inspect</code>, as the component type's inspection is cached.
+	 *
+	 * @return the ColumnModel, or null if no Inspectors matched the component type
+	 */
+
+	public ColumnModel getColumnModel( String componentType ) {
+
+		return mPipeline.getColumnModel( componentType );
+	}
+
+	/**
+	 * Inspects the given types or paths in the background, so that Metawidgets showing them later
+	 * need not wait for inspection. Results are shared with all Metawidgets with the same
+	 * configuration. See <code>W3CPipeline.prefetch</code>.
+	 */
+
+	public void prefetch( Executor executor, String... paths ) {
+
+		mPipeline.prefetch( executor, paths );
+	}
+
 	public void addInspectionResultProcessor( InspectionResultProcessor<SwingMetawidget> inspectionResultProcessor ) {
 
 		mPipeline.addInspectionResultProcessor( inspectionResultProcessor );
@@ -228,6 +290,21 @@ public class SwingMetawidget
 		invalidateInspection();
 	}
 
+	/**
+	 * Sets the PipelineMetrics to record the time taken by each stage of the pipeline. Typically
+	 * configured in <code>metawidget.xml</code>.
+	 */
+
+	public void setPipelineMetrics( PipelineMetrics pipelineMetrics ) {
+
+		mPipeline.setPipelineMetrics( pipelineMetrics );
+	}
+
+	public PipelineMetrics getPipelineMetrics() {
+
+		return mPipeline.getPipelineMetrics();
+	}
+
 	public void setWidgetBuilder( WidgetBuilder<JComponent, SwingMetawidget> widgetBuilder ) {
 
 		mPipeline.setWidgetBuilder( widgetBuilder );
@@ -337,7 +414,7 @@ public class SwingMetawidget
 
 			// (localize if possible)
 
-			String localized = getLocalizedKey( StringUtils.camelCase( label ) );
+			String localized = getLocalizedKey( I18nUtils.camelCase( label ) );
 
 			if ( localized != null ) {
 				return localized.trim();
@@ -359,7 +436,7 @@ public class SwingMetawidget
 				return localized.trim();
 			}
 
-			return StringUtils.uncamelCase( name );
+			return I18nUtils.uncamelCase( name );
 		}
 
 		return "";
@@ -375,11 +452,13 @@ public class SwingMetawidget
 			return null;
 		}
 
-		try {
-			return mBundle.getString( key );
-		} catch ( MissingResourceException e ) {
-			return StringUtils.RESOURCE_KEY_NOT_FOUND_PREFIX + key + StringUtils.RESOURCE_KEY_NOT_FOUND_SUFFIX;
+		String localizedKey = I18nUtils.getString( mBundle, key );
+
+		if ( localizedKey != null ) {
+			return localizedKey;
 		}
+
+		return StringUtils.RESOURCE_KEY_NOT_FOUND_PREFIX + key + StringUtils.RESOURCE_KEY_NOT_FOUND_SUFFIX;
 	}
 
 	public boolean isReadOnly() {
@@ -397,6 +476,72 @@ public class SwingMetawidget
 		invalidateWidgets();
 	}
 
+	/**
+	 * Sets an Executor with which to run inspections in the background.
+	 * <p>
+	 * By default, inspection runs on the Event Dispatch Thread the first time the widgets are
+	 * needed, which can freeze the UI for large forms. If an Executor is set, inspection
+	 * (including <code>InspectionResultProcessors</code>) is run using it, and only widget
+	 * building and layout are performed on the Event Dispatch Thread once the inspection completes.
+	 * Repeated invalidations while an inspection is running are coalesced into a single further
+	 * inspection.
+	 * <p>
+	 * Note that until the inspection completes, methods such as <code>getComponent</code> will not
+	 * find the generated components. Also, <code>Inspectors</code> and
+	 * <code>InspectionResultProcessors</code> must not touch Swing components.
+	 *
+	 * @param inspectionExecutor
+	 *            the Executor, or null to inspect on the Event Dispatch Thread
+	 */
+
+	public void setInspectionExecutor( Executor inspectionExecutor ) {
+
+		mInspectionExecutor = inspectionExecutor;
+		invalidateInspection();
+	}
+
+	public Executor getInspectionExecutor() {
+
+		return mInspectionExecutor;
+	}
+
+	/**
+	 * Sets a component to display while a background inspection is running (see
+	 * <code>setInspectionExecutor</code>). Can be null, in which case nothing is displayed.
+	 * <p>
+	 * Unlike the Executor, the placeholder is not inherited by nested SwingMetawidgets, because a
+	 * component can only have one parent.
+	 */
+
+	public void setInspectionPlaceholder( JComponent inspectionPlaceholder ) {
+
+		mInspectionPlaceholder = inspectionPlaceholder;
+		invalidateWidgets();
+	}
+
+	/**
+	 * Sets whether to build lazily. If true, a SwingMetawidget that sits in an unselected tab of a
+	 * <code>JTabbedPane</code> (eg. as laid out by <code>TabbedPaneLayoutDecorator</code>) is not
+	 * inspected or built until that tab is first selected. Nested SwingMetawidgets inherit this
+	 * setting.
+	 * <p>
+	 * This makes inspection depth demand-driven: large object graphs whose nested sections sit in
+	 * tabs the user never opens are never inspected. Note that until built, methods such as
+	 * <code>getValue</code> will build the SwingMetawidget on demand, but WidgetProcessors (eg.
+	 * binding implementations) will not know about its widgets.
+	 */
+
+	public void setLazyNesting( boolean lazyNesting ) {
+
+		mLazyNesting = lazyNesting;
+		invalidateWidgets();
+	}
+
+	public boolean isLazyNesting() {
+
+		return mLazyNesting;
+	}
+
 	public int getMaximumInspectionDepth() {
 
 		return mPipeline.getMaximumInspectionDepth();
@@ -613,7 +758,7 @@ public class SwingMetawidget
 			// SwingMetawidgetTest.testNestedWithManualInspector
 
 			if ( topComponent instanceof SwingMetawidget ) {
-				( (SwingMetawidget) topComponent ).buildWidgets();
+				( (SwingMetawidget) topComponent ).buildWidgetsNow();
 			}
 
 			// Try to find a component
@@ -702,6 +847,8 @@ public class SwingMetawidget
 		nestedMetawidget.setPath( mPath + StringUtils.SEPARATOR_FORWARD_SLASH_CHAR + attributes.get( NAME ) );
 		nestedMetawidget.setBundle( mBundle );
 		nestedMetawidget.setOpaque( isOpaque() );
+		nestedMetawidget.mInspectionExecutor = mInspectionExecutor;
+		nestedMetawidget.mLazyNesting = mLazyNesting;
 		nestedMetawidget.setToInspect( mToInspect );
 	}
 
@@ -761,6 +908,11 @@ public class SwingMetawidget
 	protected void invalidateInspection() {
 
 		mLastInspectionResult = null;
+
+		if ( mInspectionPending ) {
+			mInspectionStale = true;
+		}
+
 		invalidateWidgets();
 	}
 
@@ -822,22 +974,18 @@ public class SwingMetawidget
 			return;
 		}
 
-		mPipeline.configureOnce();
+		// Wait until our tab is selected?
 
-		mNeedToBuildWidgets = false;
-		mIgnoreAddRemove = true;
+		if ( mLazyNesting ) {
+			JTabbedPane unselectedTabbedPane = getUnselectedTabbedPane();
 
-		try {
-			if ( mLastInspectionResult == null ) {
-				mLastInspectionResult = inspect();
+			if ( unselectedTabbedPane != null ) {
+				deferBuildUntilSelected( unselectedTabbedPane );
+				return;
 			}
-
-			mPipeline.buildWidgets( mLastInspectionResult );
-		} catch ( Exception e ) {
-			throw MetawidgetException.newException( e );
-		} finally {
-			mIgnoreAddRemove = false;
 		}
+
+		buildWidgetsNow();
 	}
 
 	protected void startBuild() {
@@ -903,14 +1051,210 @@ public class SwingMetawidget
 	// Private methods
 	//
 
-	private Element inspect() {
+	private Element inspect( Object toInspect, String path ) {
 
-		if ( mPath == null ) {
+		if ( path == null ) {
 			return null;
 		}
 
-		TypeAndNames typeAndNames = PathUtils.parsePath( mPath );
-		return mPipeline.inspectAsDom( mToInspect, typeAndNames.getType(), typeAndNames.getNamesAsArray() );
+		TypeAndNames typeAndNames = PathUtils.parsePath( path );
+		return mPipeline.inspectAsDom( toInspect, typeAndNames.getType(), typeAndNames.getNamesAsArray() );
+	}
+
+	/**
+	 * Builds the widgets (if needed), regardless of lazy nesting.
+	 */
+
+	private void buildWidgetsNow() {
+
+		if ( !mNeedToBuildWidgets || Beans.isDesignTime() ) {
+			return;
+		}
+
+		stopDeferringBuild();
+		mPipeline.configureOnce();
+
+		// Inspect in the background?
+
+		if ( mLastInspectionResult == null && mInspectionExecutor != null && mPath != null ) {
+			inspectInBackground();
+			return;
+		}
+
+		if ( mLastInspectionResult == null ) {
+			mLastInspectionResult = inspect( mToInspect, mPath );
+		}
+
+		buildWidgets( mLastInspectionResult );
+	}
+
+	/**
+	 * Gets the nearest JTabbedPane for which we sit in an unselected tab.
+	 *
+	 * @return the JTabbedPane, or null if we are not in an unselected tab
+	 */
+
+	private JTabbedPane getUnselectedTabbedPane() {
+
+		Component child = this;
+
+		for ( Container parent = getParent(); parent != null; parent = parent.getParent() ) {
+
+			if ( parent instanceof JTabbedPane && ( (JTabbedPane) parent ).getSelectedComponent() != child ) {
+				return (JTabbedPane) parent;
+			}
+
+			child = parent;
+		}
+
+		return null;
+	}
+
+	private void deferBuildUntilSelected( JTabbedPane tabbedPane ) {
+
+		if ( tabbedPane == mDeferredTabbedPane ) {
+			return;
+		}
+
+		stopDeferringBuild();
+
+		if ( mDeferredBuildListener == null ) {
+			mDeferredBuildListener = new ChangeListener() {
+
+				public void stateChanged( ChangeEvent event ) {
+
+					// (may still be in an unselected tab of an outer JTabbedPane)
+
+					buildWidgets();
+
+					if ( !mNeedToBuildWidgets ) {
+						revalidate();
+						repaint();
+					}
+				}
+			};
+		}
+
+		mDeferredTabbedPane = tabbedPane;
+		mDeferredTabbedPane.addChangeListener( mDeferredBuildListener );
+	}
+
+	private void stopDeferringBuild() {
+
+		if ( mDeferredTabbedPane == null ) {
+			return;
+		}
+
+		mDeferredTabbedPane.removeChangeListener( mDeferredBuildListener );
+		mDeferredTabbedPane = null;
+	}
+
+	private void buildWidgets( Element inspectionResult ) {
+
+		mNeedToBuildWidgets = false;
+		mIgnoreAddRemove = true;
+
+		try {
+			mPipeline.buildWidgets( inspectionResult );
+		} catch ( Exception e ) {
+			throw MetawidgetException.newException( e );
+		} finally {
+			mIgnoreAddRemove = false;
+		}
+	}
+
+	/**
+	 * Shows the placeholder (if any) and, unless one is already running, starts a background
+	 * inspection. Once complete, the inspection result is applied on the Event Dispatch Thread.
+	 */
+
+	private void inspectInBackground() {
+
+		if ( mInspectionPlaceholder != null && mInspectionPlaceholder.getParent() != this ) {
+			mIgnoreAddRemove = true;
+
+			try {
+				setLayout( new BorderLayout() );
+				add( mInspectionPlaceholder, BorderLayout.CENTER );
+			} finally {
+				mIgnoreAddRemove = false;
+			}
+		}
+
+		if ( mInspectionPending ) {
+			return;
+		}
+
+		mInspectionPending = true;
+		mInspectionStale = false;
+
+		final Object toInspect = mToInspect;
+		final String path = mPath;
+
+		mInspectionExecutor.execute( new Runnable() {
+
+			public void run() {
+
+				Element inspectionResult = null;
+				Exception inspectionException = null;
+
+				try {
+					inspectionResult = inspect( toInspect, path );
+				} catch ( Exception e ) {
+					inspectionException = e;
+				}
+
+				final Element finalInspectionResult = inspectionResult;
+				final Exception finalInspectionException = inspectionException;
+
+				SwingUtilities.invokeLater( new Runnable() {
+
+					public void run() {
+
+						inspectedInBackground( finalInspectionResult, finalInspectionException );
+					}
+				} );
+			}
+		} );
+	}
+
+	/**
+	 * Called on the Event Dispatch Thread once a background inspection completes.
+	 */
+
+	private void inspectedInBackground( Element inspectionResult, Exception inspectionException ) {
+
+		mInspectionPending = false;
+
+		// Invalidated while inspecting? Discard and go again
+
+		if ( mInspectionStale ) {
+			mInspectionStale = false;
+
+			if ( mNeedToBuildWidgets ) {
+				buildWidgets();
+			}
+
+			return;
+		}
+
+		// Remove the placeholder (if any)
+
+		super.removeAll();
+
+		// Log, rather than throw, failures: there is no caller to throw them to on the Event
+		// Dispatch Thread. Don't retry until the next invalidation
+
+		if ( inspectionException != null ) {
+			mNeedToBuildWidgets = false;
+			LOG.error( "Unable to inspect {0}", mPath, inspectionException );
+		} else {
+			mLastInspectionResult = inspectionResult;
+			buildWidgets( inspectionResult );
+		}
+
+		revalidate();
+		repaint();
 	}
 
 	private ComponentAndValueProperty getComponentAndValueProperty( String... names ) {
@@ -11,7 +11,9 @@
 
 package org.metawidget.swing.widgetbuilder;
 
+import java.lang.reflect.Method;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
 import javax.swing.table.AbstractTableModel;
@@ -21,20 +23,63 @@ import org.metawidget.util.CollectionUtils;
 
 /**
  * Simple implementation of a <code>TableModel</tt> that supports <tt>Collections</tt>s.
+ * <p>
+ * <code>JTable</code> calls <code>getValueAt</code> for every cell on every paint, so this model
+ * is careful to keep that path cheap for large <tt>Collections</tt>:
+ * <ul>
+ * <li>read methods are resolved once per column (and re-resolved only if the row class changes),
+ * rather than looked up by name for every cell</li>
+ * <li><tt>Lists</tt> are used directly, so clients can pass their own lazily-loaded or paged
+ * <tt>List</tt> implementation</li>
+ * <li>other <tt>Collections</tt> are indexed lazily, only as far as the highest row requested so
+ * far, rather than copied up front</li>
+ * </ul>
  */
 
 class CollectionTableModel<T>
 	extends AbstractTableModel {
 
+	//
+	// Private statics
+	//
+
+	private static final String	TO_STRING	= "toString";
+
 	//
 	// Private members
 	//
 
-	private List<T>			mList;
+	private Collection<T>		mCollection;
+
+	/**
+	 * Either the <code>collection</code> itself (if it was a <tt>List</tt>), or a lazily populated
+	 * index into it.
+	 */
+
+	private List<T>				mList;
+
+	/**
+	 * Iterator used to lazily populate <code>mList</code>, if <code>collection</code> was not a
+	 * <tt>List</tt>. Null once the iteration has completed.
+	 */
 
-	private List<String>	mColumns;
+	private Iterator<T>			mIterator;
 
-	private List<String>	mColumnNames;
+	private List<String>		mColumns;
+
+	private List<String>		mColumnNames;
+
+	/**
+	 * Read methods, cached per column.
+	 */
+
+	private Method[]			mReadMethods;
+
+	/**
+	 * Classes the cached read methods were resolved against, per column.
+	 */
+
+	private Class<?>[]			mReadMethodClasses;
 
 	//
 	// Constructor
@@ -49,13 +94,21 @@ class CollectionTableModel<T>
 
 	public CollectionTableModel( Collection<T> collection, List<String> columns, List<String> columnNames ) {
 
+		mCollection = collection;
+
 		if ( collection instanceof List<?> ) {
 			mList = (List<T>) collection;
 		} else if ( collection != null ) {
-			mList = CollectionUtils.newArrayList( collection );
+			mList = CollectionUtils.newArrayList();
+			mIterator = collection.iterator();
 		}
+
 		mColumns = columns;
 		mColumnNames = columnNames;
+
+		int columnCount = columns.size();
+		mReadMethods = new Method[columnCount];
+		mReadMethodClasses = new Class<?>[columnCount];
 	}
 
 	//
@@ -79,11 +132,11 @@ class CollectionTableModel<T>
 
 	public int getRowCount() {
 
-		if ( mList == null ) {
+		if ( mCollection == null ) {
 			return 0;
 		}
 
-		return mList.size();
+		return mCollection.size();
 	}
 
 	public T getValueAt( int rowIndex ) {
@@ -92,6 +145,23 @@ class CollectionTableModel<T>
 			return null;
 		}
 
+		// Lazily index non-Lists up to the requested row
+
+		if ( mIterator != null ) {
+
+			while ( rowIndex >= mList.size() && mIterator.hasNext() ) {
+				mList.add( mIterator.next() );
+			}
+
+			if ( !mIterator.hasNext() ) {
+				mIterator = null;
+			}
+
+			if ( rowIndex >= mList.size() ) {
+				return null;
+			}
+		}
+
 		return mList.get( rowIndex );
 	}
 
@@ -111,10 +181,36 @@ class CollectionTableModel<T>
 
 		// Special support for toString
 
-		if ( "toString".equals( column )) {
+		if ( TO_STRING.equals( column ) ) {
 			return t.toString();
 		}
 
-		return ClassUtils.getProperty( t, column );
+		Method readMethod = getReadMethod( t.getClass(), columnIndex );
+
+		try {
+			return readMethod.invoke( t );
+		} catch ( Exception e ) {
+			throw new RuntimeException( "Unable to get '" + column + "' of '" + t + "' (" + t.getClass() + ")", e );
+		}
+	}
+
+	//
+	// Private methods
+	//
+
+	/**
+	 * Gets the read method for the given column, resolving it only if this is the first time this
+	 * column has been read, or if the row class differs from last time (eg. a heterogeneous
+	 * <tt>Collection</tt> of subclasses).
+	 */
+
+	private Method getReadMethod( Class<?> clazz, int columnIndex ) {
+
+		if ( !clazz.equals( mReadMethodClasses[columnIndex] ) ) {
+			mReadMethods[columnIndex] = ClassUtils.getReadMethod( clazz, mColumns.get( columnIndex ) );
+			mReadMethodClasses[columnIndex] = clazz;
+		}
+
+		return mReadMethods[columnIndex];
 	}
 }
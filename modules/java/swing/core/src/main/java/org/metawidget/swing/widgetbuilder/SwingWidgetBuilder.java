@@ -46,13 +46,11 @@ import org.metawidget.swing.SwingValuePropertyProvider;
 import org.metawidget.swing.widgetprocessor.binding.BindingConverter;
 import org.metawidget.util.ClassUtils;
 import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.ColumnModel;
 import org.metawidget.util.WidgetBuilderUtils;
-import org.metawidget.util.XmlUtils;
 import org.metawidget.util.simple.PathUtils;
 import org.metawidget.util.simple.PathUtils.TypeAndNames;
 import org.metawidget.widgetbuilder.iface.WidgetBuilder;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
 
 /**
  * WidgetBuilder for Swing environments.
@@ -151,7 +149,7 @@ public class SwingWidgetBuilder
 				comboBox.addItem( null );
 			}
 
-			List<String> values = CollectionUtils.fromString( lookup );
+			List<String> values = WidgetBuilderUtils.splitLookup( lookup );
 			List<Object> convertedValues = CollectionUtils.newArrayList();
 			BindingConverter converter = metawidget.getWidgetProcessor( BindingConverter.class );
 
@@ -175,7 +173,7 @@ public class SwingWidgetBuilder
 			String lookupLabels = attributes.get( LOOKUP_LABELS );
 
 			if ( lookupLabels != null && !"".equals( lookupLabels ) ) {
-				Map<Object, String> labelsMap = CollectionUtils.newHashMap( convertedValues, CollectionUtils.fromString( attributes.get( LOOKUP_LABELS ) ) );
+				Map<Object, String> labelsMap = CollectionUtils.newHashMap( convertedValues, WidgetBuilderUtils.splitLookup( lookupLabels ) );
 				comboBox.setEditor( new LookupComboBoxEditor( labelsMap ) );
 				comboBox.setRenderer( new LookupComboBoxRenderer( labelsMap ) );
 			}
@@ -407,12 +405,16 @@ public class SwingWidgetBuilder
 
 		// Inspect the componentType
 
-		String inspectedType = metawidget.inspect( null, componentType, (String[]) null );
+		ColumnModel columnModel = null;
+
+		if ( componentType != null ) {
+			columnModel = metawidget.getColumnModel( componentType );
+		}
 
 		List<String> columns = CollectionUtils.newArrayList();
 		List<String> columnNames = CollectionUtils.newArrayList();
 
-		if ( inspectedType == null ) {
+		if ( columnModel == null ) {
 
 			// If still no inspected type, use 'toString' so that at least we show *something*
 
@@ -423,25 +425,14 @@ public class SwingWidgetBuilder
 
 			// Determine columns
 
-			Element root = XmlUtils.documentFromString( inspectedType ).getDocumentElement();
-			NodeList elements = root.getFirstChild().getChildNodes();
-
-			for ( int loop = 0, length = elements.getLength(); loop < length; loop++ ) {
-
-				Element element = (Element) elements.item( loop );
-
-				if ( !PROPERTY.equals( element.getNodeName() ) ) {
-					continue;
-				}
-
-				Map<String, String> columnAttributes = XmlUtils.getAttributesAsMap( element );
+			for ( ColumnModel.Column column : columnModel.getColumns() ) {
 
-				if ( TRUE.equals( columnAttributes.get( HIDDEN ) ) ) {
+				if ( column.isHidden() ) {
 					continue;
 				}
 
-				columns.add( columnAttributes.get( NAME ) );
-				columnNames.add( metawidget.getLabelString( columnAttributes ) );
+				columns.add( column.getName() );
+				columnNames.add( metawidget.getLabelString( column.getAttributes() ) );
 			}
 		}
 
@@ -25,10 +25,9 @@ import javax.swing.JComponent;
 
 import org.metawidget.swing.Stub;
 import org.metawidget.swing.SwingMetawidget;
-import org.metawidget.util.ClassUtils;
 import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.PropertyPath;
 import org.metawidget.util.WidgetBuilderUtils;
-import org.metawidget.util.simple.PathUtils;
 import org.metawidget.widgetprocessor.iface.AdvancedWidgetProcessor;
 import org.metawidget.widgetprocessor.iface.WidgetProcessorException;
 
@@ -179,11 +178,11 @@ public class ReflectionBindingProcessor
 		// Private members
 		//
 
-		private Object		mBindTo;
+		private Object			mBindTo;
 
-		private String[]	mNames;
+		private PropertyPath	mPropertyPath;
 
-		private Method		mAction;
+		private Method			mAction;
 
 		//
 		// Constructor
@@ -199,19 +198,14 @@ public class ReflectionBindingProcessor
 				return;
 			}
 
-			mNames = PathUtils.parsePath( path ).getNamesAsArray();
+			mPropertyPath = PropertyPath.fromPath( path );
 
 			// Traverse to the last Object
 
-			Object traverse = mBindTo;
+			Object traverse = mPropertyPath.getValue( mBindTo );
 
-			for ( String subName : mNames ) {
-
-				if ( traverse == null ) {
-					return;
-				}
-
-				traverse = ClassUtils.getProperty( traverse, subName );
+			if ( traverse == null ) {
+				return;
 			}
 
 			try {
@@ -244,15 +238,10 @@ public class ReflectionBindingProcessor
 
 			// Traverse to the last Object
 
-			Object traverse = mBindTo;
+			Object traverse = mPropertyPath.getValue( mBindTo );
 
-			for ( String name : mNames ) {
-
-				if ( traverse == null ) {
-					return;
-				}
-
-				traverse = ClassUtils.getProperty( traverse, name );
+			if ( traverse == null ) {
+				return;
 			}
 
 			try {
@@ -17,30 +17,41 @@ import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.beans.BeanInfo;
 import java.beans.Introspector;
+import java.io.ByteArrayInputStream;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import javax.swing.AbstractAction;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JComponent;
+import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
 
 import junit.framework.TestCase;
 
+import org.metawidget.config.iface.ConfigReader;
+import org.metawidget.config.impl.BaseConfigReader;
 import org.metawidget.inspectionresultprocessor.iface.InspectionResultProcessor;
 import org.metawidget.inspectionresultprocessor.sort.ComesAfterInspectionResultProcessor;
 import org.metawidget.inspector.annotation.MetawidgetAnnotationInspector;
 import org.metawidget.inspector.annotation.UiAction;
 import org.metawidget.inspector.annotation.UiRequired;
 import org.metawidget.inspector.composite.CompositeInspector;
+import org.metawidget.inspector.iface.Inspector;
 import org.metawidget.inspector.composite.CompositeInspectorConfig;
 import org.metawidget.inspector.propertytype.PropertyTypeInspector;
 import org.metawidget.inspector.propertytype.PropertyTypeInspectorTest.RecursiveFoo;
+import org.metawidget.pipeline.metrics.iface.PipelineMetrics;
+import org.metawidget.pipeline.metrics.snapshot.PipelineMetric;
+import org.metawidget.pipeline.metrics.snapshot.SnapshotPipelineMetrics;
 import org.metawidget.swing.layout.BoxLayout;
 import org.metawidget.swing.layout.TabbedPaneLayoutDecorator;
 import org.metawidget.swing.widgetbuilder.SwingWidgetBuilder;
@@ -431,6 +442,154 @@ public class SwingMetawidgetTest
 		assertEquals( 2, configured.size() );
 	}
 
+	public void testPipelineMetrics() {
+
+		String xml = "<?xml version=\"1.0\"?>";
+		xml += "<metawidget xmlns=\"http://metawidget.org\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xsi:schemaLocation=\"http://metawidget.org http://metawidget.org/xsd/metawidget-1.0.xsd\" version=\"1.0\">";
+		xml += "<swingMetawidget xmlns=\"java:org.metawidget.swing\">";
+		xml += "<pipelineMetrics><snapshotPipelineMetrics xmlns=\"java:org.metawidget.pipeline.metrics.snapshot\"/></pipelineMetrics>";
+		xml += "</swingMetawidget></metawidget>";
+
+		ConfigReader configReader = new BaseConfigReader();
+		SwingMetawidget metawidget = new SwingMetawidget();
+		configReader.configure( new ByteArrayInputStream( xml.getBytes() ), metawidget );
+		SwingMetawidget metawidget2 = new SwingMetawidget();
+		configReader.configure( new ByteArrayInputStream( xml.getBytes() ), metawidget2 );
+
+		// Shared between Metawidgets
+
+		SnapshotPipelineMetrics pipelineMetrics = (SnapshotPipelineMetrics) metawidget.getPipelineMetrics();
+		assertTrue( pipelineMetrics == metawidget2.getPipelineMetrics() );
+
+		metawidget.setToInspect( new Foo() );
+		metawidget.getComponentCount();
+
+		boolean inspected = false;
+
+		for ( PipelineMetric metric : pipelineMetrics.getSnapshot() ) {
+			if ( PipelineMetrics.INSPECT.equals( metric.getStage() ) && Foo.class.getName().equals( metric.getType() ) ) {
+				inspected = true;
+			}
+		}
+
+		assertTrue( inspected );
+	}
+
+	public void testInspectionExecutor()
+		throws Exception {
+
+		final List<Runnable> inspections = CollectionUtils.newArrayList();
+
+		SwingMetawidget metawidget = new SwingMetawidget();
+		metawidget.setInspectionExecutor( new Executor() {
+
+			public void execute( Runnable runnable ) {
+
+				inspections.add( runnable );
+			}
+		} );
+		JLabel placeholder = new JLabel( "Loading..." );
+		metawidget.setInspectionPlaceholder( placeholder );
+		metawidget.setToInspect( new FooRequiredBoolean() );
+
+		// Placeholder while inspecting
+
+		assertEquals( 1, metawidget.getComponentCount() );
+		assertTrue( placeholder == metawidget.getComponent( 0 ) );
+		assertEquals( 1, inspections.size() );
+
+		// Invalidating while inspecting should coalesce
+
+		metawidget.setToInspect( new FooRequiredBoolean() );
+		metawidget.setReadOnly( true );
+		assertTrue( placeholder == metawidget.getComponent( 0 ) );
+		assertEquals( 1, inspections.size() );
+
+		// Stale inspection should be discarded, and go again
+
+		inspections.remove( 0 ).run();
+		SwingUtilities.invokeAndWait( new Runnable() {
+
+			public void run() {
+
+				// Wait for invokeLater
+			}
+		} );
+		assertTrue( placeholder == metawidget.getComponent( 0 ) );
+		assertEquals( 1, inspections.size() );
+
+		// Fresh inspection should be built
+
+		inspections.remove( 0 ).run();
+		SwingUtilities.invokeAndWait( new Runnable() {
+
+			public void run() {
+
+				// Wait for invokeLater
+			}
+		} );
+		assertEquals( "Boolean Object:", ( (JLabel) metawidget.getComponent( 0 ) ).getText() );
+		assertTrue( metawidget.getComponent( 1 ) instanceof JLabel );
+		assertEquals( 0, inspections.size() );
+		assertTrue( placeholder.getParent() == null );
+
+		// Widget-only changes should not reinspect
+
+		metawidget.setReadOnly( false );
+		assertTrue( metawidget.getComponent( 1 ) instanceof JCheckBox );
+		assertEquals( 0, inspections.size() );
+
+		// Nested Metawidgets should not share the placeholder
+
+		metawidget.setToInspect( new FooRequiredBoolean() );
+		assertTrue( placeholder == metawidget.getComponent( 0 ) );
+
+		SwingMetawidget nestedMetawidget = new SwingMetawidget();
+		metawidget.initNestedMetawidget( nestedMetawidget, Collections.singletonMap( NAME, "requiredBoolean" ) );
+		assertEquals( 0, nestedMetawidget.getComponentCount() );
+		assertTrue( placeholder.getParent() == metawidget );
+	}
+
+	public void testInspectionExecutorFailure()
+		throws Exception {
+
+		final List<Runnable> inspections = CollectionUtils.newArrayList();
+
+		SwingMetawidget metawidget = new SwingMetawidget();
+		metawidget.setInspectionExecutor( new Executor() {
+
+			public void execute( Runnable runnable ) {
+
+				inspections.add( runnable );
+			}
+		} );
+		metawidget.setInspector( new Inspector() {
+
+			public String inspect( Object toInspect, String type, String... names ) {
+
+				throw new RuntimeException( "Inspection failed" );
+			}
+		} );
+		JLabel placeholder = new JLabel( "Loading..." );
+		metawidget.setInspectionPlaceholder( placeholder );
+		metawidget.setToInspect( new FooRequiredBoolean() );
+		assertTrue( placeholder == metawidget.getComponent( 0 ) );
+
+		// Failure should be logged (not thrown on the Event Dispatch Thread), and the placeholder
+		// removed
+
+		inspections.remove( 0 ).run();
+		SwingUtilities.invokeAndWait( new Runnable() {
+
+			public void run() {
+
+				// Wait for invokeLater
+			}
+		} );
+		assertEquals( 0, metawidget.getComponentCount() );
+		assertTrue( placeholder.getParent() == null );
+	}
+
 	//
 	// Inner class
 	//
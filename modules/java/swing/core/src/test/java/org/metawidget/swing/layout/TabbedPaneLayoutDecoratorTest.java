@@ -130,6 +130,48 @@ public class TabbedPaneLayoutDecoratorTest
 		assertEquals( (Component) metawidget.getComponent( 4 ), (Component) metawidget.getComponent( "stu" ) );
 	}
 
+	public void testLazyNesting() {
+
+		SwingMetawidget metawidget = new SwingMetawidget();
+		metawidget.setMetawidgetLayout( new TabbedPaneLayoutDecorator( new TabbedPaneLayoutDecoratorConfig().setLayout( new org.metawidget.swing.layout.GridBagLayout() ) ) );
+		metawidget.setLazyNesting( true );
+		metawidget.setToInspect( new Lazy() );
+
+		JTabbedPane tabbedPane = (JTabbedPane) metawidget.getComponent( 0 );
+		assertEquals( "First", tabbedPane.getTitleAt( 0 ) );
+		assertEquals( "Second", tabbedPane.getTitleAt( 1 ) );
+		SwingMetawidget first = (SwingMetawidget) ( (JPanel) tabbedPane.getComponent( 0 ) ).getComponent( 1 );
+		SwingMetawidget second = (SwingMetawidget) ( (JPanel) tabbedPane.getComponent( 1 ) ).getComponent( 1 );
+		assertTrue( first.isLazyNesting() );
+		assertTrue( second.isLazyNesting() );
+
+		// Selected tab is built, unselected tab is not
+
+		assertEquals( 1, first.getComponentCount() );
+		assertEquals( 0, second.getComponentCount() );
+
+		// Built when selected
+
+		tabbedPane.setSelectedIndex( 1 );
+		assertEquals( 1, second.getComponentCount() );
+		JTabbedPane secondTabbedPane = (JTabbedPane) second.getComponent( 0 );
+		assertEquals( "Section", secondTabbedPane.getTitleAt( 0 ) );
+
+		// Built on demand
+
+		metawidget.setToInspect( new Lazy() );
+		assertTrue( metawidget.getComponent( "second", "bar" ) instanceof JTextField );
+
+		// Not lazy
+
+		metawidget.setLazyNesting( false );
+		tabbedPane = (JTabbedPane) metawidget.getComponent( 0 );
+		second = (SwingMetawidget) ( (JPanel) tabbedPane.getComponent( 1 ) ).getComponent( 1 );
+		assertEquals( 0, tabbedPane.getSelectedIndex() );
+		assertTrue( !second.isLazyNesting() );
+		assertEquals( 1, second.getComponentCount() );
+	}
+
 	public static void main( String[] args ) {
 
 		SwingMetawidget metawidget = new SwingMetawidget();
@@ -147,7 +189,7 @@ public class TabbedPaneLayoutDecoratorTest
 	// Inner class
 	//
 
-	static class Foo {
+	public static class Foo {
 
 		@UiSection( "Section" )
 		public String getBar() {
@@ -161,6 +203,31 @@ public class TabbedPaneLayoutDecoratorTest
 		}
 	}
 
+	public static class Lazy {
+
+		@UiSection( "First" )
+		public Foo getFirst() {
+
+			return new Foo();
+		}
+
+		public void setFirst( @SuppressWarnings( "unused" ) Foo first ) {
+
+			// Do nothing
+		}
+
+		@UiSection( "Second" )
+		public Foo getSecond() {
+
+			return new Foo();
+		}
+
+		public void setSecond( @SuppressWarnings( "unused" ) Foo second ) {
+
+			// Do nothing
+		}
+	}
+
 	static class Bar {
 
 		public String getAbc() {
@@ -11,7 +11,9 @@
 
 package org.metawidget.swing.widgetbuilder;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.swing.JCheckBox;
 import javax.swing.JLabel;
@@ -113,6 +115,51 @@ public class CollectionTableModelTest
 		assertEquals( 0, table.getRowCount() );
 	}
 
+	public void testNonListCollection() {
+
+		Set<Address> addresses = new LinkedHashSet<Address>();
+		addresses.add( new Address( "Street 1", "City 1", "State 1" ) );
+		addresses.add( new Address( "Street 2", "City 2", "State 2" ) );
+		addresses.add( new Address( "Street 3", "City 3", "State 3" ) );
+
+		CollectionTableModel<Address> model = new CollectionTableModel<Address>( addresses, CollectionUtils.newArrayList( "street", "city" ), CollectionUtils.newArrayList( "Street", "City" ) );
+
+		assertEquals( 3, model.getRowCount() );
+		assertEquals( "City 2", model.getValueAt( 1, 1 ) );
+		assertEquals( "Street 1", model.getValueAt( 0, 0 ) );
+		assertEquals( "Street 3", model.getValueAt( 2, 0 ) );
+		assertEquals( null, model.getValueAt( 3, 0 ) );
+		assertEquals( null, model.getValueAt( 0, 2 ) );
+	}
+
+	public void testHeterogeneousCollection() {
+
+		List<Address> addresses = CollectionUtils.newArrayList();
+		addresses.add( new Address( "Street 1", "City 1", "State 1" ) );
+		addresses.add( new Address( "Street 2", "City 2", "State 2" ) {
+
+			@Override
+			public String getStreet() {
+
+				return "Overridden " + super.getStreet();
+			}
+		} );
+
+		CollectionTableModel<Address> model = new CollectionTableModel<Address>( addresses, CollectionUtils.newArrayList( "street", "toString" ), CollectionUtils.newArrayList( "Street", "" ) );
+
+		assertEquals( "Street 1", model.getValueAt( 0, 0 ) );
+		assertEquals( "Overridden Street 2", model.getValueAt( 1, 0 ) );
+		assertEquals( "Street 1", model.getValueAt( 0, 0 ) );
+		assertEquals( addresses.get( 1 ).toString(), model.getValueAt( 1, 1 ) );
+
+		try {
+			new CollectionTableModel<Address>( addresses, CollectionUtils.newArrayList( "foo" ), CollectionUtils.newArrayList( "Foo" ) ).getValueAt( 0, 0 );
+			fail();
+		} catch ( RuntimeException e ) {
+			assertTrue( e.getMessage().startsWith( "No such method getFoo (or boolean isFoo) on class " ) );
+		}
+	}
+
 	//
 	// Inner class
 	//
@@ -14,9 +14,9 @@ import static org.metawidget.inspector.InspectionResultConstants.*;
 import java.beans.Beans;
 import java.util.List;
 import java.util.Map;
-import java.util.MissingResourceException;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.ControlEvent;
@@ -26,16 +26,19 @@ import org.eclipse.swt.events.PaintListener;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 import org.metawidget.iface.Immutable;
 import org.metawidget.iface.MetawidgetException;
 import org.metawidget.inspectionresultprocessor.iface.InspectionResultProcessor;
 import org.metawidget.inspector.iface.Inspector;
 import org.metawidget.layout.iface.Layout;
+import org.metawidget.pipeline.metrics.iface.PipelineMetrics;
 import org.metawidget.pipeline.w3c.W3CPipeline;
 import org.metawidget.swt.layout.SwtLayoutDecorator;
 import org.metawidget.util.ArrayUtils;
 import org.metawidget.util.ClassUtils;
 import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.I18nUtils;
 import org.metawidget.util.simple.PathUtils;
 import org.metawidget.util.simple.PathUtils.TypeAndNames;
 import org.metawidget.util.simple.StringUtils;
@@ -79,6 +82,21 @@ public class SwtMetawidget
 
 	private Set<Control>			mControlsToDispose		= CollectionUtils.newHashSet();
 
+	private Executor				mInspectionExecutor;
+
+	/**
+	 * Whether a background inspection is currently running.
+	 */
+
+	private boolean					mInspectionPending;
+
+	/**
+	 * Whether the inspection was invalidated while a background inspection was running, and so
+	 * the result of that background inspection should be discarded.
+	 */
+
+	private boolean					mInspectionStale;
+
 	/* package private */Composite	mCurrentLayoutComposite;
 
 	private Pipeline				mPipeline;
@@ -222,6 +240,17 @@ public class SwtMetawidget
 		return mPipeline.inspect( toInspect, type, names );
 	}
 
+	/**
+	 * Inspects the given types or paths in the background, so that Metawidgets showing them later
+	 * need not wait for inspection. Results are shared with all Metawidgets with the same
+	 * configuration. See <code>W3CPipeline.prefetch</code>.
+	 */
+
+	public void prefetch( Executor executor, String... paths ) {
+
+		mPipeline.prefetch( executor, paths );
+	}
+
 	public void addInspectionResultProcessor( InspectionResultProcessor<SwtMetawidget> inspectionResultProcessor ) {
 
 		mPipeline.addInspectionResultProcessor( inspectionResultProcessor );
@@ -240,6 +269,21 @@ public class SwtMetawidget
 		invalidateInspection();
 	}
 
+	/**
+	 * Sets the PipelineMetrics to record the time taken by each stage of the pipeline. Typically
+	 * configured in <code>metawidget.xml</code>.
+	 */
+
+	public void setPipelineMetrics( PipelineMetrics pipelineMetrics ) {
+
+		mPipeline.setPipelineMetrics( pipelineMetrics );
+	}
+
+	public PipelineMetrics getPipelineMetrics() {
+
+		return mPipeline.getPipelineMetrics();
+	}
+
 	public void setWidgetBuilder( WidgetBuilder<Control, SwtMetawidget> widgetBuilder ) {
 
 		mPipeline.setWidgetBuilder( widgetBuilder );
@@ -334,7 +378,7 @@ public class SwtMetawidget
 
 			// (localize if possible)
 
-			String localized = getLocalizedKey( StringUtils.camelCase( label ) );
+			String localized = getLocalizedKey( I18nUtils.camelCase( label ) );
 
 			if ( localized != null ) {
 				return localized.trim();
@@ -356,7 +400,7 @@ public class SwtMetawidget
 				return localized.trim();
 			}
 
-			return StringUtils.uncamelCase( name );
+			return I18nUtils.uncamelCase( name );
 		}
 
 		return "";
@@ -372,11 +416,13 @@ public class SwtMetawidget
 			return null;
 		}
 
-		try {
-			return mBundle.getString( key );
-		} catch ( MissingResourceException e ) {
-			return StringUtils.RESOURCE_KEY_NOT_FOUND_PREFIX + key + StringUtils.RESOURCE_KEY_NOT_FOUND_SUFFIX;
+		String localizedKey = I18nUtils.getString( mBundle, key );
+
+		if ( localizedKey != null ) {
+			return localizedKey;
 		}
+
+		return StringUtils.RESOURCE_KEY_NOT_FOUND_PREFIX + key + StringUtils.RESOURCE_KEY_NOT_FOUND_SUFFIX;
 	}
 
 	public boolean isReadOnly() {
@@ -394,6 +440,34 @@ public class SwtMetawidget
 		invalidateWidgets();
 	}
 
+	/**
+	 * Sets an Executor with which to run inspections in the background.
+	 * <p>
+	 * By default, inspection runs on the Display thread the first time the widgets are needed,
+	 * which can freeze the UI for large forms. If an Executor is set, inspection (including
+	 * <code>InspectionResultProcessors</code>) is run using it, and only widget building and layout
+	 * are performed on the Display thread once the inspection completes. Repeated invalidations
+	 * while an inspection is running are coalesced into a single further inspection.
+	 * <p>
+	 * Note that until the inspection completes, methods such as <code>getControl</code> will not
+	 * find the generated controls. Also, <code>Inspectors</code> and
+	 * <code>InspectionResultProcessors</code> must not touch SWT controls.
+	 *
+	 * @param inspectionExecutor
+	 *            the Executor, or null to inspect on the Display thread
+	 */
+
+	public void setInspectionExecutor( Executor inspectionExecutor ) {
+
+		mInspectionExecutor = inspectionExecutor;
+		invalidateInspection();
+	}
+
+	public Executor getInspectionExecutor() {
+
+		return mInspectionExecutor;
+	}
+
 	public int getMaximumInspectionDepth() {
 
 		return mPipeline.getMaximumInspectionDepth();
@@ -563,6 +637,11 @@ public class SwtMetawidget
 	protected void invalidateInspection() {
 
 		mLastInspectionResult = null;
+
+		if ( mInspectionPending ) {
+			mInspectionStale = true;
+		}
+
 		invalidateWidgets();
 	}
 
@@ -589,6 +668,85 @@ public class SwtMetawidget
 
 		mPipeline.configureOnce();
 
+		// Inspect in the background?
+
+		if ( mLastInspectionResult == null && mInspectionExecutor != null && mPath != null ) {
+			inspectInBackground();
+			return;
+		}
+
+		if ( mLastInspectionResult == null ) {
+			mLastInspectionResult = inspect( mToInspect, mPath );
+		}
+
+		buildWidgets( mLastInspectionResult );
+	}
+
+	/**
+	 * @param elementName
+	 *            XML node name of the business field. Typically 'entity', 'property' or 'action'.
+	 *            Never null
+	 */
+
+	protected void layoutWidget( Control control, String elementName, Map<String, String> attributes ) {
+
+		// Set the name of the component.
+
+		control.setData( NAME, attributes.get( NAME ) );
+
+		// Re-order the component
+
+		control.moveBelow( null );
+		mExistingUnusedControls.remove( control );
+		control.setLayoutData( null );
+
+		// Look up any additional attributes
+
+		Map<String, String> additionalAttributes = mPipeline.getAdditionalAttributes( control );
+
+		if ( additionalAttributes != null ) {
+			attributes.putAll( additionalAttributes );
+		}
+
+		// BasePipeline will call .layoutWidget
+	}
+
+	protected void endBuild() {
+
+		for ( Control existingControl : CollectionUtils.newArrayList( mExistingUnusedControls ) ) {
+			// Unused facets don't count
+
+			if ( existingControl instanceof Facet ) {
+				existingControl.moveBelow( null );
+				continue;
+			}
+
+			// Manually created components default to no section
+
+			Map<String, String> attributes = CollectionUtils.newHashMap();
+			attributes.put( SECTION, "" );
+
+			mPipeline.layoutWidget( existingControl, PROPERTY, attributes );
+		}
+	}
+
+	protected void initNestedMetawidget( SwtMetawidget nestedMetawidget, Map<String, String> attributes ) {
+
+		// Don't copy setConfig(). Instead, copy runtime values
+
+		mPipeline.initNestedPipeline( nestedMetawidget.mPipeline, attributes );
+		nestedMetawidget.setPath( mPath + StringUtils.SEPARATOR_FORWARD_SLASH_CHAR + attributes.get( NAME ) );
+		nestedMetawidget.setBundle( mBundle );
+		nestedMetawidget.setToInspect( mToInspect );
+		nestedMetawidget.mInspectionExecutor = mInspectionExecutor;
+	}
+
+	//
+	// Private methods
+	//
+
+	private void buildWidgets( Element inspectionResult ) {
+
 		mNeedToBuildWidgets = false;
 
 		// Metawidget needs a way to distinguish between manually added controls and generated
@@ -617,11 +775,7 @@ public class SwtMetawidget
 		// Build widgets
 
 		try {
-			if ( mLastInspectionResult == null ) {
-				mLastInspectionResult = inspect();
-			}
-
-			mPipeline.buildWidgets( mLastInspectionResult );
+			mPipeline.buildWidgets( inspectionResult );
 
 			// Work out the delta of 'what was here originally' versus 'what was generated'
 			//
@@ -648,76 +802,95 @@ public class SwtMetawidget
 		}
 	}
 
+	private Element inspect( Object toInspect, String path ) {
+
+		if ( path == null ) {
+			return null;
+		}
+
+		TypeAndNames typeAndNames = PathUtils.parsePath( path );
+		return mPipeline.inspectAsDom( toInspect, typeAndNames.getType(), typeAndNames.getNamesAsArray() );
+	}
+
 	/**
-	 * @param elementName
-	 *            XML node name of the business field. Typically 'entity', 'property' or 'action'.
-	 *            Never null
+	 * Starts a background inspection, unless one is already running. Once complete, the
+	 * inspection result is applied on the Display thread.
 	 */
 
-	protected void layoutWidget( Control control, String elementName, Map<String, String> attributes ) {
+	private void inspectInBackground() {
 
-		// Set the name of the component.
+		if ( mInspectionPending ) {
+			return;
+		}
 
-		control.setData( NAME, attributes.get( NAME ) );
+		mInspectionPending = true;
+		mInspectionStale = false;
 
-		// Re-order the component
+		final Object toInspect = mToInspect;
+		final String path = mPath;
+		final Display display = getDisplay();
 
-		control.moveBelow( null );
-		mExistingUnusedControls.remove( control );
-		control.setLayoutData( null );
+		mInspectionExecutor.execute( new Runnable() {
 
-		// Look up any additional attributes
+			public void run() {
 
-		Map<String, String> additionalAttributes = mPipeline.getAdditionalAttributes( control );
+				Element inspectionResult = null;
+				Exception inspectionException = null;
 
-		if ( additionalAttributes != null ) {
-			attributes.putAll( additionalAttributes );
-		}
+				try {
+					inspectionResult = inspect( toInspect, path );
+				} catch ( Exception e ) {
+					inspectionException = e;
+				}
 
-		// BasePipeline will call .layoutWidget
-	}
+				final Element finalInspectionResult = inspectionResult;
+				final Exception finalInspectionException = inspectionException;
 
-	protected void endBuild() {
+				if ( display.isDisposed() ) {
+					return;
+				}
 
-		for ( Control existingControl : CollectionUtils.newArrayList( mExistingUnusedControls ) ) {
-			// Unused facets don't count
+				display.asyncExec( new Runnable() {
 
-			if ( existingControl instanceof Facet ) {
-				existingControl.moveBelow( null );
-				continue;
+					public void run() {
+
+						inspectedInBackground( finalInspectionResult, finalInspectionException );
+					}
+				} );
 			}
+		} );
+	}
 
-			// Manually created components default to no section
+	/**
+	 * Called on the Display thread once a background inspection completes.
+	 */
 
-			Map<String, String> attributes = CollectionUtils.newHashMap();
-			attributes.put( SECTION, "" );
+	private void inspectedInBackground( Element inspectionResult, Exception inspectionException ) {
 
-			mPipeline.layoutWidget( existingControl, PROPERTY, attributes );
-		}
-	}
+		mInspectionPending = false;
 
-	protected void initNestedMetawidget( SwtMetawidget nestedMetawidget, Map<String, String> attributes ) {
+		if ( isDisposed() ) {
+			return;
+		}
 
-		// Don't copy setConfig(). Instead, copy runtime values
+		// Invalidated while inspecting? Discard and go again
 
-		mPipeline.initNestedPipeline( nestedMetawidget.mPipeline, attributes );
-		nestedMetawidget.setPath( mPath + StringUtils.SEPARATOR_FORWARD_SLASH_CHAR + attributes.get( NAME ) );
-		nestedMetawidget.setBundle( mBundle );
-		nestedMetawidget.setToInspect( mToInspect );
-	}
+		if ( mInspectionStale ) {
+			mInspectionStale = false;
 
-	//
-	// Private methods
-	//
+			if ( mNeedToBuildWidgets ) {
+				buildWidgets();
+			}
 
-	private Element inspect() {
+			return;
+		}
 
-		if ( mPath == null ) {
-			return null;
+		if ( inspectionException != null ) {
+			throw MetawidgetException.newException( inspectionException );
 		}
 
-		TypeAndNames typeAndNames = PathUtils.parsePath( mPath );
-		return mPipeline.inspectAsDom( mToInspect, typeAndNames.getType(), typeAndNames.getNamesAsArray() );
+		mLastInspectionResult = inspectionResult;
+		buildWidgets( inspectionResult );
 	}
 
 	private ControlAndValueProperty getControlAndValueProperty( String... names ) {
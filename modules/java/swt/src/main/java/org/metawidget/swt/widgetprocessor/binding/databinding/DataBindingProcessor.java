@@ -16,15 +16,20 @@ import static org.metawidget.inspector.InspectionResultConstants.*;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.core.databinding.Binding;
 import org.eclipse.core.databinding.DataBindingContext;
 import org.eclipse.core.databinding.UpdateValueStrategy;
 import org.eclipse.core.databinding.beans.BeanProperties;
 import org.eclipse.core.databinding.beans.PojoObservables;
+import org.eclipse.core.databinding.beans.PojoProperties;
 import org.eclipse.core.databinding.conversion.IConverter;
 import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.core.databinding.property.value.IValueProperty;
 import org.eclipse.core.internal.databinding.BindingStatus;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
@@ -47,6 +52,9 @@ import org.metawidget.widgetprocessor.iface.WidgetProcessorException;
  * Note: <code>eclipse.core.databinding</code> does not bind <em>actions</em>, such as invoking a
  * method when a <code>Button</code> is pressed. For that, see
  * <code>ReflectionBindingProcessor</code> and <code>MetawidgetActionStyle</code>.
+ * <p>
+ * For screens that rebind frequently (such as master-detail screens), see
+ * <code>DataBindingProcessorConfig.setReuseObservables</code>.
  *
  * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
  */
@@ -54,6 +62,24 @@ import org.metawidget.widgetprocessor.iface.WidgetProcessorException;
 public class DataBindingProcessor
 	implements AdvancedWidgetProcessor<Control, SwtMetawidget> {
 
+	//
+	// Private statics
+	//
+
+	/**
+	 * Maximum number of <code>IValueProperty</code> instances cached per model class when reusing
+	 * observables.
+	 */
+
+	private static final int										MAXIMUM_CACHED_VALUE_PROPERTIES	= 256;
+
+	/**
+	 * Maximum number of model classes to cache <code>IValueProperty</code> instances for when
+	 * reusing observables.
+	 */
+
+	private static final int										MAXIMUM_CACHED_MODEL_CLASSES	= 256;
+
 	//
 	// Private members
 	//
@@ -62,9 +88,24 @@ public class DataBindingProcessor
 	 * From org.eclipse.jface.databinding.swt.SWTObservables (EPLv1)
 	 */
 
-	private List<DisplayRealm>						mRealms		= CollectionUtils.newArrayList();
+	private List<DisplayRealm>										mRealms							= CollectionUtils.newArrayList();
+
+	private final Map<ConvertFromTo, IConverter>					mConverters						= CollectionUtils.newHashMap();
 
-	private final Map<ConvertFromTo, IConverter>	mConverters	= CollectionUtils.newHashMap();
+	private final boolean											mReuseObservables;
+
+	/**
+	 * <code>IValueProperty</code> instances (ie. factories for model observables), keyed by model
+	 * class name and then path.
+	 * <p>
+	 * Keyed by class name rather than by class, because each <code>IValueProperty</code> references
+	 * its class (so a <code>WeakHashMap</code> would never release it). Bounded, so that classes
+	 * from discarded ClassLoaders cannot accumulate.
+	 * <p>
+	 * Only used if <code>mReuseObservables</code>.
+	 */
+
+	private final ConcurrentMap<String, ValueProperties>			mValueProperties;
 
 	//
 	// Constructor
@@ -77,6 +118,14 @@ public class DataBindingProcessor
 
 	public DataBindingProcessor( DataBindingProcessorConfig config ) {
 
+		mReuseObservables = config.isReuseObservables();
+
+		if ( mReuseObservables ) {
+			mValueProperties = new ConcurrentHashMap<String, ValueProperties>();
+		} else {
+			mValueProperties = null;
+		}
+
 		// Register converters
 
 		IConverter[] converters = config.getConverters();
@@ -153,7 +202,22 @@ public class DataBindingProcessor
 
 		// (use PojoObservables so that the model needn't implement PropertyChangeListener)
 
-		IObservableValue observeModel = PojoObservables.observeValue( realm, toInspect, propertyName );
+		IObservableValue observeModel;
+
+		if ( mReuseObservables && toInspect != null ) {
+
+			// When reusing observables, observe the model as a 'detail' of a single, per-Metawidget
+			// master. Rebinding can then simply change the master
+
+			if ( state.master == null ) {
+				state.master = new WritableValue( realm, toInspect, toInspect.getClass() );
+			}
+
+			observeModel = getValueProperty( toInspect.getClass(), propertyName ).observeDetail( state.master );
+		} else {
+			observeModel = PojoObservables.observeValue( realm, toInspect, propertyName );
+		}
+
 		UpdateValueStrategy modelToTarget = new UpdateValueStrategy( UpdateValueStrategy.POLICY_ON_REQUEST );
 
 		// Add converters
@@ -168,6 +232,32 @@ public class DataBindingProcessor
 		return control;
 	}
 
+	/**
+	 * Rebinds the Metawidget to the given Object.
+	 * <p>
+	 * If configured to <code>setReuseObservables</code>, this retargets the existing bindings
+	 * without reinspecting the object or recreating the controls, then updates all controls in a
+	 * single pass (with redraw suspended). It is the client's responsibility to ensure the rebound
+	 * object is compatible with the original setToInspect. Otherwise, this is equivalent to
+	 * <code>setToInspect</code>.
+	 */
+
+	public void rebind( Object toRebind, SwtMetawidget metawidget ) {
+
+		if ( !mReuseObservables ) {
+			metawidget.setToInspect( toRebind );
+			return;
+		}
+
+		metawidget.setRedraw( false );
+
+		try {
+			retarget( toRebind, metawidget );
+		} finally {
+			metawidget.setRedraw( true );
+		}
+	}
+
 	public Object convertFromString( String value, Class<?> expectedType ) {
 
 		IConverter converterFromString = getConverter( String.class, expectedType );
@@ -216,6 +306,63 @@ public class DataBindingProcessor
 	// Private methods
 	//
 
+	private void retarget( Object toRetarget, SwtMetawidget metawidget ) {
+
+		metawidget.updateToInspectWithoutInvalidate( toRetarget );
+		State state = getState( metawidget );
+
+		// Our bindings (their model observables will all follow the master)
+
+		if ( state.master != null ) {
+			state.master.setValue( toRetarget );
+			state.bindingContext.updateTargets();
+		}
+
+		// Nested Metawidgets
+
+		if ( state.nestedMetawidgets != null ) {
+			for ( SwtMetawidget nestedMetawidget : state.nestedMetawidgets ) {
+				retarget( toRetarget, nestedMetawidget );
+			}
+		}
+	}
+
+	/**
+	 * Gets a (cached) <code>IValueProperty</code> for the given model class and path.
+	 */
+
+	private IValueProperty getValueProperty( Class<?> modelClass, String propertyName ) {
+
+		String modelClassName = modelClass.getName();
+		ValueProperties valueProperties = mValueProperties.get( modelClassName );
+
+		// (a class of the same name may have been reloaded by a different ClassLoader)
+
+		if ( valueProperties == null || valueProperties.getModelClass() != modelClass ) {
+			valueProperties = new ValueProperties( modelClass );
+
+			if ( mValueProperties.size() < MAXIMUM_CACHED_MODEL_CLASSES || mValueProperties.containsKey( modelClassName ) ) {
+				mValueProperties.put( modelClassName, valueProperties );
+			}
+		}
+
+		IValueProperty valueProperty = valueProperties.getValueProperties().get( propertyName );
+
+		if ( valueProperty == null ) {
+			valueProperty = PojoProperties.value( modelClass, propertyName );
+
+			if ( valueProperties.getValueProperties().size() < MAXIMUM_CACHED_VALUE_PROPERTIES ) {
+				IValueProperty existingValueProperty = valueProperties.getValueProperties().putIfAbsent( propertyName, valueProperty );
+
+				if ( existingValueProperty != null ) {
+					valueProperty = existingValueProperty;
+				}
+			}
+		}
+
+		return valueProperty;
+	}
+
 	private State getState( SwtMetawidget metawidget ) {
 
 		State state = (State) metawidget.getData( DataBindingProcessor.class.getName() );
@@ -288,6 +435,50 @@ public class DataBindingProcessor
 		/* package private */DataBindingContext	bindingContext;
 
 		/* package private */Set<SwtMetawidget>	nestedMetawidgets;
+
+		/**
+		 * Master observable for the model. Only used if reusing observables.
+		 */
+
+		/* package private */WritableValue		master;
+	}
+
+	/**
+	 * Cached <code>IValueProperty</code> instances of a single model class, keyed by path.
+	 */
+
+	/* package private */static final class ValueProperties {
+
+		//
+		// Private members
+		//
+
+		private final Class<?>								mModelClass;
+
+		private final ConcurrentMap<String, IValueProperty>	mValueProperties	= new ConcurrentHashMap<String, IValueProperty>();
+
+		//
+		// Constructor
+		//
+
+		public ValueProperties( Class<?> modelClass ) {
+
+			mModelClass = modelClass;
+		}
+
+		//
+		// Public methods
+		//
+
+		public Class<?> getModelClass() {
+
+			return mModelClass;
+		}
+
+		public ConcurrentMap<String, IValueProperty> getValueProperties() {
+
+			return mValueProperties;
+		}
 	}
 
 	/**
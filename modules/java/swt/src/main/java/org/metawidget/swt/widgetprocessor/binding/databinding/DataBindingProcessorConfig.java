@@ -29,6 +29,8 @@ public class DataBindingProcessorConfig {
 
 	private IConverter[]	mConverters;
 
+	private boolean			mReuseObservables;
+
 	//
 	// Public methods
 	//
@@ -46,6 +48,23 @@ public class DataBindingProcessorConfig {
 		return this;
 	}
 
+	/**
+	 * Sets whether this DataBindingProcessor should observe the model through a single master
+	 * observable per Metawidget, so that <code>DataBindingProcessor.rebind</code> can retarget
+	 * every binding by changing the master's value.
+	 * <p>
+	 * Without this, <code>rebind</code> has to rebuild the Metawidget.
+	 *
+	 * @return this, as part of a fluent interface
+	 */
+
+	public DataBindingProcessorConfig setReuseObservables( boolean reuseObservables ) {
+
+		mReuseObservables = reuseObservables;
+
+		return this;
+	}
+
 	@Override
 	public boolean equals( Object that ) {
 
@@ -61,6 +80,10 @@ public class DataBindingProcessorConfig {
 			return false;
 		}
 
+		if ( mReuseObservables != ( (DataBindingProcessorConfig) that ).mReuseObservables ) {
+			return false;
+		}
+
 		return true;
 	}
 
@@ -69,6 +92,7 @@ public class DataBindingProcessorConfig {
 
 		int hashCode = 1;
 		hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode( mConverters );
+		hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode( mReuseObservables );
 
 		return hashCode;
 	}
@@ -81,4 +105,9 @@ public class DataBindingProcessorConfig {
 
 		return mConverters;
 	}
+
+	protected boolean isReuseObservables() {
+
+		return mReuseObservables;
+	}
 }
@@ -22,9 +22,8 @@ import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Control;
 import org.metawidget.swt.Stub;
 import org.metawidget.swt.SwtMetawidget;
-import org.metawidget.util.ClassUtils;
+import org.metawidget.util.PropertyPath;
 import org.metawidget.util.WidgetBuilderUtils;
-import org.metawidget.util.simple.PathUtils;
 import org.metawidget.widgetprocessor.iface.WidgetProcessor;
 import org.metawidget.widgetprocessor.iface.WidgetProcessorException;
 
@@ -78,14 +77,10 @@ public class ReflectionBindingProcessor
 
 		// Traverse to the last Object...
 
-		String[] names = PathUtils.parsePath( metawidget.getInspectionPath() ).getNamesAsArray();
+		toInspect = PropertyPath.fromPath( metawidget.getInspectionPath() ).getValue( toInspect );
 
-		for ( String name : names ) {
-			toInspect = ClassUtils.getProperty( toInspect, name );
-
-			if ( toInspect == null ) {
-				return component;
-			}
+		if ( toInspect == null ) {
+			return component;
 		}
 
 		// ...and wire it up
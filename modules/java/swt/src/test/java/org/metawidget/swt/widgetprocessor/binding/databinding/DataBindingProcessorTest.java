@@ -108,6 +108,39 @@ public class DataBindingProcessorTest
 		assertEquals( "Bar1", contact.getAddress().getStreet() );
 	}
 
+	public void testReuseObservables() {
+
+		PersonalContact contact = new PersonalContact();
+		contact.setFirstname( "Foo" );
+		Shell shell = new Shell( SwtMetawidgetTests.TEST_DISPLAY, SWT.NONE );
+		SwtMetawidget metawidget = new SwtMetawidget( shell, SWT.NONE );
+		metawidget.addWidgetProcessor( new DataBindingProcessor( new DataBindingProcessorConfig().setReuseObservables( true ) ) );
+		metawidget.setToInspect( contact );
+
+		Text firstname = (Text) metawidget.getControl( "firstname" );
+		Text street = (Text) metawidget.getControl( "address", "street" );
+		assertEquals( "Foo", firstname.getText() );
+
+		// Rebind should retarget the existing Controls, including those of nested Metawidgets
+
+		contact = new PersonalContact();
+		contact.setFirstname( "Foo1" );
+		contact.getAddress().setStreet( "Bar1" );
+		metawidget.getWidgetProcessor( DataBindingProcessor.class ).rebind( contact, metawidget );
+		assertTrue( firstname == metawidget.getControl( "firstname" ) );
+		assertTrue( street == metawidget.getControl( "address", "street" ) );
+		assertEquals( "Foo1", firstname.getText() );
+		assertEquals( "Bar1", street.getText() );
+
+		// Saving should save to the rebound object
+
+		firstname.setText( "Foo2" );
+		street.setText( "Bar2" );
+		metawidget.getWidgetProcessor( DataBindingProcessor.class ).save( metawidget );
+		assertEquals( "Foo2", contact.getFirstname() );
+		assertEquals( "Bar2", contact.getAddress().getStreet() );
+	}
+
 	public void testMissingReadOnlyWidgetBuilder() {
 
 		Foo foo = new Foo();
@@ -16,8 +16,8 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.concurrent.Executor;
 
 import org.metawidget.iface.MetawidgetException;
 import org.metawidget.inspectionresultprocessor.iface.InspectionResultProcessor;
@@ -27,9 +27,11 @@ import org.metawidget.pipeline.w3c.W3CPipeline;
 import org.metawidget.util.ArrayUtils;
 import org.metawidget.util.ClassUtils;
 import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.I18nUtils;
 import org.metawidget.util.simple.PathUtils;
 import org.metawidget.util.simple.PathUtils.TypeAndNames;
 import org.metawidget.util.simple.StringUtils;
+import org.metawidget.vaadin.ui.widgetprocessor.binding.BindingRebinder;
 import org.metawidget.widgetbuilder.iface.WidgetBuilder;
 import org.metawidget.widgetprocessor.iface.WidgetProcessor;
 import org.w3c.dom.Element;
@@ -65,6 +67,14 @@ public class VaadinMetawidget
 
 	private Element					mLastInspection;
 
+	private boolean					mRecycleWidgets;
+
+	/**
+	 * Nested Metawidgets created by the last build. Used when recycling widgets.
+	 */
+
+	private List<VaadinMetawidget>	mNestedMetawidgets;
+
 	private boolean					mIgnoreAddRemove;
 
 	private List<Component>			mComponents = CollectionUtils.newArrayList();
@@ -110,10 +120,16 @@ public class VaadinMetawidget
 	 * <p>
 	 * If <code>setPath</code> has not been set, or points to a previous <code>setToInspect</code>,
 	 * sets it to point to the given Object.
+	 * <p>
+	 * If <code>setRecycleWidgets</code>, the existing widgets may be kept and rebound.
 	 */
 
 	public void setToInspect( Object toInspect ) {
 
+		if ( mRecycleWidgets && recycleWidgets( toInspect ) ) {
+			return;
+		}
+
 		updateToInspectWithoutInvalidate( toInspect );
 		invalidateInspection();
 	}
@@ -148,6 +164,28 @@ public class VaadinMetawidget
 		return mPath;
 	}
 
+	/**
+	 * Sets whether to recycle the existing widgets when <code>setToInspect</code> is called with an
+	 * Object of the same type as before.
+	 * <p>
+	 * If the new Object's inspection result is structurally identical to the old one's, the existing
+	 * components are kept. They are rebound to the new Object by those WidgetProcessors that
+	 * implement <code>BindingRebinder</code>. Nested Metawidgets recycle their own widgets in the
+	 * same way. This saves rebuilding, and reallocating, every component, which matters for
+	 * servers with many concurrent sessions. If the inspection result differs, the widgets are
+	 * rebuilt as usual.
+	 */
+
+	public void setRecycleWidgets( boolean recycleWidgets ) {
+
+		mRecycleWidgets = recycleWidgets;
+	}
+
+	public boolean isRecycleWidgets() {
+
+		return mRecycleWidgets;
+	}
+
 	public void setConfig( String config ) {
 
 		mPipeline.setConfig( config );
@@ -170,6 +208,17 @@ public class VaadinMetawidget
 		return mPipeline.inspect( toInspect, type, names );
 	}
 
+	/**
+	 * Inspects the given types or paths in the background, so that Metawidgets showing them later
+	 * need not wait for inspection. Results are shared with all Metawidgets with the same
+	 * configuration. See <code>W3CPipeline.prefetch</code>.
+	 */
+
+	public void prefetch( Executor executor, String... paths ) {
+
+		mPipeline.prefetch( executor, paths );
+	}
+
 	public void addInspectionResultProcessor( InspectionResultProcessor<VaadinMetawidget> inspectionResultProcessor ) {
 
 		mPipeline.addInspectionResultProcessor( inspectionResultProcessor );
@@ -282,7 +331,7 @@ public class VaadinMetawidget
 
 			// (localize if possible)
 
-			String localized = getLocalizedKey( StringUtils.camelCase( label ) );
+			String localized = getLocalizedKey( I18nUtils.camelCase( label ) );
 
 			if ( localized != null ) {
 				return localized.trim();
@@ -305,7 +354,7 @@ public class VaadinMetawidget
 				return localized.trim();
 			}
 
-			return StringUtils.uncamelCase( name );
+			return I18nUtils.uncamelCase( name );
 		}
 
 		return "";
@@ -321,11 +370,13 @@ public class VaadinMetawidget
 			return null;
 		}
 
-		try {
-			return mBundle.getString( key );
-		} catch ( MissingResourceException e ) {
-			return StringUtils.RESOURCE_KEY_NOT_FOUND_PREFIX + key + StringUtils.RESOURCE_KEY_NOT_FOUND_SUFFIX;
+		String localizedKey = I18nUtils.getString( mBundle, key );
+
+		if ( localizedKey != null ) {
+			return localizedKey;
 		}
+
+		return StringUtils.RESOURCE_KEY_NOT_FOUND_PREFIX + key + StringUtils.RESOURCE_KEY_NOT_FOUND_SUFFIX;
 	}
 
 	@Override
@@ -695,6 +746,7 @@ public class VaadinMetawidget
 	protected void startBuild() {
 
 		mExistingUnusedComponents = CollectionUtils.newArrayList( mExistingComponents );
+		mNestedMetawidgets = null;
 	}
 
 	/**
@@ -753,6 +805,7 @@ public class VaadinMetawidget
 
 		nestedMetawidget.setPath( mPath + StringUtils.SEPARATOR_FORWARD_SLASH_CHAR + attributes.get( NAME ) );
 		nestedMetawidget.setBundle( mBundle );
+		nestedMetawidget.setRecycleWidgets( mRecycleWidgets );
 		nestedMetawidget.setToInspect( mToInspect );
 	}
 
@@ -782,6 +835,58 @@ public class VaadinMetawidget
 		mToInspect = toInspect;
 	}
 
+	/**
+	 * Attempts to recycle the existing widgets for the given Object.
+	 *
+	 * @return true if the given Object has been dealt with (either the widgets have been recycled,
+	 *         or they have been invalidated using the new inspection result), false if the caller
+	 *         should update and invalidate as usual
+	 */
+
+	private boolean recycleWidgets( Object toInspect ) {
+
+		// Only recycle widgets that have been built, for an Object of the same type
+
+		if ( mNeedToBuildWidgets || mLastInspection == null || mToInspect == null || toInspect == null ) {
+			return false;
+		}
+
+		if ( !mToInspect.getClass().equals( toInspect.getClass() ) ) {
+			return false;
+		}
+
+		updateToInspectWithoutInvalidate( toInspect );
+		Element inspection = inspect();
+
+		// Structurally different? Rebuild (but don't inspect again)
+
+		if ( inspection == null || !inspection.isEqualNode( mLastInspection ) ) {
+			invalidateInspection();
+			mLastInspection = inspection;
+			return true;
+		}
+
+		// Structurally identical? Rebind
+
+		List<WidgetProcessor<Component, VaadinMetawidget>> widgetProcessors = mPipeline.getWidgetProcessors();
+
+		if ( widgetProcessors != null ) {
+			for ( WidgetProcessor<Component, VaadinMetawidget> widgetProcessor : widgetProcessors ) {
+				if ( widgetProcessor instanceof BindingRebinder ) {
+					( (BindingRebinder) widgetProcessor ).rebind( toInspect, this );
+				}
+			}
+		}
+
+		if ( mNestedMetawidgets != null ) {
+			for ( VaadinMetawidget nestedMetawidget : mNestedMetawidgets ) {
+				nestedMetawidget.setToInspect( toInspect );
+			}
+		}
+
+		return true;
+	}
+
 	private Element inspect() {
 
 		if ( mPath == null ) {
@@ -894,6 +999,12 @@ public class VaadinMetawidget
 			VaadinMetawidget nestedMetawidget = VaadinMetawidget.this.getClass().newInstance();
 			VaadinMetawidget.this.initNestedMetawidget( nestedMetawidget, attributes );
 
+			if ( mNestedMetawidgets == null ) {
+				mNestedMetawidgets = CollectionUtils.newArrayList();
+			}
+
+			mNestedMetawidgets.add( nestedMetawidget );
+
 			return nestedMetawidget;
 		}
 
@@ -0,0 +1,37 @@
+// Metawidget
+//
+// This file is dual licensed under both the LGPL
+// (http://www.gnu.org/licenses/lgpl-2.1.html) and the EPL
+// (http://www.eclipse.org/org/documents/epl-v10.php). As a
+// recipient of Metawidget, you may choose to receive it under either
+// the LGPL or the EPL.
+//
+// Commercial licenses are also available. See http://metawidget.org
+// for details.
+
+package org.metawidget.vaadin.ui.widgetprocessor.binding;
+
+import org.metawidget.vaadin.ui.VaadinMetawidget;
+
+/**
+ * Vaadin support: rebinding
+ *
+ * @author <a href="http://kennardconsulting.com">Richard Kennard</a>
+ */
+
+public interface BindingRebinder {
+
+	//
+	// Methods
+	//
+
+	/**
+	 * Rebind the existing widgets of the given Metawidget (but not of its nested Metawidgets) to
+	 * the given Object, without recreating them.
+	 * <p>
+	 * Called by <code>VaadinMetawidget.setToInspect</code> when recycling widgets. The given Object
+	 * is guaranteed to have inspected identically to the one the widgets were built for.
+	 */
+
+	void rebind( Object toRebind, VaadinMetawidget metawidget );
+}
@@ -15,9 +15,8 @@ import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.util.Map;
 
-import org.metawidget.util.ClassUtils;
+import org.metawidget.util.PropertyPath;
 import org.metawidget.util.WidgetBuilderUtils;
-import org.metawidget.util.simple.PathUtils;
 import org.metawidget.vaadin.ui.Stub;
 import org.metawidget.vaadin.ui.VaadinMetawidget;
 import org.metawidget.widgetprocessor.iface.WidgetProcessor;
@@ -76,28 +75,30 @@ public class ReflectionBindingProcessor
 
 		// Traverse to the last Object...
 
-		String[] names = PathUtils.parsePath( metawidget.getPath() ).getNamesAsArray();
-
-		for ( String name : names ) {
-			toInspect = ClassUtils.getProperty( toInspect, name );
-
-			if ( toInspect == null ) {
-				return component;
-			}
+		if ( PropertyPath.fromPath( metawidget.getPath() ).getValue( toInspect ) == null ) {
+			return component;
 		}
 
 		// ...and wire it up
+		//
+		// Note: we traverse again on each click, rather than remembering the Object, so that we
+		// follow the Metawidget if its widgets are recycled for a different Object
 
-		final Object fireActionOn = toInspect;
-		final Class<?> fireActionOnClass = fireActionOn.getClass();
+		final VaadinMetawidget fireActionOnMetawidget = metawidget;
 		final String actionName = attributes.get( NAME );
 
 		button.addListener( new ClickListener() {
 
 			public void buttonClick( ClickEvent event ) {
 
+				Object fireActionOn = PropertyPath.fromPath( fireActionOnMetawidget.getPath() ).getValue( fireActionOnMetawidget.getToInspect() );
+
+				if ( fireActionOn == null ) {
+					return;
+				}
+
 				try {
-					Method method = fireActionOnClass.getMethod( actionName, (Class[]) null );
+					Method method = fireActionOn.getClass().getMethod( actionName, (Class[]) null );
 					method.invoke( fireActionOn, (Object[]) null );
 				} catch ( Exception e ) {
 					throw WidgetProcessorException.newException( e );
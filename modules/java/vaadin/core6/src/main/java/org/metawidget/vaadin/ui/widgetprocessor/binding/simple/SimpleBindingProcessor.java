@@ -20,11 +20,12 @@ import java.util.Set;
 
 import org.metawidget.util.ClassUtils;
 import org.metawidget.util.CollectionUtils;
+import org.metawidget.util.PropertyPath;
 import org.metawidget.util.WidgetBuilderUtils;
-import org.metawidget.util.simple.PathUtils;
 import org.metawidget.util.simple.StringUtils;
 import org.metawidget.vaadin.ui.VaadinMetawidget;
 import org.metawidget.vaadin.ui.widgetprocessor.binding.BindingConverter;
+import org.metawidget.vaadin.ui.widgetprocessor.binding.BindingRebinder;
 import org.metawidget.widgetprocessor.iface.AdvancedWidgetProcessor;
 import org.metawidget.widgetprocessor.iface.WidgetProcessorException;
 
@@ -38,7 +39,7 @@ import com.vaadin.ui.Component;
  */
 
 public class SimpleBindingProcessor
-	implements AdvancedWidgetProcessor<Component, VaadinMetawidget>, BindingConverter {
+	implements AdvancedWidgetProcessor<Component, VaadinMetawidget>, BindingConverter, BindingRebinder {
 
 	//
 	// Private members
@@ -132,58 +133,34 @@ public class SimpleBindingProcessor
 			path += StringUtils.SEPARATOR_FORWARD_SLASH_CHAR + attributes.get( NAME );
 		}
 
-		String[] names = PathUtils.parsePath( path ).getNamesAsArray();
-
-		for ( String name : names ) {
-			value = ClassUtils.getProperty( value, name );
-		}
+		PropertyPath propertyPath = PropertyPath.fromPath( path );
+		value = propertyPath.getValue( value );
 
 		// ...and set it
 
 		try {
-
-			// We *always* go via a Converter, as this is the simplest way to handle cases like:
-			//
-			// String: null -> "" -> null
-
 			Property property = (Property) component;
-			Class<?> componentPropertyType = property.getType();
-			@SuppressWarnings( "unchecked" )
-			Converter<Object, Object> setValueConverter = (Converter<Object, Object>) getConverter( toInspectPropertyType, componentPropertyType );
+			setPropertyValue( property, value, toInspectPropertyType );
 
-			if ( setValueConverter != null ) {
-				value = setValueConverter.convert( value, componentPropertyType );
-			}
-
-			// Temporarily remove readOnly (if set)
+			// If read-only, can be no save() (but remember for rebind())
 
-			boolean readOnly = property.isReadOnly();
-			if ( readOnly ) {
-				property.setReadOnly( false );
-			}
-
-			// Note: we tried doing this via property.setPropertyDataSource, but that seems
-			// incorrect because the component uses getValue/setValue internally and
-			// it's not expecting getValue to return a type of toInspectPropertyType
+			State state = getState( metawidget );
 
-			property.setValue( value );
-			if ( readOnly ) {
-				property.setReadOnly( true );
-			}
+			if ( WidgetBuilderUtils.isReadOnly( attributes ) ) {
 
-			// If read-only, can be no save()
+				if ( state.readOnlyBindings == null ) {
+					state.readOnlyBindings = new HashSet<Object[]>();
+				}
 
-			if ( WidgetBuilderUtils.isReadOnly( attributes ) ) {
+				state.readOnlyBindings.add( new Object[] { property, propertyPath, toInspectPropertyType } );
 				return component;
 			}
 
-			State state = getState( metawidget );
-
 			if ( state.bindings == null ) {
 				state.bindings = new HashSet<Object[]>();
 			}
 
-			state.bindings.add( new Object[] { property, names, toInspectPropertyType } );
+			state.bindings.add( new Object[] { property, propertyPath, toInspectPropertyType } );
 		} catch ( Exception e ) {
 			throw WidgetProcessorException.newException( e );
 		}
@@ -191,6 +168,24 @@ public class SimpleBindingProcessor
 		return component;
 	}
 
+	/**
+	 * Rebinds the Metawidget's existing (non-nested) widgets to the given Object.
+	 * <p>
+	 * Called by <code>VaadinMetawidget</code> when recycling widgets.
+	 */
+
+	public void rebind( Object toRebind, VaadinMetawidget metawidget ) {
+
+		State state = getState( metawidget );
+
+		try {
+			rebind( toRebind, state.bindings );
+			rebind( toRebind, state.readOnlyBindings );
+		} catch ( Exception e ) {
+			throw WidgetProcessorException.newException( e );
+		}
+	}
+
 	public void save( VaadinMetawidget metawidget ) {
 
 		State state = getState( metawidget );
@@ -208,7 +203,7 @@ public class SimpleBindingProcessor
 
 			for ( Object[] binding : state.bindings ) {
 				Property property = (Property) binding[0];
-				String[] names = (String[]) binding[1];
+				PropertyPath propertyPath = (PropertyPath) binding[1];
 				Class<?> toInspectPropertyType = (Class<?>) binding[2];
 
 				// ...fetch the value...
@@ -226,18 +221,9 @@ public class SimpleBindingProcessor
 
 				// ...and set it
 
-				Object parent = toSave;
-				int length = names.length;
-
-				for ( int loop = 0; loop < length - 1; loop++ ) {
-					parent = ClassUtils.getProperty( parent, names[loop] );
-
-					if ( parent == null ) {
-						return;
-					}
+				if ( !propertyPath.setValue( toSave, value ) ) {
+					return;
 				}
-
-				ClassUtils.setProperty( parent, names[length - 1], value );
 			}
 		}
 
@@ -271,6 +257,53 @@ public class SimpleBindingProcessor
 	// Private methods
 	//
 
+	private void rebind( Object toRebind, Set<Object[]> bindings ) {
+
+		if ( bindings == null ) {
+			return;
+		}
+
+		for ( Object[] binding : bindings ) {
+			Property property = (Property) binding[0];
+			PropertyPath propertyPath = (PropertyPath) binding[1];
+			Class<?> toInspectPropertyType = (Class<?>) binding[2];
+
+			setPropertyValue( property, propertyPath.getValue( toRebind ), toInspectPropertyType );
+		}
+	}
+
+	private void setPropertyValue( Property property, Object value, Class<?> toInspectPropertyType ) {
+
+		// We *always* go via a Converter, as this is the simplest way to handle cases like:
+		//
+		// String: null -> "" -> null
+
+		Object valueToSet = value;
+		Class<?> componentPropertyType = property.getType();
+		@SuppressWarnings( "unchecked" )
+		Converter<Object, Object> setValueConverter = (Converter<Object, Object>) getConverter( toInspectPropertyType, componentPropertyType );
+
+		if ( setValueConverter != null ) {
+			valueToSet = setValueConverter.convert( valueToSet, componentPropertyType );
+		}
+
+		// Temporarily remove readOnly (if set)
+
+		boolean readOnly = property.isReadOnly();
+		if ( readOnly ) {
+			property.setReadOnly( false );
+		}
+
+		// Note: we tried doing this via property.setPropertyDataSource, but that seems
+		// incorrect because the component uses getValue/setValue internally and
+		// it's not expecting getValue to return a type of toInspectPropertyType
+
+		property.setValue( valueToSet );
+		if ( readOnly ) {
+			property.setReadOnly( true );
+		}
+	}
+
 	/* package private */State getState( VaadinMetawidget metawidget ) {
 
 		State state = (State) metawidget.getClientProperty( SimpleBindingProcessor.class );
@@ -341,6 +374,8 @@ public class SimpleBindingProcessor
 
 		/* package private */Set<Object[]>			bindings;
 
+		/* package private */Set<Object[]>			readOnlyBindings;
+
 		/* package private */Set<VaadinMetawidget>	nestedMetawidgets;
 	}
 }
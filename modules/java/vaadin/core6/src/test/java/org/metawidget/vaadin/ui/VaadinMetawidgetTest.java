@@ -30,6 +30,7 @@ import org.metawidget.inspector.propertytype.PropertyTypeInspectorTest.Recursive
 import org.metawidget.util.CollectionUtils;
 import org.metawidget.vaadin.ui.widgetbuilder.VaadinWidgetBuilder;
 import org.metawidget.vaadin.ui.widgetprocessor.binding.reflection.ReflectionBindingProcessor;
+import org.metawidget.vaadin.ui.widgetprocessor.binding.simple.SimpleBindingProcessor;
 import org.metawidget.widgetprocessor.iface.WidgetProcessor;
 
 import com.vaadin.ui.AbstractComponent;
@@ -182,6 +183,47 @@ public class VaadinMetawidgetTest
 		assertEquals( "FooActionBindingProcessor fired", ( (TextField) nestedLayout2.getComponent( 2 ) ).getValue() );
 	}
 
+	public void testRecycleWidgets() {
+
+		Foo foo1 = new Foo();
+		foo1.setName( "Foo1" );
+
+		VaadinMetawidget metawidget = new VaadinMetawidget();
+		metawidget.setRecycleWidgets( true );
+		metawidget.setToInspect( foo1 );
+
+		TextField name = metawidget.getComponent( "name" );
+		VaadinMetawidget nestedMetawidget = metawidget.getComponent( "foo" );
+		assertEquals( "Foo1", name.getValue() );
+		assertTrue( nestedMetawidget.isRecycleWidgets() );
+
+		// Same type and structure: components should be recycled and rebound
+
+		Foo foo2 = new Foo();
+		foo2.setName( "Foo2" );
+		metawidget.setToInspect( foo2 );
+
+		assertTrue( name == metawidget.getComponent( "name" ) );
+		assertTrue( nestedMetawidget == metawidget.getComponent( "foo" ) );
+		assertTrue( foo2 == nestedMetawidget.getToInspect() );
+		assertEquals( "Foo2", name.getValue() );
+
+		name.setValue( "Foo3" );
+		metawidget.getWidgetProcessor( SimpleBindingProcessor.class ).save( metawidget );
+		assertEquals( "Foo1", foo1.getName() );
+		assertEquals( "Foo3", foo2.getName() );
+
+		// Different type: components should be rebuilt
+
+		metawidget.setToInspect( new FooRequiredBoolean() );
+		assertEquals( null, metawidget.getComponent( "name" ) );
+		assertTrue( metawidget.getComponent( "booleanObject" ) instanceof CheckBox );
+
+		metawidget.setToInspect( foo1 );
+		assertTrue( name != metawidget.getComponent( "name" ) );
+		assertEquals( "Foo1", ( (TextField) metawidget.getComponent( "name" ) ).getValue() );
+	}
+
 	public void testFacet() {
 
 		VaadinMetawidget metawidget = new VaadinMetawidget();
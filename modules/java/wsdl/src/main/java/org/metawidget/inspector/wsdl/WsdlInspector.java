@@ -73,4 +73,15 @@ public class WsdlInspector
 
 		return schema;
 	}
+
+	/**
+	 * Lazy parsing is not supported, because <code>getDocumentElement</code> returns a nested
+	 * element.
+	 */
+
+	@Override
+	protected void indexDocuments( ResourceResolver resolver, InputStream... files ) {
+
+		throw InspectorException.newException( "WsdlInspector does not support parseLazily" );
+	}
 }
@@ -13,14 +13,23 @@ package org.metawidget.inspector.xsd;
 
 import static org.metawidget.inspector.InspectionResultConstants.*;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.metawidget.config.iface.ResourceResolver;
 import org.metawidget.inspector.iface.InspectorException;
 import org.metawidget.inspector.impl.BaseXmlInspector;
+import org.metawidget.util.ArrayUtils;
 import org.metawidget.util.CollectionUtils;
 import org.metawidget.util.XmlUtils;
+import org.metawidget.util.simple.StringUtils;
+import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
 
 /**
  * Inspector to look for metadata in XML Schema (XSD) files.
@@ -66,6 +75,33 @@ public class XmlSchemaInspector
 
 	private static final String	VALUE			= "value";
 
+	/**
+	 * Maximum number of nested paths compiled on demand, in addition to the top-level types compiled
+	 * up front.
+	 */
+
+	private static final int			MAXIMUM_CACHED_PATHS	= 1024;
+
+	/**
+	 * Marker for paths that compiled to no inspection result. Never cached, so that unknown paths
+	 * cannot fill the index.
+	 */
+
+	private static final CompiledEntity	NO_RESULT				= new CompiledEntity( null );
+
+	//
+	// Private members
+	//
+
+	/**
+	 * Index of path (type followed by names, separated by forward slashes) to flattened inspection
+	 * results. Null unless <code>XmlSchemaInspectorConfig.setCompile</code>.
+	 */
+
+	private ConcurrentMap<String, CompiledEntity>	mCompiled;
+
+	private int										mMaximumCompiled;
+
 	//
 	// Constructor
 	//
@@ -73,12 +109,84 @@ public class XmlSchemaInspector
 	public XmlSchemaInspector( XmlSchemaInspectorConfig config ) {
 
 		super( config );
+
+		if ( config.isCompile() ) {
+
+			if ( getRestrictAgainstObject() != null ) {
+				throw InspectorException.newException( "Cannot compile when using restrictAgainstObject" );
+			}
+
+			// Flatten every named top-level type up front
+
+			mCompiled = new ConcurrentHashMap<String, CompiledEntity>();
+
+			for ( String topLevelType : getTopLevelTypes() ) {
+
+				try {
+					CompiledEntity compiled = compile( topLevelType );
+
+					if ( compiled != NO_RESULT ) {
+						mCompiled.put( topLevelType, compiled );
+					}
+				} catch ( InspectorException e ) {
+
+					// Types the Inspector cannot handle are left to fail if, and only if, they are
+					// actually inspected (same as if not compiled)
+
+					mLog.debug( "Unable to compile {0}: {1}", topLevelType, e.getMessage() );
+				}
+			}
+
+			mMaximumCompiled = mCompiled.size() + MAXIMUM_CACHED_PATHS;
+		}
+	}
+
+	//
+	// Public methods
+	//
+
+	/**
+	 * Overridden to look up compiled results, if <code>XmlSchemaInspectorConfig.setCompile</code>.
+	 */
+
+	@Override
+	public Element inspectAsDom( Object toInspect, String type, String... names ) {
+
+		if ( mCompiled == null || type == null ) {
+			return super.inspectAsDom( toInspect, type, names );
+		}
+
+		// Without restrictAgainstObject, results depend only on the type and names
+
+		String path = type + ArrayUtils.toString( names, StringUtils.SEPARATOR_FORWARD_SLASH, true, false );
+		CompiledEntity compiled = mCompiled.get( path );
+
+		if ( compiled == null ) {
+			compiled = compile( type, names );
+
+			if ( compiled != NO_RESULT && mCompiled.size() < mMaximumCompiled ) {
+				mCompiled.putIfAbsent( path, compiled );
+			}
+		}
+
+		return compiled.toInspectionResult();
 	}
 
 	//
 	// Protected methods
 	//
 
+	/**
+	 * Lazy parsing is not supported, because <code>type=</code> and <code>base=</code> references
+	 * are resolved directly against the DOM.
+	 */
+
+	@Override
+	protected void indexDocuments( ResourceResolver resolver, InputStream... files ) {
+
+		throw InspectorException.newException( "XmlSchemaInspector does not support parseLazily" );
+	}
+
 	/**
 	 * Overridden to search by <code>name=</code>, not <code>type=</code>.
 	 */
@@ -369,6 +477,17 @@ public class XmlSchemaInspector
 	// Private methods
 	//
 
+	private CompiledEntity compile( String type, String... names ) {
+
+		Element inspectionResult = super.inspectAsDom( null, type, names );
+
+		if ( inspectionResult == null ) {
+			return NO_RESULT;
+		}
+
+		return new CompiledEntity( XmlUtils.getFirstChildElement( inspectionResult ) );
+	}
+
 	private void inspectElement( Element element, Map<String, String> attributes ) {
 
 		// Type
@@ -487,4 +606,119 @@ public class XmlSchemaInspector
 			attributes.put( LOOKUP, CollectionUtils.toString( lookup ) );
 		}
 	}
+
+	//
+	// Inner class
+	//
+
+	/**
+	 * Immutable, flattened form of an inspection result's entity. Holds only Strings, so can be
+	 * shared between threads without locking (unlike a DOM).
+	 */
+
+	private static class CompiledEntity {
+
+		//
+		// Private members
+		//
+
+		/**
+		 * Entity attributes, as alternating names and values. Null if no result.
+		 */
+
+		private final String[]		mAttributes;
+
+		private final String[]		mChildNames;
+
+		/**
+		 * Child attributes, as alternating names and values.
+		 */
+
+		private final String[][]	mChildAttributes;
+
+		//
+		// Constructor
+		//
+
+		public CompiledEntity( Element entity ) {
+
+			if ( entity == null ) {
+				mAttributes = null;
+				mChildNames = null;
+				mChildAttributes = null;
+				return;
+			}
+
+			mAttributes = flatten( entity );
+
+			List<String> childNames = CollectionUtils.newArrayList();
+			List<String[]> childAttributes = CollectionUtils.newArrayList();
+
+			for ( Element child = XmlUtils.getFirstChildElement( entity ); child != null; child = XmlUtils.getNextSiblingElement( child ) ) {
+				childNames.add( XmlUtils.getLocalName( child ) );
+				childAttributes.add( flatten( child ) );
+			}
+
+			mChildNames = childNames.toArray( new String[childNames.size()] );
+			mChildAttributes = childAttributes.toArray( new String[childAttributes.size()][] );
+		}
+
+		//
+		// Public methods
+		//
+
+		/**
+		 * @return a new DOM each time, as callers are free to modify it. Null if no result
+		 */
+
+		public Element toInspectionResult() {
+
+			if ( mAttributes == null ) {
+				return null;
+			}
+
+			Document document = XmlUtils.newDocument();
+			Element root = document.createElementNS( NAMESPACE, ROOT );
+			root.setAttribute( VERSION, "1.0" );
+			document.appendChild( root );
+
+			Element entity = document.createElementNS( NAMESPACE, ENTITY );
+			unflatten( mAttributes, entity );
+			root.appendChild( entity );
+
+			for ( int loop = 0, length = mChildNames.length; loop < length; loop++ ) {
+				Element child = document.createElementNS( NAMESPACE, mChildNames[loop] );
+				unflatten( mChildAttributes[loop], child );
+				entity.appendChild( child );
+			}
+
+			return root;
+		}
+
+		//
+		// Private methods
+		//
+
+		private static String[] flatten( Element element ) {
+
+			NamedNodeMap attributes = element.getAttributes();
+			int length = attributes.getLength();
+			String[] flattened = new String[length * 2];
+
+			for ( int loop = 0; loop < length; loop++ ) {
+				Node attribute = attributes.item( loop );
+				flattened[loop * 2] = attribute.getNodeName();
+				flattened[loop * 2 + 1] = attribute.getNodeValue();
+			}
+
+			return flattened;
+		}
+
+		private static void unflatten( String[] flattened, Element element ) {
+
+			for ( int loop = 0, length = flattened.length; loop < length; loop += 2 ) {
+				element.setAttribute( flattened[loop], flattened[loop + 1] );
+			}
+		}
+	}
 }
@@ -14,6 +14,7 @@ package org.metawidget.inspector.xsd;
 import java.io.InputStream;
 
 import org.metawidget.inspector.impl.BaseXmlInspectorConfig;
+import org.metawidget.util.simple.ObjectUtils;
 
 /**
  * Configures an XmlSchemaInspector prior to use. Once instantiated, Inspectors are immutable.
@@ -24,6 +25,12 @@ import org.metawidget.inspector.impl.BaseXmlInspectorConfig;
 public class XmlSchemaInspectorConfig
 	extends BaseXmlInspectorConfig {
 
+	//
+	// Private members
+	//
+
+	private boolean	mCompile;
+
 	//
 	// Public methods
 	//
@@ -37,4 +44,65 @@ public class XmlSchemaInspectorConfig
 
 		return (XmlSchemaInspectorConfig) super.setInputStream( stream );
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Sets whether the Inspector compiles the schema into an immutable index at startup.
+	 * <p>
+	 * By default, every inspection resolves complex types, element refs, extensions and
+	 * restrictions by traversing the schema DOM, serialized by a lock on that DOM. If compiled,
+	 * every named top-level type is instead flattened once (with inheritance, refs and facets
+	 * already resolved) and subsequent inspections of it are a single, lock-free lookup. Nested
+	 * paths are flattened the first time they are requested. This trades slower startup and more
+	 * memory for faster inspection of large schemas.
+	 * <p>
+	 * Cannot be combined with <code>setRestrictAgainstObject</code>, because then inspection
+	 * results depend on the Object being inspected.
+	 *
+	 * @return this, as part of a fluent interface
+	 */
+
+	public XmlSchemaInspectorConfig setCompile( boolean compile ) {
+
+		mCompile = compile;
+
+		// Fluent interface
+
+		return this;
+	}
+
+	@Override
+	public boolean equals( Object that ) {
+
+		if ( this == that ) {
+			return true;
+		}
+
+		if ( !ObjectUtils.nullSafeClassEquals( this, that ) ) {
+			return false;
+		}
+
+		if ( mCompile != ( (XmlSchemaInspectorConfig) that ).mCompile ) {
+			return false;
+		}
+
+		return super.equals( that );
+	}
+
+	@Override
+	public int hashCode() {
+
+		int hashCode = super.hashCode();
+		hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode( mCompile );
+
+		return hashCode;
+	}
+
+	//
+	// Protected methods
+	//
+
+	protected boolean isCompile() {
+
+		return mCompile;
+	}
+}
@@ -26,6 +26,7 @@ import org.metawidget.config.impl.SimpleResourceResolver;
 import org.metawidget.inspectionresultprocessor.xsd.XmlSchemaToJavaTypeMappingProcessor;
 import org.metawidget.inspector.iface.Inspector;
 import org.metawidget.inspector.iface.InspectorException;
+import org.metawidget.inspector.impl.propertystyle.javabean.JavaBeanPropertyStyle;
 import org.metawidget.swing.SwingMetawidget;
 import org.metawidget.util.MetawidgetTestUtils;
 import org.metawidget.util.XmlUtils;
@@ -49,6 +50,19 @@ public class XmlSchemaInspectorTest
 		}
 	}
 
+	public void testParseLazily() {
+
+		XmlSchemaInspectorConfig config = new XmlSchemaInspectorConfig().setInputStream( new SimpleResourceResolver().openResource( "org/metawidget/inspector/xsd/shiporder.xsd" ) );
+		config.setParseLazily( true );
+
+		try {
+			new XmlSchemaInspector( config );
+			fail();
+		} catch ( InspectorException e ) {
+			assertEquals( "XmlSchemaInspector does not support parseLazily", e.getMessage() );
+		}
+	}
+
 	public void testProperties() {
 
 		Inspector inspector = new XmlSchemaInspector( new XmlSchemaInspectorConfig().setInputStream( new SimpleResourceResolver().openResource( "org/metawidget/inspector/xsd/shiporder.xsd" ) ) );
@@ -774,6 +788,79 @@ public class XmlSchemaInspectorTest
 		assertTrue( !entity.hasChildNodes() );
 	}
 
+	public void testCompile()
+		throws Exception {
+
+		String[] files = { "shiporder.xsd", "shiporder-divided.xsd", "shiporder-named.xsd", "quirks.xsd", "personinfo.xsd", "acmt-007.xsd", "acmt-010.xsd", "trading-partner.xsd", "ddms.xsd", "bank-account.xsd" };
+
+		for ( String file : files ) {
+
+			String resource = "org/metawidget/inspector/xsd/" + file;
+			XmlSchemaInspector inspector = new XmlSchemaInspector( new XmlSchemaInspectorConfig().setInputStream( new SimpleResourceResolver().openResource( resource ) ) );
+			XmlSchemaInspector compiled = new XmlSchemaInspector( new XmlSchemaInspectorConfig().setInputStream( new SimpleResourceResolver().openResource( resource ) ).setCompile( true ) );
+
+			// Every top-level type should give identical results
+
+			Element schema = XmlUtils.parse( new SimpleResourceResolver().openResource( resource ) ).getDocumentElement();
+
+			for ( Element topLevel = XmlUtils.getChildWithAttribute( schema, NAME ); topLevel != null; topLevel = XmlUtils.getSiblingWithAttribute( topLevel, NAME ) ) {
+
+				String type = topLevel.getAttribute( NAME );
+
+				String expected;
+
+				try {
+					expected = inspector.inspect( null, type );
+				} catch ( InspectorException e ) {
+					continue;
+				}
+
+				assertEquals( expected, compiled.inspect( null, type ) );
+
+				// Twice, to test the index
+
+				assertEquals( expected, compiled.inspect( null, type ) );
+			}
+		}
+
+		// Nested paths
+
+		XmlSchemaInspector inspector = new XmlSchemaInspector( new XmlSchemaInspectorConfig().setInputStream( new SimpleResourceResolver().openResource( "org/metawidget/inspector/xsd/shiporder.xsd" ) ) );
+		XmlSchemaInspector compiled = new XmlSchemaInspector( new XmlSchemaInspectorConfig().setInputStream( new SimpleResourceResolver().openResource( "org/metawidget/inspector/xsd/shiporder.xsd" ) ).setCompile( true ) );
+		assertEquals( inspector.inspect( null, "shiporder", "shipto" ), compiled.inspect( null, "shiporder", "shipto" ) );
+		assertEquals( inspector.inspect( null, "shiporder", "shipto" ), compiled.inspect( null, "shiporder", "shipto" ) );
+		assertTrue( compiled.inspect( null, "shiporder", "shipto" ).contains( "name=\"country\"" ) );
+		assertEquals( null, compiled.inspect( null, "shiporder", "bad" ) );
+		assertEquals( null, compiled.inspect( null, "bad" ) );
+		assertEquals( null, compiled.inspect( null, null ) );
+
+		// Unknown paths should not fill the index
+
+		for ( int loop = 0; loop < 2048; loop++ ) {
+			assertEquals( null, compiled.inspect( null, "shiporder", "bad" + loop ) );
+		}
+
+		assertEquals( inspector.inspect( null, "shiporder", "item" ), compiled.inspect( null, "shiporder", "item" ) );
+
+		// Results are not shared
+
+		Element entity = XmlUtils.getFirstChildElement( compiled.inspectAsDom( null, "shiporder" ) );
+		entity.setAttribute( "modified", TRUE );
+		assertFalse( compiled.inspect( null, "shiporder" ).contains( "modified" ) );
+
+		// Cannot compile against Objects
+
+		XmlSchemaInspectorConfig config = new XmlSchemaInspectorConfig().setInputStream( new SimpleResourceResolver().openResource( "org/metawidget/inspector/xsd/shiporder.xsd" ) ).setCompile( true );
+		config.setRestrictAgainstObject( new JavaBeanPropertyStyle() );
+
+		try {
+			new XmlSchemaInspector( config );
+			fail();
+		} catch ( InspectorException e ) {
+			assertEquals( "Cannot compile when using restrictAgainstObject", e.getMessage() );
+		}
+	}
+
 	public void testConfig() {
 
 		MetawidgetTestUtils.testEqualsAndHashcode( XmlSchemaInspectorConfig.class, new XmlSchemaInspectorConfig() {